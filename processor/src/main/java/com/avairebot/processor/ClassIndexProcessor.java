@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates the class indexes used by AvaIre at startup to find the commands, jobs and
+ * intents that should be registered, and the JDA events that should be tracked
+ * by the metrics, without having to scan the classpath with Reflections.
+ * <p>
+ * The indexes are plain text resources with one binary class name per line.
+ */
+@SupportedAnnotationTypes("*")
+public class ClassIndexProcessor extends AbstractProcessor {
+
+    public static final String REFLECTIONAL_INDEX = "META-INF/avaire/reflectional.index";
+    public static final String JDA_EVENTS_INDEX = "META-INF/avaire/jda-events.index";
+
+    private static final String REFLECTIONAL_CLASS = "com.avairebot.contracts.reflection.Reflectional";
+    private static final String LISTENER_ADAPTER_CLASS = "net.dv8tion.jda.core.hooks.ListenerAdapter";
+    private static final String EVENT_CLASS = "net.dv8tion.jda.core.events.Event";
+
+    private final Set<String> reflectionals = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Elements elements = processingEnv.getElementUtils();
+
+        TypeElement reflectional = elements.getTypeElement(REFLECTIONAL_CLASS);
+        if (reflectional == null) {
+            return false;
+        }
+
+        if (!roundEnv.processingOver()) {
+            TypeMirror reflectionalType = erasure(reflectional.asType());
+            for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+                collectReflectionals(type, reflectionalType);
+            }
+            return false;
+        }
+
+        write(REFLECTIONAL_INDEX, reflectionals);
+        write(JDA_EVENTS_INDEX, collectEvents(elements));
+
+        return false;
+    }
+
+    private void collectReflectionals(TypeElement type, TypeMirror reflectionalType) {
+        if (type.getKind() == ElementKind.CLASS && processingEnv.getTypeUtils().isAssignable(erasure(type.asType()), reflectionalType)) {
+            reflectionals.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+        }
+
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            collectReflectionals(nested, reflectionalType);
+        }
+    }
+
+    /**
+     * Collects the JDA events from the parameter types of the listener adapter
+     * methods, JDA declares a listener method for every event it fires,
+     * which lets us find the events without scanning the JDA jar.
+     *
+     * @param elements The element utilities for the current processing environment.
+     * @return A set of the binary names for the JDA events.
+     */
+    private Set<String> collectEvents(Elements elements) {
+        Set<String> events = new TreeSet<>();
+
+        TypeElement listenerAdapter = elements.getTypeElement(LISTENER_ADAPTER_CLASS);
+        TypeElement event = elements.getTypeElement(EVENT_CLASS);
+        if (listenerAdapter == null || event == null) {
+            return events;
+        }
+
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror eventType = erasure(event.asType());
+
+        for (ExecutableElement method : ElementFilter.methodsIn(listenerAdapter.getEnclosedElements())) {
+            if (method.getParameters().size() != 1) {
+                continue;
+            }
+
+            TypeMirror parameter = method.getParameters().get(0).asType();
+            if (parameter.getKind() != TypeKind.DECLARED || !types.isAssignable(erasure(parameter), eventType)) {
+                continue;
+            }
+
+            TypeElement parameterElement = (TypeElement) types.asElement(parameter);
+            if (parameterElement.getKind() != ElementKind.CLASS || parameterElement.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+
+            events.add(elements.getBinaryName(parameterElement).toString());
+        }
+
+        return events;
+    }
+
+    private TypeMirror erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type);
+    }
+
+    private void write(String resource, Set<String> classNames) {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", resource);
+            try (Writer writer = file.openWriter()) {
+                for (String className : classNames) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "Failed to write the " + resource + " class index: " + e.getMessage()
+            );
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.benchmarks;
+
+import com.avairebot.AvaIre;
+import com.avairebot.commands.Category;
+import com.avairebot.commands.CommandMessage;
+import com.avairebot.contracts.commands.Command;
+
+import java.util.List;
+
+/**
+ * A command that does nothing, used to fill up the command
+ * handler and middleware stack for the benchmarks.
+ */
+public class BenchmarkCommand extends Command {
+
+    private final String name;
+    private final Category category;
+    private final List<String> triggers;
+    private final List<String> middleware;
+
+    public BenchmarkCommand(String name, Category category, List<String> triggers, List<String> middleware) {
+        super((AvaIre) null);
+
+        this.name = name;
+        this.category = category;
+        this.triggers = triggers;
+        this.middleware = middleware;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Benchmark command " + name;
+    }
+
+    @Override
+    public List<String> getTriggers() {
+        return triggers;
+    }
+
+    @Override
+    public List<String> getMiddleware() {
+        return middleware;
+    }
+
+    @Override
+    public Category getCategory() {
+        return category;
+    }
+
+    @Override
+    public boolean onCommand(CommandMessage context, String[] args) {
+        return true;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.benchmarks;
+
+import com.avairebot.AvaIre;
+import com.avairebot.commands.Category;
+import com.avairebot.commands.CategoryHandler;
+import com.avairebot.commands.CommandHandler;
+import com.avairebot.contracts.middleware.Middleware;
+import com.avairebot.middleware.MiddlewareHandler;
+import com.avairebot.middleware.MiddlewareStack;
+import net.dv8tion.jda.core.entities.Message;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Registers a synthetic set of categories, middlewares and commands with the
+ * command handler, roughly matching the amount of commands and triggers
+ * the bot ships with, the fixtures are only registered once per JVM.
+ */
+public class CommandFixtures {
+
+    public static final int COMMANDS_PER_CATEGORY = 30;
+
+    public static final String[][] CATEGORIES = new String[][]{
+        {"administration", "!"},
+        {"fun", "!"},
+        {"interaction", "!"},
+        {"music", "!"},
+        {"utility", "!"},
+        {"system", ";"}
+    };
+
+    public static final String[] MIDDLEWARE = new String[]{
+        "benchmark-require", "benchmark-throttle", "benchmark-music"
+    };
+
+    private static boolean registered = false;
+
+    public static synchronized void register() {
+        if (registered) {
+            return;
+        }
+
+        for (String name : MIDDLEWARE) {
+            MiddlewareHandler.register(name, new NoopMiddleware());
+        }
+
+        for (String[] entry : CATEGORIES) {
+            CategoryHandler.addCategory(null, entry[0], entry[1]);
+            Category category = CategoryHandler.fromLazyName(entry[0]);
+
+            for (int i = 0; i < COMMANDS_PER_CATEGORY; i++) {
+                String trigger = entry[0].substring(0, 3) + i;
+
+                List<String> middleware = new ArrayList<>();
+                for (int j = 0; j <= i % MIDDLEWARE.length; j++) {
+                    middleware.add(MIDDLEWARE[j] + ":" + i + "," + j);
+                }
+
+                CommandHandler.register(new BenchmarkCommand(
+                    entry[0] + "-" + i, category,
+                    Arrays.asList(trigger, trigger + "alias"),
+                    Collections.unmodifiableList(middleware)
+                ));
+            }
+        }
+
+        registered = true;
+    }
+
+    private static class NoopMiddleware extends Middleware {
+
+        NoopMiddleware() {
+            super((AvaIre) null);
+        }
+
+        @Override
+        public boolean handle(@Nonnull Message message, @Nonnull MiddlewareStack stack, String... args) {
+            return stack.next();
+        }
+    }
+}
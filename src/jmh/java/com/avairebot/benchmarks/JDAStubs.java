@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.benchmarks;
+
+import net.dv8tion.jda.core.Region;
+import net.dv8tion.jda.core.entities.ChannelType;
+import net.dv8tion.jda.core.entities.Guild;
+import net.dv8tion.jda.core.entities.Message;
+import net.dv8tion.jda.core.entities.User;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Creates stub JDA entities for the benchmarks, the stubs are dynamic proxies that
+ * answers the methods used by the code paths being benchmarked with the given
+ * values, any other method returns the default value for its return type.
+ */
+public class JDAStubs {
+
+    private static final Map<Class<?>, Object> defaults = new HashMap<>();
+
+    static {
+        defaults.put(boolean.class, false);
+        defaults.put(byte.class, (byte) 0);
+        defaults.put(short.class, (short) 0);
+        defaults.put(char.class, (char) 0);
+        defaults.put(int.class, 0);
+        defaults.put(long.class, 0L);
+        defaults.put(float.class, 0F);
+        defaults.put(double.class, 0D);
+    }
+
+    public static Guild guild(long id, String name) {
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getIdLong", id);
+        answers.put("getId", Long.toString(id));
+        answers.put("getName", name);
+        answers.put("getRegion", Region.US_EAST);
+
+        return stub(Guild.class, answers);
+    }
+
+    public static User user(long id, String name) {
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getIdLong", id);
+        answers.put("getId", Long.toString(id));
+        answers.put("getName", name);
+        answers.put("getDiscriminator", "0001");
+        answers.put("getAsMention", "<@" + id + ">");
+        answers.put("isBot", false);
+
+        return stub(User.class, answers);
+    }
+
+    public static Message privateMessage(User author, String content) {
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getAuthor", author);
+        answers.put("getContentRaw", content);
+        answers.put("getChannelType", ChannelType.PRIVATE);
+
+        return stub(Message.class, answers);
+    }
+
+    public static Message guildMessage(Guild guild, User author, String content) {
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getGuild", guild);
+        answers.put("getAuthor", author);
+        answers.put("getContentRaw", content);
+        answers.put("getChannelType", ChannelType.TEXT);
+
+        return stub(Message.class, answers);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type, Map<String, Object> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+
+                case "toString":
+                    return type.getSimpleName() + answers;
+            }
+
+            if (answers.containsKey(method.getName())) {
+                return answers.get(method.getName());
+            }
+
+            return defaults.get(method.getReturnType());
+        });
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.blacklist;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BlacklistBenchmark {
+
+    private static final long FIRST_ID = 88739639380172800L;
+
+    @Param({"100", "10000"})
+    public int entities;
+
+    private BlacklistIndex index;
+    private long blacklistedId;
+    private long unknownId;
+
+    @Setup
+    public void setup() {
+        List<BlacklistEntity> list = new ArrayList<>();
+        for (int i = 0; i < entities; i++) {
+            list.add(new BlacklistEntity(i % 2 == 0 ? Scope.USER : Scope.GUILD, FIRST_ID + i, "Benchmark"));
+        }
+
+        index = BlacklistIndex.of(list);
+        blacklistedId = FIRST_ID + (entities / 2);
+        unknownId = FIRST_ID - 1;
+    }
+
+    @Benchmark
+    public boolean containsBlacklistedId() {
+        return index.contains(blacklistedId);
+    }
+
+    @Benchmark
+    public boolean containsUnknownId() {
+        return index.contains(unknownId);
+    }
+
+    @Benchmark
+    public BlacklistEntity getUserEntity() {
+        return index.get(blacklistedId, Scope.USER);
+    }
+
+    @Benchmark
+    public BlacklistEntity getUnknownGuildEntity() {
+        return index.get(unknownId, Scope.GUILD);
+    }
+}
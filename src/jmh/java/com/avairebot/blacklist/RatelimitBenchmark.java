@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.blacklist;
+
+import com.avairebot.middleware.ThrottleMiddleware;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RatelimitBenchmark {
+
+    private Ratelimit ratelimit;
+    private long hits = 0;
+
+    @Setup
+    public void setup() {
+        ratelimit = new Blacklist(null).getRatelimit();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearRates() {
+        Ratelimit.cache.invalidateAll();
+    }
+
+    /**
+     * Hits the ratelimit for a new ID every few hits, staying below the hit limit
+     * so the benchmark never triggers an automatic blacklist, the rate is
+     * invalidated afterwards to keep the ratelimit cache from growing.
+     */
+    @Benchmark
+    public Object hit() {
+        long id = Thread.currentThread().getId() << 32 | (hits / (Ratelimit.hitLimit - 1));
+
+        Object result = ratelimit.hit(ThrottleMiddleware.ThrottleType.USER, id);
+
+        if (++hits % (Ratelimit.hitLimit - 1) == 0) {
+            Ratelimit.cache.invalidate(id);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.chat;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PlaceholderMessageBenchmark {
+
+    private static final String WITHOUT_PLACEHOLDERS = "The music player has been paused, use the resume command to continue playing the song.";
+    private static final String WITH_PLACEHOLDERS = ":user has been given the :role role for reaching level :level in :server, "
+        + "you need :experience more experience to reach level :next, keep it up :user!";
+
+    @Benchmark
+    public String formatWithoutPlaceholders() {
+        return new PlaceholderMessage(null, WITHOUT_PLACEHOLDERS).toString();
+    }
+
+    @Benchmark
+    public String formatWithPlaceholders() {
+        return new PlaceholderMessage(null, WITH_PLACEHOLDERS)
+            .set("user", "<@88739639380172800>")
+            .set("role", "Regular")
+            .set("level", 25)
+            .set("server", "AvaIre Central")
+            .set("experience", 1337)
+            .set("next", 26)
+            .toString();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.commands;
+
+import com.avairebot.AvaIre;
+import com.avairebot.benchmarks.CommandFixtures;
+import com.avairebot.benchmarks.JDAStubs;
+import com.avairebot.database.collection.DataRow;
+import com.avairebot.database.controllers.GuildController;
+import com.avairebot.database.transformers.GuildTransformer;
+import net.dv8tion.jda.core.entities.Guild;
+import net.dv8tion.jda.core.entities.Message;
+import net.dv8tion.jda.core.entities.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommandLookupBenchmark {
+
+    /**
+     * The guild cache is seeded by the benchmark, so the command handler
+     * never needs the application instance to load guilds.
+     */
+    private final AvaIre avaire = null;
+
+    private Message privateCommand;
+    private Message privateChatter;
+    private Message guildCommand;
+    private Message guildCustomPrefixCommand;
+    private Message guildChatter;
+
+    @Setup
+    public void setup() {
+        CommandFixtures.register();
+
+        User user = JDAStubs.user(88739639380172800L, "Senither");
+        Guild guild = createGuild(284083636368834561L, null);
+        Guild customPrefixGuild = createGuild(284083636368834562L, "{\"utility\": \"?\"}");
+
+        privateCommand = JDAStubs.privateMessage(user, "!uti12 some arguments");
+        privateChatter = JDAStubs.privateMessage(user, "Hey there, does anyone know when the next event starts?");
+        guildCommand = JDAStubs.guildMessage(guild, user, "!uti12 some arguments");
+        guildCustomPrefixCommand = JDAStubs.guildMessage(customPrefixGuild, user, "?uti12 some arguments");
+        guildChatter = JDAStubs.guildMessage(guild, user, "Hey there, does anyone know when the next event starts?");
+    }
+
+    @Benchmark
+    public CommandContainer privateMessageCommand() {
+        return CommandHandler.getCommand(avaire, privateCommand);
+    }
+
+    @Benchmark
+    public CommandContainer privateMessageWithoutCommand() {
+        return CommandHandler.getCommand(avaire, privateChatter);
+    }
+
+    @Benchmark
+    public CommandContainer guildMessageCommand() {
+        return CommandHandler.getCommand(avaire, guildCommand);
+    }
+
+    @Benchmark
+    public CommandContainer guildMessageCommandWithCustomPrefix() {
+        return CommandHandler.getCommand(avaire, guildCustomPrefixCommand);
+    }
+
+    @Benchmark
+    public CommandContainer guildMessageWithoutCommand() {
+        return CommandHandler.getCommand(avaire, guildChatter);
+    }
+
+    private Guild createGuild(long id, String prefixes) {
+        Guild guild = JDAStubs.guild(id, "Benchmark Guild");
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("id", guild.getId());
+        data.put("name", guild.getName());
+        data.put("prefixes", prefixes);
+
+        // Seeds the guild cache so the command handler never
+        // has to load the guild settings from the database.
+        GuildController.cache.put(id, new GuildTransformer(guild, new DataRow(data)));
+
+        return guild;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.database;
+
+import com.avairebot.database.collection.Collection;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CollectionBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int rows;
+
+    private Connection connection;
+    private PreparedStatement query;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE `experiences` (`user_id` BIGINT, `guild_id` BIGINT, `username` VARCHAR(32), "
+                + "`discriminator` VARCHAR(4), `avatar` VARCHAR(128), `experience` INTEGER, `active` BOOLEAN, `created_at` DATETIME)");
+        }
+
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO `experiences` VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setLong(1, 88739639380172800L + i);
+                insert.setLong(2, 284083636368834561L);
+                insert.setString(3, "Player " + i);
+                insert.setString(4, String.format("%04d", i % 10000));
+                insert.setString(5, "a_" + Integer.toHexString(i * 7919));
+                insert.setInt(6, i * 137);
+                insert.setBoolean(7, i % 3 == 0);
+                insert.setString(8, "2018-08-20 13:37:00");
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        query = connection.prepareStatement("SELECT * FROM `experiences`");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        query.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public Collection fromResultSet() throws SQLException {
+        try (ResultSet result = query.executeQuery()) {
+            return new Collection(result);
+        }
+    }
+}
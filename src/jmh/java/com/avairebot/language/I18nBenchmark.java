@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.language;
+
+import com.avairebot.benchmarks.JDAStubs;
+import com.avairebot.database.collection.DataRow;
+import com.avairebot.database.controllers.GuildController;
+import com.avairebot.database.transformers.GuildTransformer;
+import net.dv8tion.jda.core.entities.Guild;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class I18nBenchmark {
+
+    private Guild guild;
+    private String singleArgument;
+    private String multipleArguments;
+
+    @Setup
+    public void setup() {
+        I18n.start(null);
+
+        guild = JDAStubs.guild(284083636368834561L, "AvaIre Central");
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("id", guild.getId());
+        data.put("name", guild.getName());
+        data.put("local", "de_DE");
+
+        GuildController.cache.put(guild.getIdLong(), new GuildTransformer(guild, new DataRow(data)));
+
+        singleArgument = I18n.getDefaultLanguage().getConfig().getString("errors.missingArgument");
+        multipleArguments = I18n.getDefaultLanguage().getConfig().getString("administration.ModlogHistoryCommand.entry");
+    }
+
+    @Benchmark
+    public String formatSingleArgument() {
+        return I18n.format(singleArgument, "user");
+    }
+
+    @Benchmark
+    public String formatMultipleArguments() {
+        return I18n.format(multipleArguments, 42, "Senither#0001 was muted", "Spamming in #general");
+    }
+
+    @Benchmark
+    public String getStringForGuild() {
+        return I18n.getString(guild, "errors.invalidProperty", "volume", "number between 0 and 100");
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.level;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LevelManagerBenchmark {
+
+    @Param({"1", "25", "150"})
+    public long level;
+
+    private LevelManager levelManager;
+    private long experience;
+
+    @Setup
+    public void setup() {
+        levelManager = new LevelManager();
+        experience = levelManager.getExperienceFromLevel(level) + 42;
+    }
+
+    @Benchmark
+    public long experienceFromLevel() {
+        return levelManager.getExperienceFromLevel(level, LevelManager.getDefaultModifier());
+    }
+
+    @Benchmark
+    public long levelFromExperience() {
+        return levelManager.getLevelFromExperience(experience, LevelManager.getDefaultModifier());
+    }
+}
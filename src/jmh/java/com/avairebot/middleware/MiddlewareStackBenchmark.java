@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.middleware;
+
+import com.avairebot.benchmarks.CommandFixtures;
+import com.avairebot.benchmarks.JDAStubs;
+import com.avairebot.commands.CommandContainer;
+import com.avairebot.commands.CommandHandler;
+import net.dv8tion.jda.core.entities.Message;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MiddlewareStackBenchmark {
+
+    private Message message;
+    private CommandContainer singleMiddleware;
+    private CommandContainer multipleMiddlewares;
+
+    @Setup
+    public void setup() {
+        CommandFixtures.register();
+
+        message = JDAStubs.privateMessage(JDAStubs.user(88739639380172800L, "Senither"), "!uti0");
+
+        // The fixture commands gets one more middleware for every trigger index, so
+        // the first command has a single middleware, and the third one has three.
+        singleMiddleware = CommandHandler.getRawCommand("!uti0");
+        multipleMiddlewares = CommandHandler.getRawCommand("!uti2");
+    }
+
+    @Benchmark
+    public MiddlewareStack buildStackWithSingleMiddleware() {
+        return new MiddlewareStack(message, singleMiddleware, null);
+    }
+
+    @Benchmark
+    public MiddlewareStack buildStackWithMultipleMiddlewares() {
+        return new MiddlewareStack(message, multipleMiddlewares, null);
+    }
+}
@@ -30,15 +30,17 @@ import com.avairebot.audio.AudioHandler;
 import com.avairebot.audio.GuildMusicManager;
 import com.avairebot.audio.LavalinkManager;
 import com.avairebot.audio.cache.AudioState;
+import com.avairebot.audio.cache.AudioStateSnapshot;
 import com.avairebot.blacklist.Blacklist;
 import com.avairebot.cache.CacheManager;
-import com.avairebot.cache.CacheType;
+import com.avairebot.cache.InteractionImageCache;
 import com.avairebot.chat.ConsoleColor;
 import com.avairebot.commands.CategoryHandler;
 import com.avairebot.commands.CommandHandler;
 import com.avairebot.config.Configuration;
 import com.avairebot.contracts.ai.Intent;
 import com.avairebot.contracts.commands.Command;
+import com.avairebot.contracts.handlers.EventListener;
 import com.avairebot.contracts.reflection.Reflectional;
 import com.avairebot.contracts.scheduler.Job;
 import com.avairebot.database.DatabaseManager;
@@ -48,6 +50,8 @@ import com.avairebot.database.transformers.PlaylistTransformer;
 import com.avairebot.exceptions.InvalidApplicationEnvironmentException;
 import com.avairebot.exceptions.InvalidPluginException;
 import com.avairebot.exceptions.InvalidPluginsPathException;
+import com.avairebot.factories.RequestFactory;
+import com.avairebot.handlers.CommandExecutor;
 import com.avairebot.handlers.EventEmitter;
 import com.avairebot.handlers.GenericEventHandler;
 import com.avairebot.handlers.MainEventHandler;
@@ -58,12 +62,15 @@ import com.avairebot.metrics.Metrics;
 import com.avairebot.middleware.*;
 import com.avairebot.plugin.PluginLoader;
 import com.avairebot.plugin.PluginManager;
+import com.avairebot.requests.RequestOptions;
+import com.avairebot.scheduler.Debouncer;
 import com.avairebot.scheduler.ScheduleHandler;
 import com.avairebot.shard.ShardEntityCounter;
 import com.avairebot.shared.DiscordConstants;
 import com.avairebot.shared.ExitCodes;
 import com.avairebot.shared.SentryConstants;
 import com.avairebot.time.Carbon;
+import com.avairebot.utilities.ClassIndexUtil;
 import com.avairebot.utilities.JarUtil;
 import com.avairebot.vote.VoteManager;
 import com.google.gson.Gson;
@@ -123,6 +130,7 @@ public class AvaIre {
     private final VoteManager voteManager;
     private final ShardEntityCounter shardEntityCounter;
     private final EventEmitter eventEmitter;
+    private final CommandExecutor commandExecutor;
     private final BotAdmin botAdmins;
 
     private Carbon shutdownTime = null;
@@ -142,7 +150,6 @@ public class AvaIre {
         log.info("Bootstrapping AvaIre v" + AppInfo.getAppInfo().version);
         Reflections.log = null;
 
-        this.eventEmitter = new EventEmitter(this);
         this.cache = new CacheManager(this);
         this.levelManager = new LevelManager();
 
@@ -176,6 +183,12 @@ public class AvaIre {
             log.info("Enabling rest action context parsing and printing stack traces for optimal debugging");
         }
 
+        log.info("Setting up the event emitter");
+        eventEmitter = new EventEmitter(this);
+
+        log.info("Setting up the shared HTTP client");
+        RequestFactory.setup(RequestOptions.fromConfig(config));
+
         log.info("Registering and connecting to database");
         database = new DatabaseManager(this);
 
@@ -207,7 +220,8 @@ public class AvaIre {
             new AddMusicMessagesToGuildsTableMigration(),
             new AddPartnerToGuildsTableMigration(),
             new AddHierarchyToGuildsTableMigration(),
-            new AddLevelModifierToGuildsTableMigration()
+            new AddLevelModifierToGuildsTableMigration(),
+            new AddCleanupIndexesToGuildsAndExperiencesTableMigration()
         );
 
         log.info("Registering default middlewares");
@@ -235,9 +249,15 @@ public class AvaIre {
         CategoryHandler.addCategory(this, "System", ";");
 
         log.info("Registering commands...");
+        CommandHandler.setAvaire(this);
         autoloadPackage(Constants.PACKAGE_COMMAND_PATH, command -> CommandHandler.register((Command) command));
         log.info(String.format("\tRegistered %s commands successfully!", CommandHandler.getCommands().size()));
 
+        if (config.getBoolean("interaction-images.warm-up", false)) {
+            log.info("Warming up interaction images in the background");
+            InteractionImageCache.warmUp();
+        }
+
         log.info("Registering jobs...");
         autoloadPackage(Constants.PACKAGE_JOB_PATH, job -> ScheduleHandler.registerJob((Job) job));
         log.info(String.format("\tRegistered %s jobs successfully!", ScheduleHandler.entrySet().size()));
@@ -269,6 +289,12 @@ public class AvaIre {
 
                     plugin.invokePlugin(this);
 
+                    for (ListenerAdapter listener : plugin.getEventListeners()) {
+                        if (listener instanceof EventListener) {
+                            eventEmitter.register((EventListener) listener);
+                        }
+                    }
+
                     log.info("\t\t\"{}\" has been enabled with {} Command(s), {} Command Categories, {} Database Migration(s)",
                         plugin.getName(),
                         CommandHandler.getCommands().size() - commands,
@@ -339,6 +365,13 @@ public class AvaIre {
 
         log.info("Creating bot instance and connecting to Discord network");
 
+        commandExecutor = new CommandExecutor(
+            getConfig().getInt("command-executor.threads", 32),
+            getConfig().getInt("command-executor.max-per-guild", 4),
+            getConfig().getInt("command-executor.queue-size", 500),
+            getConfig().getInt("command-executor.max-queued-per-guild", 20)
+        );
+
         shardEntityCounter = new ShardEntityCounter(this);
 
         try {
@@ -450,6 +483,10 @@ public class AvaIre {
         return eventEmitter;
     }
 
+    public CommandExecutor getCommandExecutor() {
+        return commandExecutor;
+    }
+
     public BotAdmin getBotAdmins() {
         return botAdmins;
     }
@@ -462,10 +499,17 @@ public class AvaIre {
         if (shardManager != null && !shardManager.getShards().isEmpty()) {
             eventEmitter.push(new ApplicationShutdownEvent(shardManager.getShards().get(0), exitCode));
         }
+        eventEmitter.shutdown(5000);
 
         getLogger().info("Shutting down bot instance gracefully with exit code " + exitCode);
 
-        List<AudioState> audioStates = new ArrayList<>();
+        AudioStateSnapshot.Writer audioStateWriter = null;
+        try {
+            audioStateWriter = AudioStateSnapshot.createWriter(AudioStateSnapshot.SNAPSHOT_FILE);
+        } catch (IOException e) {
+            log.warn("Failed to create the audio state snapshot, music won't be resumed after the restart", e);
+        }
+
         for (GuildMusicManager manager : AudioHandler.getDefaultAudioHandler().musicManagers.values()) {
             if (manager.getLastActiveMessage() != null) {
                 manager.getLastActiveMessage().makeInfo(
@@ -476,8 +520,8 @@ public class AvaIre {
             try {
                 //noinspection SynchronizationOnLocalVariableOrMethodParameter
                 synchronized (manager) {
-                    if (manager.getGuild() != null) {
-                        audioStates.add(new AudioState(manager, manager.getGuild()));
+                    if (manager.getGuild() != null && audioStateWriter != null) {
+                        audioStateWriter.write(new AudioState(manager, manager.getGuild()));
                     }
                 }
             } catch (Exception e) {
@@ -501,9 +545,20 @@ public class AvaIre {
             }
         }
 
-        // Caches the audio state for the next three hours so we
-        // can resume the music once the bot boots back up.
-        cache.getAdapter(CacheType.FILE).put("audio.state", gson.toJson(audioStates), 60 * 60 * 3);
+        // Finishes the audio state snapshot, the snapshot is valid for the
+        // next three hours so we can resume the music once the bot boots back up.
+        if (audioStateWriter != null) {
+            try {
+                audioStateWriter.close();
+            } catch (IOException e) {
+                log.warn("Failed to save the audio state snapshot", e);
+            }
+        }
+
+        // Saves any role and channel snapshots that are still waiting for their
+        // guild to go quiet, and stops the debouncer threads, before the
+        // shards and database are shut down.
+        Debouncer.shutdownAll();
 
         try {
             Thread.sleep(2500);
@@ -517,10 +572,21 @@ public class AvaIre {
             }
         }
 
+        // Lets the commands that are already running finish before the
+        // database is closed, commands still waiting to run are dropped.
+        commandExecutor.shutdown(10000);
+
         for (ScheduledFuture<?> job : ScheduleHandler.entrySet()) {
             job.cancel(true);
         }
 
+        getIntelligenceManager().shutdown();
+        getLevelManager().getGlobalLeaderboard().shutdown();
+
+        // Writes every async query still waiting in the write-behind
+        // queue before the database connection is closed.
+        getDatabase().getWriteBehindQueue().shutdown(10000);
+
         try {
             getDatabase().getConnection().close();
         } catch (SQLException ex) {
@@ -613,7 +679,16 @@ public class AvaIre {
     }
 
     private void autoloadPackage(String path, Consumer<Reflectional> callback) {
-        Set<Class<? extends Reflectional>> types = new Reflections(path).getSubTypesOf(Reflectional.class);
+        // Uses the class index generated at compile time if it exists, and falls
+        // back to scanning the package using reflections if it doesn't, which
+        // can be the case when running the bot without the annotation processor.
+        Set<Class<? extends Reflectional>> types = ClassIndexUtil.getSubTypesOf(
+            ClassIndexUtil.REFLECTIONAL_INDEX, path, Reflectional.class
+        );
+
+        if (types == null) {
+            types = new Reflections(path).getSubTypesOf(Reflectional.class);
+        }
 
         Class[] arguments = new Class[1];
         arguments[0] = AvaIre.class;
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.ai;
+
+import ai.api.AIConfiguration;
+import ai.api.AIDataService;
+import ai.api.AIServiceException;
+import ai.api.model.AIRequest;
+import ai.api.model.AIResponse;
+import com.avairebot.contracts.ai.IntelligenceService;
+
+public class DialogFlowService implements IntelligenceService {
+
+    private final AIDataService service;
+
+    /**
+     * Creates a new DialogFlow service using the given client token.
+     *
+     * @param clientToken The DialogFlow client access token.
+     */
+    public DialogFlowService(String clientToken) {
+        this.service = new AIDataService(new AIConfiguration(clientToken));
+    }
+
+    @Override
+    public AIResponse request(String query) throws AIServiceException {
+        return service.request(new AIRequest(query));
+    }
+}
@@ -21,30 +21,48 @@
 
 package com.avairebot.ai;
 
-import ai.api.AIConfiguration;
-import ai.api.AIDataService;
-import ai.api.AIServiceException;
-import ai.api.model.AIRequest;
 import ai.api.model.AIResponse;
 import com.avairebot.AvaIre;
 import com.avairebot.chat.ConsoleColor;
 import com.avairebot.commands.CommandMessage;
 import com.avairebot.contracts.ai.Intent;
+import com.avairebot.contracts.ai.IntelligenceService;
 import com.avairebot.factories.MessageFactory;
 import com.avairebot.handlers.DatabaseEventHolder;
 import com.avairebot.metrics.Metrics;
+import com.avairebot.scheduler.ScheduleHandler;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.prometheus.client.Histogram;
 import net.dv8tion.jda.core.entities.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.*;
 
 public class IntelligenceManager {
 
+    /**
+     * The AI responses cache, the responses are stored using the normalized
+     * version of the query that was sent to the AI, so common messages
+     * like "hi" only have to be sent to the AI once, no matter
+     * what server or channel they're sent in.
+     */
+    public static final Cache<String, AIResponse> cache = CacheBuilder.newBuilder()
+        .recordStats()
+        .maximumSize(5000)
+        .expireAfterWrite(30, TimeUnit.MINUTES)
+        .build();
+
+    private static final Logger log = LoggerFactory.getLogger(IntelligenceManager.class);
+
     private final static String actionOutput = ConsoleColor.format("%cyanExecuting Intelligence Action \"%reset%action%%cyan\" for:"
         + "\n\t\t%cyanUser:\t %author%"
         + "\n\t\t%cyanServer:\t %server%"
@@ -56,28 +74,111 @@ public class IntelligenceManager {
         "%reset%s %cyan[%reset%s%cyan]"
     );
 
-    private final static Map<IntentAction, Intent> intents = new HashMap<>();
+    private final Map<IntentAction, Intent> intents = new HashMap<>();
+    private final Map<String, Intent> exactIntents = new HashMap<>();
+    private final Map<String, Intent> wildcardIntents = new HashMap<>();
 
-    private final ExecutorService executor;
+    private final Map<String, CompletableFuture<AIResponse>> inflight = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> pending = new HashMap<>();
 
-    private boolean enabled = false;
-    private AIDataService service;
+    private final IntelligenceService service;
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService requestExecutor;
+    private final int maxPerGuild;
+    private final long timeout;
 
     public IntelligenceManager(AvaIre avaire) {
-        String dialogFlowClientToken = avaire.getConfig().getString("apiKeys.dialogflow", "invalid");
-        if (dialogFlowClientToken.length() != 32) {
+        this(
+            createService(avaire.getConfig().getString("apiKeys.dialogflow", "invalid")),
+            avaire.getConfig().getInt("intelligence.threads", 4),
+            avaire.getConfig().getInt("intelligence.max-per-guild", 2),
+            avaire.getConfig().getInt("intelligence.queue-size", 100),
+            avaire.getConfig().getLong("intelligence.timeout", 5000)
+        );
+    }
+
+    /**
+     * Creates a new intelligence manager using the given AI service.
+     *
+     * @param service     The AI service that queries should be sent to, or <code>NULL</code>
+     *                    to create a manager with the AI disabled.
+     * @param threads     The amount of threads used to send queries to the AI service.
+     * @param maxPerGuild The maximum amount of unanswered AI requests a single guild can have at the same time.
+     * @param queueSize   The maximum amount of queries waiting to be sent to the AI service.
+     * @param timeout     The amount of milliseconds to wait for the AI service to respond before giving up.
+     */
+    public IntelligenceManager(@Nullable IntelligenceService service, int threads, int maxPerGuild, int queueSize, long timeout) {
+        this.service = service;
+        this.maxPerGuild = Math.max(1, maxPerGuild);
+        this.timeout = Math.max(1, timeout);
+
+        if (service == null) {
             executor = null;
+            requestExecutor = null;
             return;
         }
 
+        executor = new ThreadPoolExecutor(
+            Math.max(1, threads), Math.max(1, threads), 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+            new ThreadFactoryBuilder()
+                .setNameFormat("avaire-intelligence-thread-%d")
+                .build()
+        );
+
+        requestExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("avaire-intelligence-request-%d")
+            .setDaemon(true)
+            .build()
+        );
+    }
+
+    @Nullable
+    private static IntelligenceService createService(String dialogFlowClientToken) {
+        if (dialogFlowClientToken.length() != 32) {
+            return null;
+        }
+        return new DialogFlowService(dialogFlowClientToken);
+    }
+
+    /**
+     * Normalizes the given query so messages that only differ in casing,
+     * whitespace, or trailing punctuation share the same cache entry.
+     *
+     * @param query The query that should be normalized.
+     * @return The normalized query.
+     */
+    static String normalize(String query) {
+        String normalized = query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+
+        int end = normalized.length();
+        while (end > 0 && isTrailingPunctuation(normalized.charAt(end - 1))) {
+            end--;
+        }
+        return normalized.substring(0, end).trim();
+    }
 
-        executor = Executors.newFixedThreadPool(2);
-        service = new AIDataService(new AIConfiguration(dialogFlowClientToken));
-        enabled = true;
+    private static boolean isTrailingPunctuation(char character) {
+        return character == '.' || character == '!' || character == '?';
     }
 
     public boolean isEnabled() {
-        return enabled;
+        return service != null;
+    }
+
+    /**
+     * Shuts down the intelligence threads, requests that are already
+     * being sent will be allowed to finish, or time out, while queued
+     * requests will time out without being sent to the AI service.
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+
+        if (requestExecutor != null) {
+            requestExecutor.shutdownNow();
+        }
     }
 
     public boolean registerIntent(Intent intent) {
@@ -87,7 +188,14 @@ public class IntelligenceManager {
 
         Metrics.aiRequestsExecuted.labels(intent.getClass().getSimpleName()).inc(0D);
 
-        intents.put(new IntentAction(intent.getAction()), intent);
+        IntentAction action = new IntentAction(intent.getAction());
+        intents.put(action, intent);
+
+        if (action.isWildcard()) {
+            wildcardIntents.put(action.getAction(), intent);
+        } else {
+            exactIntents.put(action.getAction(), intent);
+        }
         return true;
     }
 
@@ -99,44 +207,190 @@ public class IntelligenceManager {
         Metrics.aiRequestsReceived.inc();
 
         String[] split = request.split(" ");
-
-        executor.submit(() -> sendRequest(message, databaseEventHolder, String.join(" ",
+        String query = String.join(" ",
             Arrays.copyOfRange(split, 1, split.length)
-        ).trim()));
-    }
+        ).trim();
+
+        long key = message.getChannelType().isGuild()
+            ? message.getGuild().getIdLong()
+            : message.getAuthor().getIdLong();
+
+        if (!acquire(key)) {
+            Metrics.aiRequestsFailed.labels("guild-limit").inc();
+            return;
+        }
 
-    private void sendRequest(Message message, DatabaseEventHolder databaseEventHolder, String request) {
+        CompletableFuture<AIResponse> future;
         try {
-            AIResponse response = service.request(new AIRequest(request));
-
-            String action = response.getResult().getAction();
-            AvaIre.getLogger().info(actionOutput
-                .replace("%action%", action)
-                .replace("%author%", generateUsername(message))
-                .replace("%server%", generateServer(message))
-                .replace("%channel%", generateChannel(message))
-                .replace("%message%", message.getContentRaw())
-                .replace("%response%", response.getResult().getFulfillment().getSpeech())
-            );
-
-            if (response.getStatus().getCode() != 200) {
-                MessageFactory.makeError(message, response.getStatus().getErrorDetails()).queue();
+            future = query(query);
+        } catch (RejectedExecutionException e) {
+            release(key);
+            Metrics.aiRequestsFailed.labels("queue-full").inc();
+            return;
+        }
+
+        future.whenComplete((response, throwable) -> {
+            release(key);
+
+            if (throwable == null) {
+                handleResponse(message, databaseEventHolder, response);
                 return;
             }
 
-            for (Map.Entry<IntentAction, Intent> entry : intents.entrySet()) {
-                if (entry.getKey().isWildcard() && action.startsWith(entry.getKey().getAction())) {
-                    invokeIntent(message, databaseEventHolder, response, entry.getValue());
-                    return;
-                }
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+
+            if (cause instanceof TimeoutException) {
+                Metrics.aiRequestsFailed.labels("timeout").inc();
+                log.warn("The AI service failed to respond to \"{}\" in time: {}", query, cause.getMessage());
+                return;
+            }
+
+            Metrics.aiRequestsFailed.labels("error").inc();
+            log.error("Failed to send \"{}\" to the AI service: {}", query, cause.getMessage(), cause);
+        });
+    }
+
+    /**
+     * Sends the given query to the AI service, if a response for the query is already
+     * cached the cached response will be used instead, and if the same query is
+     * already on its way to the AI service, the request will be shared.
+     * <p>
+     * The returned future is always completed on one of the intelligence
+     * threads, or with a {@link TimeoutException} if the AI service
+     * didn't respond within the timeout.
+     *
+     * @param query The query that should be sent to the AI service.
+     * @return The future that is completed with the response from the AI.
+     * @throws RejectedExecutionException if the request queue is full.
+     */
+    CompletableFuture<AIResponse> query(String query) {
+        String key = normalize(query);
+
+        AIResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.supplyAsync(() -> cached, executor);
+        }
+
+        CompletableFuture<AIResponse> future = inflight.computeIfAbsent(key, ignored -> send(key, query));
+        future.whenComplete((response, throwable) -> inflight.remove(key, future));
+
+        return future;
+    }
+
+    @Nullable
+    Intent findIntent(@Nullable String action) {
+        if (action == null) {
+            return null;
+        }
+
+        Intent intent = exactIntents.get(action);
+        if (intent != null) {
+            return intent;
+        }
 
-                if (entry.getKey().getAction().equals(action)) {
-                    invokeIntent(message, databaseEventHolder, response, entry.getValue());
-                    return;
+        // Wildcard actions are stored without the star, so we can look up every
+        // prefix of the action that ends with a dot, starting with the longest
+        // prefix so the most specific wildcard intent is always used.
+        for (int index = action.lastIndexOf('.'); index >= 0; index = action.lastIndexOf('.', index - 1)) {
+            intent = wildcardIntents.get(action.substring(0, index + 1));
+            if (intent != null) {
+                return intent;
+            }
+        }
+        return null;
+    }
+
+    private CompletableFuture<AIResponse> send(String key, String query) {
+        CompletableFuture<AIResponse> future = new CompletableFuture<>();
+
+        Future<?> task = executor.submit(() -> {
+            // The request may have timed out while it was waiting in the queue, in
+            // which case there is no point in sending it to the AI service.
+            if (future.isDone()) {
+                return;
+            }
+
+            // The AI service client blocks on socket reads that can't be interrupted, so
+            // the request is sent on its own thread, while the intelligence thread only
+            // waits for it until the timeout, that way a hanging AI service can't
+            // keep the intelligence threads busy, and nothing else is affected.
+            Future<AIResponse> request = requestExecutor.submit(() -> service.request(query));
+
+            try {
+                AIResponse response = request.get(timeout, TimeUnit.MILLISECONDS);
+                if (response.getStatus() != null && response.getStatus().getCode() == 200) {
+                    cache.put(key, response);
                 }
+                future.complete(response);
+            } catch (ExecutionException e) {
+                future.completeExceptionally(e.getCause() == null ? e : e.getCause());
+            } catch (TimeoutException e) {
+                request.cancel(true);
+                future.completeExceptionally(new TimeoutException("No response after " + timeout + "ms"));
+            } catch (InterruptedException e) {
+                request.cancel(true);
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
             }
-        } catch (AIServiceException e) {
-            e.printStackTrace();
+        });
+
+        ScheduledFuture<?> timer = ScheduleHandler.getScheduler().schedule(() -> {
+            if (future.completeExceptionally(new TimeoutException("No response after " + timeout + "ms"))) {
+                // Cancels the request if it's still queued, or stops waiting for
+                // it if it's being sent, so the intelligence thread is freed up.
+                task.cancel(true);
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+
+        future.whenComplete((response, throwable) -> timer.cancel(false));
+
+        return future;
+    }
+
+    private boolean acquire(long key) {
+        synchronized (pending) {
+            int current = pending.getOrDefault(key, 0);
+            if (current >= maxPerGuild) {
+                return false;
+            }
+
+            pending.put(key, current + 1);
+            return true;
+        }
+    }
+
+    private void release(long key) {
+        synchronized (pending) {
+            int current = pending.getOrDefault(key, 1) - 1;
+            if (current <= 0) {
+                pending.remove(key);
+            } else {
+                pending.put(key, current);
+            }
+        }
+    }
+
+    private void handleResponse(Message message, DatabaseEventHolder databaseEventHolder, AIResponse response) {
+        String action = response.getResult().getAction();
+        AvaIre.getLogger().info(actionOutput
+            .replace("%action%", action)
+            .replace("%author%", generateUsername(message))
+            .replace("%server%", generateServer(message))
+            .replace("%channel%", generateChannel(message))
+            .replace("%message%", message.getContentRaw())
+            .replace("%response%", response.getResult().getFulfillment().getSpeech())
+        );
+
+        if (response.getStatus().getCode() != 200) {
+            MessageFactory.makeError(message, response.getStatus().getErrorDetails()).queue();
+            return;
+        }
+
+        Intent intent = findIntent(action);
+        if (intent != null) {
+            invokeIntent(message, databaseEventHolder, response, intent);
         }
     }
 
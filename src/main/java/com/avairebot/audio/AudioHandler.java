@@ -22,9 +22,12 @@
 package com.avairebot.audio;
 
 import com.avairebot.AvaIre;
+import com.avairebot.audio.cache.TrackSearchCache;
 import com.avairebot.audio.source.HttpSourceManager;
 import com.avairebot.audio.source.PlaylistImportSourceManager;
+import com.avairebot.audio.source.TrackSearchCacheSourceManager;
 import com.avairebot.audio.source.twitch.TwitchStreamAudioSourceManager;
+import com.avairebot.cache.CacheType;
 import com.avairebot.commands.CommandMessage;
 import com.avairebot.database.controllers.GuildController;
 import com.avairebot.database.transformers.GuildTransformer;
@@ -67,6 +70,7 @@ public class AudioHandler {
     public final Map<Long, GuildMusicManager> musicManagers;
     public final Map<String, AudioSession> audioSessions;
     private AudioPlayerManager playerManager;
+    private TrackSearchCache trackSearchCache;
 
     public AudioHandler(Map<Long, GuildMusicManager> musicManagers, Map<String, AudioSession> audioSessions) {
         this.musicManagers = musicManagers;
@@ -83,7 +87,18 @@ public class AudioHandler {
 
     public AudioPlayerManager getPlayerManager() {
         if (playerManager == null) {
-            playerManager = registerSourceManagers(new DefaultAudioPlayerManager());
+            DefaultAudioPlayerManager manager = new DefaultAudioPlayerManager();
+
+            trackSearchCache = new TrackSearchCache(manager,
+                avaire.getConfig().getBoolean("audio-search-cache.persistent", false)
+                    ? avaire.getCache().getAdapter(CacheType.FILE) : null
+            );
+
+            // Registers the track search cache source manager before any of the other source
+            // managers, so cached identifiers are resolved before they're looked up.
+            manager.registerSourceManager(new TrackSearchCacheSourceManager(trackSearchCache));
+
+            playerManager = registerSourceManagers(manager);
 
             playerManager.getConfiguration().setResamplingQuality(
                 AudioConfiguration.ResamplingQuality.valueOf(
@@ -109,6 +124,13 @@ public class AudioHandler {
         return playerManager;
     }
 
+    public TrackSearchCache getTrackSearchCache() {
+        if (trackSearchCache == null) {
+            getPlayerManager();
+        }
+        return trackSearchCache;
+    }
+
     public AudioPlayerManager registerSourceManagers(AudioPlayerManager manager) {
         manager.registerSourceManager(new PlaylistImportSourceManager());
 
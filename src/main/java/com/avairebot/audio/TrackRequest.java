@@ -55,7 +55,7 @@ public class TrackRequest extends Future {
     public void handle(final Consumer success, final Consumer<Throwable> failure, final Consumer<AudioSession> sessionConsumer) {
         Metrics.searchRequests.inc();
 
-        AudioHandler.getDefaultAudioHandler().getPlayerManager().loadItemOrdered(musicManager, trackUrl, new AudioLoadResultHandler() {
+        AudioHandler.getDefaultAudioHandler().getTrackSearchCache().loadItemOrdered(musicManager, trackUrl, new AudioLoadResultHandler() {
             @Override
             public void trackLoaded(AudioTrack track) {
                 if (track == null) {
@@ -23,53 +23,90 @@ package com.avairebot.audio.cache;
 
 import com.avairebot.audio.AudioTrackContainer;
 import com.avairebot.contracts.debug.Evalable;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageInput;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageOutput;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.DecodedTrackHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 
 @SuppressWarnings("unused")
 public class AudioCache extends Evalable {
 
-    private String trackUrl;
-    private long requestedBy;
-    private long position;
+    private static final Logger log = LoggerFactory.getLogger(AudioCache.class);
+
+    private final String trackUrl;
+    private final long requestedBy;
+    private final long position;
+    private final byte[] track;
 
     /**
-     * Create the audio cache instance using the given track
-     * url, user request ID, and the track position.
+     * Create the audio cache instance using the given track url, user request
+     * ID, the track position, and the lavaplayer encoded track.
      *
      * @param trackUrl    The url to the track.
      * @param requestedBy The ID of the user that requested the track.
      * @param position    The track position in milliseconds.
+     * @param track       The lavaplayer encoded track, or <code>NULL</code>.
      */
-    AudioCache(String trackUrl, long requestedBy, long position) {
+    AudioCache(String trackUrl, long requestedBy, long position, @Nullable byte[] track) {
         this.trackUrl = trackUrl;
         this.requestedBy = requestedBy;
         this.position = position;
+        this.track = track;
     }
 
     /**
-     * Create the audio cache instance using the given
-     * track url, and the user request ID.
+     * Create the audio cache instance using the given audio track, the user
+     * request ID, and the track position, the audio track will be encoded
+     * using the given player manager so it can be decoded again later.
      *
-     * @param trackUrl    The url to the track.
-     * @param requestedBy The ID of the user that requested the track.
+     * @param playerManager The player manager used to encode the audio track.
+     * @param track         The audio track that the audio cache should be created for.
+     * @param requestedBy   The ID of the user that requested the track.
+     * @param position      The track position in milliseconds.
      */
-    AudioCache(String trackUrl, long requestedBy) {
-        this(trackUrl, requestedBy, -1);
+    AudioCache(AudioPlayerManager playerManager, AudioTrack track, long requestedBy, long position) {
+        this(track.getInfo().uri, requestedBy, position, encode(playerManager, track));
     }
 
     /**
      * Create the audio cache instance using the given audio track container.
      *
-     * @param container The audio track container that should be
-     *                  used to create the audio cache instance.
+     * @param playerManager The player manager used to encode the audio track.
+     * @param container     The audio track container that should be
+     *                      used to create the audio cache instance.
      */
-    AudioCache(AudioTrackContainer container) {
+    AudioCache(AudioPlayerManager playerManager, AudioTrackContainer container) {
         this(
-            container.getAudioTrack().getInfo().uri,
+            playerManager,
+            container.getAudioTrack(),
             container.getRequester().getIdLong(),
             container.getAudioTrack().getPosition()
         );
     }
 
+    @Nullable
+    private static byte[] encode(AudioPlayerManager playerManager, AudioTrack track) {
+        try {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            playerManager.encodeTrack(new MessageOutput(stream), track);
+
+            return stream.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to encode the track {}, it will be requested using its URL instead: {}",
+                track.getInfo().uri, e.getMessage()
+            );
+            return null;
+        }
+    }
+
     /**
      * The URL of the track.
      *
@@ -96,4 +133,45 @@ public class AudioCache extends Evalable {
     public long getPosition() {
         return position;
     }
+
+    /**
+     * The lavaplayer encoded track.
+     *
+     * @return The lavaplayer encoded track, or <code>NULL</code> if the track couldn't be encoded.
+     */
+    @Nullable
+    public byte[] getTrack() {
+        return track;
+    }
+
+    /**
+     * Decodes the lavaplayer encoded track into a new audio track, with
+     * its position set to the position the track was cached at.
+     *
+     * @param playerManager The player manager used to decode the track.
+     * @return The decoded audio track, or <code>NULL</code> if the track
+     * wasn't encoded, or if it couldn't be decoded.
+     */
+    @Nullable
+    public AudioTrack decodeTrack(AudioPlayerManager playerManager) {
+        if (track == null) {
+            return null;
+        }
+
+        try {
+            DecodedTrackHolder holder = playerManager.decodeTrack(new MessageInput(new ByteArrayInputStream(track)));
+            if (holder == null || holder.decodedTrack == null) {
+                return null;
+            }
+
+            if (position > 0) {
+                holder.decodedTrack.setPosition(position);
+            }
+
+            return holder.decodedTrack;
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to decode the cached track {}: {}", trackUrl, e.getMessage());
+            return null;
+        }
+    }
 }
@@ -21,10 +21,12 @@
 
 package com.avairebot.audio.cache;
 
+import com.avairebot.audio.AudioHandler;
 import com.avairebot.audio.AudioTrackContainer;
 import com.avairebot.audio.GuildMusicManager;
 import com.avairebot.audio.LavalinkManager;
 import com.avairebot.contracts.debug.Evalable;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import net.dv8tion.jda.core.entities.Guild;
 import net.dv8tion.jda.core.entities.VoiceChannel;
@@ -62,19 +64,43 @@ public class AudioState extends Evalable {
         messageChannelId = musicManager.getLastActiveMessage() != null ?
             musicManager.getLastActiveMessage().getChannel().getIdLong() : 0L;
 
+        AudioPlayerManager playerManager = AudioHandler.getDefaultAudioHandler().getPlayerManager();
+
         AudioTrack playingTrack = musicManager.getPlayer().getPlayingTrack();
         AudioTrackContainer container = musicManager.getScheduler().getAudioTrackContainer();
 
         this.playingTrack = playingTrack == null ? null : new AudioCache(
-            playingTrack.getInfo().uri,
+            playerManager,
+            playingTrack,
             container != null ? container.getRequester().getIdLong() : 0L,
             playingTrack.getPosition()
         );
 
-        musicManager.getScheduler().getQueue().stream().map(AudioCache::new)
+        musicManager.getScheduler().getQueue().stream()
+            .map(trackContainer -> new AudioCache(playerManager, trackContainer))
             .forEach(queue::add);
     }
 
+    /**
+     * Creates the audio state using the given values, this is used to
+     * re-create the audio state when it is read from a snapshot.
+     *
+     * @param guildId          The ID of the guild the audio state was created for.
+     * @param voiceChannelId   The ID of the voice channel the music was playing in.
+     * @param messageChannelId The ID of the text channel music was last used in.
+     * @param volume           The volume the music was playing at.
+     * @param playingTrack     The track that was playing, or <code>NULL</code>.
+     * @param queue            The tracks in the music queue.
+     */
+    AudioState(long guildId, long voiceChannelId, long messageChannelId, int volume, AudioCache playingTrack, List<AudioCache> queue) {
+        this.guildId = guildId;
+        this.voiceChannelId = voiceChannelId;
+        this.messageChannelId = messageChannelId;
+        this.volume = volume;
+        this.playingTrack = playingTrack;
+        this.queue.addAll(queue);
+    }
+
     /**
      * The music queue of audio cache tracks, each track will hold the
      * audio track URL used to request the song originally, the ID of
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.audio.cache;
+
+import com.avairebot.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class AudioStateSnapshot {
+
+    /**
+     * The file the audio state snapshot is written to during shutdown.
+     */
+    public static final File SNAPSHOT_FILE = new File(Constants.STORAGE_PATH, "audio-state.bin");
+
+    /**
+     * The maximum age of a snapshot in milliseconds before it is considered too old to be
+     * restored, if the bot has been offline for longer than this the music is not resumed.
+     */
+    public static final long MAX_AGE = TimeUnit.HOURS.toMillis(3);
+
+    private static final Logger log = LoggerFactory.getLogger(AudioStateSnapshot.class);
+
+    private static final int MAGIC = 0x41564153;
+    private static final int VERSION = 1;
+
+    /**
+     * Creates a new snapshot writer for the given file, the audio states written to the
+     * writer are streamed to a temporary file, which replaces the given file once the
+     * writer is closed, so a partially written snapshot will never be read.
+     *
+     * @param file The file the snapshot should be written to.
+     * @return The snapshot writer.
+     * @throws IOException If the snapshot file could not be created.
+     */
+    public static Writer createWriter(@Nonnull File file) throws IOException {
+        return new Writer(file);
+    }
+
+    /**
+     * Reads every audio state from the given snapshot file, the tracks are kept in their encoded
+     * form until they're decoded by the caller, if the snapshot doesn't exist, is too old, or
+     * wasn't created by a compatible version, an empty map will be returned instead.
+     *
+     * @param file The snapshot file that should be read.
+     * @return The audio states from the snapshot, mapped by their guild ID.
+     * @throws IOException If the snapshot file could not be read.
+     */
+    public static Map<Long, AudioState> read(@Nonnull File file) throws IOException {
+        Map<Long, AudioState> states = new LinkedHashMap<>();
+        if (!file.exists()) {
+            return states;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+            new GZIPInputStream(new FileInputStream(file))
+        ))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                log.warn("The audio state snapshot {} is not a supported snapshot, ignoring it", file.getName());
+                return states;
+            }
+
+            if (input.readLong() + MAX_AGE < System.currentTimeMillis()) {
+                log.debug("The audio state snapshot {} is too old to be restored, ignoring it", file.getName());
+                return states;
+            }
+
+            try {
+                while (input.readBoolean()) {
+                    AudioState state = readState(input);
+                    states.put(state.getGuildId(), state);
+                }
+            } catch (EOFException e) {
+                log.warn("The audio state snapshot {} ended unexpectedly, only {} audio states could be read",
+                    file.getName(), states.size()
+                );
+            }
+        }
+
+        return states;
+    }
+
+    private static AudioState readState(DataInput input) throws IOException {
+        long guildId = input.readLong();
+        long voiceChannelId = input.readLong();
+        long messageChannelId = input.readLong();
+        int volume = input.readInt();
+
+        AudioCache playingTrack = input.readBoolean() ? readTrack(input) : null;
+
+        int size = input.readInt();
+        List<AudioCache> queue = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            queue.add(readTrack(input));
+        }
+
+        return new AudioState(guildId, voiceChannelId, messageChannelId, volume, playingTrack, queue);
+    }
+
+    private static AudioCache readTrack(DataInput input) throws IOException {
+        long requestedBy = input.readLong();
+        long position = input.readLong();
+        String trackUrl = new String(readBytes(input), StandardCharsets.UTF_8);
+        byte[] track = readBytes(input);
+
+        return new AudioCache(trackUrl, requestedBy, position, track.length == 0 ? null : track);
+    }
+
+    private static byte[] readBytes(DataInput input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    public static class Writer implements Closeable {
+
+        private final File file;
+        private final File temporaryFile;
+        private final DataOutputStream output;
+
+        private int written = 0;
+
+        Writer(File file) throws IOException {
+            this.file = file;
+            this.temporaryFile = new File(file.getParentFile(), file.getName() + ".tmp");
+
+            if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+                throw new IOException("Failed to create the directory for the audio state snapshot");
+            }
+
+            output = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(temporaryFile))
+            ));
+
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(System.currentTimeMillis());
+        }
+
+        /**
+         * Writes the given audio state to the snapshot, the audio state is serialized
+         * in full before anything is written, so an audio state that fails to
+         * be serialized won't leave the snapshot in a broken state.
+         *
+         * @param state The audio state that should be written to the snapshot.
+         * @throws IOException If the audio state could not be written to the snapshot.
+         */
+        public void write(@Nonnull AudioState state) throws IOException {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            DataOutputStream stateOutput = new DataOutputStream(buffer);
+
+            stateOutput.writeLong(state.getGuildId());
+            stateOutput.writeLong(state.getVoiceChannelId());
+            stateOutput.writeLong(state.getMessageChannelId());
+            stateOutput.writeInt(state.getVolume());
+
+            stateOutput.writeBoolean(state.getPlayingTrack() != null);
+            if (state.getPlayingTrack() != null) {
+                writeTrack(stateOutput, state.getPlayingTrack());
+            }
+
+            stateOutput.writeInt(state.getQueue().size());
+            for (AudioCache track : state.getQueue()) {
+                writeTrack(stateOutput, track);
+            }
+
+            output.writeBoolean(true);
+            buffer.writeTo(output);
+            written++;
+        }
+
+        /**
+         * Gets the amount of audio states written to the snapshot.
+         *
+         * @return The amount of audio states written to the snapshot.
+         */
+        public int getWritten() {
+            return written;
+        }
+
+        /**
+         * Finishes the snapshot and moves it in place of the snapshot file.
+         *
+         * @throws IOException If the snapshot could not be finished, or moved in place.
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                output.writeBoolean(false);
+            } finally {
+                output.close();
+            }
+
+            try {
+                Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        private void writeTrack(DataOutput output, AudioCache track) throws IOException {
+            output.writeLong(track.getRequestedBy());
+            output.writeLong(track.getPosition());
+            writeBytes(output, track.getTrackUrl() == null
+                ? new byte[0] : track.getTrackUrl().getBytes(StandardCharsets.UTF_8)
+            );
+            writeBytes(output, track.getTrack() == null ? new byte[0] : track.getTrack());
+        }
+
+        private void writeBytes(DataOutput output, byte[] bytes) throws IOException {
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+}
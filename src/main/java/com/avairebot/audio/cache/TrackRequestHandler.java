@@ -30,6 +30,8 @@ import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import net.dv8tion.jda.core.entities.Member;
 
+import javax.annotation.Nullable;
+
 public class TrackRequestHandler {
 
     /**
@@ -43,65 +45,99 @@ public class TrackRequestHandler {
      * @param trackUrl     The URL of the track that should be requested.
      */
     public static void sendRequest(GuildMusicManager musicManager, Member member, String trackUrl) {
+        sendRequest(musicManager, member, trackUrl, null);
+    }
+
+    /**
+     * Sends an audio track request to try and load the track, if the
+     * track loads successfully it will be added to the music queue
+     * for the server, once the request has been handled, whether
+     * it loaded or not, the given callback will be invoked.
+     *
+     * @param musicManager The guild music manager for the current server.
+     * @param member       The member that originally requested the given audio track.
+     * @param trackUrl     The URL of the track that should be requested.
+     * @param callback     The callback that should be invoked once the request has been handled, or {@code NULL}.
+     */
+    public static void sendRequest(GuildMusicManager musicManager, Member member, String trackUrl, @Nullable Runnable callback) {
         Metrics.searchRequests.inc();
 
-        AudioHandler.getDefaultAudioHandler().getPlayerManager().loadItemOrdered(musicManager, trackUrl, new AudioLoadResultHandler() {
+        AudioHandler.getDefaultAudioHandler().getTrackSearchCache().loadItemOrdered(musicManager, trackUrl, new AudioLoadResultHandler() {
 
             @Override
             public void trackLoaded(AudioTrack track) {
-                if (track == null) {
-                    noMatches();
-                    return;
-                }
-
-                Metrics.tracksLoaded.inc();
+                try {
+                    if (track == null) {
+                        Metrics.trackLoadsFailed.inc();
+                        return;
+                    }
 
-                musicManager.registerDefaultVolume();
+                    Metrics.tracksLoaded.inc();
 
-                if (musicManager.getPlayer().isPaused()) {
-                    musicManager.getPlayer().setPaused(false);
+                    queueTrack(musicManager, member, track);
+                } finally {
+                    complete(callback);
                 }
-
-                musicManager.getScheduler().queue(track, member.getUser());
             }
 
             @Override
             public void playlistLoaded(AudioPlaylist playlist) {
-                if (playlist.getTracks().isEmpty()) {
-                    noMatches();
-                    return;
-                }
+                try {
+                    if (playlist.getTracks().isEmpty()) {
+                        Metrics.trackLoadsFailed.inc();
+                        return;
+                    }
 
-                Metrics.tracksLoaded.inc(playlist.getTracks().size());
+                    Metrics.tracksLoaded.inc(playlist.getTracks().size());
 
-                if (trackUrl.startsWith("ytsearch:") || trackUrl.startsWith("scsearch:")) {
-                    trackLoaded(playlist.getTracks().get(0));
-                    return;
-                }
+                    if (trackUrl.startsWith("ytsearch:") || trackUrl.startsWith("scsearch:")) {
+                        Metrics.tracksLoaded.inc();
 
-                if (playlist.getTracks().isEmpty()) {
-                    noMatches();
-                    return;
-                }
+                        queueTrack(musicManager, member, playlist.getTracks().get(0));
+                        return;
+                    }
 
-                musicManager.registerDefaultVolume();
+                    musicManager.registerDefaultVolume();
 
-                if (musicManager.getPlayer().isPaused()) {
-                    musicManager.getPlayer().setPaused(false);
-                }
+                    if (musicManager.getPlayer().isPaused()) {
+                        musicManager.getPlayer().setPaused(false);
+                    }
 
-                musicManager.getScheduler().queue(playlist, member.getUser());
+                    musicManager.getScheduler().queue(playlist, member.getUser());
+                } finally {
+                    complete(callback);
+                }
             }
 
             @Override
             public void noMatches() {
                 Metrics.trackLoadsFailed.inc();
+
+                complete(callback);
             }
 
             @Override
             public void loadFailed(FriendlyException exception) {
                 Metrics.trackLoadsFailed.inc();
+
+                complete(callback);
             }
         });
     }
+
+    private static void queueTrack(GuildMusicManager musicManager, Member member, AudioTrack track) {
+        musicManager.registerDefaultVolume();
+
+        if (musicManager.getPlayer().isPaused()) {
+            musicManager.getPlayer().setPaused(false);
+        }
+
+        musicManager.getScheduler().queue(track, member.getUser());
+    }
+
+    private static void complete(@Nullable Runnable callback) {
+        if (callback != null) {
+            callback.run();
+        }
+    }
 }
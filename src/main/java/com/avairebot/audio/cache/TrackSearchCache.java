@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.audio.cache;
+
+import com.avairebot.AvaIre;
+import com.avairebot.contracts.cache.CacheAdapter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.sedmelluq.discord.lavaplayer.player.AudioLoadResultHandler;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageInput;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageOutput;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.BasicAudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.DecodedTrackHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class TrackSearchCache {
+
+    /**
+     * The maximum amount of tracks that can be kept in memory across all the cached search results.
+     */
+    public static final long MAX_CACHED_TRACKS = 25000;
+
+    /**
+     * The amount of minutes a search result is kept in the cache after it was loaded.
+     */
+    public static final long CACHE_LIFETIME = 360;
+
+    /**
+     * The maximum amount of tracks a search result, or playlist, can contain before it is
+     * too large to be cached, large playlists are rarely requested more than once.
+     */
+    public static final int MAX_RESULT_SIZE = 250;
+
+    /**
+     * The resolved search results, keyed by their normalized identifier, each result
+     * holds the lavaplayer encoded tracks, so every cache hit decodes a new set
+     * of audio tracks that can be played independently of each other.
+     */
+    public static final Cache<String, SearchResult> cache = CacheBuilder.newBuilder()
+        .recordStats()
+        .maximumWeight(MAX_CACHED_TRACKS)
+        .weigher((String key, SearchResult result) -> result.tracks.length)
+        .expireAfterWrite(CACHE_LIFETIME, TimeUnit.MINUTES)
+        .build();
+
+    private static final Logger log = LoggerFactory.getLogger(TrackSearchCache.class);
+
+    private final AudioPlayerManager playerManager;
+    private final CacheAdapter persistentCache;
+
+    /**
+     * Creates a new track search cache for the given player manager, if a persistent cache
+     * adapter is given search results will also be stored using the adapter, allowing
+     * search results to be reused after they expire from memory, or across restarts.
+     *
+     * @param playerManager   The player manager used to load, encode, and decode tracks.
+     * @param persistentCache The cache adapter used to persist the search results, or <code>NULL</code>.
+     */
+    public TrackSearchCache(AudioPlayerManager playerManager, @Nullable CacheAdapter persistentCache) {
+        this.playerManager = playerManager;
+        this.persistentCache = persistentCache;
+    }
+
+    /**
+     * Normalizes the given track identifier, search queries are case-insensitive and
+     * have their whitespace collapsed, while URLs and other identifiers are only
+     * trimmed, since the casing matters for things like YouTube video IDs.
+     *
+     * @param identifier The track identifier that should be normalized.
+     * @return The normalized track identifier.
+     */
+    public static String normalize(@Nonnull String identifier) {
+        String trimmed = identifier.trim();
+
+        int prefix = trimmed.indexOf(':');
+        if (prefix < 0 || !isSearchPrefix(trimmed.substring(0, prefix + 1))) {
+            return trimmed;
+        }
+
+        return trimmed.substring(0, prefix + 1) + trimmed.substring(prefix + 1)
+            .trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+
+    private static boolean isSearchPrefix(String prefix) {
+        return prefix.equals("ytsearch:") || prefix.equals("scsearch:");
+    }
+
+    /**
+     * Loads the given track identifier using the player manager, the result is passed
+     * on to the given handler, and if the identifier resolved successfully, it is
+     * added to the cache so the next lookup for it won't need to be resolved.
+     *
+     * @param orderingKey The ordering key, loads using the same ordering key are handled in order.
+     * @param identifier  The track identifier that should be loaded.
+     * @param handler     The handler that the load result should be passed on to.
+     */
+    public void loadItemOrdered(Object orderingKey, String identifier, AudioLoadResultHandler handler) {
+        playerManager.loadItemOrdered(orderingKey, identifier, new AudioLoadResultHandler() {
+            @Override
+            public void trackLoaded(AudioTrack track) {
+                store(identifier, track);
+                handler.trackLoaded(track);
+            }
+
+            @Override
+            public void playlistLoaded(AudioPlaylist playlist) {
+                store(identifier, playlist);
+                handler.playlistLoaded(playlist);
+            }
+
+            @Override
+            public void noMatches() {
+                handler.noMatches();
+            }
+
+            @Override
+            public void loadFailed(FriendlyException exception) {
+                handler.loadFailed(exception);
+            }
+        });
+    }
+
+    /**
+     * Gets the cached audio item for the given track identifier, the tracks are decoded
+     * from the cached search result, so they're new track instances every time.
+     *
+     * @param identifier The track identifier that should be looked up.
+     * @return The audio track, or audio playlist, the identifier resolved to,
+     * or <code>NULL</code> if the identifier is not in the cache.
+     */
+    @Nullable
+    public AudioItem get(String identifier) {
+        String key = normalize(identifier);
+
+        SearchResult result = cache.getIfPresent(key);
+        if (result == null) {
+            result = loadPersistent(key);
+            if (result == null) {
+                return null;
+            }
+            cache.put(key, result);
+        }
+
+        try {
+            return result.toAudioItem(playerManager);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to decode the cached search result for \"{}\", dropping it: {}", key, e.getMessage());
+            forget(key);
+            return null;
+        }
+    }
+
+    /**
+     * Caches the given audio item for the given track identifier, live streams,
+     * and results that are too large, won't be cached.
+     *
+     * @param identifier The track identifier the audio item was resolved from.
+     * @param item       The audio track, or audio playlist, that should be cached.
+     */
+    public void store(String identifier, AudioItem item) {
+        String key = normalize(identifier);
+        if (cache.asMap().containsKey(key)) {
+            return;
+        }
+
+        SearchResult result;
+        try {
+            result = SearchResult.fromAudioItem(playerManager, item);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to encode the search result for \"{}\": {}", key, e.getMessage());
+            return;
+        }
+
+        if (result == null) {
+            return;
+        }
+
+        cache.put(key, result);
+
+        if (persistentCache != null) {
+            persistentCache.put(getPersistentToken(key), AvaIre.gson.toJson(result), (int) TimeUnit.MINUTES.toSeconds(CACHE_LIFETIME));
+        }
+    }
+
+    /**
+     * Removes the given track identifier from the cache.
+     *
+     * @param identifier The track identifier that should be removed from the cache.
+     */
+    public void forget(String identifier) {
+        String key = normalize(identifier);
+
+        cache.invalidate(key);
+        if (persistentCache != null) {
+            persistentCache.forget(getPersistentToken(key));
+        }
+    }
+
+    private SearchResult loadPersistent(String key) {
+        if (persistentCache == null) {
+            return null;
+        }
+
+        Object rawResult = persistentCache.get(getPersistentToken(key));
+        if (rawResult == null) {
+            return null;
+        }
+
+        try {
+            return AvaIre.gson.fromJson(rawResult.toString(), SearchResult.class);
+        } catch (Exception e) {
+            log.debug("Failed to parse the persisted search result for \"{}\": {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private String getPersistentToken(String key) {
+        return "track-search." + key;
+    }
+
+    static class SearchResult {
+
+        private final String playlistName;
+        private final boolean playlist;
+        private final boolean searchResult;
+        private final int selectedTrack;
+        private final String[] tracks;
+
+        SearchResult(String playlistName, boolean playlist, boolean searchResult, int selectedTrack, String[] tracks) {
+            this.playlistName = playlistName;
+            this.playlist = playlist;
+            this.searchResult = searchResult;
+            this.selectedTrack = selectedTrack;
+            this.tracks = tracks;
+        }
+
+        @Nullable
+        static SearchResult fromAudioItem(AudioPlayerManager playerManager, AudioItem item) throws IOException {
+            if (item instanceof AudioTrack) {
+                AudioTrack track = (AudioTrack) item;
+                if (track.getInfo().isStream) {
+                    return null;
+                }
+
+                return new SearchResult(null, false, false, -1, new String[]{
+                    encode(playerManager, track)
+                });
+            }
+
+            if (!(item instanceof AudioPlaylist)) {
+                return null;
+            }
+
+            AudioPlaylist playlist = (AudioPlaylist) item;
+            if (playlist.getTracks().isEmpty() || playlist.getTracks().size() > MAX_RESULT_SIZE) {
+                return null;
+            }
+
+            String[] tracks = new String[playlist.getTracks().size()];
+            for (int i = 0; i < tracks.length; i++) {
+                AudioTrack track = playlist.getTracks().get(i);
+                if (track.getInfo().isStream) {
+                    return null;
+                }
+                tracks[i] = encode(playerManager, track);
+            }
+
+            return new SearchResult(
+                playlist.getName(),
+                true,
+                playlist.isSearchResult(),
+                playlist.getSelectedTrack() == null ? -1 : playlist.getTracks().indexOf(playlist.getSelectedTrack()),
+                tracks
+            );
+        }
+
+        AudioItem toAudioItem(AudioPlayerManager playerManager) throws IOException {
+            List<AudioTrack> decoded = new ArrayList<>(tracks.length);
+            for (String track : tracks) {
+                decoded.add(decode(playerManager, track));
+            }
+
+            if (!playlist) {
+                return decoded.get(0);
+            }
+
+            return new BasicAudioPlaylist(
+                playlistName,
+                decoded,
+                selectedTrack < 0 ? null : decoded.get(selectedTrack),
+                searchResult
+            );
+        }
+
+        private static String encode(AudioPlayerManager playerManager, AudioTrack track) throws IOException {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            playerManager.encodeTrack(new MessageOutput(stream), track);
+
+            return Base64.getEncoder().encodeToString(stream.toByteArray());
+        }
+
+        private static AudioTrack decode(AudioPlayerManager playerManager, String track) throws IOException {
+            DecodedTrackHolder holder = playerManager.decodeTrack(new MessageInput(
+                new ByteArrayInputStream(Base64.getDecoder().decode(track))
+            ));
+
+            if (holder == null || holder.decodedTrack == null) {
+                throw new IOException("The track could not be decoded by any of the registered source managers");
+            }
+
+            return holder.decodedTrack;
+        }
+    }
+}
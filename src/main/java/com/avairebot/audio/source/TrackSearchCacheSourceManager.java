@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.audio.source;
+
+import com.avairebot.audio.cache.TrackSearchCache;
+import com.sedmelluq.discord.lavaplayer.player.DefaultAudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.source.AudioSourceManager;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+
+/**
+ * Audio source manager which resolves track identifiers from the track search cache, the source
+ * manager should be registered before any other source manager, so cached identifiers are
+ * resolved without the search, or the upstream request, while cache misses falls
+ * through to the rest of the source managers like normal.
+ * <p>
+ * The tracks returned by the source manager belong to the source managers that originally
+ * loaded them, so encoding and decoding them is handled by their own source managers.
+ */
+public class TrackSearchCacheSourceManager implements AudioSourceManager {
+
+    private final TrackSearchCache trackSearchCache;
+
+    public TrackSearchCacheSourceManager(TrackSearchCache trackSearchCache) {
+        this.trackSearchCache = trackSearchCache;
+    }
+
+    @Override
+    public String getSourceName() {
+        return "track_search_cache";
+    }
+
+    @Override
+    public AudioItem loadItem(DefaultAudioPlayerManager manager, AudioReference reference) {
+        if (reference.identifier == null) {
+            return null;
+        }
+        return trackSearchCache.get(reference.identifier);
+    }
+
+    @Override
+    public boolean isTrackEncodable(AudioTrack track) {
+        return false;
+    }
+
+    @Override
+    public void encodeTrack(AudioTrack track, DataOutput output) {
+        // The cached tracks are owned by the source managers that loaded them, so
+        // there is nothing extra for this source manager to write for them.
+    }
+
+    @Override
+    public AudioTrack decodeTrack(AudioTrackInfo trackInfo, DataInput input) {
+        // This source manager never encodes any tracks, so there are none
+        // it can decode, returning null lets the player manager move on.
+        return null;
+    }
+
+    @Override
+    public void shutdown() {
+    }
+}
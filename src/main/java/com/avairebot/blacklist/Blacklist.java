@@ -34,16 +34,20 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
-@SuppressWarnings("SuspiciousMethodCalls")
 public class Blacklist {
 
     private final AvaIre avaire;
-    private final List<BlacklistEntity> blacklist;
     private final Ratelimit ratelimit;
 
+    /**
+     * The current blacklist index, the index is immutable so it can be read
+     * from the message handlers without locking, changes to the blacklist
+     * swaps the index out with an updated copy while holding the lock.
+     */
+    private volatile BlacklistIndex blacklist = BlacklistIndex.EMPTY;
+
     /**
      * Creates a new blacklist instance.
      *
@@ -52,7 +56,6 @@ public class Blacklist {
     public Blacklist(AvaIre avaire) {
         this.avaire = avaire;
 
-        this.blacklist = new BlacklistList();
         this.ratelimit = new Ratelimit(this);
     }
 
@@ -143,18 +146,12 @@ public class Blacklist {
      * @param id The ID to remove from teh blacklist.
      */
     public void remove(long id) {
-        if (!blacklist.contains(id)) {
-            return;
-        }
-
-        Iterator<BlacklistEntity> iterator = blacklist.iterator();
-        while (iterator.hasNext()) {
-            BlacklistEntity next = iterator.next();
-
-            if (next.getId() == id) {
-                iterator.remove();
-                break;
+        synchronized (this) {
+            if (!blacklist.contains(id)) {
+                return;
             }
+
+            blacklist = blacklist.without(id);
         }
 
         try {
@@ -186,15 +183,7 @@ public class Blacklist {
      */
     @Nullable
     public BlacklistEntity getEntity(long id, @Nullable Scope scope) {
-        for (BlacklistEntity entity : blacklist) {
-            if (entity.getId() == id) {
-                if (scope != null && scope != entity.getScope()) {
-                    continue;
-                }
-                return entity;
-            }
-        }
-        return null;
+        return blacklist.get(id, scope);
     }
 
     /**
@@ -217,13 +206,10 @@ public class Blacklist {
      * @param expiresIn The carbon time instance for when the entity should expire.
      */
     public void addIdToBlacklist(Scope scope, final long id, final @Nullable String reason, @Nullable Carbon expiresIn) {
-        BlacklistEntity entity = getEntity(id, scope);
-        if (entity != null) {
-            blacklist.remove(entity);
+        synchronized (this) {
+            blacklist = blacklist.with(new BlacklistEntity(scope, id, reason, expiresIn));
         }
 
-        blacklist.add(new BlacklistEntity(scope, id, reason, expiresIn));
-
         try {
             avaire.getDatabase().newQueryBuilder(Constants.BLACKLIST_TABLE_NAME)
                 .where("id", id).andWhere("type", scope.getId())
@@ -253,18 +239,28 @@ public class Blacklist {
      * Get the all the entities currently on the blacklist, this
      * includes both users and guilds, the type can be checked
      * through the {@link BlacklistEntity#getScope() scope}.
+     * <p>
+     * The returned list is an unmodifiable snapshot of the blacklist,
+     * changes made to the blacklist afterwards won't be reflected in it.
      *
      * @return The entities currently on the blacklist.
      */
     public List<BlacklistEntity> getBlacklistEntities() {
-        return blacklist;
+        return blacklist.entities();
+    }
+
+    /**
+     * Removes all the expired entities from the blacklist.
+     */
+    public synchronized void removeExpiredEntities() {
+        blacklist = blacklist.withoutExpired();
     }
 
     /**
      * Syncs the blacklist with the database.
      */
-    public synchronized void syncBlacklistWithDatabase() {
-        blacklist.clear();
+    public void syncBlacklistWithDatabase() {
+        List<BlacklistEntity> entities = new ArrayList<>();
         try {
             Collection collection = avaire.getDatabase().newQueryBuilder(Constants.BLACKLIST_TABLE_NAME)
                 .where("expires_in", ">", Carbon.now())
@@ -280,7 +276,7 @@ public class Blacklist {
                     long longId = Long.parseLong(id);
                     Scope scope = Scope.fromId(row.getInt("type", 0));
 
-                    blacklist.add(new BlacklistEntity(
+                    entities.add(new BlacklistEntity(
                         scope, longId,
                         row.getString("reason"),
                         row.getTimestamp("expires_in")
@@ -291,24 +287,12 @@ public class Blacklist {
             });
         } catch (SQLException e) {
             AvaIre.getLogger().error("Failed to sync blacklist with the database: " + e.getMessage(), e);
+            return;
         }
-    }
-
-    private class BlacklistList extends ArrayList<BlacklistEntity> {
-
-        @Override
-        public boolean contains(Object o) {
-            if (o instanceof Long) {
-                long id = (long) o;
-                for (BlacklistEntity entity : this) {
-                    if (entity.getId() == id) {
-                        return true;
-                    }
-                }
-                return false;
-            }
 
-            return super.contains(o);
+        BlacklistIndex index = BlacklistIndex.of(entities);
+        synchronized (this) {
+            blacklist = index;
         }
     }
 }
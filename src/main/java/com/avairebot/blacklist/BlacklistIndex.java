@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.blacklist;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable index of the blacklist entities, split up by scope and keyed
+ * by the primitive ID of the user or guild, so looking up an entity is a
+ * single hash lookup instead of a scan through the entire blacklist.
+ * <p>
+ * The index is never changed once it has been built, changes to the blacklist
+ * creates a new copy of the index with the change applied, which allows
+ * the blacklist to be checked without any locking.
+ */
+final class BlacklistIndex {
+
+    /**
+     * An empty blacklist index.
+     */
+    static final BlacklistIndex EMPTY = new BlacklistIndex(
+        new TLongObjectHashMap<>(), new TLongObjectHashMap<>()
+    );
+
+    private final TLongObjectMap<BlacklistEntity> users;
+    private final TLongObjectMap<BlacklistEntity> guilds;
+
+    private BlacklistIndex(TLongObjectMap<BlacklistEntity> users, TLongObjectMap<BlacklistEntity> guilds) {
+        this.users = users;
+        this.guilds = guilds;
+    }
+
+    /**
+     * Builds a new index from the given entities, if multiple entities
+     * shares the same ID and scope, the last one will be used.
+     *
+     * @param entities The entities that should be indexed.
+     * @return The new blacklist index.
+     */
+    static BlacklistIndex of(@Nonnull Iterable<BlacklistEntity> entities) {
+        BlacklistIndex index = new BlacklistIndex(
+            new TLongObjectHashMap<>(), new TLongObjectHashMap<>()
+        );
+
+        for (BlacklistEntity entity : entities) {
+            index.put(entity);
+        }
+
+        return index;
+    }
+
+    /**
+     * Gets the entity with the given ID and scope, if the scope is
+     * null, users will be checked before guilds.
+     *
+     * @param id    The ID of the entity.
+     * @param scope The scope the entity should belong to.
+     * @return Possibly-null, the entity matching the given ID and scope.
+     */
+    @Nullable
+    BlacklistEntity get(long id, @Nullable Scope scope) {
+        if (scope == null) {
+            BlacklistEntity entity = users.get(id);
+            return entity != null ? entity : guilds.get(id);
+        }
+
+        return mapFor(scope).get(id);
+    }
+
+    /**
+     * Checks if an entity with the given ID exists in any scope.
+     *
+     * @param id The ID that should be checked.
+     * @return <code>True</code> if the ID is in the index, <code>False</code> otherwise.
+     */
+    boolean contains(long id) {
+        return users.containsKey(id) || guilds.containsKey(id);
+    }
+
+    /**
+     * Creates a copy of the index with the given entity added to it,
+     * replacing any existing entity with the same ID and scope.
+     *
+     * @param entity The entity that should be added.
+     * @return The new blacklist index.
+     */
+    BlacklistIndex with(@Nonnull BlacklistEntity entity) {
+        BlacklistIndex index = copy();
+        index.put(entity);
+
+        return index;
+    }
+
+    /**
+     * Creates a copy of the index with every entity matching the given ID removed.
+     *
+     * @param id The ID that should be removed.
+     * @return The new blacklist index.
+     */
+    BlacklistIndex without(long id) {
+        BlacklistIndex index = copy();
+        index.users.remove(id);
+        index.guilds.remove(id);
+
+        return index;
+    }
+
+    /**
+     * Creates a copy of the index without any of the expired entities.
+     *
+     * @return The new blacklist index.
+     */
+    BlacklistIndex withoutExpired() {
+        BlacklistIndex index = copy();
+        index.users.retainEntries((id, entity) -> entity.isBlacklisted());
+        index.guilds.retainEntries((id, entity) -> entity.isBlacklisted());
+
+        return index;
+    }
+
+    /**
+     * Gets all the entities in the index, users are listed before guilds.
+     *
+     * @return An unmodifiable list of all the entities in the index.
+     */
+    List<BlacklistEntity> entities() {
+        List<BlacklistEntity> entities = new ArrayList<>(users.size() + guilds.size());
+        entities.addAll(users.valueCollection());
+        entities.addAll(guilds.valueCollection());
+
+        return Collections.unmodifiableList(entities);
+    }
+
+    private BlacklistIndex copy() {
+        return new BlacklistIndex(
+            new TLongObjectHashMap<>(users), new TLongObjectHashMap<>(guilds)
+        );
+    }
+
+    private void put(BlacklistEntity entity) {
+        if (entity.getScope() == null) {
+            return;
+        }
+
+        mapFor(entity.getScope()).put(entity.getId(), entity);
+    }
+
+    private TLongObjectMap<BlacklistEntity> mapFor(Scope scope) {
+        return scope == Scope.GUILD ? guilds : users;
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.cache;
+
+import com.avairebot.Constants;
+import com.avairebot.commands.CommandContainer;
+import com.avairebot.commands.CommandHandler;
+import com.avairebot.contracts.commands.InteractionCommand;
+import com.avairebot.factories.RequestFactory;
+import com.avairebot.metrics.Metrics;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class InteractionImageCache {
+
+    /**
+     * The maximum amount of bytes the images kept in memory can take up combined.
+     */
+    public static final long MAX_MEMORY_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The maximum amount of bytes the images stored on disk can take up combined, once
+     * the limit is reached the least recently used images will be deleted until
+     * the images stored on disk is below the limit again.
+     */
+    public static final long MAX_DISK_SIZE = 512 * 1024 * 1024;
+
+    /**
+     * The recently used interaction images, keyed by their URL.
+     */
+    public static final Cache<String, byte[]> cache = CacheBuilder.newBuilder()
+        .recordStats()
+        .maximumWeight(MAX_MEMORY_SIZE)
+        .weigher((String url, byte[] bytes) -> bytes.length)
+        .build();
+
+    private static final Logger log = LoggerFactory.getLogger(InteractionImageCache.class);
+
+    private static final InteractionImageCache instance = new InteractionImageCache(
+        cache, new File(Constants.STORAGE_PATH, "interactions"), MAX_DISK_SIZE, InteractionImageCache::download
+    );
+
+    private final Cache<String, byte[]> memory;
+    private final File storagePath;
+    private final long maxDiskSize;
+    private final Downloader downloader;
+    private final AtomicLong diskSize = new AtomicLong(-1);
+
+    /**
+     * Creates a new interaction image cache.
+     *
+     * @param memory      The cache the recently used images should be kept in.
+     * @param storagePath The folder the images should be stored in.
+     * @param maxDiskSize The maximum amount of bytes the images stored on disk can take up combined.
+     * @param downloader  The downloader used to download images that aren't stored on disk.
+     */
+    InteractionImageCache(Cache<String, byte[]> memory, File storagePath, long maxDiskSize, Downloader downloader) {
+        this.memory = memory;
+        this.storagePath = storagePath;
+        this.maxDiskSize = maxDiskSize;
+        this.downloader = downloader;
+    }
+
+    /**
+     * Gets the image bytes for the given URL, the image will be loaded from memory if it
+     * has been used recently, otherwise it will be read from the disk, or downloaded
+     * if the image haven't been downloaded before, or was evicted from the disk.
+     *
+     * @param url The URL of the image that should be loaded.
+     * @return The bytes of the image.
+     * @throws IOException if the image couldn't be read from disk or downloaded.
+     */
+    public static byte[] getImage(String url) throws IOException {
+        return instance.get(url);
+    }
+
+    /**
+     * Warms up the image cache by downloading the images for every registered interaction
+     * command that haven't already been stored on disk, the images are downloaded one
+     * at a time in the background so the warm-up doesn't delay the startup.
+     */
+    public static void warmUp() {
+        Set<String> urls = new LinkedHashSet<>();
+        for (CommandContainer container : CommandHandler.getCommands()) {
+            if (container.getCommand() instanceof InteractionCommand) {
+                urls.addAll(((InteractionCommand) container.getCommand()).getInteractionImages());
+            }
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("avaire-interaction-warm-up-%d")
+            .setDaemon(true)
+            .build()
+        );
+
+        executor.submit(() -> {
+            int downloaded = 0;
+            for (String url : urls) {
+                if (instance.warmUp(url)) {
+                    downloaded++;
+                }
+            }
+
+            log.info("Finished warming up interaction images, downloaded {} of {} images", downloaded, urls.size());
+        });
+        executor.shutdown();
+    }
+
+    byte[] get(String url) throws IOException {
+        byte[] bytes = memory.getIfPresent(url);
+        if (bytes != null) {
+            record("memory", bytes.length);
+            return bytes;
+        }
+
+        try {
+            return memory.get(url, () -> load(url));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to load interaction image: " + url, e.getCause());
+        }
+    }
+
+    private boolean warmUp(String url) {
+        File file = generateCacheFile(url);
+        if (file.exists()) {
+            return false;
+        }
+
+        try {
+            store(file, downloader.download(url));
+            return true;
+        } catch (IOException e) {
+            log.warn("Failed to warm up interaction image {}: {}", url, e.getMessage());
+            return false;
+        }
+    }
+
+    private byte[] load(String url) throws IOException {
+        File file = generateCacheFile(url);
+        if (file.exists()) {
+            try {
+                byte[] bytes = Files.readAllBytes(file.toPath());
+
+                // The last modified time is used to determine which images
+                // have been used least recently when evicting from disk.
+                file.setLastModified(System.currentTimeMillis());
+
+                record("disk", bytes.length);
+                return bytes;
+            } catch (IOException e) {
+                log.debug("Failed to read cached interaction image {}, downloading it again: {}", url, e.getMessage());
+            }
+        }
+
+        byte[] bytes = downloader.download(url);
+        record("download", bytes.length);
+
+        try {
+            store(file, bytes);
+        } catch (IOException e) {
+            log.warn("Failed to store interaction image {} on disk: {}", url, e.getMessage());
+        }
+
+        return bytes;
+    }
+
+    private static byte[] download(String url) throws IOException {
+        Request request = new Request.Builder()
+            .url(url)
+            .header("User-Agent", "Mozilla/5.0")
+            .build();
+
+        // The images are already cached in memory and on disk, so they're downloaded
+        // without the HTTP response cache to avoid storing every image twice.
+        try (Response response = RequestFactory.getUncachedClient().newCall(request).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                throw new IOException("Failed to download interaction image " + url + ", got status code " + response.code());
+            }
+            return body.bytes();
+        }
+    }
+
+    private synchronized void store(File file, byte[] bytes) throws IOException {
+        if (!storagePath.exists() && !storagePath.mkdirs()) {
+            throw new IOException("Failed to create the interaction image storage folder");
+        }
+
+        if (diskSize.get() < 0) {
+            diskSize.set(calculateDiskSize());
+        }
+
+        long previousSize = file.exists() ? file.length() : 0;
+
+        File temporaryFile = new File(storagePath, file.getName() + ".tmp");
+        Files.write(temporaryFile.toPath(), bytes);
+        Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        if (diskSize.addAndGet(bytes.length - previousSize) > maxDiskSize) {
+            evictFromDisk(file);
+        }
+    }
+
+    private void evictFromDisk(File keep) {
+        File[] files = storagePath.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (diskSize.get() <= maxDiskSize) {
+                break;
+            }
+
+            long size = file.length();
+            if (!file.equals(keep) && file.delete()) {
+                diskSize.addAndGet(-size);
+            }
+        }
+    }
+
+    private long calculateDiskSize() {
+        long size = 0;
+
+        File[] files = storagePath.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                size += file.length();
+            }
+        }
+
+        return size;
+    }
+
+    File generateCacheFile(String url) {
+        return new File(storagePath, Hashing.sha256().hashString(url, StandardCharsets.UTF_8).toString());
+    }
+
+    private static void record(String source, int bytes) {
+        Metrics.interactionImages.labels(source).inc();
+        Metrics.interactionImageBytes.labels(source).inc(bytes);
+    }
+
+    /**
+     * Downloads the bytes of an image.
+     */
+    @FunctionalInterface
+    interface Downloader {
+
+        /**
+         * Downloads the image from the given URL.
+         *
+         * @param url The URL of the image.
+         * @return The bytes of the image.
+         * @throws IOException if the image couldn't be downloaded.
+         */
+        byte[] download(String url) throws IOException;
+    }
+}
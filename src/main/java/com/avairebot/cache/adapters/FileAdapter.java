@@ -26,21 +26,76 @@ import com.avairebot.Constants;
 import com.avairebot.cache.CacheItem;
 import com.avairebot.contracts.cache.CacheAdapter;
 import com.avairebot.shared.ExitCodes;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.stream.JsonReader;
+import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 public class FileAdapter extends CacheAdapter {
 
+    /**
+     * The maximum size in bytes of a single cache item before it is
+     * too large to be kept in memory, and will always be read from disk.
+     */
+    public static final int MAX_MEMORY_ITEM_SIZE = 64 * 1024;
+
+    /**
+     * The maximum amount of bytes that the cache items kept in memory can take up combined.
+     */
+    public static final long MAX_MEMORY_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * The maximum amount of bytes the cache files on disk can take up combined, once the limit
+     * has been reached the cache items closest to expiring will be deleted until the cache
+     * is below the limit again, the limit is enforced by the expiry sweep.
+     */
+    public static final long MAX_DISK_SIZE = 256 * 1024 * 1024;
+
+    /**
+     * The amount of minutes between each expiry sweep.
+     */
+    public static final long SWEEP_INTERVAL = 10;
+
+    /**
+     * The small, recently used cache items, keyed by their hashed cache token, the items are
+     * kept in memory as the JSON that was written to their cache file, which is parsed the
+     * first time the item is loaded, so the values are the same types as the values loaded
+     * from the disk, the parsed item is then shared by every caller that loads the item.
+     */
+    public static final Cache<String, MemoryItem> cache = CacheBuilder.newBuilder()
+        .recordStats()
+        .maximumWeight(MAX_MEMORY_SIZE)
+        .weigher((String key, MemoryItem item) -> item.size)
+        .build();
+
+    private static final Logger log = LoggerFactory.getLogger(FileAdapter.class);
+
+    /**
+     * The index of every cache file the adapter knows about, keyed by their hashed cache
+     * token, the index allows checking if an item exists, or has expired, without having
+     * to read the cache file, files created before the application was started are
+     * added to the index the first time they're read, or by the expiry sweep.
+     */
+    private final Map<String, IndexEntry> index = new ConcurrentHashMap<>();
+
     private final File storagePath;
 
     /**
@@ -49,27 +104,50 @@ public class FileAdapter extends CacheAdapter {
      * Ava to store things that are persisted through restarts.
      */
     public FileAdapter() {
-        storagePath = new File(Constants.STORAGE_PATH, "cache");
+        this(new File(Constants.STORAGE_PATH, "cache"));
+    }
+
+    /**
+     * Creates the new file cache adapter using the given storage path.
+     *
+     * @param storagePath The folder the cache files should be stored in.
+     */
+    FileAdapter(File storagePath) {
+        this.storagePath = storagePath;
 
         if (!storagePath.exists() && !storagePath.mkdirs()) {
-            LoggerFactory.getLogger(FileAdapter.class).error("Failed to create cache storage folder, exiting application...");
+            log.error("Failed to create cache storage folder, exiting application...");
             System.exit(ExitCodes.EXIT_CODE_NORMAL);
         }
+
+        // Temporary files are only left behind if the application stopped while a cache
+        // item was being written, they're never picked up by the sweep since they're
+        // not cache files, so they're deleted before anything can be written.
+        deleteTemporaryFiles(storagePath);
+
+        ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("avaire-file-cache-sweeper-%d")
+            .setDaemon(true)
+            .build()
+        );
+
+        sweeper.scheduleWithFixedDelay(this::sweep, 0, SWEEP_INTERVAL, TimeUnit.MINUTES);
     }
 
     @Override
     public boolean put(String token, Object value, int seconds) {
-        return writeTo(generateCacheFile(token), value, seconds);
+        return writeTo(token, value, seconds);
     }
 
     @Override
     public Object remember(String token, int seconds, Supplier<Object> closure) {
-        if (has(token)) {
-            return get(token);
+        CacheItem item = load(encrypt(token));
+        if (item != null && item.getTime() > System.currentTimeMillis()) {
+            return item.getValue();
         }
 
         try {
-            writeTo(generateCacheFile(token), closure.get(), seconds);
+            writeTo(token, closure.get(), seconds);
 
             return get(token);
         } catch (Exception e) {
@@ -80,79 +158,108 @@ public class FileAdapter extends CacheAdapter {
 
     @Override
     public boolean forever(String token, Object value) {
-        return writeTo(generateCacheFile(token), value, Integer.MAX_VALUE);
+        return writeTo(token, value, Integer.MAX_VALUE);
     }
 
     @Override
     public Object get(String token) {
-        File cacheFile = generateCacheFile(token);
-        if (cacheFile == null || !cacheFile.exists()) {
+        String hash = encrypt(token);
+        if (hash == null || isKnownToBeExpired(hash)) {
             return null;
         }
 
-        try {
-            CacheItem item = AvaIre.gson.fromJson(new String(Files.readAllBytes(cacheFile.toPath())), CacheItem.class);
-            if (item == null) {
-                return false;
-            }
-
-            if (item.getTime() > System.currentTimeMillis()) {
-                return item.getValue();
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+        CacheItem item = load(hash);
+        if (item == null || item.getTime() <= System.currentTimeMillis()) {
+            return null;
         }
-        return null;
+        return item.getValue();
     }
 
     @Override
     public CacheItem getRaw(String token) {
-        File cacheFile = generateCacheFile(token);
-        if (cacheFile == null || !cacheFile.exists()) {
-            return null;
+        return load(encrypt(token));
+    }
+
+    @Override
+    public boolean has(String token) {
+        String hash = encrypt(token);
+        if (hash == null) {
+            return false;
         }
 
-        try {
-            return AvaIre.gson.fromJson(new String(Files.readAllBytes(cacheFile.toPath())), CacheItem.class);
-        } catch (IOException e) {
-            e.printStackTrace();
-            return null;
+        IndexEntry entry = index.get(hash);
+        if (entry != null) {
+            return entry.time > System.currentTimeMillis();
         }
+
+        CacheItem item = load(hash);
+        return item != null && item.getTime() > System.currentTimeMillis();
     }
 
     @Override
-    public boolean has(String token) {
-        File cacheFile = generateCacheFile(token);
-        if (cacheFile == null || !cacheFile.exists()) {
-            return false;
+    public CacheItem forget(String token) {
+        String hash = encrypt(token);
+        if (hash == null) {
+            return null;
         }
 
-        try {
-            CacheItem item = AvaIre.gson.fromJson(new String(Files.readAllBytes(cacheFile.toPath())), CacheItem.class);
-            if (item == null) {
-                return false;
-            }
+        CacheItem item = load(hash);
 
-            return item.getTime() > System.currentTimeMillis();
-        } catch (IOException e) {
-            e.printStackTrace();
-            return false;
+        index.remove(hash);
+        cache.invalidate(hash);
+
+        File cacheFile = generateCacheFile(hash);
+        if (cacheFile.exists()) {
+            cacheFile.delete();
         }
+
+        return item;
     }
 
     @Override
-    public CacheItem forget(String token) {
-        File cacheFile = generateCacheFile(token);
-        if (cacheFile == null || !cacheFile.exists()) {
+    public boolean flush() {
+        index.clear();
+        cache.invalidateAll();
+
+        deleteRecursively(storagePath, true);
+
+        return true;
+    }
+
+    /**
+     * Loads the cache item with the given hashed token, the item will be loaded from
+     * memory if it has been used recently, otherwise it will be read and parsed
+     * from its cache file, and then kept in memory if it is small enough.
+     *
+     * @param hash The hashed cache item token.
+     * @return Possibly-null, the cache item, or null if no cache item exists for the token.
+     */
+    private CacheItem load(String hash) {
+        if (hash == null) {
+            return null;
+        }
+
+        MemoryItem memoryItem = cache.getIfPresent(hash);
+        if (memoryItem != null) {
+            return memoryItem.getItem();
+        }
+
+        File cacheFile = generateCacheFile(hash);
+        if (!cacheFile.exists()) {
+            index.remove(hash);
             return null;
         }
 
         try {
-            CacheItem item = AvaIre.gson.fromJson(new String(Files.readAllBytes(cacheFile.toPath())), CacheItem.class);
+            byte[] bytes = Files.readAllBytes(cacheFile.toPath());
+            String json = new String(bytes, StandardCharsets.UTF_8);
+
+            CacheItem item = AvaIre.gson.fromJson(json, CacheItem.class);
             if (item == null) {
                 return null;
             }
-            cacheFile.delete();
+
+            store(hash, cacheFile, item.getTime(), new MemoryItem(json, item, bytes.length));
 
             return item;
         } catch (IOException e) {
@@ -161,86 +268,236 @@ public class FileAdapter extends CacheAdapter {
         }
     }
 
-    @Override
-    public boolean flush() {
-        deleteRecursively(storagePath, true);
-
-        return true;
+    private boolean isKnownToBeExpired(String hash) {
+        IndexEntry entry = index.get(hash);
+        return entry != null && entry.time <= System.currentTimeMillis();
     }
 
-    private void deleteRecursively(File folder, boolean isRoot) {
-        File[] files = folder.listFiles();
-        if (files != null) { //some JVMs return null for empty dirs
-            for (File f : files) {
-                if (f.isDirectory()) {
-                    deleteRecursively(f, false);
-                } else {
-                    f.delete();
-                }
-            }
-        }
+    private void store(String hash, File file, long time, MemoryItem item) {
+        index.put(hash, new IndexEntry(file, time, item.size));
 
-        if (!isRoot) {
-            folder.delete();
+        if (item.size <= MAX_MEMORY_ITEM_SIZE) {
+            cache.put(hash, item);
+        } else {
+            cache.invalidate(hash);
         }
     }
 
-    private boolean writeTo(File file, Object value, long seconds) {
-        try {
-            if (!file.exists() && !file.createNewFile()) {
-                return false;
-            }
-        } catch (IOException ignored) {
+    private boolean writeTo(String token, Object value, long seconds) {
+        String hash = encrypt(token);
+        if (hash == null) {
+            return false;
         }
 
-        Map<String, Object> cacheItem = new HashMap<>();
-        cacheItem.put("time", System.currentTimeMillis() + (seconds * 1000));
-        cacheItem.put("value", value);
+        File file = generateCacheFile(hash);
+        if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+            return false;
+        }
+
+        long time = System.currentTimeMillis() + (seconds * 1000);
+
+        // The expiry time is written first, so the sweep can read the time
+        // without having to read through the rest of the cache file.
+        Map<String, Object> cacheItem = new LinkedHashMap<>();
+        cacheItem.put("time", time);
         cacheItem.put("key", file.getName());
+        cacheItem.put("value", value);
 
-        FileWriter fw = null;
-        BufferedWriter bw = null;
+        String json = AvaIre.gson.toJson(cacheItem) + "\n";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
 
+        // The cache item is written to a temporary file first, and then moved
+        // in place of the cache file, so the cache file is never read while
+        // it has only been partially written to.
+        File temporaryFile = new File(file.getParentFile(), file.getName() + ".tmp");
         try {
-            fw = new FileWriter(file, false);
-            bw = new BufferedWriter(fw);
+            Files.write(temporaryFile.toPath(), bytes);
 
-            bw.write(AvaIre.gson.toJson(cacheItem) + "\n");
+            try {
+                Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
         } catch (IOException e) {
             e.printStackTrace();
+            temporaryFile.delete();
             return false;
-        } finally {
-            try {
-                if (bw != null) {
-                    bw.close();
+        }
+
+        store(hash, file, time, new MemoryItem(json, null, bytes.length));
+
+        return true;
+    }
+
+    /**
+     * Sweeps the cache storage, deleting every cache file that has expired, if the cache
+     * files combined still takes up more than the {@link #MAX_DISK_SIZE} after all the
+     * expired files have been deleted, the files closest to expiring will be deleted
+     * until the cache storage is below the limit again.
+     */
+    private void sweep() {
+        try {
+            indexStorage(storagePath);
+
+            long now = System.currentTimeMillis();
+            long size = 0;
+            int deleted = 0;
+
+            List<Map.Entry<String, IndexEntry>> entries = new ArrayList<>();
+            for (Map.Entry<String, IndexEntry> entry : index.entrySet()) {
+                if (entry.getValue().time > now) {
+                    size += entry.getValue().size;
+                    entries.add(entry);
+                } else if (delete(entry.getKey(), entry.getValue())) {
+                    deleted++;
                 }
+            }
+
+            if (size > MAX_DISK_SIZE) {
+                entries.sort(Comparator.comparingLong(entry -> entry.getValue().time));
+
+                for (Map.Entry<String, IndexEntry> entry : entries) {
+                    if (size <= MAX_DISK_SIZE) {
+                        break;
+                    }
 
-                if (fw != null) {
-                    fw.close();
+                    if (delete(entry.getKey(), entry.getValue())) {
+                        size -= entry.getValue().size;
+                        deleted++;
+                    }
                 }
-            } catch (IOException ex) {
-                ex.printStackTrace();
             }
+
+            if (deleted > 0) {
+                log.debug("File cache sweep deleted {} cache files, {} cache files remaining", deleted, index.size());
+            }
+        } catch (Exception e) {
+            log.error("An exception was thrown while sweeping the file cache", e);
         }
-        return true;
     }
 
-    private File generateCacheFile(String string) {
-        String cacheToken = encrypt(string);
-        if (cacheToken == null) {
-            return null;
+    /**
+     * Adds every cache file in the given folder that isn't already in the index to
+     * the index, this is how cache files created before the application was
+     * started ends up in the index so they can be swept once they expire.
+     *
+     * @param folder The folder that should be indexed.
+     */
+    private void indexStorage(File folder) {
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            if (file.isDirectory()) {
+                indexStorage(file);
+                continue;
+            }
+
+            String hash = toHash(file);
+            if (hash == null || index.containsKey(hash)) {
+                continue;
+            }
+
+            try {
+                index.putIfAbsent(hash, new IndexEntry(file, readExpiryTime(file), file.length()));
+            } catch (Exception e) {
+                // The file is either not a cache file, or is corrupt, either way it
+                // is indexed as already expired so it is deleted by the sweep.
+                index.putIfAbsent(hash, new IndexEntry(file, 0, file.length()));
+            }
+        }
+    }
+
+    /**
+     * Reads the expiry time from the given cache file, the file is read as a stream, and
+     * only up to the time, any values before the time are skipped without being
+     * parsed, so large cache files doesn't have to be loaded into memory.
+     *
+     * @param file The cache file the expiry time should be read from.
+     * @return The expiry time, or <code>0</code> if the cache file has no expiry time.
+     * @throws IOException if the file can't be read, or isn't valid JSON.
+     */
+    private long readExpiryTime(File file) throws IOException {
+        try (Reader fileReader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+             JsonReader reader = new JsonReader(fileReader)) {
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                if ("time".equals(reader.nextName())) {
+                    return reader.nextLong();
+                }
+                reader.skipValue();
+            }
+        }
+        return 0;
+    }
+
+    private boolean delete(String hash, IndexEntry entry) {
+        // The entry is only removed if it hasn't been replaced since the sweep started,
+        // if it has the cache file was rewritten while sweeping and shouldn't be deleted.
+        if (!index.remove(hash, entry)) {
+            return false;
         }
 
+        cache.invalidate(hash);
+
+        return entry.file.delete();
+    }
+
+    private void deleteTemporaryFiles(File folder) {
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            if (file.isDirectory()) {
+                deleteTemporaryFiles(file);
+            } else if (file.getName().endsWith(".tmp") && !file.delete()) {
+                log.warn("Failed to delete the temporary cache file {}", file);
+            }
+        }
+    }
+
+    private void deleteRecursively(File folder, boolean isRoot) {
+        File[] files = folder.listFiles();
+        if (files != null) { //some JVMs return null for empty dirs
+            for (File f : files) {
+                if (f.isDirectory()) {
+                    deleteRecursively(f, false);
+                } else {
+                    f.delete();
+                }
+            }
+        }
+
+        if (!isRoot) {
+            folder.delete();
+        }
+    }
+
+    private File generateCacheFile(String cacheToken) {
         File cachePath = new File(storagePath,
             cacheToken.substring(0, 2) + File.separator
                 + cacheToken.substring(2, 4) + File.separator
         );
 
-        if (!cachePath.exists()) {
-            cachePath.mkdirs();
+        return new File(cachePath, cacheToken.substring(4, cacheToken.length()));
+    }
+
+    private String toHash(File file) {
+        File parent = file.getParentFile();
+        if (parent == null || parent.getParentFile() == null) {
+            return null;
         }
 
-        return new File(cachePath, cacheToken.substring(4, cacheToken.length()));
+        String hash = parent.getParentFile().getName() + parent.getName() + file.getName();
+        if (hash.length() != 32) {
+            return null;
+        }
+        return hash;
     }
 
     private String encrypt(String string) {
@@ -261,4 +518,41 @@ public class FileAdapter extends CacheAdapter {
             return null;
         }
     }
+
+    private static class IndexEntry {
+
+        private final File file;
+        private final long time;
+        private final long size;
+
+        IndexEntry(File file, long time, long size) {
+            this.file = file;
+            this.time = time;
+            this.size = size;
+        }
+    }
+
+    static class MemoryItem {
+
+        private final String json;
+        private final int size;
+        private volatile CacheItem item;
+
+        MemoryItem(String json, CacheItem item, int size) {
+            this.json = json;
+            this.item = item;
+            this.size = size;
+        }
+
+        CacheItem getItem() {
+            CacheItem item = this.item;
+            if (item == null) {
+                // Two threads may both parse the item the first time it is loaded, either
+                // result is equally valid, so the last one to finish is simply kept.
+                item = AvaIre.gson.fromJson(json, CacheItem.class);
+                this.item = item;
+            }
+            return item;
+        }
+    }
 }
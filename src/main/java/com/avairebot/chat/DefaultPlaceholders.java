@@ -21,18 +21,34 @@
 
 package com.avairebot.chat;
 
-import com.avairebot.utilities.StringReplacementUtil;
+import com.avairebot.utilities.StringTemplate;
 import net.dv8tion.jda.core.entities.*;
 
 class DefaultPlaceholders {
 
+    private static final String[] guildKeys = new String[]{":guildid"};
+    private static final String[] channelKeys = new String[]{":channelname", ":channelid", ":channel"};
+    private static final String[] userKeys = new String[]{":username", ":userid", ":user"};
+
+    private static final String[] allKeys = new String[]{
+        ":username", ":userid", ":user",
+        ":channelname", ":channelid", ":channel",
+        ":guildid"
+    };
+
     static String parse(PlaceholderType type, Object object, String message) {
         switch (type) {
             case ALL:
                 if (object instanceof Message && ((Message) object).getChannelType().isGuild()) {
                     Message jdaMessage = (Message) object;
-
-                    return parseGuild(jdaMessage.getGuild(), parseChannel(jdaMessage.getTextChannel(), parseUser(jdaMessage.getAuthor(), message)));
+                    User author = jdaMessage.getAuthor();
+                    TextChannel channel = jdaMessage.getTextChannel();
+
+                    return StringTemplate.replace(message, allKeys, new String[]{
+                        author.getName(), author.getId(), author.getAsMention(),
+                        channel.getName(), channel.getId(), channel.getAsMention(),
+                        jdaMessage.getGuild().getId()
+                    });
                 }
 
             case GUILD:
@@ -81,7 +97,7 @@ class DefaultPlaceholders {
     }
 
     private static String parseGuild(Guild guild, String message) {
-        return StringReplacementUtil.replaceAll(message, ":guildid", guild.getId());
+        return StringTemplate.replace(message, guildKeys, new String[]{guild.getId()});
     }
 
     static String toChannel(Message message, String string) {
@@ -90,11 +106,9 @@ class DefaultPlaceholders {
     }
 
     private static String parseChannel(TextChannel channel, String message) {
-        message = StringReplacementUtil.replaceAll(message, ":channelname", channel.getName());
-        message = StringReplacementUtil.replaceAll(message, ":channelid", channel.getId());
-        message = StringReplacementUtil.replaceAll(message, ":channel", channel.getAsMention());
-
-        return message;
+        return StringTemplate.replace(message, channelKeys, new String[]{
+            channel.getName(), channel.getId(), channel.getAsMention()
+        });
     }
 
     static String toUser(Message message, String string) {
@@ -103,10 +117,8 @@ class DefaultPlaceholders {
     }
 
     private static String parseUser(User author, String message) {
-        message = StringReplacementUtil.replaceAll(message, ":username", author.getName());
-        message = StringReplacementUtil.replaceAll(message, ":userid", author.getId());
-        message = StringReplacementUtil.replaceAll(message, ":user", author.getAsMention());
-
-        return message;
+        return StringTemplate.replace(message, userKeys, new String[]{
+            author.getName(), author.getId(), author.getAsMention()
+        });
     }
 }
@@ -23,7 +23,7 @@ package com.avairebot.chat;
 
 import com.avairebot.commands.CommandMessage;
 import com.avairebot.contracts.chat.Restable;
-import com.avairebot.utilities.StringReplacementUtil;
+import com.avairebot.utilities.StringTemplate;
 import net.dv8tion.jda.core.EmbedBuilder;
 import net.dv8tion.jda.core.entities.Member;
 import net.dv8tion.jda.core.entities.MessageChannel;
@@ -205,11 +205,15 @@ public class PlaceholderMessage extends Restable {
 
         List<String> keys = new ArrayList<>(placeholders.keySet());
         keys.sort((o1, o2) -> o2.length() - o1.length());
-        keys.forEach(key -> {
-            message = StringReplacementUtil.replaceAll(
-                message, ":" + key, placeholders.get(key)
-            );
-        });
+
+        String[] tokens = new String[keys.size()];
+        String[] values = new String[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            tokens[i] = ":" + keys.get(i);
+            values[i] = placeholders.get(keys.get(i));
+        }
+
+        message = StringTemplate.replace(message, tokens, values);
 
         return trimString(
             formatGlobalMessage(message),
@@ -81,6 +81,10 @@ public class Category {
         return isGlobal;
     }
 
+    void forgetCache(long guildId) {
+        cache.invalidate(guildId + ":" + name);
+    }
+
     Category setGlobal(boolean value) {
         isGlobal = value;
         return this;
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.commands;
+
+import com.avairebot.database.transformers.GuildTransformer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * The command dispatch table for a single guild, or for the default prefixes, the
+ * table knows which prefix every category uses, and what command every alias
+ * points to, so resolving the first word of a message to a command only takes
+ * a single trigger lookup for each of the distinct prefixes used by the guild.
+ */
+final class CommandDispatchTable {
+
+    private final GuildTransformer source;
+    private final Map<Category, String> prefixes;
+    private final String[] distinctPrefixes;
+    private final Map<String, CommandContainer> aliases;
+
+    private CommandDispatchTable(
+        @Nullable GuildTransformer source,
+        @Nonnull Map<Category, String> prefixes,
+        @Nonnull Map<String, CommandContainer> aliases
+    ) {
+        this.source = source;
+        this.prefixes = prefixes;
+        this.distinctPrefixes = new LinkedHashSet<>(prefixes.values()).toArray(new String[0]);
+        this.aliases = aliases;
+    }
+
+    /**
+     * Builds the dispatch table for the default category prefixes.
+     *
+     * @param categories The categories used by the registered commands.
+     * @return The default dispatch table.
+     */
+    static CommandDispatchTable ofDefaults(@Nonnull Set<Category> categories) {
+        Map<Category, String> prefixes = new IdentityHashMap<>();
+        for (Category category : categories) {
+            prefixes.put(category, category.getPrefix().toLowerCase());
+        }
+
+        return new CommandDispatchTable(null, prefixes, Collections.emptyMap());
+    }
+
+    /**
+     * Builds the dispatch table for the guild the given transformer belongs to, using
+     * the custom prefixes and aliases set by the guild, the aliases are resolved
+     * using the default prefixes, the same way they're stored by the guild.
+     *
+     * @param index       The command index the table should be build for.
+     * @param transformer The guild transformer the table should be build from.
+     * @return The dispatch table for the guild.
+     */
+    static CommandDispatchTable ofGuild(@Nonnull CommandHandler.CommandIndex index, @Nonnull GuildTransformer transformer) {
+        Map<Category, String> prefixes = new IdentityHashMap<>();
+        for (Category category : index.categories) {
+            String prefix = category.isGlobal() ? category.getPrefix() : transformer.getPrefixes().getOrDefault(
+                category.getName().toLowerCase(), category.getPrefix()
+            );
+
+            prefixes.put(category, prefix.toLowerCase());
+        }
+
+        Map<String, CommandContainer> aliases = new HashMap<>();
+        for (Map.Entry<String, String> entry : transformer.getAliases().entrySet()) {
+            String[] aliasArguments = entry.getValue().split(" ");
+
+            CommandContainer container = index.defaults.resolve(index, aliasArguments[0].toLowerCase());
+            if (container == null) {
+                continue;
+            }
+
+            aliases.put(entry.getKey().toLowerCase(), aliasArguments.length == 1 ? container
+                : new AliasCommandContainer(container, Arrays.copyOfRange(aliasArguments, 1, aliasArguments.length))
+            );
+        }
+
+        return new CommandDispatchTable(transformer, prefixes, aliases);
+    }
+
+    /**
+     * Checks if the dispatch table was built from the given guild transformer, the
+     * guild controller replaces the transformer when the guild is reloaded
+     * from the database, which makes the old table outdated.
+     *
+     * @param transformer The current guild transformer for the guild.
+     * @return <code>True</code> if the table was built from the transformer, <code>False</code> otherwise.
+     */
+    boolean isBuiltFrom(@Nullable GuildTransformer transformer) {
+        return source == transformer;
+    }
+
+    /**
+     * Resolves the given lowercase command string, made up of the prefix and
+     * the trigger, to the command with the highest priority matching it.
+     *
+     * @param index   The command index holding the registered commands.
+     * @param command The lowercase command string, including the prefix.
+     * @return Possibly-null, the command matching the command string.
+     */
+    @Nullable
+    CommandContainer resolve(@Nonnull CommandHandler.CommandIndex index, @Nonnull String command) {
+        List<CommandContainer> commands = null;
+
+        for (String prefix : distinctPrefixes) {
+            if (!command.startsWith(prefix)) {
+                continue;
+            }
+
+            List<CommandContainer> containers = index.triggers.get(command.substring(prefix.length()));
+            if (containers == null) {
+                continue;
+            }
+
+            for (CommandContainer container : containers) {
+                if (!prefix.equals(prefixes.get(container.getCategory()))) {
+                    continue;
+                }
+
+                if (commands == null) {
+                    commands = new ArrayList<>(containers.size());
+                }
+                commands.add(container);
+            }
+        }
+
+        return commands == null ? null : CommandHandler.getHighPriorityCommandFromCommands(commands);
+    }
+
+    /**
+     * Resolves the given lowercase alias to the command it points to.
+     *
+     * @param alias The lowercase alias.
+     * @return Possibly-null, the command the alias points to.
+     */
+    @Nullable
+    CommandContainer resolveAlias(@Nonnull String alias) {
+        return aliases.get(alias);
+    }
+}
@@ -30,17 +30,51 @@ import com.avairebot.database.transformers.GuildTransformer;
 import com.avairebot.exceptions.InvalidCommandPrefixException;
 import com.avairebot.metrics.Metrics;
 import com.avairebot.middleware.MiddlewareHandler;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import net.dv8tion.jda.core.entities.Message;
 import net.dv8tion.jda.core.utils.Checks;
 
 import javax.annotation.Nonnull;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings("WeakerAccess")
 public class CommandHandler {
 
+    /**
+     * The command dispatch tables for guilds with custom prefixes or
+     * aliases, guilds without any will use the default table.
+     */
+    public static final Cache<Long, CommandDispatchTable> dispatchCache = CacheBuilder.newBuilder()
+        .recordStats()
+        .expireAfterAccess(5, TimeUnit.MINUTES)
+        .build();
+
     private static final Set<CommandContainer> COMMANDS = new HashSet<>();
 
+    /**
+     * The index built from the registered commands, the index is
+     * reset every time a command is registered or unregistered,
+     * and will be rebuilt the next time a command is looked up.
+     */
+    private static volatile CommandIndex index = null;
+
+    /**
+     * The AvaIre application instance, only used by the deprecated lookups
+     * that doesn't take the application instance as an argument.
+     */
+    private static AvaIre avaire;
+
+    /**
+     * Sets the AvaIre application instance used by the deprecated command lookups.
+     *
+     * @param avaire The AvaIre application instance.
+     */
+    public static void setAvaire(AvaIre avaire) {
+        CommandHandler.avaire = avaire;
+    }
+
     /**
      * Get commands container from the given commands instance.
      *
@@ -82,11 +116,25 @@ public class CommandHandler {
      * If a commands priority is set to {@link CommandPriority#IGNORED}
      * the commands will be omitted from the search.
      *
+     * @param avaire  The AvaIre application class instance.
+     * @param message The JDA message object for the current message.
+     * @return Possibly-null, The commands matching the given commands with the highest priority.
+     */
+    public static CommandContainer getCommand(AvaIre avaire, Message message) {
+        return getPrefixedCommand(avaire, message, message.getContentRaw().split(" ")[0].toLowerCase());
+    }
+
+    /**
+     * Get the commands matching the message raw contents first argument, using
+     * the AvaIre application instance set through {@link #setAvaire(AvaIre)}.
+     *
      * @param message The JDA message object for the current message.
      * @return Possibly-null, The commands matching the given commands with the highest priority.
+     * @deprecated Use {@link #getCommand(AvaIre, Message)} instead.
      */
+    @Deprecated
     public static CommandContainer getCommand(Message message) {
-        return getCommand(message, message.getContentRaw().split(" ")[0].toLowerCase());
+        return getCommand(avaire, message);
     }
 
     /**
@@ -105,7 +153,7 @@ public class CommandHandler {
      * @return Possibly-null, The commands matching the given commands with the highest priority, or the alias commands matching the given commands.
      */
     public static CommandContainer getCommand(AvaIre avaire, Message message, @Nonnull String command) {
-        CommandContainer commandContainer = getCommand(message);
+        CommandContainer commandContainer = getCommand(avaire, message);
         if (commandContainer != null) {
             return commandContainer;
         }
@@ -122,22 +170,29 @@ public class CommandHandler {
      * If a commands priority is set to {@link CommandPriority#IGNORED}
      * the commands will be omitted from the search.
      *
+     * @param avaire  The AvaIre application class instance.
      * @param message The JDA message object for the current message.
      * @param command The commands string that should be matched with the commands.
      * @return Possibly-null, The commands matching the given commands with the highest priority.
      */
-    public static CommandContainer getCommand(Message message, @Nonnull String command) {
-        List<CommandContainer> commands = new ArrayList<>();
-        for (CommandContainer container : COMMANDS) {
-            String commandPrefix = container.getCommand().generateCommandPrefix(message);
-            for (String trigger : container.getTriggers()) {
-                if (command.equalsIgnoreCase(commandPrefix + trigger)) {
-                    commands.add(container);
-                }
-            }
-        }
+    public static CommandContainer getPrefixedCommand(AvaIre avaire, Message message, @Nonnull String command) {
+        CommandIndex index = getIndex();
 
-        return getHighPriorityCommandFromCommands(commands);
+        return getDispatchTable(avaire, index, message).resolve(index, command.toLowerCase());
+    }
+
+    /**
+     * Get the commands matching the given commands, using the AvaIre
+     * application instance set through {@link #setAvaire(AvaIre)}.
+     *
+     * @param message The JDA message object for the current message.
+     * @param command The commands string that should be matched with the commands.
+     * @return Possibly-null, The commands matching the given commands with the highest priority.
+     * @deprecated Use {@link #getPrefixedCommand(AvaIre, Message, String)} instead.
+     */
+    @Deprecated
+    public static CommandContainer getCommand(Message message, @Nonnull String command) {
+        return getPrefixedCommand(avaire, message, command);
     }
 
     /**
@@ -153,17 +208,9 @@ public class CommandHandler {
      * @return Possibly-null, The commands matching the given commands with the highest priority.
      */
     public static CommandContainer getRawCommand(@Nonnull String command) {
-        List<CommandContainer> commands = new ArrayList<>();
-        for (CommandContainer container : COMMANDS) {
-            String commandPrefix = container.getDefaultPrefix();
-            for (String trigger : container.getTriggers()) {
-                if (command.equalsIgnoreCase(commandPrefix + trigger)) {
-                    commands.add(container);
-                }
-            }
-        }
+        CommandIndex index = getIndex();
 
-        return getHighPriorityCommandFromCommands(commands);
+        return index.defaults.resolve(index, command.toLowerCase());
     }
 
     /**
@@ -181,29 +228,8 @@ public class CommandHandler {
             return null;
         }
 
-        String[] aliasArguments = null;
-        String commandString = command.split(" ")[0].toLowerCase();
-        List<CommandContainer> commands = new ArrayList<>();
-        for (Map.Entry<String, String> entry : transformer.getAliases().entrySet()) {
-            if (commandString.startsWith(entry.getKey())) {
-                CommandContainer commandContainer = getRawCommand(entry.getValue().split(" ")[0]);
-                if (commandContainer != null) {
-                    commands.add(commandContainer);
-                    aliasArguments = entry.getValue().split(" ");
-                }
-            }
-        }
-
-        CommandContainer commandContainer = getHighPriorityCommandFromCommands(commands);
-
-        if (commandContainer == null) {
-            return null;
-        }
-
-        if (aliasArguments == null || aliasArguments.length == 1) {
-            return commandContainer;
-        }
-        return new AliasCommandContainer(commandContainer, Arrays.copyOfRange(aliasArguments, 1, aliasArguments.length));
+        return getDispatchTable(getIndex(), message, transformer)
+            .resolveAlias(command.split(" ")[0].toLowerCase());
     }
 
     /**
@@ -217,20 +243,22 @@ public class CommandHandler {
      * @return Possibly-null, The commands matching the given commands trigger with the highest priority.
      */
     public static CommandContainer getLazyCommand(@Nonnull String commandTrigger) {
-        List<CommandContainer> commands = new ArrayList<>();
-        for (CommandContainer container : COMMANDS) {
-            if (container.getPriority().equals(CommandPriority.IGNORED)) {
-                continue;
-            }
+        return getIndex().lazyTriggers.get(commandTrigger.toLowerCase());
+    }
 
-            for (String trigger : container.getTriggers()) {
-                if (commandTrigger.equalsIgnoreCase(trigger)) {
-                    commands.add(container);
-                }
-            }
-        }
+    /**
+     * Forgets the cached command dispatch table for the given guild, this should be called
+     * whenever the prefixes or aliases for the guild is changed, so the next command
+     * used in the guild will be matched against the new prefixes and aliases.
+     *
+     * @param guildId The ID of the guild that should be forgotten.
+     */
+    public static void forgetCache(long guildId) {
+        dispatchCache.invalidate(guildId);
 
-        return getHighPriorityCommandFromCommands(commands);
+        for (Category category : CategoryHandler.getValues()) {
+            category.forgetCache(guildId);
+        }
     }
 
     /**
@@ -240,7 +268,7 @@ public class CommandHandler {
      * @param commands The list of commands matching some query.
      * @return Possibly-null, The commands container with the highest priority.
      */
-    private static CommandContainer getHighPriorityCommandFromCommands(List<CommandContainer> commands) {
+    static CommandContainer getHighPriorityCommandFromCommands(List<CommandContainer> commands) {
         if (commands.isEmpty()) {
             return null;
         }
@@ -265,7 +293,7 @@ public class CommandHandler {
      * @param command The commands that should be registered into the commands handler.
      */
     @SuppressWarnings("ConstantConditions")
-    public static void register(@Nonnull Command command) {
+    public static synchronized void register(@Nonnull Command command) {
         Category category = CategoryHandler.fromCommand(command);
         Checks.notNull(category, String.format("%s :: %s", command.getName(), "Invalid commands category, commands category"));
         Checks.notNull(command.getDescription(new FakeCommandMessage()), String.format("%s :: %s", command.getName(), "Command description"));
@@ -302,6 +330,8 @@ public class CommandHandler {
         Metrics.commandsExecuted.labels(command.getClass().getSimpleName()).inc(0D);
 
         COMMANDS.add(new CommandContainer(command, category, commandUri));
+
+        resetIndex();
     }
 
     /**
@@ -310,7 +340,7 @@ public class CommandHandler {
      * @param command The commands that should be un-registered into the commands handler.
      */
     @SuppressWarnings("ConstantConditions")
-    public static void unregister(@Nonnull Command command) {
+    public static synchronized void unregister(@Nonnull Command command) {
 
         for(CommandContainer container : COMMANDS)
         {
@@ -320,6 +350,8 @@ public class CommandHandler {
                 break;
             }
         }
+
+        resetIndex();
     }
 
 
@@ -332,4 +364,83 @@ public class CommandHandler {
     public static Collection<CommandContainer> getCommands() {
         return COMMANDS;
     }
+
+    private static CommandIndex getIndex() {
+        CommandIndex current = index;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (CommandHandler.class) {
+            if (index == null) {
+                index = new CommandIndex(COMMANDS);
+            }
+            return index;
+        }
+    }
+
+    private static void resetIndex() {
+        index = null;
+        dispatchCache.invalidateAll();
+    }
+
+    private static CommandDispatchTable getDispatchTable(AvaIre avaire, CommandIndex index, Message message) {
+        if (!message.getChannelType().isGuild()) {
+            return index.defaults;
+        }
+
+        if (index.categories.stream().allMatch(Category::isGlobal)) {
+            return index.defaults;
+        }
+
+        return getDispatchTable(index, message, GuildController.fetchGuild(avaire, message));
+    }
+
+    private static CommandDispatchTable getDispatchTable(CommandIndex index, Message message, GuildTransformer transformer) {
+        if (transformer == null || (transformer.getPrefixes().isEmpty() && transformer.getAliases().isEmpty())) {
+            return index.defaults;
+        }
+
+        CommandDispatchTable table = dispatchCache.getIfPresent(message.getGuild().getIdLong());
+        if (table == null || !table.isBuiltFrom(transformer)) {
+            table = CommandDispatchTable.ofGuild(index, transformer);
+            dispatchCache.put(message.getGuild().getIdLong(), table);
+        }
+
+        return table;
+    }
+
+    /**
+     * The lookup index for the registered commands, mapping every lowercase trigger
+     * to the commands using it, regardless of the prefix used by the commands.
+     */
+    static final class CommandIndex {
+
+        final Map<String, List<CommandContainer>> triggers = new HashMap<>();
+        final Map<String, CommandContainer> lazyTriggers = new HashMap<>();
+        final Set<Category> categories = Collections.newSetFromMap(new IdentityHashMap<>());
+        final CommandDispatchTable defaults;
+
+        CommandIndex(Set<CommandContainer> commands) {
+            Map<String, List<CommandContainer>> lazyCommands = new HashMap<>();
+
+            for (CommandContainer container : commands) {
+                categories.add(container.getCategory());
+
+                for (String trigger : container.getTriggers()) {
+                    triggers.computeIfAbsent(trigger.toLowerCase(), key -> new ArrayList<>()).add(container);
+
+                    if (!container.getPriority().equals(CommandPriority.IGNORED)) {
+                        lazyCommands.computeIfAbsent(trigger.toLowerCase(), key -> new ArrayList<>()).add(container);
+                    }
+                }
+            }
+
+            for (Map.Entry<String, List<CommandContainer>> entry : lazyCommands.entrySet()) {
+                lazyTriggers.put(entry.getKey(), getHighPriorityCommandFromCommands(entry.getValue()));
+            }
+
+            defaults = CommandDispatchTable.ofDefaults(categories);
+        }
+    }
 }
@@ -107,7 +107,7 @@ public class AliasCommand extends Command {
 
         String alias = args[0].toLowerCase();
         String[] split = String.join(" ", Arrays.copyOfRange(args, 1, args.length)).split(" ");
-        CommandContainer command = CommandHandler.getCommand(context.getMessage(), split[0]);
+        CommandContainer command = CommandHandler.getPrefixedCommand(avaire, context.getMessage(), split[0]);
         if (command == null) {
             return sendErrorMessage(context, context.i18n("invalidCommand", split[0]));
         }
@@ -154,6 +154,8 @@ public class AliasCommand extends Command {
     }
 
     private void updateGuildAliases(CommandMessage message, GuildTransformer transformer) throws SQLException {
+        CommandHandler.forgetCache(message.getGuild().getIdLong());
+
         avaire.getDatabase().newQueryBuilder(Constants.GUILD_TABLE_NAME)
             .where("id", message.getGuild().getId())
             .update(statement -> statement.set("aliases", AvaIre.gson.toJson(transformer.getAliases()), true));
@@ -25,6 +25,7 @@ import com.avairebot.AvaIre;
 import com.avairebot.Constants;
 import com.avairebot.commands.Category;
 import com.avairebot.commands.CategoryHandler;
+import com.avairebot.commands.CommandHandler;
 import com.avairebot.commands.CommandMessage;
 import com.avairebot.commands.CommandPriority;
 import com.avairebot.contracts.commands.Command;
@@ -178,6 +179,8 @@ public class ChangePrefixCommand extends Command {
     }
 
     private void updateGuildPrefixes(CommandMessage context, GuildTransformer transformer) throws SQLException {
+        CommandHandler.forgetCache(context.getGuild().getIdLong());
+
         avaire.getDatabase().newQueryBuilder(Constants.GUILD_TABLE_NAME)
             .where("id", context.getGuild().getId())
             .update(statement -> {
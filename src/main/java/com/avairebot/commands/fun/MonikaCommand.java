@@ -31,6 +31,7 @@ import net.dv8tion.jda.core.EmbedBuilder;
 import net.dv8tion.jda.core.MessageBuilder;
 import okhttp3.ResponseBody;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -82,7 +83,17 @@ public class MonikaCommand extends Command {
                     return;
                 }
 
-                context.getChannel().sendFile(body.byteStream(),
+                // The image is read right away, since the response body is
+                // closed before the file is uploaded to Discord.
+                byte[] image;
+                try {
+                    image = body.bytes();
+                } catch (IOException e) {
+                    AvaIre.getLogger().error("Failed to download the Monika image: {}", e.getMessage(), e);
+                    return;
+                }
+
+                context.getChannel().sendFile(image,
                     "just-monika.jpg",
                     new MessageBuilder().setEmbed(
                         new EmbedBuilder()
@@ -214,7 +214,7 @@ public class HelpCommand extends Command {
     }
 
     private CommandContainer getCommand(CommandMessage context, String commandString) {
-        CommandContainer command = CommandHandler.getCommand(context.getMessage(), commandString);
+        CommandContainer command = CommandHandler.getPrefixedCommand(avaire, context.getMessage(), commandString);
         if (command != null) {
             return command;
         }
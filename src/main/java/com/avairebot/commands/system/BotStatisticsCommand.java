@@ -112,8 +112,8 @@ public class BotStatisticsCommand extends SystemCommand {
                 NumberUtil.formatNicely(avaire.getShardEntityCounter().getVoiceChannels())
             ), true),
             new MessageEmbed.Field("Guild Stats", I18n.format("**{0}** Guilds in Shard\n**{1}** Total Guilds",
-                NumberUtil.formatNicely(context.getJDA().getGuilds().size()),
-                NumberUtil.formatNicely(avaire.getShardManager().getGuilds().size())
+                NumberUtil.formatNicely(avaire.getShardEntityCounter().getGuilds(context.getJDA())),
+                NumberUtil.formatNicely(avaire.getShardEntityCounter().getGuilds())
             ), true)
         )
             .setAuthor("AvaIre v" + AppInfo.getAppInfo().version, "https://discordapp.com/invite/gt2FWER", avaire.getSelfUser().getEffectiveAvatarUrl())
@@ -30,6 +30,7 @@ import com.avairebot.contracts.commands.CacheFingerprint;
 import com.avairebot.contracts.commands.Command;
 import com.avairebot.database.collection.Collection;
 import com.avairebot.database.collection.DataRow;
+import com.avairebot.level.RankIndex;
 import com.avairebot.utilities.CacheUtil;
 import com.avairebot.utilities.NumberUtil;
 import com.avairebot.utilities.RestActionUtil;
@@ -42,11 +43,11 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
 
 @CacheFingerprint(name = "leaderboard-commands")
@@ -154,23 +155,20 @@ public class GlobalLeaderboardCommand extends Command {
             .setTitle("\uD83C\uDFC6 " + context.i18n("title"))
             .requestedBy(context.getMember());
 
-        Collection userRank = loadUserRank(context);
-        if (userRank != null && !userRank.isEmpty()) {
-            int rank = userRank.first().getInt("rank", -1);
-            if (++rank > 0) {
-                Collection userXp = loadUserXp(context);
-                if (userXp != null && !userXp.isEmpty()) {
-                    long experience = userXp.first().getLong("total");
-                    message.addField("➡ " + context.i18n("yourRank"), context.i18n("line")
-                            .replace(":num", NumberUtil.formatNicely(rank))
-                            .replace(":username", context.getAuthor().getName() + "#" + context.getAuthor().getDiscriminator())
-                            .replace(":level", NumberUtil.formatNicely(avaire.getLevelManager().getLevelFromExperience(experience)))
-                            .replace(":experience", NumberUtil.formatNicely(experience - 100))
-                            + "\n\n" + paginator.generateFooter(generateCommandTrigger(context.getMessage())),
-                        false
-                    );
-                }
-            }
+        RankIndex index = avaire.getLevelManager().getGlobalLeaderboard().getIndex();
+        RankIndex.Entry entry = index == null ? null : index.get(context.getAuthor().getIdLong());
+        if (entry != null) {
+            long experience = entry.getExperience();
+            int rank = index.countAbove(experience) + 1;
+
+            message.addField("➡ " + context.i18n("yourRank"), context.i18n("line")
+                    .replace(":num", NumberUtil.formatNicely(rank))
+                    .replace(":username", context.getAuthor().getName() + "#" + context.getAuthor().getDiscriminator())
+                    .replace(":level", NumberUtil.formatNicely(avaire.getLevelManager().getLevelFromExperience(experience)))
+                    .replace(":experience", NumberUtil.formatNicely(experience - 100))
+                    + "\n\n" + paginator.generateFooter(generateCommandTrigger(context.getMessage())),
+                false
+            );
         }
 
         if (message.build().getFields().isEmpty()) {
@@ -188,51 +186,62 @@ public class GlobalLeaderboardCommand extends Command {
     }
 
     private Collection loadTop100From() {
-        return (Collection) CacheUtil.getUncheckedUnwrapped(cache, "leaderboard", () -> {
-            try {
-                return avaire.getDatabase().query("SELECT " +
-                    "`user_id`, `username`, `discriminator`, (sum(`experience`) - (count(`user_id`) * 100)) + 100 as `total` " +
-                    "FROM `experiences` " +
-                    "GROUP BY `user_id` " +
-                    "ORDER BY `total` DESC " +
-                    "LIMIT 100;"
-                );
-            } catch (SQLException e) {
-                log.error("Failed to fetch global leaderboard data", e);
-                return null;
-            }
-        });
+        RankIndex index = avaire.getLevelManager().getGlobalLeaderboard().getIndex();
+        if (index == null) {
+            return null;
+        }
+
+        List<RankIndex.Entry> entries = index.getTop(100);
+        if (entries.isEmpty()) {
+            return new Collection();
+        }
+
+        try {
+            return (Collection) CacheUtil.getUncheckedUnwrapped(cache, "leaderboard", () -> {
+                Map<Long, DataRow> players = loadPlayers(entries);
+
+                List<Map<String, Object>> rows = new ArrayList<>();
+                for (RankIndex.Entry entry : entries) {
+                    DataRow player = players.get(entry.getUserId());
+                    if (player == null) {
+                        continue;
+                    }
+
+                    Map<String, Object> row = player.getRaw();
+                    row.put("total", entry.getExperience());
+                    rows.add(row);
+                }
+
+                return new Collection(rows);
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to fetch global leaderboard data", e);
+            return null;
+        }
     }
 
-    private Collection loadUserRank(CommandMessage context) {
-        return (Collection) CacheUtil.getUncheckedUnwrapped(cache, "user.rank." + context.getAuthor().getId(), () -> {
-            try {
-                return avaire.getDatabase().query(String.format(
-                    "SELECT COUNT(*) AS rank FROM (" +
-                        "    SELECT `user_id` FROM `experiences` GROUP BY `user_id` HAVING SUM(`experience`) > (" +
-                        "        SELECT SUM(`experience`) FROM `experiences` WHERE `user_id` = '%s'" +
-                        "    )" +
-                        ") t;",
-                    context.getAuthor().getId()
-                ));
-            } catch (SQLException e) {
-                log.error("Failed to fetch leaderboard data for user: " + context.getGuild().getId(), e);
-                return null;
+    private Map<Long, DataRow> loadPlayers(List<RankIndex.Entry> entries) throws SQLException {
+        String query = String.format(
+            "SELECT `user_id`, `username`, `discriminator` FROM `%s` WHERE `user_id` IN (%s) ORDER BY `updated_at` DESC;",
+            Constants.PLAYER_EXPERIENCE_TABLE_NAME, String.join(", ", Collections.nCopies(entries.size(), "?"))
+        );
+
+        Map<Long, DataRow> players = new HashMap<>();
+        try (Connection connection = avaire.getDatabase().getConnection().getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            for (int i = 0; i < entries.size(); i++) {
+                statement.setString(i + 1, String.valueOf(entries.get(i).getUserId()));
             }
-        });
-    }
 
-    private Collection loadUserXp(CommandMessage context) {
-        return (Collection) CacheUtil.getUncheckedUnwrapped(cache, "user.xp." + context.getAuthor().getId(), () -> {
-            try {
-                return avaire.getDatabase().newQueryBuilder(Constants.PLAYER_EXPERIENCE_TABLE_NAME)
-                    .selectRaw("(sum(`experience`) - (count(`user_id`) * 100)) + 100 as `total`")
-                    .where("user_id", context.getAuthor().getIdLong())
-                    .get();
-            } catch (SQLException e) {
-                log.error("Failed to fetch leaderboard data for user: " + context.getGuild().getId(), e);
-                return null;
+            try (ResultSet result = statement.executeQuery()) {
+                // Players have a row for every server they're on, the total experience for the player
+                // is already summed up by the global leaderboard, so the rows are only merged for
+                // the username, where the most recently updated row has the current username.
+                for (DataRow row : new Collection(result)) {
+                    players.putIfAbsent(row.getLong("user_id"), row);
+                }
             }
-        });
+        }
+        return players;
     }
 }
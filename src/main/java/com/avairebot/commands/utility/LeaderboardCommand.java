@@ -33,6 +33,8 @@ import com.avairebot.contracts.commands.Command;
 import com.avairebot.database.collection.Collection;
 import com.avairebot.database.collection.DataRow;
 import com.avairebot.database.transformers.GuildTransformer;
+import com.avairebot.level.GuildRankIndex;
+import com.avairebot.level.RankIndex;
 import com.avairebot.utilities.CacheUtil;
 import com.avairebot.utilities.NumberUtil;
 import com.google.common.cache.Cache;
@@ -41,11 +43,11 @@ import net.dv8tion.jda.core.entities.Member;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
 
 @CacheFingerprint(name = "leaderboard-commands")
@@ -113,8 +115,8 @@ public class LeaderboardCommand extends Command {
             );
         }
 
-        Collection collection = loadTop100From(context);
-        if (collection == null) {
+        Collection collection = loadTopPlayers(avaire, context.getGuild().getIdLong());
+        if (collection == null || collection.isEmpty()) {
             context.makeWarning(context.i18n("noData")).queue();
             return false;
         }
@@ -151,9 +153,9 @@ public class LeaderboardCommand extends Command {
             )
             .requestedBy(context.getMember());
 
-        Collection userRank = loadUserRank(context);
-        if (userRank != null && !userRank.isEmpty()) {
-            int rank = userRank.first().getInt("rank", -1);
+        GuildRankIndex rankIndex = avaire.getLevelManager().getRankIndex(avaire, context.getGuild().getIdLong());
+        if (rankIndex != null && context.getPlayerTransformer() != null) {
+            int rank = rankIndex.countAbove(context.getPlayerTransformer().getExperience());
             if (++rank > 0) {
                 message.addField("➡ " + context.i18n("yourRank"), context.i18n("line")
                         .replace(":num", NumberUtil.formatNicely(rank))
@@ -179,40 +181,70 @@ public class LeaderboardCommand extends Command {
         return true;
     }
 
-    private Collection loadTop100From(CommandMessage context) {
-        return (Collection) CacheUtil.getUncheckedUnwrapped(cache, asKey(context, false), () -> {
-            try {
-                return avaire.getDatabase().newQueryBuilder(Constants.PLAYER_EXPERIENCE_TABLE_NAME)
-                    .where("guild_id", context.getGuild().getId())
-                    .orderBy("experience", "desc")
-                    .take(100)
-                    .get();
-            } catch (SQLException e) {
-                log.error("Failed to fetch leaderboard data for server: " + context.getGuild().getId(), e);
-                return null;
-            }
-        });
+    /**
+     * Loads the top 100 players for the given guild, the order and experience of the players
+     * are taken from the guilds {@link GuildRankIndex rank index}, while the rest of the
+     * player data is loaded from the database, the result is cached for a minute.
+     *
+     * @param avaire  The AvaIre application instance.
+     * @param guildId The ID of the guild the top players should be loaded for.
+     * @return Possibly-null, the top 100 players for the guild, or null if they couldn't be loaded.
+     */
+    public static Collection loadTopPlayers(AvaIre avaire, long guildId) {
+        GuildRankIndex rankIndex = avaire.getLevelManager().getRankIndex(avaire, guildId);
+        if (rankIndex == null) {
+            return null;
+        }
+
+        List<RankIndex.Entry> entries = rankIndex.getTop(100);
+        if (entries.isEmpty()) {
+            return new Collection();
+        }
+
+        try {
+            return (Collection) CacheUtil.getUncheckedUnwrapped(cache, String.valueOf(guildId), () -> {
+                Map<Long, DataRow> players = loadPlayers(avaire, guildId, entries);
+
+                List<Map<String, Object>> rows = new ArrayList<>();
+                for (RankIndex.Entry entry : entries) {
+                    DataRow player = players.get(entry.getUserId());
+                    if (player == null) {
+                        continue;
+                    }
+
+                    Map<String, Object> row = player.getRaw();
+                    row.put("experience", entry.getExperience());
+                    rows.add(row);
+                }
+
+                return new Collection(rows);
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to fetch leaderboard data for server: " + guildId, e);
+            return null;
+        }
     }
 
-    private Collection loadUserRank(CommandMessage context) {
-        return (Collection) CacheUtil.getUncheckedUnwrapped(cache, asKey(context, true), () -> {
-            try {
-                return avaire.getDatabase().query(String.format(
-                    "SELECT COUNT(*) AS rank FROM (" +
-                        "    SELECT `user_id` FROM `experiences` WHERE `guild_id` = '%s' GROUP BY `user_id` HAVING SUM(`experience`) > (" +
-                        "        SELECT SUM(`experience`) FROM `experiences` WHERE `user_id` = '%s' AND `guild_id` = '%s'" +
-                        "    )" +
-                        ") t;",
-                    context.getGuild().getId(), context.getAuthor().getId(), context.getGuild().getId()
-                ));
-            } catch (SQLException e) {
-                log.error("Failed to fetch leaderboard data for user: " + context.getGuild().getId(), e);
-                return null;
+    private static Map<Long, DataRow> loadPlayers(AvaIre avaire, long guildId, List<RankIndex.Entry> entries) throws SQLException {
+        String query = String.format(
+            "SELECT `user_id`, `username`, `discriminator`, `avatar` FROM `%s` WHERE `guild_id` = ? AND `user_id` IN (%s);",
+            Constants.PLAYER_EXPERIENCE_TABLE_NAME, String.join(", ", Collections.nCopies(entries.size(), "?"))
+        );
+
+        Map<Long, DataRow> players = new HashMap<>();
+        try (Connection connection = avaire.getDatabase().getConnection().getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, String.valueOf(guildId));
+            for (int i = 0; i < entries.size(); i++) {
+                statement.setString(i + 2, String.valueOf(entries.get(i).getUserId()));
             }
-        });
-    }
 
-    private String asKey(CommandMessage context, boolean isUser) {
-        return context.getGuild().getId() + (isUser ? "." + context.getAuthor().getId() : "");
+            try (ResultSet result = statement.executeQuery()) {
+                for (DataRow row : new Collection(result)) {
+                    players.put(row.getLong("user_id"), row);
+                }
+            }
+        }
+        return players;
     }
 }
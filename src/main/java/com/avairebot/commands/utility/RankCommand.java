@@ -23,18 +23,17 @@ package com.avairebot.commands.utility;
 
 import com.avairebot.AvaIre;
 import com.avairebot.Constants;
-import com.avairebot.cache.CacheType;
 import com.avairebot.commands.CommandHandler;
 import com.avairebot.commands.CommandMessage;
 import com.avairebot.commands.CommandPriority;
 import com.avairebot.commands.administration.LevelCommand;
 import com.avairebot.contracts.commands.Command;
-import com.avairebot.database.collection.Collection;
 import com.avairebot.database.collection.DataRow;
 import com.avairebot.database.controllers.PlayerController;
 import com.avairebot.database.transformers.GuildTransformer;
 import com.avairebot.database.transformers.PlayerTransformer;
 import com.avairebot.factories.MessageFactory;
+import com.avairebot.level.GuildRankIndex;
 import com.avairebot.utilities.MentionableUtil;
 import com.avairebot.utilities.NumberUtil;
 import net.dv8tion.jda.core.entities.Guild;
@@ -45,13 +44,10 @@ import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
 public class RankCommand extends Command {
 
-    private final String cacheToken = "database-user-scores.";
-
     public RankCommand(AvaIre avaire) {
         super(avaire, false);
     }
@@ -177,7 +173,7 @@ public class RankCommand extends Command {
 
                 long total = data == null ? (player == null ? 0 : player.getExperience()) : data.getLong("total");
 
-                return new DatabaseProperties(player, total, getScore(context, author.getId()));
+                return new DatabaseProperties(player, total, getScore(context, author.getIdLong()));
             } catch (SQLException e) {
                 e.printStackTrace();
                 return null;
@@ -185,31 +181,15 @@ public class RankCommand extends Command {
         });
     }
 
-    private String getScore(CommandMessage context, String userId) throws SQLException {
-        if (avaire.getCache().getAdapter(CacheType.MEMORY).has(cacheToken + context.getGuild().getId())) {
-            Collection users = (Collection) avaire.getCache().getAdapter(CacheType.MEMORY).get(cacheToken + context.getGuild().getId());
-            String score = context.i18n("unranked");
-
-            for (int i = 0; i < users.size(); i++) {
-                if (Objects.equals(users.get(i).getString("id"), userId)) {
-                    score = "" + (i + 1);
-                    break;
-                }
-            }
+    private String getScore(CommandMessage context, long userId) {
+        GuildRankIndex rankIndex = avaire.getLevelManager().getRankIndex(avaire, context.getGuild().getIdLong());
 
-            return score;
+        int rank = rankIndex == null ? -1 : rankIndex.getRank(userId);
+        if (rank < 0) {
+            return context.i18n("unranked");
         }
 
-        avaire.getCache().getAdapter(CacheType.MEMORY).put(cacheToken + context.getGuild().getId(),
-            avaire.getDatabase().newQueryBuilder(Constants.PLAYER_EXPERIENCE_TABLE_NAME)
-                .select("user_id as id")
-                .orderBy("experience", "desc")
-                .where("guild_id", context.getGuild().getId())
-                .get(),
-            120
-        );
-
-        return getScore(context, userId);
+        return "" + rank;
     }
 
     private long getUsersInGuild(Guild guild) {
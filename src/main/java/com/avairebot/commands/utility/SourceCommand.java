@@ -95,7 +95,7 @@ public class SourceCommand extends Command {
     }
 
     private CommandContainer getCommand(Message message, String commandString) {
-        CommandContainer command = CommandHandler.getCommand(message, commandString);
+        CommandContainer command = CommandHandler.getPrefixedCommand(avaire, message, commandString);
         if (command != null) {
             return command;
         }
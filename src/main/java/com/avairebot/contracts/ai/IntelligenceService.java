@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.contracts.ai;
+
+import ai.api.AIServiceException;
+import ai.api.model.AIResponse;
+
+@FunctionalInterface
+public interface IntelligenceService {
+
+    /**
+     * Sends the given query to the AI service, and blocks until the AI
+     * has responded with the action and speech for the query.
+     *
+     * @param query The query that should be sent to the AI.
+     * @return The response from the AI.
+     * @throws AIServiceException if the request to the AI service failed.
+     */
+    AIResponse request(String query) throws AIServiceException;
+}
@@ -22,6 +22,7 @@
 package com.avairebot.contracts.commands;
 
 import com.avairebot.AvaIre;
+import com.avairebot.cache.InteractionImageCache;
 import com.avairebot.commands.CommandMessage;
 import com.avairebot.commands.CommandPriority;
 import com.avairebot.contracts.commands.interactions.Lottery;
@@ -37,8 +38,6 @@ import net.dv8tion.jda.core.entities.User;
 
 import java.awt.*;
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.URL;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -145,9 +144,9 @@ public abstract class InteractionCommand extends Command {
         messageBuilder.setEmbed(embedBuilder.build());
 
         try {
-            InputStream stream = new URL(interactionImages.get(imageIndex)).openStream();
+            byte[] image = InteractionImageCache.getImage(interactionImages.get(imageIndex));
 
-            context.getChannel().sendFile(stream, getClass().getSimpleName() + "-" + imageIndex + ".gif", messageBuilder.build()).queue();
+            context.getChannel().sendFile(image, getClass().getSimpleName() + "-" + imageIndex + ".gif", messageBuilder.build()).queue();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -26,6 +26,10 @@ import com.avairebot.contracts.database.grammar.AlterGrammar;
 import com.avairebot.contracts.database.grammar.Grammarable;
 import com.avairebot.contracts.database.grammar.TableGrammar;
 import com.avairebot.database.DatabaseManager;
+import com.avairebot.database.pool.ConnectionPool;
+import com.avairebot.database.pool.PoolOptions;
+import com.avairebot.database.pool.ResourceProxy;
+import com.avairebot.database.query.CompiledQuery;
 import com.avairebot.database.query.QueryBuilder;
 import com.avairebot.database.schema.Blueprint;
 import com.avairebot.metrics.Metrics;
@@ -35,9 +39,10 @@ import javax.annotation.WillCloseWhenClosed;
 import javax.annotation.WillNotClose;
 import java.sql.*;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class Database implements DatabaseConnection, Grammarable {
 
@@ -47,28 +52,14 @@ public abstract class Database implements DatabaseConnection, Grammarable {
      * Represents our prepared query statements and their statement
      * type, allowing us to quickly render and compile statements.
      */
-    protected Map<PreparedStatement, StatementInterface> preparedStatements = new HashMap<>();
+    protected Map<PreparedStatement, StatementInterface> preparedStatements = new ConcurrentHashMap<>();
 
     /**
-     * Represents our current database connection, this is
-     * used to send queries to the database, as well as
-     * fetch, and persist data.
+     * Represents our database connection pool, connections are borrowed
+     * from the pool every time a query is sent to the database, and
+     * returned to the pool again once the statement is closed.
      */
-    protected Connection connection;
-
-    /**
-     * Represents the last connection state the
-     * last time the connection was checked.
-     */
-    private boolean lastState;
-
-    /**
-     * Represents the last time in milliseconds the state of the connection
-     * was checked, if the connection was checked less then a few seconds
-     * before, the last state will be returned instead, preventing
-     * checking the actually database by querying it every time.
-     */
-    private long lastChecked;
+    protected volatile ConnectionPool pool;
 
     /**
      * Sets the Database Manager instance to the database.
@@ -77,9 +68,6 @@ public abstract class Database implements DatabaseConnection, Grammarable {
      */
     public void setDatabaseManager(DatabaseManager dbm) {
         this.dbm = dbm;
-
-        lastState = false;
-        lastChecked = 0L;
     }
 
     /**
@@ -91,6 +79,24 @@ public abstract class Database implements DatabaseConnection, Grammarable {
      */
     protected abstract boolean initialize();
 
+    /**
+     * Opens a new physical connection to the database, this is used by the
+     * connection pool whenever it needs to grow, or replace a connection.
+     *
+     * @return the newly opened database connection
+     * @throws SQLException if a database access error occurs while opening the connection
+     */
+    protected abstract Connection createConnection() throws SQLException;
+
+    /**
+     * Creates a new table grammar instance for the given query
+     * type, using the SQL dialect of the database.
+     *
+     * @param type The query type the grammar should be created for.
+     * @return The table grammar for the given query type.
+     */
+    protected abstract TableGrammar createGrammar(QueryType type);
+
     /**
      * Checks a statement for faults, issues, overlaps,
      * deprecated calls and other issues.
@@ -105,7 +111,53 @@ public abstract class Database implements DatabaseConnection, Grammarable {
     protected abstract void queryValidation(StatementInterface paramStatement) throws SQLException;
 
     /**
-     * Attempts to close the database connection.
+     * Gets the options that should be used for the connection pool, by
+     * default the options are loaded from the <code>database.pool</code>
+     * section of the config.
+     *
+     * @return The connection pool options.
+     */
+    protected PoolOptions getPoolOptions() {
+        if (dbm == null || dbm.getAvaire() == null) {
+            return new PoolOptions();
+        }
+        return PoolOptions.fromConfig(dbm.getAvaire().getConfig());
+    }
+
+    /**
+     * Attempts to open the connection pool for the database, a connection is borrowed
+     * from the pool right away to make sure we can actually connect to the database.
+     *
+     * @return true if the connection pool is open, false otherwise.
+     * @throws SQLException if a database access error occurs while opening the first connection
+     */
+    @Override
+    public synchronized boolean open() throws SQLException {
+        if (isOpen()) {
+            return true;
+        }
+
+        if (!initialize()) {
+            return false;
+        }
+
+        ConnectionPool pool = new ConnectionPool(
+            getClass().getSimpleName().toLowerCase(), this::createConnection, getPoolOptions()
+        );
+
+        try (Connection ignored = pool.borrow()) {
+            this.pool = pool;
+
+            return true;
+        } catch (SQLException e) {
+            pool.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Attempts to close the database connection pool, connections that are
+     * currently in use will be closed once they're returned to the pool.
      *
      * @return either (1) <code>TRUE</code> if the database connection was closed successfully
      * or (2) <code>FALSE</code> if the connection is already close, or an exception was thrown
@@ -116,50 +168,54 @@ public abstract class Database implements DatabaseConnection, Grammarable {
      *                      <code>PreparedStatement</code> or <code>CallableStatement</code>
      */
     public final boolean close() throws SQLException {
-        if (connection == null) {
+        if (pool == null) {
             AvaIre.getLogger().warn("Database - Could not close connection, it is null.");
             return false;
         }
 
-        try {
-            connection.close();
-            lastState = false;
+        pool.close();
 
-            return true;
-        } catch (SQLException e) {
-            AvaIre.getLogger().warn("Database - Could not close connection, SQLException: " + e.getMessage());
-        }
-        return false;
+        return true;
     }
 
     /**
-     * Returns the current database connection, if the connection is not open/active, it
-     * will attempt to open the connection for you.
+     * Borrows a connection from the connection pool, if the pool is not open it will
+     * attempt to open the pool for you. The connection <strong>must</strong> be
+     * closed once you're done with it, closing the connection will return
+     * it to the pool so it can be used by other threads.
      *
      * @return the database connection
-     * @throws SQLException if a database access error occurs,
-     *                      this method is called on a closed <code>Statement</code>, the given
-     *                      SQL statement produces anything other than a single
-     *                      <code>ResultSet</code> object, the method is called on a
-     *                      <code>PreparedStatement</code> or <code>CallableStatement</code>
+     * @throws SQLException if a database access error occurs, or no connection
+     *                      became available before the pool timeout was reached
      */
-    public synchronized Connection getConnection() throws SQLException {
-        if (!isOpen()) {
-            open();
-            lastState = true;
+    public Connection getConnection() throws SQLException {
+        if (!isOpen() && !open()) {
+            throw new SQLException("Failed to open the database connection pool.");
         }
 
-        return connection;
+        return pool.borrow();
     }
 
     /**
-     * Checks to see if the database connection is still valid.
+     * Gets the connection pool used by the database, or <code>NULL</code>
+     * if the database connection has not been opened yet.
      *
-     * @return either (1) <code>TRUE</code> if the database connection is open and valid
-     * or (2) <code>FALSE</code> if the database connection is closed
+     * @return The database connection pool.
+     */
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Checks to see if the database connection pool is open.
+     *
+     * @return either (1) <code>TRUE</code> if the database connection pool is open
+     * or (2) <code>FALSE</code> if the database connection pool is closed
      */
     public final boolean isOpen() {
-        return isOpen(1);
+        ConnectionPool pool = this.pool;
+
+        return pool != null && !pool.isClosed();
     }
 
     /**
@@ -169,23 +225,16 @@ public abstract class Database implements DatabaseConnection, Grammarable {
      * @return either (1) <code>TRUE</code> if the database connection is open and valid
      * or (2) <code>FALSE</code> if the database connection is closed
      */
-    public final synchronized boolean isOpen(int seconds) {
-        if (connection != null) {
-            // Returns the last state if the connection was checked less than three seconds ago.
-            if (System.currentTimeMillis() - 3000 < lastChecked) {
-                return lastState;
-            }
-
-            try {
-                lastState = connection.isValid(seconds);
-                lastChecked = lastState ? System.currentTimeMillis() : 0L;
-
-                return lastState;
-            } catch (SQLException ignored) {
-            }
+    public final boolean isOpen(int seconds) {
+        if (!isOpen()) {
+            return false;
         }
 
-        return false;
+        try (Connection connection = pool.borrow()) {
+            return connection.isValid(seconds);
+        } catch (SQLException ignored) {
+            return false;
+        }
     }
 
     /**
@@ -202,12 +251,33 @@ public abstract class Database implements DatabaseConnection, Grammarable {
     public final ResultSet query(String query) throws SQLException {
         queryValidation(getStatement(query));
 
-        Statement statement = createPreparedStatement(query);
-        statement.closeOnCompletion();
+        Connection connection = getConnection();
+        try {
+            Statement statement = createPreparedStatement(connection, query);
+            try {
+                statement.closeOnCompletion();
+
+                if (statement.execute(query)) {
+                    return ResourceProxy.closing(ResultSet.class, statement.getResultSet(), () -> {
+                        try {
+                            statement.close();
+                        } finally {
+                            connection.close();
+                        }
+                    });
+                }
+            } catch (SQLException e) {
+                statement.close();
+                throw e;
+            }
 
-        if (statement.execute(query)) {
-            return statement.getResultSet();
+            statement.close();
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
         }
+
+        connection.close();
         throw new SQLException("The query failed to execute successfully: " + query);
     }
 
@@ -265,7 +335,8 @@ public abstract class Database implements DatabaseConnection, Grammarable {
     }
 
     /**
-     * Prepares a query as a prepared statement before executing it.
+     * Prepares a query as a prepared statement before executing it, the statement
+     * holds on to a pooled connection until the statement is closed.
      *
      * @param query The query to prepare.
      * @return the current result as a <code>ResultSet</code> object or
@@ -276,13 +347,71 @@ public abstract class Database implements DatabaseConnection, Grammarable {
     @WillNotClose
     public final Statement prepare(String query) throws SQLException {
         StatementInterface statement = getStatement(query);
-        Statement ps = createPreparedStatement(query);
 
-        if (ps instanceof PreparedStatement) {
-            preparedStatements.put((PreparedStatement) ps, statement);
+        Connection connection = getConnection();
+        try {
+            Statement ps = createPreparedStatement(connection, query);
+
+            if (ps instanceof PreparedStatement) {
+                PreparedStatement prepared = ResourceProxy.closing(PreparedStatement.class, (PreparedStatement) ps, connection);
+                preparedStatements.put(prepared, statement);
+
+                return prepared;
+            }
+
+            return ResourceProxy.closing(Statement.class, ps, connection);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
         }
+    }
+
+    /**
+     * Compiles the given query builder into a parameterized SQL query, where every value
+     * is replaced with a <code>?</code> placeholder, and returned as a bound value
+     * instead, queries with the same shape will produce the exact same SQL.
+     *
+     * @param manager The database manager class instance.
+     * @param query   The query builder that should be compiled.
+     * @return The compiled query.
+     */
+    public final CompiledQuery compile(DatabaseManager manager, QueryBuilder query) {
+        TableGrammar grammar = createGrammar(query.getType());
+
+        grammar.setDBM(manager);
+        grammar.setOptions(Collections.singletonMap("parameterized", true));
+
+        return new CompiledQuery(grammar.format(query), grammar.getBindings());
+    }
+
+    /**
+     * Prepares the compiled query as a prepared statement, and binds all the query values to
+     * the statement, the statement holds on to a pooled connection until it is closed.
+     *
+     * @param query The compiled query to prepare.
+     * @return the prepared statement with all the query values bound to it
+     * @throws SQLException if a database access error occurs or this method is called on a
+     *                      closed <code>Statement</code>
+     */
+    @WillNotClose
+    public final PreparedStatement prepare(CompiledQuery query) throws SQLException {
+        queryValidation(getStatement(query.getQuery()));
+
+        Connection connection = getConnection();
+        try {
+            PreparedStatement statement = createPreparedStatement(connection, query);
+            try {
+                query.bindTo(statement);
+            } catch (SQLException e) {
+                statement.close();
+                throw e;
+            }
 
-        return ps;
+            return ResourceProxy.closing(PreparedStatement.class, statement, connection);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
     }
 
     /**
@@ -309,7 +438,8 @@ public abstract class Database implements DatabaseConnection, Grammarable {
     public final List<Long> insert(String query) throws SQLException {
         List<Long> keys = new ArrayList<>();
 
-        try (PreparedStatement pstmt = createPreparedStatement(query, 1)) {
+        try (Connection connection = getConnection();
+             PreparedStatement pstmt = createPreparedStatement(connection, query, 1)) {
             ResultSet key = pstmt.getGeneratedKeys();
             if (key.next()) {
                 keys.add(key.getLong(1));
@@ -352,16 +482,22 @@ public abstract class Database implements DatabaseConnection, Grammarable {
         return keys;
     }
 
-    protected Statement createPreparedStatement(String query) throws SQLException {
+    protected Statement createPreparedStatement(Connection connection, String query) throws SQLException {
         Metrics.databaseQueries.labels(query.split(" ")[0].toUpperCase()).inc();
 
-        return getConnection().prepareStatement(query);
+        return connection.prepareStatement(query);
+    }
+
+    protected PreparedStatement createPreparedStatement(Connection connection, CompiledQuery query) throws SQLException {
+        Metrics.databaseQueries.labels(query.getQuery().split(" ")[0].toUpperCase()).inc();
+
+        return connection.prepareStatement(query.getQuery());
     }
 
-    private PreparedStatement createPreparedStatement(String query, int autoGeneratedKeys) throws SQLException {
+    private PreparedStatement createPreparedStatement(Connection connection, String query, int autoGeneratedKeys) throws SQLException {
         Metrics.databaseQueries.labels(query.split(" ")[0].toUpperCase()).inc();
 
-        return getConnection().prepareStatement(query, autoGeneratedKeys);
+        return connection.prepareStatement(query, autoGeneratedKeys);
     }
 
     protected String setupAndRun(TableGrammar grammar, QueryBuilder builder, DatabaseManager manager, Map<String, Boolean> options) {
@@ -23,6 +23,7 @@ package com.avairebot.contracts.database.grammar;
 
 import com.avairebot.database.DatabaseManager;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -56,6 +57,12 @@ public abstract class Grammar {
      */
     protected String query;
 
+    /**
+     * The values bound to the <code>?</code> placeholders in the query, in the order
+     * they appear in the query, this is only used for parameterized queries.
+     */
+    protected final List<Object> bindings = new ArrayList<>();
+
     public void setDBM(DatabaseManager dbm) {
         this.dbm = dbm;
     }
@@ -68,6 +75,33 @@ public abstract class Grammar {
         return query;
     }
 
+    public List<Object> getBindings() {
+        return bindings;
+    }
+
+    /**
+     * Checks if the grammar should generate a parameterized query, where values are
+     * replaced with <code>?</code> placeholders and added to the bindings instead.
+     *
+     * @return either (1) <code>TRUE</code> if the query should be parameterized
+     * or (2) <code>FALSE</code> if values should be formatted into the query
+     */
+    protected boolean isParameterized() {
+        return options != null && options.getOrDefault("parameterized", false);
+    }
+
+    /**
+     * Adds the given value to the query bindings.
+     *
+     * @param value The value that should be bound to the query.
+     * @return the placeholder that should be used in the query for the value
+     */
+    protected String bind(Object value) {
+        bindings.add(value);
+
+        return "?";
+    }
+
     /**
      * Checks to see if a string is numeric, this will help
      * determine how to format values into the query.
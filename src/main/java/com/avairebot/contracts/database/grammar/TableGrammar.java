@@ -113,9 +113,14 @@ public abstract class TableGrammar extends Grammar {
             );
         }
 
-        String field = clause.getTwo().toString();
-        if (!isNumeric(field)) {
-            field = String.format("'%s'", field);
+        String field;
+        if (isParameterized()) {
+            field = bind(clause.getTwo());
+        } else {
+            field = clause.getTwo().toString();
+            if (!isNumeric(field)) {
+                field = String.format("'%s'", field);
+            }
         }
 
         String stringClause = String.format("%s %s %s", formatField(clause.getOne()), clause.getIdentifier(), field);
@@ -28,8 +28,11 @@ import com.avairebot.database.connections.MySQL;
 import com.avairebot.database.connections.SQLite;
 import com.avairebot.database.exceptions.DatabaseException;
 import com.avairebot.database.migrate.Migrations;
+import com.avairebot.database.query.CompiledQuery;
 import com.avairebot.database.query.QueryBuilder;
 import com.avairebot.database.schema.Schema;
+import com.avairebot.database.writer.WriteBehindOptions;
+import com.avairebot.database.writer.WriteBehindQueue;
 import com.avairebot.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,13 +51,23 @@ public class DatabaseManager {
     private final AvaIre avaire;
     private final Schema schema;
     private final Migrations migrations;
+    private final WriteBehindQueue writeBehindQueue;
 
-    private Database connection = null;
+    private final boolean preparedStatements;
+
+    private volatile Database connection = null;
 
     public DatabaseManager(AvaIre avaire) {
         this.avaire = avaire;
         this.schema = new Schema(this);
         this.migrations = new Migrations(this);
+
+        this.preparedStatements = avaire == null
+            || avaire.getConfig().getBoolean("database.prepared-statements", true);
+
+        this.writeBehindQueue = new WriteBehindQueue(this, avaire == null
+            ? new WriteBehindOptions() : WriteBehindOptions.fromConfig(avaire.getConfig())
+        );
     }
 
     public AvaIre getAvaire() {
@@ -69,22 +82,19 @@ public class DatabaseManager {
         return migrations;
     }
 
+    /**
+     * Gets the write-behind queue, used to write the asynchronous
+     * update, insert, and delete queries to the database.
+     *
+     * @return The write-behind queue.
+     */
+    public WriteBehindQueue getWriteBehindQueue() {
+        return writeBehindQueue;
+    }
+
     public Database getConnection() throws SQLException, DatabaseException {
         if (connection == null) {
-            switch (avaire.getConfig().getString("database.type", "invalid").toLowerCase()) {
-                case "mysql":
-                    connection = new MySQL(this);
-                    break;
-
-                case "sqlite":
-                    connection = new SQLite(this);
-                    break;
-
-                default:
-                    throw new DatabaseException("Invalid database type given, failed to create a new database connection.");
-            }
-
-            connection.setDatabaseManager(this);
+            createConnection();
         }
 
         if (connection.isOpen()) {
@@ -98,6 +108,39 @@ public class DatabaseManager {
         return connection;
     }
 
+    private synchronized void createConnection() {
+        if (connection != null) {
+            return;
+        }
+
+        Database database;
+        switch (avaire.getConfig().getString("database.type", "invalid").toLowerCase()) {
+            case "mysql":
+                database = new MySQL(this);
+                break;
+
+            case "sqlite":
+                database = new SQLite(this);
+                break;
+
+            default:
+                throw new DatabaseException("Invalid database type given, failed to create a new database connection.");
+        }
+
+        database.setDatabaseManager(this);
+        connection = database;
+    }
+
+    /**
+     * Checks if queries built by the query builder should be compiled into parameterized
+     * prepared statements, or if values should be formatted directly into the query.
+     *
+     * @return <code>True</code> if prepared statements should be used, <code>False</code> otherwise.
+     */
+    public boolean usePreparedStatements() {
+        return preparedStatements;
+    }
+
     public QueryBuilder newQueryBuilder() {
         return new QueryBuilder(this);
     }
@@ -150,7 +193,19 @@ public class DatabaseManager {
      */
     @WillClose
     public Collection query(QueryBuilder query) throws SQLException {
-        return query(query.toSQL());
+        if (!usePreparedStatements()) {
+            return query(query.toSQL());
+        }
+
+        CompiledQuery compiled = query.compile();
+
+        log.debug("query(QueryBuilder query) was called with the following SQL query.\nSQL: " + compiled);
+        MDC.put("query", compiled.getQuery());
+
+        try (PreparedStatement statement = getConnection().prepare(compiled);
+             ResultSet resultSet = statement.executeQuery()) {
+            return new Collection(resultSet);
+        }
     }
 
     /**
@@ -202,7 +257,18 @@ public class DatabaseManager {
      */
     @WillClose
     public int queryUpdate(QueryBuilder query) throws SQLException {
-        return queryUpdate(query.toSQL());
+        if (!usePreparedStatements()) {
+            return queryUpdate(query.toSQL());
+        }
+
+        CompiledQuery compiled = query.compile();
+
+        log.debug("queryUpdate(QueryBuilder query) was called with the following SQL query.\nSQL: " + compiled);
+        MDC.put("query", compiled.getQuery());
+
+        try (PreparedStatement statement = getConnection().prepare(compiled)) {
+            return statement.executeUpdate();
+        }
     }
 
     /**
@@ -230,7 +296,8 @@ public class DatabaseManager {
             throw new DatabaseException("queryInsert was called with a query without an INSERT statement!");
         }
 
-        try (PreparedStatement stmt = getConnection().getConnection().prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = getConnection().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             stmt.executeUpdate();
 
             Set<Integer> ids = new HashSet<>();
@@ -262,6 +329,10 @@ public class DatabaseManager {
      */
     @WillClose
     public Set<Integer> queryInsert(QueryBuilder queryBuilder) throws SQLException {
+        if (usePreparedStatements()) {
+            return queryInsert(queryBuilder.compile());
+        }
+
         String query = queryBuilder.toSQL();
         log.debug("queryInsert(QueryBuilder queryBuilder) was called with the following SQL query.\nSQL: " + query);
         Metrics.databaseQueries.labels("INSERT").inc();
@@ -275,7 +346,8 @@ public class DatabaseManager {
             throw new DatabaseException("queryInsert was called with a query without an INSERT statement!");
         }
 
-        try (PreparedStatement stmt = getConnection().getConnection().prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = getConnection().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             int preparedIndex = 1;
             for (Map<String, Object> row : queryBuilder.getItems()) {
                 for (Map.Entry<String, Object> item : row.entrySet()) {
@@ -298,14 +370,38 @@ public class DatabaseManager {
 
             stmt.executeUpdate();
 
-            Set<Integer> ids = new HashSet<>();
+            return getGeneratedKeys(stmt);
+        }
+    }
 
-            ResultSet keys = stmt.getGeneratedKeys();
+    private Set<Integer> queryInsert(CompiledQuery query) throws SQLException {
+        log.debug("queryInsert(QueryBuilder queryBuilder) was called with the following SQL query.\nSQL: " + query);
+        Metrics.databaseQueries.labels("INSERT").inc();
+        MDC.put("query", query.getQuery());
+
+        if (!query.getQuery().startsWith("INSERT INTO")) {
+            throw new DatabaseException("queryInsert was called with a query without an INSERT statement!");
+        }
+
+        try (Connection connection = getConnection().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query.getQuery(), Statement.RETURN_GENERATED_KEYS)) {
+            query.bindTo(stmt);
+
+            stmt.executeUpdate();
+
+            return getGeneratedKeys(stmt);
+        }
+    }
+
+    private Set<Integer> getGeneratedKeys(PreparedStatement stmt) throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
             while (keys.next()) {
                 ids.add(keys.getInt(1));
             }
-
-            return ids;
         }
+
+        return ids;
     }
 }
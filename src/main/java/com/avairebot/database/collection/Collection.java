@@ -72,7 +72,7 @@ public class Collection implements Cloneable, Iterable<DataRow> {
 
         for (Map<String, Object> row : items) {
             row.keySet().stream().filter((key) -> (!keys.containsKey(key))).forEach((key) -> {
-                keys.put(key, row.get(key).getClass().getTypeName());
+                keys.put(key, row.get(key) == null ? null : row.get(key).getClass().getTypeName());
             });
 
             this.items.add(new DataRow(row));
@@ -95,18 +95,37 @@ public class Collection implements Cloneable, Iterable<DataRow> {
         this.keys = new HashMap<>();
         this.items = new ArrayList<>();
 
-        for (int i = 1; i <= meta.getColumnCount(); i++) {
-            keys.put(meta.getColumnLabel(i), meta.getColumnClassName(i));
+        int columnCount = meta.getColumnCount();
+
+        // The column layout is shared between all the rows in the collection, so
+        // every row only has to store its values in a plain array, looked
+        // up by index from the case-insensitive column name map.
+        Map<String, Integer> columns = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        ColumnDecoder[] decoders = new ColumnDecoder[columnCount];
+        int[] slots = new int[columnCount];
+
+        for (int i = 1; i <= columnCount; i++) {
+            String label = meta.getColumnLabel(i);
+
+            keys.put(label, meta.getColumnClassName(i));
+            if (!columns.containsKey(label)) {
+                columns.put(label, columns.size());
+            }
+
+            slots[i - 1] = columns.get(label);
+            decoders[i - 1] = ColumnDecoder.of(meta, i);
         }
 
+        columns = Collections.unmodifiableMap(columns);
+
         while (result.next()) {
-            Map<String, Object> array = new HashMap<>();
+            Object[] values = new Object[columns.size()];
 
-            for (String key : keys.keySet()) {
-                array.put(key, result.getString(key));
+            for (int i = 1; i <= columnCount; i++) {
+                values[slots[i - 1]] = decode(result, decoders, i);
             }
 
-            items.add(new DataRow(array));
+            items.add(new DataRow(columns, values, true));
         }
 
         if (!result.isClosed()) {
@@ -210,9 +229,11 @@ public class Collection implements Cloneable, Iterable<DataRow> {
      * @return <code>true</code> if this collection contains the provided elements.
      */
     public boolean contains(Object item) {
+        String rItem = String.valueOf(item);
+
         return items.stream().anyMatch((row)
             -> (row.keySet().stream().anyMatch((key)
-            -> (row.get(key).equals(item)))));
+            -> (Objects.equals(row.get(key), item) || rItem.equals(row.getString(key))))));
     }
 
     /**
@@ -624,7 +645,7 @@ public class Collection implements Cloneable, Iterable<DataRow> {
             return this;
         }
 
-        return sort((DataRow first, DataRow second) -> first.get(field).hashCode() - second.get(field).hashCode());
+        return sort((DataRow first, DataRow second) -> compareValues(first.get(field), second.get(field)));
     }
 
     /**
@@ -639,7 +660,7 @@ public class Collection implements Cloneable, Iterable<DataRow> {
             return this;
         }
 
-        return sort((DataRow first, DataRow second) -> second.get(field).hashCode() - first.get(field).hashCode());
+        return sort((DataRow first, DataRow second) -> compareValues(second.get(field), first.get(field)));
     }
 
     /**
@@ -755,7 +776,12 @@ public class Collection implements Cloneable, Iterable<DataRow> {
      * @return the JSON collection string
      */
     public String toJson() {
-        return AvaIre.gson.toJson(items);
+        List<Map<String, Object>> rows = new ArrayList<>(items.size());
+        for (DataRow row : items) {
+            rows.add(row.getRaw());
+        }
+
+        return AvaIre.gson.toJson(rows);
     }
 
     @Override
@@ -763,6 +789,48 @@ public class Collection implements Cloneable, Iterable<DataRow> {
         return new CollectionIterator();
     }
 
+    @SuppressWarnings("unchecked")
+    private int compareValues(Object first, Object second) {
+        if (first == null || second == null) {
+            return first == null ? (second == null ? 0 : -1) : 1;
+        }
+
+        if (first instanceof Number && second instanceof Number) {
+            if (isIntegral(first) && isIntegral(second)) {
+                return Long.compare(((Number) first).longValue(), ((Number) second).longValue());
+            }
+            return Double.compare(((Number) first).doubleValue(), ((Number) second).doubleValue());
+        }
+
+        if (first instanceof Comparable && first.getClass() == second.getClass()) {
+            return ((Comparable<Object>) first).compareTo(second);
+        }
+
+        return String.valueOf(first).compareTo(String.valueOf(second));
+    }
+
+    private boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer
+            || value instanceof Short || value instanceof Byte;
+    }
+
+    private Object decode(ResultSet result, ColumnDecoder[] decoders, int column) throws SQLException {
+        try {
+            return decoders[column - 1].decode(result, column);
+        } catch (SQLException e) {
+            // Some drivers, like SQLite, don't enforce column types, so if the value
+            // can't be read as the declared type we fall back to reading the
+            // column as a string for the rest of the result set.
+            if (decoders[column - 1] == ColumnDecoder.STRING) {
+                throw e;
+            }
+
+            decoders[column - 1] = ColumnDecoder.STRING;
+
+            return decoders[column - 1].decode(result, column);
+        }
+    }
+
     private void add(DataRow row) {
         this.items.add(new DataRow(row));
     }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.database.collection;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Decodes a single column from a {@link ResultSet} into its Java type, the decoder
+ * for a column is picked once from the result set meta data, so each cell is
+ * only read from the driver once while building a {@link Collection}.
+ */
+enum ColumnDecoder {
+
+    LONG {
+        @Override
+        Object decode(ResultSet result, int column) throws SQLException {
+            long value = result.getLong(column);
+            return result.wasNull() ? null : value;
+        }
+    },
+
+    INTEGER {
+        @Override
+        Object decode(ResultSet result, int column) throws SQLException {
+            int value = result.getInt(column);
+            return result.wasNull() ? null : value;
+        }
+    },
+
+    DOUBLE {
+        @Override
+        Object decode(ResultSet result, int column) throws SQLException {
+            double value = result.getDouble(column);
+            return result.wasNull() ? null : value;
+        }
+    },
+
+    BOOLEAN {
+        @Override
+        Object decode(ResultSet result, int column) throws SQLException {
+            boolean value = result.getBoolean(column);
+            return result.wasNull() ? null : value;
+        }
+    },
+
+    TIMESTAMP {
+        @Override
+        Object decode(ResultSet result, int column) throws SQLException {
+            return result.getTimestamp(column);
+        }
+    },
+
+    STRING {
+        @Override
+        Object decode(ResultSet result, int column) throws SQLException {
+            return result.getString(column);
+        }
+    };
+
+    /**
+     * Picks the decoder for the given column using its JDBC type, any type
+     * that doesn't have a lossless Java counterpart, like decimals, will
+     * be decoded as a string, the same way it was stored before.
+     *
+     * @param meta   The result set meta data.
+     * @param column The column index, starting at 1.
+     * @return The decoder for the column.
+     * @throws SQLException if a database access error occurs.
+     */
+    static ColumnDecoder of(ResultSetMetaData meta, int column) throws SQLException {
+        switch (meta.getColumnType(column)) {
+            case Types.BIGINT:
+                return LONG;
+
+            case Types.INTEGER:
+                // Unsigned integers can exceed the range of an int, so they're stored as longs instead.
+                return meta.isSigned(column) ? INTEGER : LONG;
+
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return INTEGER;
+
+            case Types.DOUBLE:
+            case Types.FLOAT:
+            case Types.REAL:
+                return DOUBLE;
+
+            case Types.BOOLEAN:
+            case Types.BIT:
+                return BOOLEAN;
+
+            case Types.TIMESTAMP:
+                return TIMESTAMP;
+
+            default:
+                return STRING;
+        }
+    }
+
+    /**
+     * Reads the column from the current row of the result set.
+     *
+     * @param result The result set to read from.
+     * @param column The column index, starting at 1.
+     * @return The decoded value, or <code>NULL</code> if the column is SQL <code>NULL</code>.
+     * @throws SQLException if the value can't be read as the decoders type.
+     */
+    abstract Object decode(ResultSet result, int column) throws SQLException;
+}
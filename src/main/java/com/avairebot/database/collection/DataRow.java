@@ -28,15 +28,29 @@ import com.avairebot.utilities.NumberUtil;
 import com.google.gson.Gson;
 
 import javax.annotation.Nonnull;
-import java.util.Base64;
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
 
 public class DataRow {
 
-    private final Map<String, Object> items;
-    private final Map<String, String> decodedItems;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * The case-insensitive column name to value index map, the map
+     * is shared between every row created from the same result.
+     */
+    private final Map<String, Integer> columns;
+    private final Object[] values;
+
+    /**
+     * Whether the row values were decoded from a database result, the raw map for decoded
+     * rows is converted back to strings, which is what the database driver used to
+     * return the values as, before the values were decoded using the column type.
+     */
+    private final boolean decoded;
+    private Map<String, String> decodedItems;
 
     /**
      * Creates a new data row object from the provided data row.
@@ -44,7 +58,7 @@ public class DataRow {
      * @param row The row to generate the data row from.
      */
     public DataRow(DataRow row) {
-        this(row.items);
+        this(row.columns, row.values.clone(), row.decoded);
     }
 
     /**
@@ -53,12 +67,32 @@ public class DataRow {
      * @param items The map to generate the data row from.
      */
     public DataRow(Map<String, Object> items) {
-        this.items = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-        this.decodedItems = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Map<String, Object> sorted = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        sorted.putAll(items);
 
-        for (Map.Entry<String, Object> item : items.entrySet()) {
-            this.items.put(item.getKey(), item.getValue());
+        Map<String, Integer> columns = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        this.values = new Object[sorted.size()];
+
+        for (Map.Entry<String, Object> item : sorted.entrySet()) {
+            values[columns.size()] = item.getValue();
+            columns.put(item.getKey(), columns.size());
         }
+
+        this.columns = Collections.unmodifiableMap(columns);
+        this.decoded = false;
+    }
+
+    /**
+     * Creates a new data row from an already decoded row.
+     *
+     * @param columns The shared column name to value index map.
+     * @param values  The values of the row.
+     * @param decoded Whether the values were decoded from a database result.
+     */
+    DataRow(Map<String, Integer> columns, Object[] values, boolean decoded) {
+        this.columns = columns;
+        this.values = values;
+        this.decoded = decoded;
     }
 
     /**
@@ -81,8 +115,9 @@ public class DataRow {
      * or (2) the default value given.
      */
     public Object get(String name, Object def) {
-        if (has(name)) {
-            return items.get(name);
+        Integer index = columns.get(name);
+        if (index != null) {
+            return values[index];
         }
 
         return def;
@@ -120,6 +155,10 @@ public class DataRow {
             return isEqual(str, "1", "true");
         }
 
+        if (value instanceof Number) {
+            return ((Number) value).intValue() != 0;
+        }
+
         return (boolean) value;
     }
 
@@ -149,6 +188,14 @@ public class DataRow {
             return def;
         }
 
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+
         if (isString(value)) {
             String str = String.valueOf(value);
 
@@ -159,25 +206,7 @@ public class DataRow {
             }
         }
 
-        switch (getType(value)) {
-            case "Integer":
-                value = ((Integer) value).doubleValue();
-                break;
-
-            case "Long":
-                value = ((Long) value).doubleValue();
-                break;
-
-            case "Float":
-                value = ((Float) value).doubleValue();
-                break;
-        }
-
-        try {
-            return (double) value;
-        } catch (ClassCastException ex) {
-            return def;
-        }
+        return def;
     }
 
     /**
@@ -206,31 +235,21 @@ public class DataRow {
             return def;
         }
 
-        if (isString(value)) {
-            String str = String.valueOf(value);
-
-            return NumberUtil.parseInt(str, def);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
         }
 
-        switch (getType(value)) {
-            case "Double":
-                value = ((Double) value).intValue();
-                break;
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
 
-            case "Long":
-                value = ((Long) value).intValue();
-                break;
+        if (isString(value)) {
+            String str = String.valueOf(value);
 
-            case "Float":
-                value = ((Float) value).intValue();
-                break;
+            return NumberUtil.parseInt(str, def);
         }
 
-        try {
-            return (int) value;
-        } catch (ClassCastException ex) {
-            return def;
-        }
+        return def;
     }
 
     /**
@@ -259,6 +278,14 @@ public class DataRow {
             return def;
         }
 
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+
         if (isString(value)) {
             String str = String.valueOf(value);
 
@@ -269,25 +296,7 @@ public class DataRow {
             }
         }
 
-        switch (getType(value)) {
-            case "Double":
-                value = ((Double) value).longValue();
-                break;
-
-            case "Integer":
-                value = ((Integer) value).longValue();
-                break;
-
-            case "Float":
-                value = ((Float) value).longValue();
-                break;
-        }
-
-        try {
-            return (long) value;
-        } catch (ClassCastException ex) {
-            return def;
-        }
+        return def;
     }
 
     /**
@@ -316,6 +325,14 @@ public class DataRow {
             return def;
         }
 
+        if (value instanceof Number) {
+            return ((Number) value).floatValue();
+        }
+
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+
         if (isString(value)) {
             String str = String.valueOf(value);
 
@@ -326,25 +343,7 @@ public class DataRow {
             }
         }
 
-        switch (getType(value)) {
-            case "Double":
-                value = ((Double) value).floatValue();
-                break;
-
-            case "Integer":
-                value = ((Integer) value).floatValue();
-                break;
-
-            case "Long":
-                value = ((Long) value).floatValue();
-                break;
-        }
-
-        try {
-            return (float) value;
-        } catch (ClassCastException ex) {
-            return def;
-        }
+        return def;
     }
 
     /**
@@ -374,11 +373,19 @@ public class DataRow {
             return def;
         }
 
-        String string = String.valueOf(value);
+        if (!(value instanceof String)) {
+            return toString(value);
+        }
+
+        String string = (String) value;
         if (!string.startsWith("base64:")) {
             return string;
         }
 
+        if (decodedItems == null) {
+            decodedItems = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        }
+
         if (decodedItems.containsKey(name)) {
             return decodedItems.get(name);
         }
@@ -415,6 +422,11 @@ public class DataRow {
      * or (2) the default value given.
      */
     public Carbon getTimestamp(String name, Carbon def) {
+        Object value = get(name, def);
+        if (value instanceof Timestamp) {
+            return new Carbon().setTimestamp(((Timestamp) value).getTime() / 1000);
+        }
+
         try {
             String time = getString(name);
 
@@ -431,7 +443,7 @@ public class DataRow {
      * @return true if the index exists, otherwise it will return false.
      */
     public boolean has(String name) {
-        return items.containsKey(name);
+        return columns.containsKey(name);
     }
 
     /**
@@ -440,16 +452,25 @@ public class DataRow {
      * @return All the keys from the data row.
      */
     public Set<String> keySet() {
-        return items.keySet();
+        return columns.keySet();
     }
 
     /**
-     * Gets the raw map object for the data row.
+     * Gets the raw map object for the data row, if the row was loaded from the database
+     * every value will be a string, so large IDs keep their precision when the
+     * raw data is converted to JSON and sent to JavaScript consumers.
      *
      * @return The raw data of the data row.
      */
     public Map<String, Object> getRaw() {
-        return items;
+        Map<String, Object> raw = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, Integer> column : columns.entrySet()) {
+            Object value = values[column.getValue()];
+
+            raw.put(column.getKey(), decoded && value != null ? toString(value) : value);
+        }
+
+        return raw;
     }
 
     @Override
@@ -463,7 +484,31 @@ public class DataRow {
      * @return the JSON collection string
      */
     public String toJson() {
-        return AvaIre.gson.toJson(items);
+        return AvaIre.gson.toJson(getRaw());
+    }
+
+    /**
+     * Converts a decoded value back to the string it would have been
+     * returned as by the database driver, so values that used to be
+     * compared as strings still match after being decoded.
+     *
+     * @param value The value that should be converted.
+     * @return The string version of the value.
+     */
+    private String toString(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value ? "1" : "0";
+        }
+
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().format(TIMESTAMP_FORMAT);
+        }
+
+        if (value instanceof Double && !((Double) value).isNaN() && !((Double) value).isInfinite()) {
+            return BigDecimal.valueOf((Double) value).stripTrailingZeros().toPlainString();
+        }
+
+        return String.valueOf(value);
     }
 
     private boolean isString(Object name) {
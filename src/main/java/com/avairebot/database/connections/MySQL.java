@@ -23,19 +23,35 @@ package com.avairebot.database.connections;
 
 import com.avairebot.AvaIre;
 import com.avairebot.contracts.database.StatementInterface;
+import com.avairebot.contracts.database.grammar.TableGrammar;
 import com.avairebot.contracts.database.connections.HostnameDatabase;
 import com.avairebot.database.DatabaseManager;
 import com.avairebot.database.grammar.mysql.*;
 import com.avairebot.database.query.QueryBuilder;
 import com.avairebot.database.schema.Blueprint;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import javax.annotation.Nonnull;
 import java.sql.*;
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 public class MySQL extends HostnameDatabase {
 
+    /**
+     * The executor used by the MySQL driver to abort connections
+     * that exceeds the network timeout, shared between
+     * every connection opened by the pool.
+     */
+    private static final ExecutorService networkTimeoutExecutor = Executors.newCachedThreadPool(
+        new ThreadFactoryBuilder()
+            .setNameFormat("avaire-mysql-timeout-%d")
+            .setDaemon(true)
+            .build()
+    );
+
     /**
      * Creates a MySQL database connection instance with the parsed information,
      * the port used will default to <code>3306</code>.
@@ -83,28 +99,48 @@ public class MySQL extends HostnameDatabase {
     }
 
     @Override
-    public boolean open() throws SQLException {
+    protected Connection createConnection() throws SQLException {
         try {
             String url = String.format("jdbc:mysql://%s:%d/%s", getHostname(), getPort(), getDatabase());
 
-            if (initialize()) {
-                connection = DriverManager.getConnection(url, getUsername(), getPassword());
+            Properties properties = new Properties();
+            properties.setProperty("user", getUsername());
+            properties.setProperty("password", getPassword());
 
-                // Sets a timeout of 20 seconds(This is an extremely long time, however the default
-                // is around 10 minutes so this should give some improvements with the threads
-                // not being blocked for ages due to hanging database queries.
-                connection.setNetworkTimeout(Executors.newCachedThreadPool(), 1000 * 20);
+            // Enables server-side prepared statements, and caches them per connection using the SQL
+            // query as the key, since the query builder compiles queries with the same shape
+            // into the exact same SQL, the statements are only parsed once by the server.
+            properties.setProperty("useServerPrepStmts", "true");
+            properties.setProperty("cachePrepStmts", "true");
+            properties.setProperty("prepStmtCacheSize", String.valueOf(getStatementCacheSize()));
+            properties.setProperty("prepStmtCacheSqlLimit", "2048");
 
-                return true;
-            }
+            // Lets the driver rewrite JDBC batches into multi-value inserts, and multi-statement
+            // updates, so a batch is sent to the server in a single round trip, instead
+            // of one round trip for every statement in the batch.
+            properties.setProperty("rewriteBatchedStatements", "true");
+
+            Connection connection = DriverManager.getConnection(url, properties);
+
+            // Sets a timeout of 20 seconds(This is an extremely long time, however the default
+            // is around 10 minutes so this should give some improvements with the threads
+            // not being blocked for ages due to hanging database queries.
+            connection.setNetworkTimeout(networkTimeoutExecutor, 1000 * 20);
+
+            return connection;
         } catch (SQLException ex) {
             String reason = "Could not establish a MySQL connection, SQLException: " + ex.getMessage();
 
             AvaIre.getLogger().error(reason, ex);
             throw new SQLException(reason);
         }
+    }
 
-        return false;
+    private int getStatementCacheSize() {
+        if (dbm == null || dbm.getAvaire() == null) {
+            return 250;
+        }
+        return dbm.getAvaire().getConfig().getInt("database.pool.statement-cache-size", 250);
     }
 
     @Override
@@ -143,8 +179,8 @@ public class MySQL extends HostnameDatabase {
 
     @Override
     public boolean hasTable(String table) {
-        try {
-            DatabaseMetaData md = getConnection().getMetaData();
+        try (Connection connection = getConnection()) {
+            DatabaseMetaData md = connection.getMetaData();
 
             try (ResultSet tables = md.getTables(null, null, table, new String[]{"TABLE"})) {
                 if (tables.next()) {
@@ -167,7 +203,8 @@ public class MySQL extends HostnameDatabase {
                 return false;
             }
 
-            try (Statement statement = getConnection().createStatement()) {
+            try (Connection connection = getConnection();
+                 Statement statement = connection.createStatement()) {
                 statement.executeUpdate(String.format("DELETE FROM `%s`;", table));
             }
 
@@ -179,6 +216,23 @@ public class MySQL extends HostnameDatabase {
         return false;
     }
 
+    @Override
+    protected TableGrammar createGrammar(QueryType type) {
+        switch (type) {
+            case INSERT:
+                return new Insert();
+
+            case UPDATE:
+                return new Update();
+
+            case DELETE:
+                return new Delete();
+
+            default:
+                return new Select();
+        }
+    }
+
     public String select(DatabaseManager manager, QueryBuilder query, Map<String, Boolean> options) {
         return setupAndRun(new Select(), query, manager, options);
     }
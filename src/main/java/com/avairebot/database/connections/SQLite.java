@@ -23,10 +23,13 @@ package com.avairebot.database.connections;
 
 import com.avairebot.AvaIre;
 import com.avairebot.contracts.database.StatementInterface;
+import com.avairebot.contracts.database.grammar.TableGrammar;
 import com.avairebot.contracts.database.connections.FilenameDatabase;
 import com.avairebot.database.DatabaseManager;
 import com.avairebot.database.exceptions.DatabaseException;
 import com.avairebot.database.grammar.sqlite.*;
+import com.avairebot.database.pool.PoolOptions;
+import com.avairebot.database.query.CompiledQuery;
 import com.avairebot.database.query.QueryBuilder;
 import com.avairebot.database.schema.Blueprint;
 import com.avairebot.metrics.Metrics;
@@ -35,6 +38,7 @@ import javax.annotation.Nonnull;
 import java.sql.*;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.Properties;
 
 public class SQLite extends FilenameDatabase {
 
@@ -79,21 +83,38 @@ public class SQLite extends FilenameDatabase {
     }
 
     @Override
-    public boolean open() throws SQLException {
-        if (initialize()) {
-            try {
-                connection = DriverManager.getConnection("jdbc:sqlite:" + (getFile() == null ? ":memory:" : getFile().getAbsolutePath()));
+    protected Connection createConnection() throws SQLException {
+        try {
+            // Pooled connections share the same database file, so writes from one connection
+            // may briefly lock out the others, the busy timeout makes SQLite wait for
+            // the lock to be released instead of failing the query right away.
+            Properties properties = new Properties();
+            properties.setProperty("busy_timeout", "5000");
+
+            return DriverManager.getConnection(
+                "jdbc:sqlite:" + (getFile() == null ? ":memory:" : getFile().getAbsolutePath()), properties
+            );
+        } catch (SQLException ex) {
+            String reason = "DBM - Could not establish an SQLite connection, SQLException: " + ex.getMessage();
 
-                return true;
-            } catch (SQLException ex) {
-                String reason = "DBM - Could not establish an SQLite connection, SQLException: " + ex.getMessage();
+            AvaIre.getLogger().error(reason, ex);
+            throw new SQLException(reason);
+        }
+    }
 
-                AvaIre.getLogger().error(reason, ex);
-                throw new SQLException(reason);
-            }
+    @Override
+    protected PoolOptions getPoolOptions() {
+        if (getFile() != null) {
+            return super.getPoolOptions();
         }
 
-        return false;
+        // Every connection to an in-memory SQLite database gets its own
+        // separate database, so we can only ever use one connection
+        // and it must never be evicted from the pool.
+        return super.getPoolOptions()
+            .setMinimumIdle(1)
+            .setMaximumPoolSize(1)
+            .setIdleTimeout(0);
     }
 
     @Override
@@ -101,13 +122,6 @@ public class SQLite extends FilenameDatabase {
         // This does nothing for SQLite
     }
 
-    @Override
-    public Connection getConnection() throws SQLException {
-        open();
-
-        return connection;
-    }
-
     @Override
     public StatementInterface getStatement(String query) throws SQLException {
         String[] statement = query.trim().split(" ", 2);
@@ -121,8 +135,8 @@ public class SQLite extends FilenameDatabase {
 
     @Override
     public boolean hasTable(String table) {
-        try {
-            DatabaseMetaData md = getConnection().getMetaData();
+        try (Connection connection = getConnection()) {
+            DatabaseMetaData md = connection.getMetaData();
 
             try (ResultSet tables = md.getTables(null, null, table, null)) {
                 if (tables.next()) {
@@ -145,7 +159,8 @@ public class SQLite extends FilenameDatabase {
                 return false;
             }
 
-            try (Statement statement = connection.createStatement()) {
+            try (Connection connection = getConnection();
+                 Statement statement = connection.createStatement()) {
                 statement.executeQuery(String.format("DELETE FROM `%s`;", table));
             }
 
@@ -160,10 +175,37 @@ public class SQLite extends FilenameDatabase {
     }
 
     @Override
-    protected Statement createPreparedStatement(String query) throws SQLException {
+    protected Statement createPreparedStatement(Connection connection, String query) throws SQLException {
         Metrics.databaseQueries.labels(query.split(" ")[0].toUpperCase()).inc();
 
-        Statement statement = getConnection().createStatement();
+        Statement statement = connection.createStatement();
+
+        statement.setQueryTimeout(5);
+        statement.setMaxRows(25000);
+
+        return statement;
+    }
+
+    @Override
+    protected TableGrammar createGrammar(QueryType type) {
+        switch (type) {
+            case INSERT:
+                return new Insert();
+
+            case UPDATE:
+                return new Update();
+
+            case DELETE:
+                return new Delete();
+
+            default:
+                return new Select();
+        }
+    }
+
+    @Override
+    protected PreparedStatement createPreparedStatement(Connection connection, CompiledQuery query) throws SQLException {
+        PreparedStatement statement = super.createPreparedStatement(connection, query);
 
         statement.setQueryTimeout(5);
         statement.setMaxRows(25000);
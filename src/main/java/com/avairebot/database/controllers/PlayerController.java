@@ -24,7 +24,6 @@ package com.avairebot.database.controllers;
 import com.avairebot.AvaIre;
 import com.avairebot.Constants;
 import com.avairebot.database.transformers.PlayerTransformer;
-import com.avairebot.level.ExperienceEntity;
 import com.avairebot.utilities.CacheUtil;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
@@ -37,7 +36,6 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
@@ -131,14 +129,12 @@ public class PlayerController {
     }
 
     private static PlayerTransformer mergeWithExperienceEntity(AvaIre avaire, PlayerTransformer transformer) {
-        List<ExperienceEntity> entities = avaire.getLevelManager().getExperienceEntities(transformer);
-        if (entities.isEmpty()) {
+        int experience = avaire.getLevelManager().getPendingExperience(transformer);
+        if (experience == 0) {
             return transformer;
         }
 
-        transformer.incrementExperienceBy(
-            entities.stream().mapToInt(ExperienceEntity::getExperience).sum()
-        );
+        transformer.incrementExperienceBy(experience);
 
         return transformer;
     }
@@ -87,7 +87,13 @@ public class Update extends UpdateGrammar {
                     continue;
                 }
 
-                addPart(String.format("%s = '%s', ", formatKey, value.replaceAll("'", "\'")));
+                if (isParameterized()) {
+                    addPart(" %s = %s, ", formatKey, bind(row.get(key)));
+
+                    continue;
+                }
+
+                addPart(String.format("%s = '%s', ", formatKey, escape(value)));
             }
 
             removeLast(2).addPart(" ");
@@ -96,6 +102,10 @@ public class Update extends UpdateGrammar {
         removeLast(1);
     }
 
+    private String escape(String value) {
+        return value.replace("'", "''");
+    }
+
     @Override
     protected String finalize(QueryBuilder builder) {
         addPart(";");
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.database.migrate.migrations;
+
+import com.avairebot.Constants;
+import com.avairebot.contracts.database.migrations.Migration;
+import com.avairebot.database.connections.MySQL;
+import com.avairebot.database.schema.Schema;
+
+import java.sql.SQLException;
+
+public class AddCleanupIndexesToGuildsAndExperiencesTableMigration implements Migration {
+
+    private static final String GUILD_INDEX = "guilds_id_index";
+    private static final String EXPERIENCE_INDEX = "experiences_guild_id_user_id_index";
+
+    @Override
+    public String created_at() {
+        return "Sat, Oct 17, 2026 2:14 PM";
+    }
+
+    @Override
+    public boolean up(Schema schema) throws SQLException {
+        if (schema.getDbm().getConnection() instanceof MySQL) {
+            if (!hasIndex(schema, Constants.GUILD_TABLE_NAME, GUILD_INDEX)) {
+                schema.getDbm().queryUpdate(String.format(
+                    "CREATE INDEX `%s` ON `%s` (`id`);",
+                    GUILD_INDEX, Constants.GUILD_TABLE_NAME
+                ));
+            }
+
+            if (!hasIndex(schema, Constants.PLAYER_EXPERIENCE_TABLE_NAME, EXPERIENCE_INDEX)) {
+                // The columns are VARCHAR(256), which is too long to index in full on InnoDB
+                // tables using the compact row format, the IDs are Discord snowflakes so
+                // they'll never need more than 32 characters, so only prefixes are indexed.
+                schema.getDbm().queryUpdate(String.format(
+                    "CREATE INDEX `%s` ON `%s` (`guild_id`(32), `user_id`(32));",
+                    EXPERIENCE_INDEX, Constants.PLAYER_EXPERIENCE_TABLE_NAME
+                ));
+            }
+        } else {
+            schema.getDbm().queryUpdate(String.format(
+                "CREATE INDEX IF NOT EXISTS `%s` ON `%s` (`id`);",
+                GUILD_INDEX, Constants.GUILD_TABLE_NAME
+            ));
+
+            schema.getDbm().queryUpdate(String.format(
+                "CREATE INDEX IF NOT EXISTS `%s` ON `%s` (`guild_id`, `user_id`);",
+                EXPERIENCE_INDEX, Constants.PLAYER_EXPERIENCE_TABLE_NAME
+            ));
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean down(Schema schema) throws SQLException {
+        if (schema.getDbm().getConnection() instanceof MySQL) {
+            if (hasIndex(schema, Constants.GUILD_TABLE_NAME, GUILD_INDEX)) {
+                schema.getDbm().queryUpdate(String.format(
+                    "DROP INDEX `%s` ON `%s`;",
+                    GUILD_INDEX, Constants.GUILD_TABLE_NAME
+                ));
+            }
+
+            if (hasIndex(schema, Constants.PLAYER_EXPERIENCE_TABLE_NAME, EXPERIENCE_INDEX)) {
+                schema.getDbm().queryUpdate(String.format(
+                    "DROP INDEX `%s` ON `%s`;",
+                    EXPERIENCE_INDEX, Constants.PLAYER_EXPERIENCE_TABLE_NAME
+                ));
+            }
+        } else {
+            schema.getDbm().queryUpdate(String.format("DROP INDEX IF EXISTS `%s`;", GUILD_INDEX));
+            schema.getDbm().queryUpdate(String.format("DROP INDEX IF EXISTS `%s`;", EXPERIENCE_INDEX));
+        }
+
+        return true;
+    }
+
+    private boolean hasIndex(Schema schema, String table, String index) throws SQLException {
+        return !schema.getDbm().query(String.format(
+            "SHOW INDEX FROM `%s` WHERE `Key_name` = '%s';", table, index
+        )).isEmpty();
+    }
+}
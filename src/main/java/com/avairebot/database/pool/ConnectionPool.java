@@ -0,0 +1,436 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.database.pool;
+
+import com.avairebot.contracts.database.connections.ConnectionFactory;
+import com.avairebot.metrics.Metrics;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.prometheus.client.Gauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionPool.class);
+
+    private final String name;
+    private final ConnectionFactory factory;
+    private final PoolOptions options;
+
+    /**
+     * The idle connections ready to be borrowed, connections are returned to
+     * and borrowed from the head of the deque so the most recently used
+     * connections are reused first, while the connections at the
+     * tail are the ones that will be evicted when idle.
+     */
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+
+    /**
+     * The lease permits, one permit is held for every connection that
+     * is currently borrowed from the pool, the semaphore is fair so
+     * threads waiting for a connection are served in order.
+     */
+    private final Semaphore leases;
+
+    private final AtomicInteger total = new AtomicInteger(0);
+    private final AtomicInteger active = new AtomicInteger(0);
+    private final AtomicInteger waiting = new AtomicInteger(0);
+
+    private final Gauge.Child activeGauge;
+    private final Gauge.Child idleGauge;
+    private final Gauge.Child waitingGauge;
+
+    private final ScheduledExecutorService housekeeper;
+
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a new connection pool with the given name, the pool will
+     * immediately start filling itself up to the minimum idle size.
+     *
+     * @param name    The name of the pool, used for metrics and thread names.
+     * @param factory The factory used to open new physical connections.
+     * @param options The options for the pool.
+     */
+    public ConnectionPool(String name, ConnectionFactory factory, PoolOptions options) {
+        this.name = name;
+        this.factory = factory;
+        this.options = options;
+        this.leases = new Semaphore(options.getMaximumPoolSize(), true);
+
+        this.activeGauge = Metrics.databasePoolConnections.labels(name, "active");
+        this.idleGauge = Metrics.databasePoolConnections.labels(name, "idle");
+        this.waitingGauge = Metrics.databasePoolConnections.labels(name, "waiting");
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("avaire-database-pool-" + name + "-%d")
+            .setDaemon(true)
+            .build()
+        );
+
+        housekeeper.scheduleWithFixedDelay(
+            this::evictIdleConnections, 0, options.getEvictionInterval(), TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Borrows a connection from the pool, if no idle connection is available and the
+     * pool is below its maximum size a new connection will be opened, otherwise the
+     * calling thread will wait until a connection is returned to the pool.
+     * <p>
+     * Closing the returned connection will return it to the pool.
+     *
+     * @return The borrowed connection.
+     * @throws SQLException        if the pool is closed, or a database access error
+     *                             occurs while opening a new connection.
+     * @throws SQLTimeoutException if no connection became available before the
+     *                             connection timeout was reached.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("The " + name + " connection pool has been closed.");
+        }
+
+        long deadline = System.currentTimeMillis() + options.getConnectionTimeout();
+
+        waiting.incrementAndGet();
+        waitingGauge.inc();
+        try {
+            if (!leases.tryAcquire(options.getConnectionTimeout(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException(String.format(
+                    "Timed out after %sms waiting for a connection from the %s pool (active: %s, idle: %s, waiting: %s)",
+                    options.getConnectionTimeout(), name, active.get(), idle.size(), waiting.get() - 1
+                ));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection from the " + name + " pool", e);
+        } finally {
+            waiting.decrementAndGet();
+            waitingGauge.dec();
+        }
+
+        try {
+            PooledConnection connection = takeConnection(deadline);
+
+            active.incrementAndGet();
+            activeGauge.inc();
+
+            return connection.lease();
+        } catch (SQLException | RuntimeException e) {
+            leases.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the name of the pool.
+     *
+     * @return The name of the pool.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the amount of connections that are currently borrowed from the pool.
+     *
+     * @return The amount of active connections.
+     */
+    public int getActiveConnections() {
+        return active.get();
+    }
+
+    /**
+     * Gets the amount of connections that are currently sitting idle in the pool.
+     *
+     * @return The amount of idle connections.
+     */
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    /**
+     * Gets the amount of threads that are currently waiting for a connection.
+     *
+     * @return The amount of threads waiting for a connection.
+     */
+    public int getWaitingThreads() {
+        return waiting.get();
+    }
+
+    /**
+     * Gets the total amount of physical connections opened by the pool.
+     *
+     * @return The total amount of open connections.
+     */
+    public int getTotalConnections() {
+        return total.get();
+    }
+
+    /**
+     * Checks if the pool has been closed.
+     *
+     * @return <code>True</code> if the pool is closed, <code>False</code> otherwise.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the pool and every idle connection in it, connections that are
+     * currently borrowed will be closed once they're returned to the pool.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        housekeeper.shutdownNow();
+
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            discard(connection);
+        }
+    }
+
+    private PooledConnection takeConnection(long deadline) throws SQLException {
+        while (true) {
+            PooledConnection connection = idle.pollFirst();
+            if (connection != null) {
+                if (isUsable(connection)) {
+                    return connection;
+                }
+
+                discard(connection);
+                continue;
+            }
+
+            if (reserveSlot()) {
+                return openConnection();
+            }
+
+            // The pool is at its maximum size, which means one of the connections counted
+            // towards the total is being returned, or evicted, right now, so we
+            // wait for it to show up in the idle deque instead.
+            try {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new SQLTimeoutException("Timed out waiting for a connection from the " + name + " pool");
+                }
+
+                connection = idle.pollFirst(Math.min(remaining, 50), TimeUnit.MILLISECONDS);
+                if (connection != null) {
+                    if (isUsable(connection)) {
+                        return connection;
+                    }
+
+                    discard(connection);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a connection from the " + name + " pool", e);
+            }
+        }
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = total.get();
+            if (current >= options.getMaximumPoolSize()) {
+                return false;
+            }
+
+            if (total.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        try {
+            return new PooledConnection(factory.create());
+        } catch (SQLException | RuntimeException e) {
+            total.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean isUsable(PooledConnection connection) {
+        if (System.currentTimeMillis() - connection.lastUsed < options.getValidationBypass()) {
+            return true;
+        }
+
+        try {
+            return connection.physical.isValid(options.getValidationTimeout());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection connection) {
+        active.decrementAndGet();
+        activeGauge.dec();
+
+        try {
+            if (closed || !resetConnection(connection)) {
+                discard(connection);
+                return;
+            }
+
+            connection.lastUsed = System.currentTimeMillis();
+            connection.inIdleGauge = true;
+            idleGauge.inc();
+            idle.offerFirst(connection);
+        } finally {
+            leases.release();
+        }
+    }
+
+    private boolean resetConnection(PooledConnection connection) {
+        try {
+            if (connection.physical.isClosed()) {
+                return false;
+            }
+
+            if (!connection.physical.getAutoCommit()) {
+                connection.physical.rollback();
+                connection.physical.setAutoCommit(true);
+            }
+
+            return true;
+        } catch (SQLException e) {
+            log.debug("Failed to reset connection for the {} pool, discarding it: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection connection) {
+        if (connection.inIdleGauge) {
+            connection.inIdleGauge = false;
+            idleGauge.dec();
+        }
+
+        total.decrementAndGet();
+
+        try {
+            connection.physical.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close discarded connection for the {} pool: {}", name, e.getMessage());
+        }
+    }
+
+    private void evictIdleConnections() {
+        try {
+            long now = System.currentTimeMillis();
+
+            Iterator<PooledConnection> iterator = idle.descendingIterator();
+            while (iterator.hasNext() && total.get() > options.getMinimumIdle()) {
+                PooledConnection connection = iterator.next();
+                if (options.getIdleTimeout() <= 0 || now - connection.lastUsed < options.getIdleTimeout()) {
+                    continue;
+                }
+
+                if (idle.removeLastOccurrence(connection)) {
+                    discard(connection);
+                }
+            }
+
+            while (!closed && idle.size() < options.getMinimumIdle() && reserveSlot()) {
+                PooledConnection connection = openConnection();
+                connection.inIdleGauge = true;
+                idleGauge.inc();
+                idle.offerLast(connection);
+            }
+        } catch (SQLException e) {
+            log.warn("Failed to fill the {} pool up to its minimum idle size: {}", name, e.getMessage());
+        } catch (Exception e) {
+            log.error("An exception was thrown while evicting idle connections from the {} pool", name, e);
+        }
+    }
+
+    private class PooledConnection {
+
+        private final Connection physical;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile boolean inIdleGauge = false;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection lease() {
+            if (inIdleGauge) {
+                inIdleGauge = false;
+                idleGauge.dec();
+            }
+
+            AtomicBoolean returned = new AtomicBoolean(false);
+
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            if (returned.compareAndSet(false, true)) {
+                                release(this);
+                            }
+                            return null;
+
+                        case "isClosed":
+                            return returned.get() || physical.isClosed();
+
+                        case "equals":
+                            return proxy == args[0];
+
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+
+                        case "toString":
+                            return "Pooled" + physical.toString();
+                    }
+
+                    if (returned.get()) {
+                        throw new SQLException("The connection has already been returned to the " + name + " pool.");
+                    }
+
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            );
+        }
+    }
+}
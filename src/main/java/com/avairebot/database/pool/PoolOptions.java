@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.database.pool;
+
+import com.avairebot.config.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+public class PoolOptions {
+
+    /**
+     * The minimum amount of connections the pool should keep
+     * open, even when they are sitting idle in the pool.
+     */
+    private int minimumIdle = 2;
+
+    /**
+     * The maximum amount of connections the pool is allowed
+     * to have open at any given time, both idle and active.
+     */
+    private int maximumPoolSize = 10;
+
+    /**
+     * The amount of time in milliseconds a thread will wait for a
+     * connection to become available before giving up.
+     */
+    private long connectionTimeout = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * The amount of time in milliseconds a connection can sit idle in
+     * the pool before it is evicted, connections will never be
+     * evicted if it brings the pool below the minimum idle size.
+     */
+    private long idleTimeout = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * The amount of time in milliseconds a connection can go unused before it
+     * is validated on borrow, connections that have been used within the
+     * bypass window are assumed to still be alive.
+     */
+    private long validationBypass = 500;
+
+    /**
+     * The amount of time in seconds the driver has to
+     * validate a connection before it is discarded.
+     */
+    private int validationTimeout = 2;
+
+    /**
+     * The interval in milliseconds between each idle eviction run.
+     */
+    private long evictionInterval = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Creates the pool options from the <code>database.pool</code>
+     * section of the given configuration, any missing values
+     * will fallback to their default values.
+     *
+     * @param config The configuration to load the pool options from.
+     * @return The pool options loaded from the config.
+     */
+    public static PoolOptions fromConfig(Configuration config) {
+        PoolOptions defaults = new PoolOptions();
+
+        return new PoolOptions()
+            .setMinimumIdle(config.getInt("database.pool.min-idle", defaults.getMinimumIdle()))
+            .setMaximumPoolSize(config.getInt("database.pool.max-size", defaults.getMaximumPoolSize()))
+            .setConnectionTimeout(config.getLong("database.pool.connection-timeout", defaults.getConnectionTimeout()))
+            .setIdleTimeout(config.getLong("database.pool.idle-timeout", defaults.getIdleTimeout()));
+    }
+
+    public int getMinimumIdle() {
+        return minimumIdle;
+    }
+
+    public PoolOptions setMinimumIdle(int minimumIdle) {
+        this.minimumIdle = Math.max(0, minimumIdle);
+        return this;
+    }
+
+    public int getMaximumPoolSize() {
+        return Math.max(maximumPoolSize, Math.max(1, minimumIdle));
+    }
+
+    public PoolOptions setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = Math.max(1, maximumPoolSize);
+        return this;
+    }
+
+    public long getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public PoolOptions setConnectionTimeout(long connectionTimeout) {
+        this.connectionTimeout = Math.max(250, connectionTimeout);
+        return this;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public PoolOptions setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+        return this;
+    }
+
+    public long getValidationBypass() {
+        return validationBypass;
+    }
+
+    public PoolOptions setValidationBypass(long validationBypass) {
+        this.validationBypass = Math.max(0, validationBypass);
+        return this;
+    }
+
+    public int getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    public PoolOptions setValidationTimeout(int validationTimeout) {
+        this.validationTimeout = Math.max(1, validationTimeout);
+        return this;
+    }
+
+    public long getEvictionInterval() {
+        return evictionInterval;
+    }
+
+    public PoolOptions setEvictionInterval(long evictionInterval) {
+        this.evictionInterval = Math.max(100, evictionInterval);
+        return this;
+    }
+}
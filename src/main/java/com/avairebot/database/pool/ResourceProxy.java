@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.database.pool;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class ResourceProxy {
+
+    private ResourceProxy() {
+        // This class only contains static helpers.
+    }
+
+    /**
+     * Wraps the given JDBC resource in a proxy of the given interface type, every call
+     * is delegated to the resource, except for <code>close()</code> which will close
+     * the resource first, and then close the given <code>after</code> resource,
+     * making it possible to tie a pooled connection to the lifetime of a
+     * statement, or result set handed out to the caller.
+     *
+     * @param type     The interface type the resource should be exposed as.
+     * @param resource The resource that should be wrapped.
+     * @param after    The resource that should be closed after the wrapped resource is closed.
+     * @param <T>      The interface type of the resource.
+     * @return The proxied resource.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends AutoCloseable> T closing(Class<T> type, T resource, AutoCloseable after) {
+        AtomicBoolean closed = new AtomicBoolean(false);
+
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class[]{type}, (proxy, method, args) -> {
+            if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                if (!closed.compareAndSet(false, true)) {
+                    return null;
+                }
+
+                try {
+                    resource.close();
+                } finally {
+                    after.close();
+                }
+                return null;
+            }
+
+            try {
+                return method.invoke(resource, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.database.query;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.List;
+
+public class CompiledQuery {
+
+    /**
+     * The parameterized SQL query, using <code>?</code>
+     * placeholders for every bound value.
+     */
+    private final String query;
+
+    /**
+     * The values that should be bound to the placeholders
+     * in the query, in the order they appear in.
+     */
+    private final List<Object> bindings;
+
+    /**
+     * Creates a new compiled query.
+     *
+     * @param query    The parameterized SQL query.
+     * @param bindings The values bound to the query placeholders.
+     */
+    public CompiledQuery(String query, List<Object> bindings) {
+        this.query = query;
+        this.bindings = Collections.unmodifiableList(bindings);
+    }
+
+    /**
+     * Gets the parameterized SQL query, queries built from the same query
+     * builder shape will always produce the exact same SQL query,
+     * allowing the statement to be cached and reused.
+     *
+     * @return The parameterized SQL query.
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Gets the values bound to the query placeholders.
+     *
+     * @return The values bound to the query placeholders.
+     */
+    public List<Object> getBindings() {
+        return bindings;
+    }
+
+    /**
+     * Binds all the query values to the given prepared statement.
+     *
+     * @param statement The prepared statement the values should be bound to.
+     * @throws SQLException if a database access error occurs, or this
+     *                      method is called on a closed statement.
+     */
+    public void bindTo(PreparedStatement statement) throws SQLException {
+        for (int i = 0; i < bindings.size(); i++) {
+            Object value = bindings.get(i);
+
+            if (value == null) {
+                statement.setNull(i + 1, Types.NULL);
+            } else if (value instanceof Number) {
+                statement.setObject(i + 1, value);
+            } else {
+                statement.setString(i + 1, value.toString());
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return query + " " + bindings;
+    }
+}
@@ -28,7 +28,6 @@ import com.avairebot.contracts.database.query.ChangeableClosure;
 import com.avairebot.contracts.database.query.ClauseConsumer;
 import com.avairebot.database.DatabaseManager;
 import com.avairebot.database.collection.Collection;
-import com.avairebot.scheduler.ScheduleHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -696,10 +695,11 @@ public final class QueryBuilder {
     }
 
     /**
-     * Sets the async status for the query, if async is set to true the query will be executed on a separate
-     * thread, only <code>update</code>, <code>insert</code>, and <code>delete</code> queries can be
-     * executed as async, when async is enabled for a query it will not return any response or
-     * throw any exceptions that can be catched.
+     * Sets the async status for the query, if async is set to true the query will be queued in the
+     * {@link com.avairebot.database.writer.WriteBehindQueue write-behind queue} and written to the
+     * database on a separate thread, only <code>update</code>, <code>insert</code>, and
+     * <code>delete</code> queries can be executed as async, when async is enabled for
+     * a query it will not return any response or throw any exceptions that can be catched.
      *
      * @param async The query async value.
      * @return the query builder instance.
@@ -735,6 +735,26 @@ public final class QueryBuilder {
         return null;
     }
 
+    /**
+     * Compiles the query builder into a parameterized SQL query, where every value is
+     * replaced with a <code>?</code> placeholder and returned as a bound value.
+     *
+     * @return the compiled query
+     * @throws SQLException if a database access error occurs while opening the database connection
+     */
+    public CompiledQuery compile() throws SQLException {
+        return dbm.getConnection().compile(dbm, this);
+    }
+
+    /**
+     * Gets the type of query that's being preformed.
+     *
+     * @return the type of query that's being preformed.
+     */
+    public QueryType getType() {
+        return type;
+    }
+
     /**
      * Runs the {@link Database#query(String)} method with the generated query.
      *
@@ -747,6 +767,10 @@ public final class QueryBuilder {
      *                      <code>PreparedStatement</code> or <code>CallableStatement</code>
      */
     public Collection get() throws SQLException {
+        if (dbm.usePreparedStatements()) {
+            return dbm.query(this);
+        }
+
         String query = toSQL();
 
         log.debug("QueryBuilder#get() was called with the following SQL query.\nSQL: " + query);
@@ -782,13 +806,7 @@ public final class QueryBuilder {
             return dbm.queryUpdate(this);
         }
 
-        ScheduleHandler.getScheduler().submit(() -> {
-            try {
-                dbm.queryUpdate(this);
-            } catch (SQLException e) {
-                log.error("Error thrown during async update query: " + toSQL(), e);
-            }
-        });
+        dbm.getWriteBehindQueue().submit(this);
 
         return 0;
     }
@@ -828,13 +846,7 @@ public final class QueryBuilder {
             return dbm.queryUpdate(this);
         }
 
-        ScheduleHandler.getScheduler().submit(() -> {
-            try {
-                dbm.queryUpdate(this);
-            } catch (SQLException e) {
-                log.error("Error thrown during async update query: " + toSQL(), e);
-            }
-        });
+        dbm.getWriteBehindQueue().submit(this);
 
         return 0;
     }
@@ -861,13 +873,7 @@ public final class QueryBuilder {
             return runInsertQuery();
         }
 
-        ScheduleHandler.getScheduler().submit(() -> {
-            try {
-                dbm.queryInsert(this);
-            } catch (SQLException e) {
-                log.error("Error thrown during async insert query: " + toSQL(), e);
-            }
-        });
+        dbm.getWriteBehindQueue().submit(this);
 
         return new Collection();
     }
@@ -905,13 +911,7 @@ public final class QueryBuilder {
             return runInsertQuery();
         }
 
-        ScheduleHandler.getScheduler().submit(() -> {
-            try {
-                dbm.queryInsert(this);
-            } catch (SQLException e) {
-                log.error("Error thrown during async insert query: " + toSQL(), e);
-            }
-        });
+        dbm.getWriteBehindQueue().submit(this);
 
         return new Collection();
     }
@@ -933,13 +933,7 @@ public final class QueryBuilder {
             return dbm.queryUpdate(this);
         }
 
-        ScheduleHandler.getScheduler().submit(() -> {
-            try {
-                dbm.queryUpdate(this);
-            } catch (SQLException e) {
-                log.error("Error thrown during async delete query: " + toSQL(), e);
-            }
-        });
+        dbm.getWriteBehindQueue().submit(this);
 
         return 0;
     }
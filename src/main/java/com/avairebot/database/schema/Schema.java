@@ -25,10 +25,7 @@ import com.avairebot.contracts.database.schema.DatabaseClosure;
 import com.avairebot.database.DatabaseManager;
 import com.avairebot.metrics.Metrics;
 
-import java.sql.DatabaseMetaData;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
-import java.sql.Statement;
+import java.sql.*;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -82,7 +79,10 @@ public class Schema {
      *                      <code>PreparedStatement</code> or <code>CallableStatement</code>
      */
     public boolean hasColumn(String table, String column) throws SQLException {
-        return getMetaData().getColumns(null, null, table, column).next();
+        try (Connection connection = dbm.getConnection().getConnection();
+             ResultSet columns = connection.getMetaData().getColumns(null, null, table, column)) {
+            return columns.next();
+        }
     }
 
     /**
@@ -103,13 +103,13 @@ public class Schema {
         Map<String, Boolean> options = new HashMap<>();
         options.put("ignoreExistingTable", true);
         String query = dbm.getConnection().create(dbm, blueprint, options);
-        Statement stmt = dbm.getConnection().prepare(query);
+        try (Statement stmt = dbm.getConnection().prepare(query)) {
+            if (stmt instanceof PreparedStatement) {
+                return !((PreparedStatement) stmt).execute();
+            }
 
-        if (stmt instanceof PreparedStatement) {
-            return !((PreparedStatement) stmt).execute();
+            return !stmt.execute(query);
         }
-
-        return !stmt.execute(query);
     }
 
     /**
@@ -133,13 +133,13 @@ public class Schema {
         Map<String, Boolean> options = new HashMap<>();
         options.put("ignoreExistingTable", false);
         String query = dbm.getConnection().create(dbm, blueprint, options);
-        Statement stmt = dbm.getConnection().prepare(query);
+        try (Statement stmt = dbm.getConnection().prepare(query)) {
+            if (stmt instanceof PreparedStatement) {
+                return !((PreparedStatement) stmt).execute();
+            }
 
-        if (stmt instanceof PreparedStatement) {
-            return !((PreparedStatement) stmt).execute();
+            return !stmt.execute(query);
         }
-
-        return !stmt.execute(query);
     }
 
     /**
@@ -242,9 +242,10 @@ public class Schema {
      *                      <code>PreparedStatement</code> or <code>CallableStatement</code>
      */
     private boolean alterQuery(String query) throws SQLException {
-        Statement stmt = dbm.getConnection().getConnection().createStatement();
-
-        return !stmt.execute(query);
+        try (Connection connection = dbm.getConnection().getConnection();
+             Statement stmt = connection.createStatement()) {
+            return !stmt.execute(query);
+        }
     }
 
     /**
@@ -258,14 +259,4 @@ public class Schema {
     private String format(String query, Object... items) {
         return String.format(query, items);
     }
-
-    /**
-     * Gets the database meta data object from the default database connection.
-     *
-     * @return The database meta data object.
-     * @throws SQLException
-     */
-    private DatabaseMetaData getMetaData() throws SQLException {
-        return dbm.getConnection().getConnection().getMetaData();
-    }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.database.writer;
+
+import com.avairebot.contracts.database.Database.QueryType;
+import com.avairebot.contracts.database.QueryClause;
+import com.avairebot.database.query.Clause;
+import com.avairebot.database.query.CompiledQuery;
+import com.avairebot.database.query.OperatorType;
+import com.avairebot.database.query.QueryBuilder;
+
+import javax.annotation.Nullable;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class PendingWrite {
+
+    private final QueryType type;
+    private final String table;
+    private final Map<String, String> rowKey;
+    private final String query;
+    private final CompiledQuery compiled;
+
+    /**
+     * Creates a new pending write.
+     *
+     * @param type     The type of query, either insert, update, or delete.
+     * @param table    The table the write is made to.
+     * @param rowKey   The columns and values the rows the write is made to are matched by,
+     *                 or <code>NULL</code> if the write can't be narrowed down that way.
+     * @param query    The SQL query, writes with the same query can be batched together.
+     * @param compiled The compiled query with the bound values, or <code>NULL</code>
+     *                 if prepared statements are disabled.
+     */
+    PendingWrite(QueryType type, String table, @Nullable Map<String, String> rowKey, String query, @Nullable CompiledQuery compiled) {
+        this.type = type;
+        this.table = table;
+        this.rowKey = rowKey;
+        this.query = query;
+        this.compiled = compiled;
+    }
+
+    /**
+     * Creates a pending write from the given query builder, the query is compiled right away
+     * so any changes made to the query builder afterwards won't affect the pending write.
+     *
+     * @param builder                The query builder the pending write should be created for.
+     * @param usePreparedStatements  <code>True</code> if the query should be compiled into a prepared
+     *                               statement, <code>False</code> to use the raw SQL query instead.
+     * @return The pending write for the given query builder.
+     * @throws SQLException if a database access error occurs while compiling the query.
+     */
+    static PendingWrite of(QueryBuilder builder, boolean usePreparedStatements) throws SQLException {
+        Map<String, String> rowKey = builder.getType() == QueryType.INSERT ? null : createRowKey(builder);
+
+        if (!usePreparedStatements) {
+            String query = builder.toSQL();
+            if (query == null) {
+                throw new SQLException("null query was generated, null can not be used as a valid query");
+            }
+            return new PendingWrite(builder.getType(), builder.getTable(), rowKey, query, null);
+        }
+
+        CompiledQuery compiled = builder.compile();
+
+        return new PendingWrite(builder.getType(), builder.getTable(), rowKey, compiled.getQuery(), compiled);
+    }
+
+    /**
+     * Creates the row key for the given query builder, the row key is only created if every where
+     * clause is a simple <code>column = value</code> comparison joined together with an
+     * <code>AND</code>, the key maps each of the columns to the value it's compared to.
+     *
+     * @param builder The query builder the row key should be created for.
+     * @return The row key, or <code>NULL</code> if the write may target any row in the table.
+     */
+    @Nullable
+    static Map<String, String> createRowKey(QueryBuilder builder) {
+        if (builder.getWhereClauses().isEmpty()) {
+            return null;
+        }
+
+        Map<String, String> columns = new TreeMap<>();
+        for (QueryClause queryClause : builder.getWhereClauses()) {
+            if (!(queryClause instanceof Clause)) {
+                return null;
+            }
+
+            Clause clause = (Clause) queryClause;
+            if (!"=".equals(clause.getIdentifier()) || clause.getOrder() != OperatorType.AND) {
+                return null;
+            }
+
+            String value = String.valueOf(clause.getTwo());
+            if (!value.equals(columns.getOrDefault(clause.getOne(), value))) {
+                // The same column is compared to two different values, which the key can't
+                // describe, so the write is treated as if it may target any row instead.
+                return null;
+            }
+
+            columns.put(clause.getOne(), value);
+        }
+
+        return Collections.unmodifiableMap(columns);
+    }
+
+    /**
+     * Checks if this write and the given write may affect the same rows, writes to the same
+     * table are only considered disjoint if they both compare a column to a value, and the
+     * values are different, like <code>id = 1</code>, and <code>id = 2</code>, writes
+     * without a row key may affect any row in the table.
+     *
+     * @param other The write that should be compared to this write.
+     * @return <code>True</code> if the writes may affect the same rows, <code>False</code> otherwise.
+     */
+    public boolean overlaps(PendingWrite other) {
+        if (!table.equals(other.table)) {
+            return false;
+        }
+
+        if (rowKey == null || other.rowKey == null) {
+            return true;
+        }
+
+        for (Map.Entry<String, String> column : rowKey.entrySet()) {
+            String value = other.rowKey.get(column.getKey());
+            if (value != null && !value.equals(column.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public QueryType getType() {
+        return type;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    @Nullable
+    public Map<String, String> getRowKey() {
+        return rowKey;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    @Nullable
+    public CompiledQuery getCompiled() {
+        return compiled;
+    }
+
+    @Override
+    public String toString() {
+        return compiled == null ? query : compiled.toString();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.database.writer;
+
+import com.avairebot.config.Configuration;
+
+public class WriteBehindOptions {
+
+    /**
+     * The maximum amount of writes that can be waiting in the queue
+     * before new writes will have to wait for room in the queue.
+     */
+    private int queueSize = 10000;
+
+    /**
+     * The maximum amount of writes that are taken from the
+     * queue and written to the database in a single run.
+     */
+    private int maximumBatchSize = 500;
+
+    /**
+     * The amount of time in milliseconds the writer waits for more writes to
+     * show up after the first write in a run, before the run is executed.
+     */
+    private long linger = 10;
+
+    /**
+     * The amount of time in milliseconds a write will wait for room in
+     * the queue when it's full, before the write is dropped.
+     */
+    private long offerTimeout = 5000;
+
+    /**
+     * Creates the write-behind options from the <code>database.write-behind</code>
+     * section of the given configuration, any missing values will
+     * fallback to their default values.
+     *
+     * @param config The configuration to load the write-behind options from.
+     * @return The write-behind options loaded from the config.
+     */
+    public static WriteBehindOptions fromConfig(Configuration config) {
+        WriteBehindOptions defaults = new WriteBehindOptions();
+
+        return new WriteBehindOptions()
+            .setQueueSize(config.getInt("database.write-behind.queue-size", defaults.getQueueSize()))
+            .setMaximumBatchSize(config.getInt("database.write-behind.max-batch-size", defaults.getMaximumBatchSize()))
+            .setLinger(config.getLong("database.write-behind.linger", defaults.getLinger()));
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public WriteBehindOptions setQueueSize(int queueSize) {
+        this.queueSize = Math.max(1, queueSize);
+        return this;
+    }
+
+    public int getMaximumBatchSize() {
+        return maximumBatchSize;
+    }
+
+    public WriteBehindOptions setMaximumBatchSize(int maximumBatchSize) {
+        this.maximumBatchSize = Math.max(1, maximumBatchSize);
+        return this;
+    }
+
+    public long getLinger() {
+        return linger;
+    }
+
+    public WriteBehindOptions setLinger(long linger) {
+        this.linger = Math.max(0, linger);
+        return this;
+    }
+
+    public long getOfferTimeout() {
+        return offerTimeout;
+    }
+
+    public WriteBehindOptions setOfferTimeout(long offerTimeout) {
+        this.offerTimeout = Math.max(0, offerTimeout);
+        return this;
+    }
+}
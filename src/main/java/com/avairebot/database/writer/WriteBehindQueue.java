@@ -0,0 +1,523 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.database.writer;
+
+import com.avairebot.database.DatabaseManager;
+import com.avairebot.database.query.QueryBuilder;
+import com.avairebot.metrics.Metrics;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The write-behind queue takes the asynchronous update, insert, and delete queries
+ * built by the {@link QueryBuilder query builder}, and writes them to the
+ * database on a dedicated thread, writes with the same shape are sent
+ * to the database together as a single JDBC batch.
+ * <p>
+ * Writes that may affect the same rows are always written in the order they were queued in,
+ * writes that can't be narrowed down to specific rows, like inserts, or updates with complex
+ * where clauses, are kept in order with every other write to the same table, every round
+ * of batches is written to the database in a single transaction.
+ */
+public class WriteBehindQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+    private static final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+        .setNameFormat("avaire-write-behind-%d")
+        .setDaemon(true)
+        .build();
+
+    private final DatabaseManager dbm;
+    private final WriteBehindOptions options;
+    private final BlockingQueue<PendingWrite> queue;
+
+    /**
+     * The amount of writes that have been queued, but not yet written to the database.
+     */
+    private final AtomicInteger pending = new AtomicInteger(0);
+
+    private volatile Thread writer = null;
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a new write-behind queue for the given database manager,
+     * the writer thread is started once the first write is queued.
+     *
+     * @param dbm     The database manager used to write to the database.
+     * @param options The options for the write-behind queue.
+     */
+    public WriteBehindQueue(DatabaseManager dbm, WriteBehindOptions options) {
+        this.dbm = dbm;
+        this.options = options;
+        this.queue = new ArrayBlockingQueue<>(options.getQueueSize());
+    }
+
+    /**
+     * Queues the given query builder to be written to the database, if the queue is full the
+     * calling thread will wait for room in the queue, if no room is made before the offer
+     * timeout is reached the write will be dropped, and an error will be logged.
+     * <p>
+     * If the queue has been shut down the query will be written on the calling thread instead.
+     *
+     * @param builder The query builder that should be written to the database.
+     */
+    public void submit(QueryBuilder builder) {
+        PendingWrite write;
+        try {
+            write = PendingWrite.of(builder, dbm.usePreparedStatements());
+        } catch (SQLException e) {
+            log.error("Error thrown while compiling async {} query: {}", builder.getType(), e.getMessage(), e);
+            return;
+        }
+
+        submit(write);
+    }
+
+    void submit(PendingWrite write) {
+        if (closed) {
+            write(Collections.singletonList(write));
+            return;
+        }
+
+        startWriter();
+        pending.incrementAndGet();
+
+        try {
+            if (!queue.offer(write)) {
+                Metrics.databaseWriteBehindWrites.labels("delayed").inc();
+
+                if (!queue.offer(write, options.getOfferTimeout(), TimeUnit.MILLISECONDS)) {
+                    pending.decrementAndGet();
+                    Metrics.databaseWriteBehindWrites.labels("dropped").inc();
+
+                    log.error("The write-behind queue is full, dropping async {} query: {}", write.getType(), write);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            pending.decrementAndGet();
+            Thread.currentThread().interrupt();
+
+            log.error("Interrupted while queuing async {} query, dropping it: {}", write.getType(), write);
+            return;
+        }
+
+        Metrics.databaseWriteBehindQueued.set(queue.size());
+
+        // The queue may have been shut down while the write was being queued, in
+        // which case the writer thread may already be gone, so we write any
+        // remaining writes ourselves to make sure nothing is left behind.
+        if (closed) {
+            writeRemaining();
+        }
+    }
+
+    /**
+     * Gets the amount of writes that have been queued, but not yet written to the database.
+     *
+     * @return The amount of pending writes.
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    /**
+     * Waits for every write that has been queued so far to be written to the database.
+     *
+     * @param timeout The maximum amount of milliseconds to wait.
+     * @return <code>True</code> if every write was written before the timeout
+     * was reached, <code>False</code> otherwise.
+     */
+    public boolean flush(long timeout) {
+        long deadline = System.currentTimeMillis() + timeout;
+        while (pending.get() > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Shuts down the write-behind queue, every write still waiting in the queue is written to
+     * the database before the method returns, writes submitted after the queue has been
+     * shut down are written right away on the calling thread.
+     *
+     * @param timeout The maximum amount of milliseconds to wait for the writer thread.
+     */
+    public void shutdown(long timeout) {
+        closed = true;
+
+        Thread thread = writer;
+        if (thread != null) {
+            try {
+                thread.join(timeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Writes any write that was queued after the writer thread stopped, or that
+        // the writer thread didn't get to before the timeout was reached.
+        writeRemaining();
+    }
+
+    private void writeRemaining() {
+        List<PendingWrite> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+
+        if (!remaining.isEmpty()) {
+            try {
+                write(remaining);
+            } finally {
+                pending.addAndGet(-remaining.size());
+            }
+        }
+    }
+
+    private void startWriter() {
+        if (writer != null) {
+            return;
+        }
+
+        synchronized (this) {
+            if (writer == null) {
+                writer = threadFactory.newThread(this::run);
+                writer.start();
+            }
+        }
+    }
+
+    private void run() {
+        List<PendingWrite> writes = new ArrayList<>();
+
+        while (true) {
+            try {
+                PendingWrite first = queue.poll(250, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) {
+                        return;
+                    }
+                    continue;
+                }
+
+                writes.add(first);
+
+                // Gives the queue a moment to fill up with more writes, so bursts
+                // of writes can be sent to the database together.
+                if (options.getLinger() > 0 && !closed && queue.size() < options.getMaximumBatchSize() - 1) {
+                    Thread.sleep(options.getLinger());
+                }
+
+                queue.drainTo(writes, options.getMaximumBatchSize() - 1);
+                Metrics.databaseWriteBehindQueued.set(queue.size());
+
+                write(writes);
+            } catch (InterruptedException e) {
+                if (!closed) {
+                    log.warn("The write-behind writer thread was interrupted, {} writes are still queued", queue.size());
+                }
+                write(writes);
+                return;
+            } catch (Exception e) {
+                log.error("An exception was thrown while writing queued writes to the database", e);
+            } finally {
+                pending.addAndGet(-writes.size());
+                writes.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> writes) {
+        if (writes.isEmpty()) {
+            return;
+        }
+
+        try (Connection connection = dbm.getConnection().getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try {
+                for (List<Batch> round : plan(writes)) {
+                    writeRound(connection, round);
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            Metrics.databaseWriteBehindWrites.labels("failed").inc(writes.size());
+
+            log.error("Failed to write {} queued async queries to the database: {}", writes.size(), e.getMessage(), e);
+        }
+    }
+
+    private void writeRound(Connection connection, List<Batch> round) throws SQLException {
+        int written = 0;
+        for (Batch batch : round) {
+            written += executeBatch(connection, batch);
+        }
+
+        try {
+            connection.commit();
+        } catch (SQLException e) {
+            rollback(connection);
+
+            Metrics.databaseWriteBehindWrites.labels("failed").inc(written);
+            log.error("Failed to commit {} queued async queries to the database: {}", written, e.getMessage(), e);
+            return;
+        }
+
+        Metrics.databaseWriteBehindWrites.labels("written").inc(written);
+    }
+
+    private void rollback(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            log.debug("Failed to roll back the write-behind transaction: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Executes the given batch, failed writes are logged right away, while
+     * written writes are counted once the transaction is committed.
+     *
+     * @return The amount of writes in the batch that were executed successfully.
+     */
+    int executeBatch(Connection connection, Batch batch) {
+        Metrics.databaseWriteBehindBatchSize.observe(batch.writes.size());
+
+        if (batch.writes.size() == 1) {
+            return executeSingle(connection, batch.writes.get(0));
+        }
+
+        boolean prepared = batch.writes.get(0).getCompiled() != null;
+
+        try (Statement statement = prepared ? connection.prepareStatement(batch.query) : connection.createStatement()) {
+            for (PendingWrite write : batch.writes) {
+                Metrics.databaseQueries.labels(write.getType().name()).inc();
+
+                if (prepared) {
+                    //noinspection ConstantConditions
+                    write.getCompiled().bindTo((PreparedStatement) statement);
+                    ((PreparedStatement) statement).addBatch();
+                } else {
+                    statement.addBatch(write.getQuery());
+                }
+            }
+
+            statement.executeBatch();
+
+            return batch.writes.size();
+        } catch (BatchUpdateException e) {
+            int[] counts = e.getUpdateCounts() == null ? new int[0] : e.getUpdateCounts();
+
+            // With rewritten batches the driver sends the whole batch as a single statement, so
+            // one bad write fails the statement, and every count is reported as failed, even
+            // for the good writes, in that case, or if the counts doesn't line up with the
+            // batch, every write is retried on its own so the good writes aren't lost.
+            if (!hasReliableUpdateCounts(counts, batch.writes.size())) {
+                int written = 0;
+                for (PendingWrite write : batch.writes) {
+                    written += executeSingle(connection, write);
+                }
+                return written;
+            }
+
+            int written = 0;
+            for (int i = 0; i < batch.writes.size(); i++) {
+                PendingWrite write = batch.writes.get(i);
+
+                if (i < counts.length) {
+                    if (counts[i] == Statement.EXECUTE_FAILED) {
+                        failed(write, e);
+                    } else {
+                        written++;
+                    }
+                } else if (i == counts.length) {
+                    failed(write, e);
+                } else {
+                    // The driver stopped executing the batch at the write that failed, the
+                    // writes after it were never executed, so they're executed one by one.
+                    written += executeSingle(connection, write);
+                }
+            }
+            return written;
+        } catch (SQLException e) {
+            for (PendingWrite write : batch.writes) {
+                failed(write, e);
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Checks if the update counts from a failed batch can be used to tell which
+     * writes failed, the counts can only be trusted if the driver reported
+     * anything at all, and didn't report every single write as failed.
+     */
+    private boolean hasReliableUpdateCounts(int[] counts, int size) {
+        if (counts.length == 0 || counts.length > size) {
+            return false;
+        }
+
+        for (int count : counts) {
+            if (count != Statement.EXECUTE_FAILED) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int executeSingle(Connection connection, PendingWrite write) {
+        Metrics.databaseQueries.labels(write.getType().name()).inc();
+
+        try {
+            if (write.getCompiled() == null) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate(write.getQuery());
+                }
+            } else {
+                try (PreparedStatement statement = connection.prepareStatement(write.getQuery())) {
+                    write.getCompiled().bindTo(statement);
+                    statement.executeUpdate();
+                }
+            }
+
+            return 1;
+        } catch (SQLException e) {
+            failed(write, e);
+            return 0;
+        }
+    }
+
+    private void failed(PendingWrite write, SQLException e) {
+        Metrics.databaseWriteBehindWrites.labels("failed").inc();
+
+        log.error("Error thrown during async {} query: {}", write.getType().name().toLowerCase(), write, e);
+    }
+
+    /**
+     * Plans the order the given writes should be written to the database in, writes are grouped
+     * into batches of writes with the same query, and the batches are grouped into rounds,
+     * the batches in a round are executed in order, followed by the next round.
+     * <p>
+     * A write is only added to an earlier batch if that doesn't move it ahead of a write
+     * that {@link PendingWrite#overlaps(PendingWrite) may affect the same rows},
+     * otherwise a new round is started for the write.
+     *
+     * @param writes The writes in the order they were queued in.
+     * @return The rounds of batches, in the order they should be executed in.
+     */
+    static List<List<Batch>> plan(List<PendingWrite> writes) {
+        List<List<Batch>> rounds = new ArrayList<>();
+
+        Round round = new Round();
+        for (PendingWrite write : writes) {
+            if (!round.add(write)) {
+                rounds.add(round.batches);
+
+                round = new Round();
+                round.add(write);
+            }
+        }
+
+        if (!round.batches.isEmpty()) {
+            rounds.add(round.batches);
+        }
+
+        return rounds;
+    }
+
+    static class Batch {
+
+        final String query;
+        final List<PendingWrite> writes = new ArrayList<>();
+
+        Batch(String query) {
+            this.query = query;
+        }
+    }
+
+    private static class Round {
+
+        private final List<Batch> batches = new ArrayList<>();
+        private final Map<String, Integer> batchIndexes = new HashMap<>();
+
+        /**
+         * The writes added to the round for each table, along with the index of their batch.
+         */
+        private final Map<String, List<Placement>> placements = new HashMap<>();
+
+        boolean add(PendingWrite write) {
+            Integer existing = batchIndexes.get(write.getQuery());
+            List<Placement> tablePlacements = placements.computeIfAbsent(write.getTable(), table -> new ArrayList<>());
+
+            if (existing != null) {
+                for (Placement placement : tablePlacements) {
+                    if (placement.index > existing && placement.write.overlaps(write)) {
+                        return false;
+                    }
+                }
+            }
+
+            int index = existing == null ? batches.size() : existing;
+            if (existing == null) {
+                batches.add(new Batch(write.getQuery()));
+                batchIndexes.put(write.getQuery(), index);
+            }
+
+            batches.get(index).writes.add(write);
+            tablePlacements.add(new Placement(index, write));
+
+            return true;
+        }
+    }
+
+    private static class Placement {
+
+        private final int index;
+        private final PendingWrite write;
+
+        Placement(int index, PendingWrite write) {
+            this.index = index;
+            this.write = write;
+        }
+    }
+}
@@ -21,11 +21,121 @@
 
 package com.avairebot.factories;
 
+import com.avairebot.requests.CacheMetricsInterceptor;
+import com.avairebot.requests.CacheTtlInterceptor;
 import com.avairebot.requests.Request;
+import com.avairebot.requests.RequestOptions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 public class RequestFactory {
 
+    /**
+     * The shared HTTP client used by every request, sharing the client allows
+     * requests to reuse the same connection pool, dispatcher threads,
+     * and response cache, instead of creating new ones each time.
+     */
+    private static volatile OkHttpClient client = null;
+
+    /**
+     * A copy of the shared HTTP client without the response cache, used for
+     * responses that are already cached elsewhere, the copy still shares
+     * the connection pool and dispatcher threads with the shared client.
+     */
+    private static volatile OkHttpClient uncachedClient = null;
+
     public static Request makeGET(String url) {
         return new Request(url);
     }
+
+    /**
+     * Sets up the shared HTTP client using the given request options,
+     * if a shared client already exists it will be replaced.
+     *
+     * @param options The options the shared HTTP client should be created with.
+     */
+    public static synchronized void setup(RequestOptions options) {
+        client = createClient(options);
+        uncachedClient = null;
+    }
+
+    /**
+     * Gets the shared HTTP client, if the client haven't been set up yet
+     * a new client will be created using the default request options.
+     *
+     * @return The shared HTTP client.
+     */
+    public static OkHttpClient getClient() {
+        if (client == null) {
+            synchronized (RequestFactory.class) {
+                if (client == null) {
+                    client = createClient(new RequestOptions());
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Gets a copy of the shared HTTP client that doesn't use the response cache, this
+     * should be used for responses that the caller already caches on its own, so
+     * the responses aren't stored in the HTTP response cache a second time.
+     *
+     * @return The shared HTTP client without the response cache.
+     */
+    public static OkHttpClient getUncachedClient() {
+        if (uncachedClient == null) {
+            synchronized (RequestFactory.class) {
+                if (uncachedClient == null) {
+                    uncachedClient = getClient().newBuilder()
+                        .cache(null)
+                        .build();
+                }
+            }
+        }
+        return uncachedClient;
+    }
+
+    /**
+     * Creates a new HTTP client using the given request options.
+     *
+     * @param options The options the HTTP client should be created with.
+     * @return The new HTTP client.
+     */
+    public static OkHttpClient createClient(RequestOptions options) {
+        Dispatcher dispatcher = new Dispatcher(new ThreadPoolExecutor(
+            0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), new ThreadFactoryBuilder()
+            .setNameFormat("avaire-http-dispatcher-%d")
+            .setDaemon(true)
+            .build()
+        ));
+        dispatcher.setMaxRequests(options.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(options.getMaxRequestsPerHost());
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+            .dispatcher(dispatcher)
+            .connectionPool(new ConnectionPool(
+                options.getMaxIdleConnections(), options.getKeepAlive(), TimeUnit.MILLISECONDS
+            ))
+            .connectTimeout(options.getConnectTimeout(), TimeUnit.MILLISECONDS)
+            .readTimeout(options.getReadTimeout(), TimeUnit.MILLISECONDS)
+            .addInterceptor(new CacheMetricsInterceptor());
+
+        if (options.getCacheSize() > 0) {
+            builder.cache(new Cache(options.getCacheDirectory(), options.getCacheSize()));
+
+            if (!options.getCacheTtl().isEmpty()) {
+                builder.addNetworkInterceptor(new CacheTtlInterceptor(options.getCacheTtl()));
+            }
+        }
+
+        return builder.build();
+    }
 }
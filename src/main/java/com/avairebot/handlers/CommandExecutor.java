@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.handlers;
+
+import com.avairebot.metrics.Metrics;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.prometheus.client.Gauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded executor for running commands, the executor runs the commands on a
+ * fixed amount of worker threads, and queues up the commands for each
+ * guild separately, the guild queues are served in a round-robin
+ * order so a single guild can't starve all the other guilds.
+ * <p>
+ * A single guild can never occupy more than the given amount of workers at
+ * the same time, and commands are rejected once either the queue for
+ * the guild, or the queue for the executor as a whole, is full.
+ */
+public class CommandExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(CommandExecutor.class);
+
+    private final ExecutorService workers;
+    private final int threads;
+    private final int maxPerGuild;
+    private final int queueSize;
+    private final int maxQueuedPerGuild;
+
+    private final Object lock = new Object();
+    private final Map<Long, GuildQueue> queues = new HashMap<>();
+    private final Deque<GuildQueue> ready = new ArrayDeque<>();
+
+    private final Gauge.Child runningGauge;
+    private final Gauge.Child queuedGauge;
+
+    private int running = 0;
+    private int queued = 0;
+
+    /**
+     * Creates a new command executor.
+     *
+     * @param threads           The amount of worker threads used to run commands.
+     * @param maxPerGuild       The maximum amount of workers a single guild can occupy at the same time.
+     * @param queueSize         The maximum amount of commands waiting to be run across all guilds.
+     * @param maxQueuedPerGuild The maximum amount of commands waiting to be run for a single guild.
+     */
+    public CommandExecutor(int threads, int maxPerGuild, int queueSize, int maxQueuedPerGuild) {
+        this.threads = Math.max(1, threads);
+        this.maxPerGuild = Math.max(1, Math.min(this.threads, maxPerGuild));
+        this.queueSize = Math.max(0, queueSize);
+        this.maxQueuedPerGuild = Math.max(0, maxQueuedPerGuild);
+
+        this.workers = Executors.newFixedThreadPool(this.threads, new ThreadFactoryBuilder()
+            .setNameFormat("avaire-commands-thread-%d")
+            .build()
+        );
+
+        this.runningGauge = Metrics.commandExecutorTasks.labels("running");
+        this.queuedGauge = Metrics.commandExecutorTasks.labels("queued");
+    }
+
+    /**
+     * Submits the given command task to the executor, the task will be run once a
+     * worker is available, and the guild has less than the maximum amount of
+     * workers running its commands.
+     *
+     * @param key  The ID of the guild the command was used in, or the ID
+     *             of the user if the command was used in a DM.
+     * @param task The command task that should be run.
+     * @return The reason the task was rejected, or <code>NULL</code> if the task was accepted.
+     */
+    public RejectReason submit(long key, Runnable task) {
+        synchronized (lock) {
+            GuildQueue queue = queues.get(key);
+
+            if (queued >= queueSize && !canRunImmediately(queue)) {
+                Metrics.commandsRejected.labels(RejectReason.QUEUE_FULL.getName()).inc();
+                return RejectReason.QUEUE_FULL;
+            }
+
+            int guildQueued = queue == null ? 0 : queue.tasks.size();
+            if (guildQueued >= maxQueuedPerGuild && !canRunImmediately(queue)) {
+                Metrics.commandsRejected.labels(RejectReason.GUILD_QUEUE_FULL.getName()).inc();
+                return RejectReason.GUILD_QUEUE_FULL;
+            }
+
+            if (queue == null) {
+                queue = new GuildQueue(key);
+                queues.put(key, queue);
+            }
+
+            queue.tasks.add(task);
+            queued++;
+
+            markReady(queue);
+            dispatch();
+            updateGauges();
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the amount of commands that are currently running.
+     *
+     * @return The amount of running commands.
+     */
+    public int getRunning() {
+        synchronized (lock) {
+            return running;
+        }
+    }
+
+    /**
+     * Gets the amount of commands that are waiting to be run.
+     *
+     * @return The amount of queued commands.
+     */
+    public int getQueued() {
+        synchronized (lock) {
+            return queued;
+        }
+    }
+
+    /**
+     * Shuts down the worker threads, commands that are already running
+     * will be allowed to finish, while queued commands are dropped.
+     */
+    public void shutdown() {
+        synchronized (lock) {
+            workers.shutdown();
+        }
+    }
+
+    /**
+     * Shuts down the worker threads, and waits for the commands
+     * that are already running to finish, queued commands
+     * are dropped without being run.
+     *
+     * @param timeout The maximum amount of milliseconds to wait for the running commands to finish.
+     */
+    public void shutdown(long timeout) {
+        shutdown();
+
+        try {
+            if (!workers.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+                log.warn("Timed out after {}ms waiting for the running commands to finish", timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean canRunImmediately(GuildQueue queue) {
+        return running < threads && ready.isEmpty()
+            && (queue == null || (queue.tasks.isEmpty() && queue.running < maxPerGuild));
+    }
+
+    private void markReady(GuildQueue queue) {
+        if (!queue.ready && !queue.tasks.isEmpty() && queue.running < maxPerGuild) {
+            queue.ready = true;
+            ready.addLast(queue);
+        }
+    }
+
+    private void dispatch() {
+        if (workers.isShutdown()) {
+            return;
+        }
+
+        while (running < threads && !ready.isEmpty()) {
+            GuildQueue queue = ready.pollFirst();
+            queue.ready = false;
+
+            Runnable task = queue.tasks.pollFirst();
+            if (task == null) {
+                continue;
+            }
+
+            queued--;
+            queue.running++;
+            running++;
+
+            // Puts the guild back at the end of the line if it still has commands
+            // waiting, so every guild gets to run one command at a time in turn.
+            markReady(queue);
+
+            workers.execute(() -> run(queue, task));
+        }
+    }
+
+    private void run(GuildQueue queue, Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable e) {
+            log.error("An exception was thrown while running a command task: {}", e.getMessage(), e);
+        } finally {
+            synchronized (lock) {
+                queue.running--;
+                running--;
+
+                if (queue.running == 0 && queue.tasks.isEmpty()) {
+                    queues.remove(queue.key);
+                } else {
+                    markReady(queue);
+                }
+
+                dispatch();
+                updateGauges();
+            }
+        }
+    }
+
+    private void updateGauges() {
+        runningGauge.set(running);
+        queuedGauge.set(queued);
+    }
+
+    public enum RejectReason {
+
+        /**
+         * The queue for the executor as a whole is full.
+         */
+        QUEUE_FULL("queue-full"),
+
+        /**
+         * The queue for the guild the command was used in is full.
+         */
+        GUILD_QUEUE_FULL("guild-queue-full");
+
+        private final String name;
+
+        RejectReason(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static class GuildQueue {
+
+        private final long key;
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+
+        private int running = 0;
+        private boolean ready = false;
+
+        GuildQueue(long key) {
+            this.key = key;
+        }
+    }
+}
@@ -23,26 +23,286 @@ package com.avairebot.handlers;
 
 import com.avairebot.AvaIre;
 import com.avairebot.contracts.handlers.EventListener;
-import com.avairebot.plugin.PluginLoader;
+import com.avairebot.handlers.events.ApplicationShutdownEvent;
+import com.avairebot.handlers.events.ModlogActionEvent;
+import com.avairebot.handlers.events.MusicEndedEvent;
+import com.avairebot.handlers.events.NowPlayingEvent;
+import com.avairebot.metrics.Metrics;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.prometheus.client.Histogram;
 import net.dv8tion.jda.core.events.Event;
 import net.dv8tion.jda.core.hooks.ListenerAdapter;
 import net.dv8tion.jda.core.utils.Checks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The event emitter delivers the custom AvaIre events to the event listeners
+ * registered by plugins, the listeners are indexed by the events they
+ * handle, so pushing an event only goes through the listeners
+ * that actually does something with the event.
+ * <p>
+ * When asynchronous delivery is enabled, every listener gets its own queue of
+ * events, which are delivered in the order they were pushed on a bounded
+ * amount of threads, so a slow listener can only ever hold up itself.
+ */
 public class EventEmitter {
 
-    private final AvaIre avaire;
+    private static final Logger log = LoggerFactory.getLogger(EventEmitter.class);
+
+    /**
+     * The custom events and the name of the listener method that handles them,
+     * this must match the events delegated by the
+     * {@link EventListener#onCustomEvent(Event) onCustomEvent} method.
+     */
+    private static final Map<Class<? extends Event>, String> customEventHandlers = ImmutableMap.of(
+        ModlogActionEvent.class, "onModlogAction",
+        ApplicationShutdownEvent.class, "onApplicationShutdown",
+        NowPlayingEvent.class, "onNowPlaying",
+        MusicEndedEvent.class, "onMusicEnded"
+    );
+
+    private final List<ListenerHandle> listeners = new ArrayList<>();
+    private final Map<Class<?>, List<ListenerHandle>> index = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor;
+    private final int maxQueuedPerListener;
 
     public EventEmitter(AvaIre avaire) {
-        this.avaire = avaire;
+        this(
+            avaire.getConfig().getBoolean("event-emitter.async", true),
+            avaire.getConfig().getInt("event-emitter.threads", 4),
+            avaire.getConfig().getInt("event-emitter.max-queued-per-listener", 1000)
+        );
+    }
+
+    /**
+     * Creates a new event emitter.
+     *
+     * @param async                <code>True</code> if the events should be delivered on the event
+     *                             emitter threads, <code>False</code> to deliver them on the
+     *                             thread that pushed the event.
+     * @param threads              The amount of threads used to deliver events.
+     * @param maxQueuedPerListener The maximum amount of events waiting to be delivered to a single
+     *                             listener, events pushed past the limit are dropped for the listener.
+     */
+    public EventEmitter(boolean async, int threads, int maxQueuedPerListener) {
+        this.maxQueuedPerListener = Math.max(1, maxQueuedPerListener);
+        this.executor = !async ? null : Executors.newFixedThreadPool(Math.max(1, threads), new ThreadFactoryBuilder()
+            .setNameFormat("avaire-event-emitter-%d")
+            .setDaemon(true)
+            .build()
+        );
+    }
+
+    /**
+     * Registers the given event listener, the listener will only be indexed for the
+     * custom events it overrides the handler method for, or for every event
+     * if it overrides the {@link ListenerAdapter#onGenericEvent(Event)} method.
+     *
+     * @param listener The event listener that should be registered.
+     */
+    public void register(EventListener listener) {
+        Checks.notNull(listener, "event listener");
+
+        synchronized (listeners) {
+            for (ListenerHandle handle : listeners) {
+                if (handle.listener == listener) {
+                    return;
+                }
+            }
+
+            listeners.add(new ListenerHandle(listener));
+
+            // Drops the index so the listeners for each event are resolved again,
+            // including the new listener, the next time the event is pushed.
+            index.clear();
+            for (Class<? extends Event> type : customEventHandlers.keySet()) {
+                index.put(type, resolveListeners(type));
+            }
+        }
     }
 
+    /**
+     * Pushes the given event to every listener that handles the event.
+     *
+     * @param event The event that should be pushed.
+     */
     public void push(Event event) {
         Checks.notNull(event, "event instance");
-        for (PluginLoader plugin : avaire.getPluginManager().getPlugins()) {
-            for (ListenerAdapter listener : plugin.getEventListeners()) {
-                if (listener != null && listener instanceof EventListener) {
-                    ((EventListener) listener).onCustomEvent(event);
+
+        for (ListenerHandle handle : getListeners(event.getClass())) {
+            handle.deliver(event);
+        }
+    }
+
+    /**
+     * Gets the amount of listeners that the given event type is delivered to.
+     *
+     * @param type The event type.
+     * @return The amount of listeners for the event type.
+     */
+    public int getListenerCount(Class<? extends Event> type) {
+        return getListeners(type).size();
+    }
+
+    /**
+     * Stops accepting events for asynchronous delivery, and waits for the events
+     * that have already been pushed to be delivered, events pushed after the
+     * event emitter has been shut down are delivered synchronously.
+     *
+     * @param timeout The maximum amount of milliseconds to wait for the events to be delivered.
+     */
+    public void shutdown(long timeout) {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+                log.warn("Timed out after {}ms waiting for the event listeners to finish", timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<ListenerHandle> getListeners(Class<?> type) {
+        List<ListenerHandle> handles = index.get(type);
+        if (handles != null) {
+            return handles;
+        }
+
+        synchronized (listeners) {
+            return index.computeIfAbsent(type, this::resolveListeners);
+        }
+    }
+
+    private List<ListenerHandle> resolveListeners(Class<?> type) {
+        List<ListenerHandle> handles = new ArrayList<>();
+        for (ListenerHandle handle : listeners) {
+            if (handles(handle.listener, type)) {
+                handles.add(handle);
+            }
+        }
+        return Collections.unmodifiableList(handles);
+    }
+
+    private boolean handles(EventListener listener, Class<?> type) {
+        if (overrides(listener, ListenerAdapter.class, "onGenericEvent", Event.class)) {
+            return true;
+        }
+
+        for (Map.Entry<Class<? extends Event>, String> entry : customEventHandlers.entrySet()) {
+            if (entry.getKey().isAssignableFrom(type)
+                && overrides(listener, EventListener.class, entry.getValue(), entry.getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean overrides(EventListener listener, Class<?> declaringClass, String name, Class<?> parameter) {
+        try {
+            return listener.getClass().getMethod(name, parameter).getDeclaringClass() != declaringClass;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private class ListenerHandle {
+
+        private final EventListener listener;
+        private final String name;
+
+        private final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger(0);
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        ListenerHandle(EventListener listener) {
+            this.listener = listener;
+            this.name = listener.getClass().getSimpleName().isEmpty()
+                ? listener.getClass().getName()
+                : listener.getClass().getSimpleName();
+        }
+
+        void deliver(Event event) {
+            if (executor == null) {
+                invoke(event);
+                return;
+            }
+
+            if (queued.incrementAndGet() > maxQueuedPerListener) {
+                queued.decrementAndGet();
+                Metrics.eventListenerFailures.labels(name, "queue-full").inc();
+                return;
+            }
+
+            queue.add(event);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                drain();
+            }
+        }
+
+        private void drain() {
+            try {
+                Event event;
+                while ((event = poll()) != null) {
+                    invoke(event);
                 }
+            } finally {
+                scheduled.set(false);
+            }
+
+            // An event may have been queued after the queue was found to be empty, but
+            // before the drain was marked as done, in which case it would be left
+            // in the queue without a drain scheduled to deliver it.
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        @Nullable
+        private Event poll() {
+            Event event = queue.poll();
+            if (event != null) {
+                queued.decrementAndGet();
+            }
+            return event;
+        }
+
+        private void invoke(Event event) {
+            Histogram.Timer timer = Metrics.eventListenerExecutionTime
+                .labels(name, event.getClass().getSimpleName())
+                .startTimer();
+
+            try {
+                listener.onCustomEvent(event);
+            } catch (Throwable e) {
+                Metrics.eventListenerFailures.labels(name, "exception").inc();
+                log.error("The {} event listener threw an exception while handling {}: {}",
+                    name, event.getClass().getSimpleName(), e.getMessage(), e
+                );
+            } finally {
+                timer.observeDuration();
             }
         }
     }
@@ -32,6 +32,7 @@ import net.dv8tion.jda.core.events.channel.text.TextChannelCreateEvent;
 import net.dv8tion.jda.core.events.channel.text.TextChannelDeleteEvent;
 import net.dv8tion.jda.core.events.channel.text.update.TextChannelUpdateNameEvent;
 import net.dv8tion.jda.core.events.channel.text.update.TextChannelUpdatePositionEvent;
+import net.dv8tion.jda.core.events.channel.voice.VoiceChannelCreateEvent;
 import net.dv8tion.jda.core.events.channel.voice.VoiceChannelDeleteEvent;
 import net.dv8tion.jda.core.events.guild.GuildJoinEvent;
 import net.dv8tion.jda.core.events.guild.GuildLeaveEvent;
@@ -76,16 +77,19 @@ public class MainEventHandler extends EventHandler {
 
     @Override
     public void onReady(ReadyEvent event) {
+        avaire.getShardEntityCounter().onShardConnect(event.getJDA());
         jdaStateEventAdapter.onConnectToShard(event.getJDA());
     }
 
     @Override
     public void onResume(ResumedEvent event) {
+        avaire.getShardEntityCounter().onShardConnect(event.getJDA());
         jdaStateEventAdapter.onConnectToShard(event.getJDA());
     }
 
     @Override
     public void onReconnect(ReconnectedEvent event) {
+        avaire.getShardEntityCounter().onShardConnect(event.getJDA());
         jdaStateEventAdapter.onConnectToShard(event.getJDA());
     }
 
@@ -101,27 +105,37 @@ public class MainEventHandler extends EventHandler {
 
     @Override
     public void onGuildJoin(GuildJoinEvent event) {
+        avaire.getShardEntityCounter().onGuildChange(event.getJDA());
         guildStateEvent.onGuildJoin(event);
     }
 
     @Override
     public void onGuildLeave(GuildLeaveEvent event) {
+        avaire.getShardEntityCounter().onGuildChange(event.getJDA());
         guildStateEvent.onGuildLeave(event);
     }
 
+    @Override
+    public void onVoiceChannelCreate(VoiceChannelCreateEvent event) {
+        avaire.getShardEntityCounter().onVoiceChannelChange(event.getJDA());
+    }
+
     @Override
     public void onVoiceChannelDelete(VoiceChannelDeleteEvent event) {
+        avaire.getShardEntityCounter().onVoiceChannelChange(event.getJDA());
         channelEvent.onVoiceChannelDelete(event);
     }
 
     @Override
     public void onTextChannelDelete(TextChannelDeleteEvent event) {
+        avaire.getShardEntityCounter().onTextChannelChange(event.getJDA());
         channelEvent.updateChannelData(event.getGuild());
         channelEvent.onTextChannelDelete(event);
     }
 
     @Override
     public void onTextChannelCreate(TextChannelCreateEvent event) {
+        avaire.getShardEntityCounter().onTextChannelChange(event.getJDA());
         channelEvent.updateChannelData(event.getGuild());
     }
 
@@ -137,11 +151,13 @@ public class MainEventHandler extends EventHandler {
 
     @Override
     public void onGuildMemberJoin(GuildMemberJoinEvent event) {
+        avaire.getShardEntityCounter().onMemberChange(event.getJDA());
         memberEvent.onGuildMemberJoin(event);
     }
 
     @Override
     public void onGuildMemberLeave(GuildMemberLeaveEvent event) {
+        avaire.getShardEntityCounter().onMemberChange(event.getJDA());
         memberEvent.onGuildMemberLeave(event);
     }
 
@@ -26,6 +26,7 @@ import com.avairebot.Constants;
 import com.avairebot.contracts.handlers.EventAdapter;
 import com.avairebot.database.controllers.GuildController;
 import com.avairebot.database.transformers.GuildTransformer;
+import com.avairebot.scheduler.Debouncer;
 import net.dv8tion.jda.core.entities.Guild;
 import net.dv8tion.jda.core.events.channel.text.TextChannelDeleteEvent;
 import net.dv8tion.jda.core.events.channel.voice.VoiceChannelDeleteEvent;
@@ -34,6 +35,8 @@ import java.sql.SQLException;
 
 public class ChannelEventAdapter extends EventAdapter {
 
+    private final Debouncer<Long> channelDataDebouncer;
+
     /**
      * Instantiates the event adapter and sets the avaire class instance.
      *
@@ -41,6 +44,11 @@ public class ChannelEventAdapter extends EventAdapter {
      */
     public ChannelEventAdapter(AvaIre avaire) {
         super(avaire);
+
+        this.channelDataDebouncer = new Debouncer<>("channel-data",
+            avaire.getConfig().getLong("snapshot-debounce.quiet-period", 5000),
+            avaire.getConfig().getLong("snapshot-debounce.max-delay", 30000)
+        );
     }
 
     public void onTextChannelDelete(TextChannelDeleteEvent event) {
@@ -73,17 +81,32 @@ public class ChannelEventAdapter extends EventAdapter {
         }
     }
 
+    /**
+     * Queues the channel snapshot for the given guild to be rebuilt and saved to
+     * the database, bursts of channel events for the same guild are coalesced
+     * into a single update once the guild has gone quiet.
+     *
+     * @param guild The guild that should have its channel snapshot updated.
+     */
     public void updateChannelData(Guild guild) {
-        try {
-            avaire.getDatabase().newQueryBuilder(Constants.GUILD_TABLE_NAME)
-                .useAsync(true)
-                .where("id", guild.getId())
-                .update(statement -> {
-                    statement.set("channels_data", GuildController.buildChannelData(guild.getTextChannels()), true);
-                });
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        long guildId = guild.getIdLong();
+
+        channelDataDebouncer.submit(guildId, () -> {
+            Guild current = avaire.getShardManager().getGuildById(guildId);
+            if (current == null) {
+                return;
+            }
+
+            try {
+                avaire.getDatabase().newQueryBuilder(Constants.GUILD_TABLE_NAME)
+                    .where("id", current.getId())
+                    .update(statement -> {
+                        statement.set("channels_data", GuildController.buildChannelData(current.getTextChannels()), true);
+                    });
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        });
     }
 
     private void setDatabaseColumnToNull(String guildId, String column) {
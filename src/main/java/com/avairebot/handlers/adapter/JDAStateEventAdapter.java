@@ -28,8 +28,8 @@ import com.avairebot.audio.GuildMusicManager;
 import com.avairebot.audio.VoiceConnectStatus;
 import com.avairebot.audio.cache.AudioCache;
 import com.avairebot.audio.cache.AudioState;
+import com.avairebot.audio.cache.AudioStateSnapshot;
 import com.avairebot.audio.cache.TrackRequestHandler;
-import com.avairebot.cache.CacheType;
 import com.avairebot.chat.MessageType;
 import com.avairebot.commands.CommandHandler;
 import com.avairebot.commands.CommandMessage;
@@ -44,16 +44,16 @@ import com.avairebot.time.Carbon;
 import com.avairebot.utilities.RoleUtil;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.gson.reflect.TypeToken;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import net.dv8tion.jda.core.JDA;
 import net.dv8tion.jda.core.Permission;
 import net.dv8tion.jda.core.entities.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
 
 public class JDAStateEventAdapter extends EventAdapter {
@@ -65,6 +65,8 @@ public class JDAStateEventAdapter extends EventAdapter {
 
     private static final Logger log = LoggerFactory.getLogger(JDAStateEventAdapter.class);
 
+    private static Map<Long, AudioState> audioStates;
+
     /**
      * Instantiates the event adapter and sets the avaire class instance.
      *
@@ -85,11 +87,7 @@ public class JDAStateEventAdapter extends EventAdapter {
         );
 
         int connectedChannels = 0;
-        for (AudioState state : getAudioStates()) {
-            if (state == null) {
-                continue;
-            }
-
+        for (AudioState state : pollAudioStates(jda)) {
             Guild guild = jda.getGuildById(state.getGuildId());
             if (guild == null) {
                 continue;
@@ -131,7 +129,9 @@ public class JDAStateEventAdapter extends EventAdapter {
                 }
 
                 List<AudioCache> audioStateTacks = new ArrayList<>();
-                audioStateTacks.add(state.getPlayingTrack());
+                if (state.getPlayingTrack() != null) {
+                    audioStateTacks.add(state.getPlayingTrack());
+                }
                 audioStateTacks.addAll(state.getQueue());
 
                 GuildMusicManager musicManager = AudioHandler.getDefaultAudioHandler().getGuildAudioPlayer(guild);
@@ -141,26 +141,16 @@ public class JDAStateEventAdapter extends EventAdapter {
                     message, false, new String[0]
                 ));
 
-                int trackCounter = 0;
-                for (AudioCache audioCache : audioStateTacks) {
-                    // Limits the track request loop to 100 tracks, some servers likes
-                    // to add 1,000+ tracks to the queue, we don't want to spam
-                    // YouTube or SoundClouds API as soon as we start up.
-                    if (trackCounter++ > 100) {
-                        break;
-                    }
-
-                    Member member = message.getGuild().getMemberById(audioCache.getRequestedBy());
-                    if (member == null) {
-                        continue;
-                    }
-
-                    TrackRequestHandler.sendRequest(musicManager, member, audioCache.getTrackUrl());
+                musicManager.registerDefaultVolume();
+                if (musicManager.getPlayer().isPaused()) {
+                    musicManager.getPlayer().setPaused(false);
                 }
+
+                restoreQueue(musicManager, guild, audioStateTacks.iterator(), 0);
             });
 
             log.debug("{} stopped playing {} with {} songs in the queue",
-                guild.getId(), state.getPlayingTrack().getTrackUrl(), state.getQueue().size()
+                guild.getId(), state.getPlayingTrack() == null ? null : state.getPlayingTrack().getTrackUrl(), state.getQueue().size()
             );
         }
 
@@ -169,17 +159,94 @@ public class JDAStateEventAdapter extends EventAdapter {
         );
     }
 
-    private List<AudioState> getAudioStates() {
-        Object rawAudioState = avaire.getCache().getAdapter(CacheType.FILE).get("audio.state");
-        if (rawAudioState == null) {
-            return new ArrayList<>();
+    /**
+     * Queues the given audio state tracks in order, tracks that can be decoded are queued
+     * right away, while tracks that couldn't be decoded are requested again, the rest of
+     * the tracks are then only queued once the request has been handled, so the
+     * restored queue keeps the same order it had during shutdown.
+     *
+     * @param musicManager  The guild music manager the tracks should be queued for.
+     * @param guild         The guild the tracks are being restored in.
+     * @param tracks        The audio state tracks that still needs to be queued.
+     * @param failedTracks  The amount of tracks that couldn't be decoded so far.
+     */
+    private void restoreQueue(GuildMusicManager musicManager, Guild guild, Iterator<AudioCache> tracks, int failedTracks) {
+        while (tracks.hasNext()) {
+            AudioCache audioCache = tracks.next();
+
+            Member member = guild.getMemberById(audioCache.getRequestedBy());
+            if (member == null) {
+                continue;
+            }
+
+            AudioTrack track = audioCache.decodeTrack(AudioHandler.getDefaultAudioHandler().getPlayerManager());
+            if (track != null) {
+                musicManager.getScheduler().queue(track, member.getUser());
+                continue;
+            }
+
+            // Limits the track request loop to 100 tracks for tracks that couldn't
+            // be decoded, some servers likes to add 1,000+ tracks to the queue,
+            // we don't want to spam YouTube or SoundClouds API as soon as we start up.
+            if (failedTracks++ > 100) {
+                continue;
+            }
+
+            final int requestedTracks = failedTracks;
+            TrackRequestHandler.sendRequest(musicManager, member, audioCache.getTrackUrl(), () -> {
+                restoreQueue(musicManager, guild, tracks, requestedTracks);
+            });
+            return;
         }
+    }
 
-        return AvaIre.gson.fromJson(
-            String.valueOf(rawAudioState),
-            new TypeToken<List<AudioState>>() {
-            }.getType()
-        );
+    /**
+     * Removes and returns the audio states for the guilds on the given shard from the
+     * audio state snapshot, the snapshot is only read the first time it's needed,
+     * and the audio states are only handed out once, so reconnecting a shard
+     * later on won't try to resume music that has already been resumed.
+     *
+     * @param jda The shard the audio states should be returned for.
+     * @return The audio states for the guilds on the given shard.
+     */
+    private List<AudioState> pollAudioStates(JDA jda) {
+        synchronized (JDAStateEventAdapter.class) {
+            if (audioStates == null) {
+                audioStates = loadAudioStates();
+            }
+
+            List<AudioState> states = new ArrayList<>();
+
+            Iterator<AudioState> iterator = audioStates.values().iterator();
+            while (iterator.hasNext()) {
+                AudioState state = iterator.next();
+                if (jda.getGuildById(state.getGuildId()) != null) {
+                    states.add(state);
+                    iterator.remove();
+                }
+            }
+
+            return states;
+        }
+    }
+
+    private Map<Long, AudioState> loadAudioStates() {
+        try {
+            Map<Long, AudioState> states = AudioStateSnapshot.read(AudioStateSnapshot.SNAPSHOT_FILE);
+
+            log.debug("Loaded {} audio states from the audio state snapshot", states.size());
+
+            return states;
+        } catch (IOException e) {
+            log.error("Failed to read the audio state snapshot: {}", e.getMessage(), e);
+            return new HashMap<>();
+        } finally {
+            // The snapshot is deleted once it has been read, so a crash later on
+            // won't cause the music from the snapshot to be resumed again.
+            if (AudioStateSnapshot.SNAPSHOT_FILE.exists() && !AudioStateSnapshot.SNAPSHOT_FILE.delete()) {
+                log.warn("Failed to delete the audio state snapshot after it was read");
+            }
+        }
     }
 
     private void handleAutoroleTask(JDA jda) {
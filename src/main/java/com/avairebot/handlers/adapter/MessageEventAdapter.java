@@ -31,12 +31,15 @@ import com.avairebot.database.controllers.PlayerController;
 import com.avairebot.database.transformers.ChannelTransformer;
 import com.avairebot.database.transformers.GuildTransformer;
 import com.avairebot.factories.MessageFactory;
+import com.avairebot.handlers.CommandExecutor;
 import com.avairebot.handlers.DatabaseEventHolder;
+import com.avairebot.metrics.StageTimer;
 import com.avairebot.middleware.MiddlewareStack;
 import com.avairebot.shared.DiscordConstants;
 import com.avairebot.utilities.ArrayUtil;
 import com.avairebot.utilities.RestActionUtil;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import net.dv8tion.jda.core.entities.Message;
 import net.dv8tion.jda.core.entities.User;
 import net.dv8tion.jda.core.events.message.MessageReceivedEvent;
@@ -49,8 +52,6 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -59,11 +60,14 @@ public class MessageEventAdapter extends EventAdapter {
 
     public static final Set<Long> hasReceivedInfoMessageInTheLastMinute = new HashSet<>();
 
-    private static final ExecutorService commandService = Executors.newCachedThreadPool(
-        new ThreadFactoryBuilder()
-            .setNameFormat("avaire-commands-thread-%d")
-            .build()
-    );
+    /**
+     * The channels that has recently been told that the bot is too busy to run
+     * their commands, used to only send the busy message once in a while
+     * when the commands are rejected, instead of once per command.
+     */
+    private static final Cache<Long, Boolean> busyChannels = CacheBuilder.newBuilder()
+        .expireAfterWrite(15, TimeUnit.SECONDS)
+        .build();
 
     private static final Logger log = LoggerFactory.getLogger(MessageEventAdapter.class);
     private static final Pattern userRegEX = Pattern.compile("<@(!|)+[0-9]{16,}+>", Pattern.CASE_INSENSITIVE);
@@ -83,6 +87,8 @@ public class MessageEventAdapter extends EventAdapter {
     private static Pattern commandRegEx = null;
     private static int maxCommandTriggerSize = -1;
 
+    private final CommandExecutor commandExecutor;
+
     /**
      * Instantiates the event adapter and sets the avaire class instance.
      *
@@ -90,6 +96,8 @@ public class MessageEventAdapter extends EventAdapter {
      */
     public MessageEventAdapter(AvaIre avaire) {
         super(avaire);
+
+        this.commandExecutor = avaire.getCommandExecutor();
     }
 
     public void onMessageReceived(MessageReceivedEvent event) {
@@ -101,25 +109,36 @@ public class MessageEventAdapter extends EventAdapter {
             return;
         }
 
-        if (avaire.getBlacklist().isBlacklisted(event.getMessage())) {
+        StageTimer timer = StageTimer.sample();
+
+        long blacklistStart = timer.start();
+        boolean isBlacklisted = avaire.getBlacklist().isBlacklisted(event.getMessage());
+        timer.record(StageTimer.Stage.BLACKLIST, blacklistStart);
+
+        if (isBlacklisted) {
             return;
         }
 
-        loadDatabasePropertiesIntoMemory(event).thenAccept(databaseEventHolder -> {
+        loadDatabasePropertiesIntoMemory(event, timer).thenAccept(databaseEventHolder -> {
             if (databaseEventHolder.getGuild() != null && databaseEventHolder.getPlayer() != null) {
+                long rewardStart = timer.start();
                 avaire.getLevelManager().rewardPlayer(event, databaseEventHolder.getGuild(), databaseEventHolder.getPlayer());
+                timer.record(StageTimer.Stage.REWARDS, rewardStart);
             }
 
+            long lookupStart = timer.start();
             CommandContainer container = CommandHandler.getCommand(avaire, event.getMessage(), event.getMessage().getContentRaw());
+            timer.record(StageTimer.Stage.COMMAND_LOOKUP, lookupStart);
+
             if (container != null && canExecuteCommand(event, container)) {
-                invokeMiddlewareStack(new MiddlewareStack(event.getMessage(), container, databaseEventHolder));
+                invokeMiddlewareStack(event, new MiddlewareStack(event.getMessage(), container, databaseEventHolder, false, timer));
                 return;
             }
 
             if (isMentionableAction(event)) {
                 container = CommandHandler.getLazyCommand(ArrayUtil.toArguments(event.getMessage().getContentRaw())[1]);
                 if (container != null && canExecuteCommand(event, container)) {
-                    invokeMiddlewareStack(new MiddlewareStack(event.getMessage(), container, databaseEventHolder, true));
+                    invokeMiddlewareStack(event, new MiddlewareStack(event.getMessage(), container, databaseEventHolder, true, timer));
                     return;
                 }
 
@@ -149,8 +168,28 @@ public class MessageEventAdapter extends EventAdapter {
         return !author.isBot() || author.getIdLong() == DiscordConstants.SENITHER_BOT_ID;
     }
 
-    private void invokeMiddlewareStack(MiddlewareStack stack) {
-        commandService.submit(stack::next);
+    private void invokeMiddlewareStack(MessageReceivedEvent event, MiddlewareStack stack) {
+        long key = event.getChannelType().isGuild()
+            ? event.getGuild().getIdLong()
+            : event.getAuthor().getIdLong();
+
+        CommandExecutor.RejectReason reason = commandExecutor.submit(key, stack::next);
+        if (reason == null) {
+            return;
+        }
+
+        log.debug("Rejected the {} command for {} because the command executor is overloaded ({})",
+            stack.getCommand().getName(), key, reason.getName()
+        );
+
+        if (busyChannels.getIfPresent(event.getChannel().getIdLong()) != null) {
+            return;
+        }
+        busyChannels.put(event.getChannel().getIdLong(), true);
+
+        MessageFactory.makeWarning(event.getMessage(),
+            ":warning: I'm a bit too busy to run your command right now, please try again in a moment."
+        ).queue(message -> message.delete().queueAfter(15, TimeUnit.SECONDS, null, RestActionUtil.ignore));
     }
 
     private boolean canExecuteCommand(MessageReceivedEvent event, CommandContainer container) {
@@ -241,23 +280,32 @@ public class MessageEventAdapter extends EventAdapter {
         }
     }
 
-    private CompletableFuture<DatabaseEventHolder> loadDatabasePropertiesIntoMemory(final MessageReceivedEvent event) {
+    private CompletableFuture<DatabaseEventHolder> loadDatabasePropertiesIntoMemory(final MessageReceivedEvent event, final StageTimer timer) {
         return CompletableFuture.supplyAsync(() -> {
             if (!event.getChannelType().isGuild()) {
                 return new DatabaseEventHolder(null, null);
             }
 
-            GuildTransformer guild = looksLikeCommand(event.getMessage())
-                ? GuildController.fetchGuild(avaire, event.getMessage())
-                : GuildController.fetchGuild(avaire, event.getMessage());
-
-            if (guild == null || !guild.isLevels() || event.getAuthor().isBot()) {
-                return new DatabaseEventHolder(guild, null);
+            long start = timer.start();
+            try {
+                return loadDatabaseEventHolder(event);
+            } finally {
+                timer.record(StageTimer.Stage.DATABASE, start);
             }
-            return new DatabaseEventHolder(guild, PlayerController.fetchPlayer(avaire, event.getMessage()));
         });
     }
 
+    private DatabaseEventHolder loadDatabaseEventHolder(final MessageReceivedEvent event) {
+        GuildTransformer guild = looksLikeCommand(event.getMessage())
+            ? GuildController.fetchGuild(avaire, event.getMessage())
+            : GuildController.fetchGuild(avaire, event.getMessage());
+
+        if (guild == null || !guild.isLevels() || event.getAuthor().isBot()) {
+            return new DatabaseEventHolder(guild, null);
+        }
+        return new DatabaseEventHolder(guild, PlayerController.fetchPlayer(avaire, event.getMessage()));
+    }
+
     private boolean looksLikeCommand(Message message) {
         if (message.getGuild().getMembers().stream().filter(member -> member.getUser().isBot()).count() > 5) {
             return false;
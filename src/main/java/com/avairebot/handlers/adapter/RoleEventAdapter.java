@@ -26,6 +26,7 @@ import com.avairebot.Constants;
 import com.avairebot.contracts.handlers.EventAdapter;
 import com.avairebot.database.controllers.GuildController;
 import com.avairebot.database.transformers.GuildTransformer;
+import com.avairebot.scheduler.Debouncer;
 import net.dv8tion.jda.core.entities.Guild;
 import net.dv8tion.jda.core.events.role.RoleDeleteEvent;
 import net.dv8tion.jda.core.events.role.update.RoleUpdateNameEvent;
@@ -35,6 +36,8 @@ import java.util.Map;
 
 public class RoleEventAdapter extends EventAdapter {
 
+    private final Debouncer<Long> roleDataDebouncer;
+
     /**
      * Instantiates the event adapter and sets the avaire class instance.
      *
@@ -42,6 +45,11 @@ public class RoleEventAdapter extends EventAdapter {
      */
     public RoleEventAdapter(AvaIre avaire) {
         super(avaire);
+
+        this.roleDataDebouncer = new Debouncer<>("role-data",
+            avaire.getConfig().getLong("snapshot-debounce.quiet-period", 5000),
+            avaire.getConfig().getLong("snapshot-debounce.max-delay", 30000)
+        );
     }
 
     public void onRoleUpdateName(RoleUpdateNameEvent event) {
@@ -137,16 +145,31 @@ public class RoleEventAdapter extends EventAdapter {
         }
     }
 
+    /**
+     * Queues the role snapshot for the given guild to be rebuilt and saved to
+     * the database, bursts of role events for the same guild are coalesced
+     * into a single update once the guild has gone quiet.
+     *
+     * @param guild The guild that should have its role snapshot updated.
+     */
     public void updateRoleData(Guild guild) {
-        try {
-            avaire.getDatabase().newQueryBuilder(Constants.GUILD_TABLE_NAME)
-                .useAsync(true)
-                .where("id", guild.getId())
-                .update(statement -> {
-                    statement.set("roles_data", GuildController.buildRoleData(guild.getRoles()), true);
-                });
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        long guildId = guild.getIdLong();
+
+        roleDataDebouncer.submit(guildId, () -> {
+            Guild current = avaire.getShardManager().getGuildById(guildId);
+            if (current == null) {
+                return;
+            }
+
+            try {
+                avaire.getDatabase().newQueryBuilder(Constants.GUILD_TABLE_NAME)
+                    .where("id", current.getId())
+                    .update(statement -> {
+                        statement.set("roles_data", GuildController.buildRoleData(current.getRoles()), true);
+                    });
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        });
     }
 }
@@ -25,6 +25,9 @@ import com.avairebot.AvaIre;
 import com.avairebot.config.YamlConfiguration;
 import com.avairebot.database.controllers.GuildController;
 import com.avairebot.database.transformers.GuildTransformer;
+import com.avairebot.utilities.CacheUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import net.dv8tion.jda.core.entities.Guild;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,12 +35,23 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.text.MessageFormat;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 
 public class I18n {
 
+    /**
+     * The compiled message formats cache, the messages are used as the keys, and
+     * the values are the message formats compiled from the escaped messages,
+     * so each language string only has to be parsed once.
+     */
+    public static final Cache<String, MessageFormat> formats = CacheBuilder.newBuilder()
+        .recordStats()
+        .maximumSize(10000)
+        .build();
+
     static final Set<LanguageHolder> languages = new HashSet<>();
+    private static final Map<String, LanguageHolder> localesByCode = new HashMap<>();
+    private static final Map<Language, LanguageHolder> localesByLanguage = new EnumMap<>(Language.class);
     private static final LanguageHolder defaultLanguage = new LanguageHolder(Language.EN_US);
     private static final Logger log = LoggerFactory.getLogger(I18n.class);
 
@@ -46,17 +60,27 @@ public class I18n {
     public static void start(AvaIre avaire) {
         I18n.avaire = avaire;
 
-        languages.add(defaultLanguage);
+        registerLanguage(defaultLanguage);
         for (Language language : Language.values()) {
             if (defaultLanguage.getLanguage().equals(language)) {
                 continue;
             }
-            languages.add(new LanguageHolder(language));
+            registerLanguage(new LanguageHolder(language));
         }
 
         log.info("Loaded " + languages.size() + " languages: " + languages);
     }
 
+    private static void registerLanguage(LanguageHolder locale) {
+        languages.add(locale);
+        localesByCode.put(normalizeCode(locale.getLanguage().getCode()), locale);
+        localesByLanguage.put(locale.getLanguage(), locale);
+    }
+
+    private static String normalizeCode(String code) {
+        return code.toLowerCase(Locale.ROOT);
+    }
+
     public static LanguageHolder getDefaultLanguage() {
         return defaultLanguage;
     }
@@ -103,8 +127,10 @@ public class I18n {
     @Nonnull
     public static LanguageHolder getLocale(@Nonnull GuildTransformer transformer) {
         try {
-            for (LanguageHolder locale : languages) {
-                if (locale.getLanguage().getCode().equalsIgnoreCase(transformer.getLocale())) {
+            String code = transformer.getLocale();
+            if (code != null) {
+                LanguageHolder locale = localesByCode.get(normalizeCode(code));
+                if (locale != null) {
                     return locale;
                 }
             }
@@ -116,10 +142,9 @@ public class I18n {
 
     @Nonnull
     public static LanguageHolder getLocale(Language language) {
-        for (LanguageHolder locale : languages) {
-            if (locale.getLanguage().equals(language)) {
-                return locale;
-            }
+        LanguageHolder locale = language == null ? null : localesByLanguage.get(language);
+        if (locale != null) {
+            return locale;
         }
         return defaultLanguage;
     }
@@ -135,9 +160,14 @@ public class I18n {
         }
 
         try {
-            return MessageFormat.format(
-                message.replace("'", "''"), arguments
+            MessageFormat format = (MessageFormat) CacheUtil.getUncheckedUnwrapped(formats, message, () ->
+                new MessageFormat(message.replace("'", "''"))
             );
+
+            // Message formats are not thread-safe, so the compiled format is cloned
+            // for every call instead of being shared, cloning only copies the
+            // already parsed pattern, which is much faster than parsing it.
+            return ((MessageFormat) format.clone()).format(arguments);
         } catch (IllegalArgumentException ex) {
             log.error(
                 "An exception was through while formatting \"{}\", error: {}",
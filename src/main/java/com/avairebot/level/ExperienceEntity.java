@@ -25,9 +25,16 @@ public class ExperienceEntity {
 
     private final long userId;
     private final long guildId;
-    private int experience;
+    private volatile int experience;
 
-    ExperienceEntity(long userId, long guildId, int experience) {
+    /**
+     * Creates a new experience entity for the given user and guild.
+     *
+     * @param userId     The ID of the user that should be updated.
+     * @param guildId    The ID of the guild that the user got the XP reward in.
+     * @param experience The amount of experience the user should be given.
+     */
+    public ExperienceEntity(long userId, long guildId, int experience) {
         this.userId = userId;
         this.guildId = guildId;
         this.experience = experience;
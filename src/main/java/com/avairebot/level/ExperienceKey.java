@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.level;
+
+/**
+ * The key used to group experience entities in the
+ * experience queue, made up of the user and guild ID.
+ */
+final class ExperienceKey {
+
+    private final long userId;
+    private final long guildId;
+
+    ExperienceKey(long userId, long guildId) {
+        this.userId = userId;
+        this.guildId = guildId;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof ExperienceKey)) {
+            return false;
+        }
+
+        ExperienceKey other = (ExperienceKey) obj;
+        return userId == other.userId && guildId == other.guildId;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(userId) + Long.hashCode(guildId);
+    }
+}
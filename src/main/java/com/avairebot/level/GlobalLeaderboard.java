@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.level;
+
+import com.avairebot.AvaIre;
+import com.avairebot.Constants;
+import com.avairebot.database.connections.MySQL;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The materialized global leaderboard, the leaderboard holds the total amount of experience
+ * every player has across all the servers they're on, the leaderboard is built from the
+ * database once, and is then kept up to date using the experience deltas that are
+ * flushed to the database by the player experience sync task.
+ * <p>
+ * The leaderboard is rebuilt from the database every {@link #REBUILD_INTERVAL} to pick up
+ * changes made to the experiences table by other sources, like levels being reset, the
+ * rebuild runs in the background, so flushing experience is never held up by it.
+ */
+public class GlobalLeaderboard {
+
+    /**
+     * The amount of time in milliseconds between each full rebuild of the leaderboard.
+     */
+    public static final long REBUILD_INTERVAL = TimeUnit.HOURS.toMillis(6);
+
+    private static final Logger log = LoggerFactory.getLogger(GlobalLeaderboard.class);
+
+    /**
+     * The lock held while experience is committed to the database, and while the
+     * snapshot for a rebuild is taken, so every committed delta is either part
+     * of the snapshot, or recorded to be applied to the rebuilt index.
+     */
+    private final Object lock = new Object();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    /**
+     * The executor the leaderboard is rebuilt on, a rebuild can hold a thread for as long as it
+     * takes to stream every player from the database, so it gets a thread of its own instead
+     * of taking one of the threads from the shared scheduler away from the other jobs.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+        new ThreadFactoryBuilder()
+            .setNameFormat("avaire-global-leaderboard-%d")
+            .setDaemon(true)
+            .build()
+    );
+
+    private volatile RankIndex index = null;
+    private volatile long builtAt = 0L;
+
+    /**
+     * The deltas committed since the snapshot for the current rebuild was
+     * taken, or null if the leaderboard is not currently being rebuilt.
+     */
+    private List<ExperienceEntity> pending = null;
+
+    /**
+     * Gets the rank index for the global leaderboard, the experience for each
+     * player in the index is the total experience the player has globally.
+     *
+     * @return Possibly-null, the global rank index, or null if the leaderboard haven't been built yet.
+     */
+    @Nullable
+    public RankIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Checks if the leaderboard should be rebuilt from the database, either because
+     * it haven't been built yet, or because the {@link #REBUILD_INTERVAL} have passed.
+     *
+     * @return <code>True</code> if the leaderboard should be rebuilt, <code>False</code> otherwise.
+     */
+    public boolean shouldRebuild() {
+        return index == null || System.currentTimeMillis() - builtAt > REBUILD_INTERVAL;
+    }
+
+    /**
+     * Rebuilds the leaderboard in the background on the leaderboard executor, if
+     * the leaderboard is already being rebuilt the call will just be ignored.
+     *
+     * @param avaire The AvaIre application instance, used to talk to the database.
+     */
+    public void rebuildAsync(AvaIre avaire) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+
+        executor.execute(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                rebuild(avaire);
+
+                log.debug("Rebuilt the global leaderboard in {} ms", System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                log.error("An exception was thrown while rebuilding the global leaderboard: ", e);
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+    }
+
+    /**
+     * Rebuilds the leaderboard from the experiences table, the aggregated rows are
+     * streamed from the database and loaded into a new rank index, which then
+     * replaces the current index once every row have been loaded.
+     * <p>
+     * On MySQL the rows are read from a consistent snapshot, so experience can still be
+     * flushed while the rows are being loaded, the deltas committed after the snapshot
+     * was taken are applied to the new index before it replaces the current one.
+     *
+     * @param avaire The AvaIre application instance, used to talk to the database.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void rebuild(AvaIre avaire) throws SQLException {
+        try (Connection connection = avaire.getDatabase().getConnection().getConnection()) {
+            rebuild(connection, avaire.getDatabase().getConnection() instanceof MySQL
+                ? "START TRANSACTION WITH CONSISTENT SNAPSHOT;" : null
+            );
+        }
+    }
+
+    /**
+     * Rebuilds the leaderboard from the experiences table using the given connection.
+     *
+     * @param connection    The connection the rows should be loaded on.
+     * @param snapshotQuery The query that starts a consistent snapshot on the connection, or
+     *                      null if the database can't take one, in which case flushing is
+     *                      held back while the rows are being loaded.
+     * @throws SQLException if a database access error occurs.
+     */
+    void rebuild(Connection connection, @Nullable String snapshotQuery) throws SQLException {
+        RankIndex index = new RankIndex();
+
+        try {
+            if (snapshotQuery != null) {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+
+                try {
+                    try (Statement statement = connection.createStatement()) {
+                        synchronized (lock) {
+                            statement.execute(snapshotQuery);
+                            pending = new ArrayList<>();
+                        }
+                    }
+
+                    // Connector/J only streams the result one row at a time if the fetch
+                    // size is set to Integer.MIN_VALUE, any other value will load the
+                    // entire result into memory before the first row is returned.
+                    load(connection, index, Integer.MIN_VALUE);
+                    connection.commit();
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            } else {
+                // SQLite has no consistent snapshots we can take up front, so
+                // flushing is held back while the rows are being loaded.
+                synchronized (lock) {
+                    load(connection, index, 1000);
+                    pending = new ArrayList<>();
+                }
+            }
+
+            synchronized (lock) {
+                for (ExperienceEntity entity : pending) {
+                    index.increment(entity.getUserId(), entity.getExperience(), 100);
+                }
+
+                this.index = index;
+                this.builtAt = System.currentTimeMillis();
+            }
+        } finally {
+            synchronized (lock) {
+                pending = null;
+            }
+        }
+    }
+
+    /**
+     * Stops the leaderboard executor, cancelling the rebuild that is currently
+     * running, the current index is kept as it is until the bot exits.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Commits the experience deltas on the given connection, and applies them to the
+     * leaderboard once they have been committed, if the leaderboard haven't been
+     * built yet, and isn't currently being built, the deltas are not applied.
+     * <p>
+     * The method only throws if committing the deltas failed, once they have been
+     * committed, failing to apply them will mark the leaderboard to be rebuilt.
+     *
+     * @param connection The connection the experience deltas were written on.
+     * @param entities   The experience entities that were written to the database.
+     * @throws SQLException if a database access error occurs while committing.
+     */
+    public void commit(Connection connection, List<ExperienceEntity> entities) throws SQLException {
+        synchronized (lock) {
+            connection.commit();
+
+            if (pending != null) {
+                pending.addAll(entities);
+            }
+
+            RankIndex index = this.index;
+            if (index == null) {
+                return;
+            }
+
+            try {
+                for (ExperienceEntity entity : entities) {
+                    index.increment(entity.getUserId(), entity.getExperience(), 100);
+                }
+            } catch (RuntimeException e) {
+                // The deltas have already been committed, so instead of failing the
+                // commit, the leaderboard is marked as stale to get it rebuilt.
+                log.error("Failed to apply the committed experience to the global leaderboard: ", e);
+                builtAt = 0L;
+            }
+        }
+    }
+
+    void load(Connection connection, RankIndex index, int fetchSize) throws SQLException {
+        try (Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(fetchSize);
+
+            try (ResultSet result = statement.executeQuery(String.format(
+                "SELECT `user_id`, (SUM(`experience`) - (COUNT(`user_id`) * 100)) + 100 AS `total` FROM `%s` GROUP BY `user_id`;",
+                Constants.PLAYER_EXPERIENCE_TABLE_NAME
+            ))) {
+                while (result.next()) {
+                    // The user ID column is a VARCHAR, so rows with an ID that isn't
+                    // a number are skipped instead of being read as user zero.
+                    String userId = result.getString("user_id");
+
+                    try {
+                        long id = Long.parseLong(userId);
+                        if (id != 0) {
+                            index.set(id, result.getLong("total"));
+                        }
+                    } catch (NumberFormatException e) {
+                        log.warn("Skipping the experience for invalid user ID \"{}\" in the global leaderboard", userId);
+                    }
+                }
+            }
+        }
+    }
+}
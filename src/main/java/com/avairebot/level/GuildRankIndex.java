@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.level;
+
+/**
+ * An in-memory rank index for the players in a single guild, the index is seeded
+ * from the database by the {@link LevelManager} and then kept up to date as
+ * players in the guild are given experience.
+ *
+ * @see RankIndex
+ */
+public class GuildRankIndex extends RankIndex {
+
+    private final long guildId;
+
+    /**
+     * Creates a new empty rank index for the given guild.
+     *
+     * @param guildId The ID of the guild the index belongs to.
+     */
+    GuildRankIndex(long guildId) {
+        this.guildId = guildId;
+    }
+
+    /**
+     * Gets the ID of the guild that the rank index belongs to.
+     *
+     * @return The ID of the guild that the rank index belongs to.
+     */
+    public long getGuildId() {
+        return guildId;
+    }
+}
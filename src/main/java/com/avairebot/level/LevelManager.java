@@ -22,6 +22,7 @@
 package com.avairebot.level;
 
 import com.avairebot.AvaIre;
+import com.avairebot.Constants;
 import com.avairebot.chat.MessageType;
 import com.avairebot.database.controllers.GuildController;
 import com.avairebot.database.controllers.PlayerController;
@@ -38,14 +39,21 @@ import net.dv8tion.jda.core.entities.Role;
 import net.dv8tion.jda.core.entities.TextChannel;
 import net.dv8tion.jda.core.entities.User;
 import net.dv8tion.jda.core.events.message.MessageReceivedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 @SuppressWarnings({"WeakerAccess", "unused"})
 public class LevelManager {
@@ -63,12 +71,41 @@ public class LevelManager {
         .expireAfterWrite(60, TimeUnit.SECONDS)
         .build();
 
+    /**
+     * The rank indexes for the guilds that have recently looked up their leaderboard, the
+     * indexes are seeded from the database when they're first used, and then kept up to
+     * date as experience is given out, indexes are rebuilt from the database every 30
+     * minutes to pick up any changes made to the experiences table by other sources.
+     */
+    public static final Cache<Long, GuildRankIndex> rankIndexes = CacheBuilder.newBuilder()
+        .recordStats()
+        .expireAfterAccess(10, TimeUnit.MINUTES)
+        .expireAfterWrite(30, TimeUnit.MINUTES)
+        .build();
+
+    private static final Logger log = LoggerFactory.getLogger(LevelManager.class);
+
+    /**
+     * The amount of experience rows loaded per query while seeding a guild rank index.
+     */
+    private static final int RANK_INDEX_PAGE_SIZE = 1000;
+
     /**
      * The experience queue, users who have been rewarded experience will
      * be added to the queue, the queue is then consumed once a minute
      * to sync the database with the user data.
+     * <p>
+     * The queue holds a single entity for every player, keyed by the guild
+     * and user ID, experience given to a player that is already in the
+     * queue is added to the existing entity instead.
      */
-    private static final List<ExperienceEntity> experienceQueue = new CopyOnWriteArrayList<>();
+    private static final Map<ExperienceKey, ExperienceEntity> experienceQueue = new ConcurrentHashMap<>();
+
+    /**
+     * The materialized global leaderboard, holding the total
+     * experience every player has across all servers.
+     */
+    private final GlobalLeaderboard globalLeaderboard = new GlobalLeaderboard();
 
     /**
      * The experience modifier as an percentage.
@@ -234,11 +271,16 @@ public class LevelManager {
 
         player.incrementExperienceBy(amount);
 
-        experienceQueue.add(new ExperienceEntity(
+        queueExperience(
             message.getAuthor().getIdLong(),
             message.getGuild().getIdLong(),
             amount
-        ));
+        );
+
+        GuildRankIndex rankIndex = rankIndexes.getIfPresent(message.getGuild().getIdLong());
+        if (rankIndex != null) {
+            rankIndex.set(message.getAuthor().getIdLong(), player.getExperience());
+        }
 
         if (getLevelFromExperience(guild, player.getExperience()) > lvl) {
             long newLevel = getLevelFromExperience(guild, player.getExperience());
@@ -301,14 +343,56 @@ public class LevelManager {
         }
     }
 
+    /**
+     * Gets the materialized global leaderboard.
+     *
+     * @return The global leaderboard.
+     */
+    public GlobalLeaderboard getGlobalLeaderboard() {
+        return globalLeaderboard;
+    }
+
     /**
      * Gets the experience queue, any user who has received experience and
      * have yet to be updated in the database are stored in this queue.
      *
-     * @return The experience queue.
+     * @return An unmodifiable view of the experience queue.
+     */
+    public Collection<ExperienceEntity> getExperienceQueue() {
+        return Collections.unmodifiableCollection(experienceQueue.values());
+    }
+
+    /**
+     * Removes all the entities from the experience queue and returns them, experience
+     * given to a player after their entity has been removed from the queue will
+     * be added to a new entity that will be picked up by the next drain.
+     *
+     * @return The entities that were removed from the experience queue.
+     */
+    public List<ExperienceEntity> drainExperienceQueue() {
+        List<ExperienceEntity> entities = new ArrayList<>(experienceQueue.size());
+
+        for (ExperienceKey key : experienceQueue.keySet()) {
+            ExperienceEntity entity = experienceQueue.remove(key);
+            if (entity != null) {
+                entities.add(entity);
+            }
+        }
+
+        return entities;
+    }
+
+    /**
+     * Adds the given entities back onto the experience queue, this is used
+     * if the entities couldn't be synced with the database, so the
+     * experience can be synced the next time the queue is drained.
+     *
+     * @param entities The entities that should be added back to the queue.
      */
-    public List<ExperienceEntity> getExperienceQueue() {
-        return experienceQueue;
+    public void requeueExperience(List<ExperienceEntity> entities) {
+        for (ExperienceEntity entity : entities) {
+            queueExperience(entity.getUserId(), entity.getGuildId(), entity.getExperience());
+        }
     }
 
     /**
@@ -319,9 +403,108 @@ public class LevelManager {
      * @return A list of experience entities that belongs to the given player transformer.
      */
     public List<ExperienceEntity> getExperienceEntities(PlayerTransformer transformer) {
-        return experienceQueue.stream()
-            .filter(entity -> entity.getUserId() == transformer.getUserId() && entity.getGuildId() == transformer.getGuildId())
-            .collect(Collectors.toList());
+        ExperienceEntity entity = experienceQueue.get(
+            new ExperienceKey(transformer.getUserId(), transformer.getGuildId())
+        );
+
+        return entity == null ? Collections.emptyList() : Collections.singletonList(entity);
+    }
+
+    /**
+     * Gets the amount of experience the given player has been given
+     * that haven't been synced with the database yet.
+     *
+     * @param transformer The transformer that the pending experience should be fetched for.
+     * @return The amount of experience waiting to be synced with the database.
+     */
+    public int getPendingExperience(PlayerTransformer transformer) {
+        ExperienceEntity entity = experienceQueue.get(
+            new ExperienceKey(transformer.getUserId(), transformer.getGuildId())
+        );
+
+        return entity == null ? 0 : entity.getExperience();
+    }
+
+    /**
+     * Gets the rank index for the given guild, if the guild doesn't have a rank
+     * index loaded yet, one will be seeded from the database, and then kept
+     * up to date as players in the guild are given experience.
+     *
+     * @param avaire  The AvaIre application instance, used to talk to the database.
+     * @param guildId The ID of the guild the rank index should be fetched for.
+     * @return Possibly-null, the rank index for the guild, or null if the index couldn't be loaded.
+     */
+    @Nullable
+    public GuildRankIndex getRankIndex(AvaIre avaire, long guildId) {
+        try {
+            return (GuildRankIndex) CacheUtil.getUncheckedUnwrapped(rankIndexes, guildId, () -> loadRankIndex(avaire, guildId));
+        } catch (RuntimeException e) {
+            log.error("Failed to load the rank index for guild {}: {}", guildId, e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private GuildRankIndex loadRankIndex(AvaIre avaire, long guildId) throws SQLException {
+        GuildRankIndex index = new GuildRankIndex(guildId);
+
+        // The rows are loaded in pages, using the guild and user ID index on the experiences
+        // table to continue from the last user ID, so large guilds doesn't require the
+        // entire result to be held in memory at once while the index is seeded.
+        String query = String.format(
+            "SELECT `user_id`, `experience` FROM `%s` WHERE `guild_id` = ? AND `user_id` > ? ORDER BY `user_id` LIMIT ?;",
+            Constants.PLAYER_EXPERIENCE_TABLE_NAME
+        );
+
+        String lastUserId = "";
+        int rows;
+
+        try (Connection connection = avaire.getDatabase().getConnection().getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            do {
+                rows = 0;
+                statement.setString(1, String.valueOf(guildId));
+                statement.setString(2, lastUserId);
+                statement.setInt(3, RANK_INDEX_PAGE_SIZE);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows++;
+                        lastUserId = resultSet.getString("user_id");
+
+                        long userId;
+                        try {
+                            userId = Long.parseLong(lastUserId);
+                        } catch (NumberFormatException e) {
+                            continue;
+                        }
+
+                        if (userId == 0) {
+                            continue;
+                        }
+
+                        // Experience that have been given out but not synced with the database yet
+                        // is stored in the experience queue, so it's added on top of the
+                        // experience stored in the database to get the players total.
+                        ExperienceEntity pending = experienceQueue.get(new ExperienceKey(userId, guildId));
+
+                        index.set(userId, resultSet.getLong("experience") + (pending == null ? 0 : pending.getExperience()));
+                    }
+                }
+            } while (rows == RANK_INDEX_PAGE_SIZE);
+        }
+
+        return index;
+    }
+
+    private void queueExperience(long userId, long guildId, int amount) {
+        experienceQueue.compute(new ExperienceKey(userId, guildId), (key, entity) -> {
+            if (entity == null) {
+                return new ExperienceEntity(userId, guildId, amount);
+            }
+
+            entity.setExperience(entity.getExperience() + amount);
+            return entity;
+        });
     }
 
     /**
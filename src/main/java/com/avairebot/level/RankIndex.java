@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.level;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An in-memory rank index for players, the players are kept ordered by their
+ * experience in a size-augmented treap, which allows looking up the rank
+ * of a player, and the top players, in logarithmic time.
+ * <p>
+ * Players with the same amount of experience are ordered by their user ID.
+ */
+public class RankIndex {
+
+    private final TLongObjectMap<Node> players = new TLongObjectHashMap<>();
+    private Node root = null;
+
+    /**
+     * Sets the total amount of experience the given user has,
+     * adding the user to the index if they're not already in it.
+     *
+     * @param userId     The ID of the user.
+     * @param experience The total amount of experience the user has.
+     */
+    public synchronized void set(long userId, long experience) {
+        Node node = players.get(userId);
+        if (node != null) {
+            if (node.experience == experience) {
+                return;
+            }
+            root = remove(root, node);
+        }
+
+        node = new Node(userId, experience);
+        players.put(userId, node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Increments the total amount of experience the given user has by the given amount, if
+     * the user isn't in the index already, they'll be added with the initial amount of
+     * experience, plus the amount of experience they should be incremented by.
+     *
+     * @param userId  The ID of the user.
+     * @param amount  The amount of experience the user should be incremented by.
+     * @param initial The amount of experience the user starts with if they're not in the index.
+     */
+    public synchronized void increment(long userId, long amount, long initial) {
+        Node node = players.get(userId);
+
+        set(userId, (node == null ? initial : node.experience) + amount);
+    }
+
+    /**
+     * Removes the given user from the index.
+     *
+     * @param userId The ID of the user that should be removed.
+     */
+    public synchronized void remove(long userId) {
+        Node node = players.remove(userId);
+        if (node != null) {
+            root = remove(root, node);
+        }
+    }
+
+    /**
+     * Gets the index entry for the given user.
+     *
+     * @param userId The ID of the user.
+     * @return Possibly-null, the entry for the user, or null if the user isn't in the index.
+     */
+    @Nullable
+    public synchronized Entry get(long userId) {
+        Node node = players.get(userId);
+        if (node == null) {
+            return null;
+        }
+
+        return new Entry(node.userId, node.experience);
+    }
+
+    /**
+     * Gets the rank of the given user, where the
+     * user with the most experience is ranked first.
+     *
+     * @param userId The ID of the user.
+     * @return The rank of the user starting at 1, or <code>-1</code> if the user isn't in the index.
+     */
+    public synchronized int getRank(long userId) {
+        Node node = players.get(userId);
+        if (node == null) {
+            return -1;
+        }
+
+        return countBefore(node.experience, node.userId) + 1;
+    }
+
+    /**
+     * Counts the number of users that has more experience than the given amount.
+     *
+     * @param experience The amount of experience to compare with.
+     * @return The number of users with more experience than the given amount.
+     */
+    public synchronized int countAbove(long experience) {
+        return countBefore(experience, Long.MIN_VALUE);
+    }
+
+    /**
+     * Gets the top players in the index, ordered by their experience.
+     *
+     * @param limit The maximum number of players that should be returned.
+     * @return The top players, ordered by their experience.
+     */
+    public synchronized List<Entry> getTop(int limit) {
+        if (root == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<Entry> entries = new ArrayList<>(Math.min(limit, root.size));
+        collect(root, entries, limit);
+
+        return entries;
+    }
+
+    /**
+     * Gets the number of players in the index.
+     *
+     * @return The number of players in the index.
+     */
+    public synchronized int size() {
+        return root == null ? 0 : root.size;
+    }
+
+    private int countBefore(long experience, long userId) {
+        int count = 0;
+
+        Node node = root;
+        while (node != null) {
+            if (compare(experience, userId, node) <= 0) {
+                node = node.left;
+            } else {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+
+        return count;
+    }
+
+    private void collect(Node node, List<Entry> entries, int limit) {
+        if (node == null || entries.size() >= limit) {
+            return;
+        }
+
+        collect(node.left, entries, limit);
+        if (entries.size() < limit) {
+            entries.add(new Entry(node.userId, node.experience));
+        }
+        collect(node.right, entries, limit);
+    }
+
+    private Node insert(Node node, Node value) {
+        if (node == null) {
+            return value;
+        }
+
+        if (value.priority > node.priority) {
+            Node[] split = split(node, value.experience, value.userId);
+            value.left = split[0];
+            value.right = split[1];
+
+            return update(value);
+        }
+
+        if (compare(value.experience, value.userId, node) < 0) {
+            node.left = insert(node.left, value);
+        } else {
+            node.right = insert(node.right, value);
+        }
+
+        return update(node);
+    }
+
+    private Node remove(Node node, Node value) {
+        if (node == null) {
+            return null;
+        }
+
+        if (node == value) {
+            return merge(node.left, node.right);
+        }
+
+        if (compare(value.experience, value.userId, node) < 0) {
+            node.left = remove(node.left, value);
+        } else {
+            node.right = remove(node.right, value);
+        }
+
+        return update(node);
+    }
+
+    /**
+     * Splits the tree into the nodes ordered before the given
+     * key, and the nodes ordered at or after the given key.
+     */
+    private Node[] split(Node node, long experience, long userId) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+
+        if (compare(experience, userId, node) <= 0) {
+            Node[] split = split(node.left, experience, userId);
+            node.left = split[1];
+
+            return new Node[]{split[0], update(node)};
+        }
+
+        Node[] split = split(node.right, experience, userId);
+        node.right = split[0];
+
+        return new Node[]{update(node), split[1]};
+    }
+
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private int compare(long experience, long userId, Node node) {
+        if (experience != node.experience) {
+            return experience > node.experience ? -1 : 1;
+        }
+        return Long.compare(userId, node.userId);
+    }
+
+    private Node update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+
+    private int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static class Node {
+
+        private final long userId;
+        private final long experience;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        Node(long userId, long experience) {
+            this.userId = userId;
+            this.experience = experience;
+        }
+    }
+
+    public static class Entry {
+
+        private final long userId;
+        private final long experience;
+
+        Entry(long userId, long experience) {
+            this.userId = userId;
+            this.experience = experience;
+        }
+
+        /**
+         * Gets the ID of the user.
+         *
+         * @return The ID of the user.
+         */
+        public long getUserId() {
+            return userId;
+        }
+
+        /**
+         * Gets the total amount of experience the user has.
+         *
+         * @return The total amount of experience the user has.
+         */
+        public long getExperience() {
+            return experience;
+        }
+    }
+}
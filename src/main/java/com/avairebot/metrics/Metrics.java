@@ -23,8 +23,13 @@ package com.avairebot.metrics;
 
 import ch.qos.logback.classic.LoggerContext;
 import com.avairebot.AvaIre;
+import com.avairebot.ai.IntelligenceManager;
+import com.avairebot.audio.cache.TrackSearchCache;
 import com.avairebot.blacklist.Ratelimit;
+import com.avairebot.cache.InteractionImageCache;
+import com.avairebot.cache.adapters.FileAdapter;
 import com.avairebot.commands.Category;
+import com.avairebot.commands.CommandHandler;
 import com.avairebot.commands.utility.GlobalLeaderboardCommand;
 import com.avairebot.commands.utility.LeaderboardCommand;
 import com.avairebot.contracts.commands.InteractionCommand;
@@ -32,6 +37,7 @@ import com.avairebot.database.controllers.GuildController;
 import com.avairebot.database.controllers.PlayerController;
 import com.avairebot.database.controllers.PlaylistController;
 import com.avairebot.handlers.adapter.JDAStateEventAdapter;
+import com.avairebot.language.I18n;
 import com.avairebot.level.LevelManager;
 import com.avairebot.metrics.filters.AreWeReadyYetFilter;
 import com.avairebot.metrics.filters.HttpFilter;
@@ -39,6 +45,8 @@ import com.avairebot.metrics.handlers.SparkExceptionHandler;
 import com.avairebot.metrics.routes.*;
 import com.avairebot.middleware.ThrottleMiddleware;
 import com.avairebot.scheduler.jobs.LavalinkGarbageNodeCollectorJob;
+import com.avairebot.utilities.ClassIndexUtil;
+import com.avairebot.utilities.StringTemplate;
 import io.prometheus.client.Counter;
 import io.prometheus.client.Gauge;
 import io.prometheus.client.Histogram;
@@ -158,6 +166,34 @@ public class Metrics {
         .labelNames("class")
         .register();
 
+    public static final Counter commandsRejected = Counter.build()
+        .name("avaire_commands_rejected_total")
+        .help("Total commands rejected because the command executor was overloaded")
+        .labelNames("reason") // queue-full, guild-queue-full
+        .register();
+
+    public static final Gauge commandExecutorTasks = Gauge.build()
+        .name("avaire_command_executor_tasks")
+        .help("The amount of commands in the command executor by state")
+        .labelNames("state") // running, queued
+        .register();
+
+    // Message handling stages
+
+    public static final Histogram messageStageTime = Histogram.build()
+        .name("avaire_message_stage_duration_seconds")
+        .help("Time spent in each stage of handling a received message, sampled by the stage sample rate.")
+        .labelNames("stage") // blacklist, database, rewards, command-lookup, command
+        .buckets(0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10)
+        .register();
+
+    public static final Histogram middlewareExecutionTime = Histogram.build()
+        .name("avaire_middleware_execution_duration_seconds")
+        .help("Middleware execution time by class, excluding the middlewares further down the stack.")
+        .labelNames("class")
+        .buckets(0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10)
+        .register();
+
     // AI Requests
 
     public static final Counter aiRequestsReceived = Counter.build()
@@ -171,12 +207,32 @@ public class Metrics {
         .labelNames("class")
         .register();
 
+    public static final Counter aiRequestsFailed = Counter.build()
+        .name("avaire_ai_failed_total")
+        .help("Total ai requests that never got a response from the AI service")
+        .labelNames("reason") // guild-limit, queue-full, timeout, error
+        .register();
+
     public static final Histogram aiExecutionTime = Histogram.build()
         .name("avaire_ai_execution_duration_seconds")
         .help("AI intent execution time.")
         .labelNames("class")
         .register();
 
+    // Plugin Events
+
+    public static final Histogram eventListenerExecutionTime = Histogram.build()
+        .name("avaire_event_listener_execution_time_seconds")
+        .help("Time spent by plugin event listeners handling custom events")
+        .labelNames("listener", "event")
+        .register();
+
+    public static final Counter eventListenerFailures = Counter.build()
+        .name("avaire_event_listener_failures_total")
+        .help("Total custom events that plugin event listeners failed to handle")
+        .labelNames("listener", "reason") // exception, queue-full
+        .register();
+
     // Database requests
 
     public static final Counter databaseQueries = Counter.build()
@@ -185,6 +241,51 @@ public class Metrics {
         .labelNames("type")
         .register();
 
+    public static final Gauge databasePoolConnections = Gauge.build()
+        .name("avaire_database_pool_connections")
+        .help("The amount of connections in each database pool by state")
+        .labelNames("pool", "state") // active, idle, waiting
+        .register();
+
+    public static final Gauge databaseWriteBehindQueued = Gauge.build()
+        .name("avaire_database_write_behind_queued")
+        .help("The amount of async queries waiting in the write-behind queue")
+        .register();
+
+    public static final Counter databaseWriteBehindWrites = Counter.build()
+        .name("avaire_database_write_behind_writes_total")
+        .help("Total async queries handled by the write-behind queue by result")
+        .labelNames("result") // written, failed, delayed, dropped
+        .register();
+
+    public static final Histogram databaseWriteBehindBatchSize = Histogram.build()
+        .name("avaire_database_write_behind_batch_size")
+        .help("The amount of queries in each batch sent by the write-behind queue")
+        .buckets(1, 2, 5, 10, 25, 50, 100, 250, 500)
+        .register();
+
+    // Interaction images
+
+    public static final Counter interactionImages = Counter.build()
+        .name("avaire_interaction_images_total")
+        .help("Total interaction images served by where they were loaded from")
+        .labelNames("source") // memory, disk, download
+        .register();
+
+    public static final Counter interactionImageBytes = Counter.build()
+        .name("avaire_interaction_image_bytes_total")
+        .help("Total bytes of interaction images served by where they were loaded from")
+        .labelNames("source") // memory, disk, download
+        .register();
+
+    // HTTP requests
+
+    public static final Counter httpCacheRequests = Counter.build()
+        .name("avaire_http_cache_requests_total")
+        .help("Total HTTP requests made through the shared client by host and cache result")
+        .labelNames("host", "result") // hit, conditional, miss
+        .register();
+
     // Vote statistics
 
     public static final Counter dblVotes = Counter.build()
@@ -241,14 +342,24 @@ public class Metrics {
         cacheMetrics.addCache("players", PlayerController.cache);
         cacheMetrics.addCache("playlists", PlaylistController.cache);
         cacheMetrics.addCache("categoryPrefixes", Category.cache);
+        cacheMetrics.addCache("command-dispatch", CommandHandler.dispatchCache);
         cacheMetrics.addCache("throttleCommands", ThrottleMiddleware.cache);
         cacheMetrics.addCache("throttleMessages", ThrottleMiddleware.messageCache);
         cacheMetrics.addCache("autorole", JDAStateEventAdapter.cache);
+        cacheMetrics.addCache("rank-index", LevelManager.rankIndexes);
+        cacheMetrics.addCache("file-cache", FileAdapter.cache);
         cacheMetrics.addCache("leaderboard", LeaderboardCommand.cache);
         cacheMetrics.addCache("global-leaderboard", GlobalLeaderboardCommand.cache);
         cacheMetrics.addCache("interaction-lottery", InteractionCommand.cache);
+        cacheMetrics.addCache("interaction-images", InteractionImageCache.cache);
         cacheMetrics.addCache("blacklist-ratelimit", Ratelimit.cache);
         cacheMetrics.addCache("lavalink-destroy-cleanup", LavalinkGarbageNodeCollectorJob.cache);
+        cacheMetrics.addCache("string-templates", StringTemplate.cache);
+        cacheMetrics.addCache("track-search", TrackSearchCache.cache);
+        cacheMetrics.addCache("ai-responses", IntelligenceManager.cache);
+        cacheMetrics.addCache("i18n-formats", I18n.formats);
+
+        StageTimer.setSampleRate(avaire.getConfig().getDouble("metrics.stage-sample-rate", 1D));
 
         if (!avaire.getConfig().getBoolean("metrics.enabled", true)) {
             log.info("Metrics web API is disabled, skipping igniting Spark API");
@@ -282,8 +393,14 @@ public class Metrics {
     }
 
     private static void initializeEventMetrics() {
-        Set<Class<? extends Event>> types = new Reflections("net.dv8tion.jda.core.events")
-            .getSubTypesOf(Event.class);
+        Set<Class<? extends Event>> types = ClassIndexUtil.getSubTypesOf(
+            ClassIndexUtil.JDA_EVENTS_INDEX, "net.dv8tion.jda.core.events", Event.class
+        );
+
+        if (types == null) {
+            types = new Reflections("net.dv8tion.jda.core.events")
+                .getSubTypesOf(Event.class);
+        }
 
         for (Class<? extends Event> type : types) {
             if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
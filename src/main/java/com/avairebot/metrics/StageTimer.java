@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.metrics;
+
+import com.avairebot.contracts.middleware.Middleware;
+import io.prometheus.client.Histogram;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Times the different stages of handling a received message, the timer is sampled
+ * once per message using the {@link #setSampleRate(double) sample rate}, if the
+ * message isn't sampled all the timing calls are no-ops, so the timer
+ * can be passed along and used without any checks.
+ */
+public class StageTimer {
+
+    private static final double NANOSECONDS_PER_SECOND = 1_000_000_000D;
+
+    private static final StageTimer SAMPLED = new StageTimer(true);
+    private static final StageTimer DISABLED = new StageTimer(false);
+
+    private static volatile double sampleRate = 1D;
+
+    private final boolean sampled;
+
+    private StageTimer(boolean sampled) {
+        this.sampled = sampled;
+    }
+
+    /**
+     * Gets a stage timer for a new message, the timer will either be
+     * sampled, or disabled, depending on the current sample rate.
+     *
+     * @return The stage timer that should be used for the message.
+     */
+    public static StageTimer sample() {
+        double rate = sampleRate;
+        if (rate >= 1D) {
+            return SAMPLED;
+        }
+
+        if (rate <= 0D) {
+            return DISABLED;
+        }
+
+        return ThreadLocalRandom.current().nextDouble() < rate ? SAMPLED : DISABLED;
+    }
+
+    /**
+     * Gets a stage timer that never records anything.
+     *
+     * @return The disabled stage timer.
+     */
+    public static StageTimer disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Sets the fraction of messages that should have their stages timed, where
+     * <code>1.0</code> times every message, and <code>0.0</code> disables
+     * the stage timings entirely.
+     *
+     * @param rate The sample rate, between 0 and 1.
+     */
+    public static void setSampleRate(double rate) {
+        sampleRate = Math.max(0D, Math.min(1D, rate));
+    }
+
+    /**
+     * Checks if the timer is sampled, and will record the stage timings.
+     *
+     * @return <code>True</code> if the timer is sampled, <code>False</code> otherwise.
+     */
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * Gets the start time for a new stage.
+     *
+     * @return The current value of {@link System#nanoTime()} if the timer is sampled, or 0 otherwise.
+     */
+    public long start() {
+        return sampled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the time spent in the given stage since the given start time.
+     *
+     * @param stage The stage that should be recorded.
+     * @param start The start time returned by {@link #start()} when the stage began.
+     */
+    public void record(@Nonnull Stage stage, long start) {
+        if (sampled) {
+            stage.histogram.observe((System.nanoTime() - start) / NANOSECONDS_PER_SECOND);
+        }
+    }
+
+    /**
+     * Records the time spent in the given middleware, excluding the
+     * time spent in the middlewares further down the stack.
+     *
+     * @param middleware The middleware that should be recorded.
+     * @param nanos      The time in nanoseconds spent in the middleware.
+     */
+    public void record(@Nonnull Middleware middleware, long nanos) {
+        if (sampled) {
+            Metrics.middlewareExecutionTime.labels(middleware.getClass().getSimpleName())
+                .observe(Math.max(0L, nanos) / NANOSECONDS_PER_SECOND);
+        }
+    }
+
+    public enum Stage {
+
+        /**
+         * Checking if the author or guild is on the blacklist.
+         */
+        BLACKLIST("blacklist"),
+
+        /**
+         * Loading the guild and player from the cache, or the database.
+         */
+        DATABASE("database"),
+
+        /**
+         * Rewarding the player with experience.
+         */
+        REWARDS("rewards"),
+
+        /**
+         * Resolving the command, and the prefix, used by the message.
+         */
+        COMMAND_LOOKUP("command-lookup"),
+
+        /**
+         * Running the command itself.
+         */
+        COMMAND("command");
+
+        private final Histogram.Child histogram;
+
+        Stage(String name) {
+            this.histogram = Metrics.messageStageTime.labels(name);
+        }
+    }
+}
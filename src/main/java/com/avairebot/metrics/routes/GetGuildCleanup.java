@@ -23,21 +23,37 @@ package com.avairebot.metrics.routes;
 
 import com.avairebot.Constants;
 import com.avairebot.contracts.metrics.SparkRoute;
-import com.avairebot.database.collection.DataRow;
 import com.avairebot.metrics.Metrics;
+import net.dv8tion.jda.bot.sharding.ShardManager;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import spark.Request;
 import spark.Response;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 
 public class GetGuildCleanup extends SparkRoute {
 
     private static final Logger log = LoggerFactory.getLogger(GetGuildCleanup.class);
 
+    /**
+     * The amount of guild rows loaded from the database at a time, and
+     * the default amount of rows checked for paginated requests.
+     */
+    private static final int PAGE_SIZE = 1000;
+
+    /**
+     * The maximum amount of guild rows that can be checked in a single paginated request.
+     */
+    private static final int MAX_PAGE_SIZE = 10000;
+
     public GetGuildCleanup(Metrics metrics) {
         super(metrics);
     }
@@ -49,18 +65,75 @@ public class GetGuildCleanup extends SparkRoute {
             return buildResponse(response, 401, "Unauthorized request, missing or invalid \"Authorization\" header give.");
         }
 
-        Set<String> missingGuilds = new HashSet<>();
+        // If a cursor is given, even an empty one, only a single page of guilds will be
+        // checked, and the ID of the last guild that was checked is returned as
+        // the cursor for the next page, or null once every guild was checked.
+        String cursor = request.queryParams("cursor");
+        boolean paginated = cursor != null;
+        int pageSize = paginated ? getPageSize(request) : PAGE_SIZE;
+
+        String query = String.format("SELECT `id` FROM `%s` WHERE `id` > ? ORDER BY `id` LIMIT ?",
+            Constants.GUILD_TABLE_NAME
+        );
+
+        ShardManager shardManager = metrics.getAvaire().getShardManager();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+            response.raw().getOutputStream(), StandardCharsets.UTF_8
+        ));
+
+        writer.write("{\"ids\":[");
+
+        String last = cursor == null ? "" : cursor;
+        boolean first = true;
+        int rows;
+
+        do {
+            rows = 0;
+            try (Connection connection = metrics.getAvaire().getDatabase().getConnection().getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setString(1, last);
+                statement.setInt(2, pageSize);
 
-        for (DataRow row : metrics.getAvaire().getDatabase().newQueryBuilder(Constants.GUILD_TABLE_NAME).select("id").get()) {
-            if (metrics.getAvaire().getShardManager().getGuildById(row.getString("id")) == null) {
-                missingGuilds.add(row.getString("id"));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows++;
+                        last = resultSet.getString("id");
+
+                        if (isGuildMissing(shardManager, last)) {
+                            writer.write(first ? "" : ",");
+                            writer.write(JSONObject.quote(last));
+                            first = false;
+                        }
+                    }
+                }
             }
+        } while (!paginated && rows == pageSize);
+
+        writer.write("]");
+        if (paginated) {
+            writer.write(",\"cursor\":");
+            writer.write(rows < pageSize ? "null" : JSONObject.quote(last));
         }
+        writer.write("}");
+        writer.flush();
 
-        JSONObject root = new JSONObject();
-        root.put("ids", missingGuilds);
+        return "";
+    }
 
-        return root;
+    private boolean isGuildMissing(ShardManager shardManager, String id) {
+        try {
+            return shardManager.getGuildById(id) == null;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private int getPageSize(Request request) {
+        try {
+            return Math.max(1, Math.min(MAX_PAGE_SIZE, Integer.parseInt(request.queryParams("limit"))));
+        } catch (NumberFormatException e) {
+            return PAGE_SIZE;
+        }
     }
 
     private boolean hasValidAuthorizationHeader(Request request) {
@@ -21,7 +21,6 @@
 
 package com.avairebot.metrics.routes;
 
-import com.avairebot.Constants;
 import com.avairebot.commands.utility.LeaderboardCommand;
 import com.avairebot.contracts.metrics.SparkRoute;
 import com.avairebot.database.collection.Collection;
@@ -29,15 +28,12 @@ import com.avairebot.database.collection.DataRow;
 import com.avairebot.database.controllers.GuildController;
 import com.avairebot.database.transformers.GuildTransformer;
 import com.avairebot.metrics.Metrics;
-import com.avairebot.utilities.CacheUtil;
 import net.dv8tion.jda.core.entities.Guild;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import spark.Request;
 import spark.Response;
 
-import java.sql.SQLException;
-
 public class GetLeaderboardPlayers extends SparkRoute {
 
     public GetLeaderboardPlayers(Metrics metrics) {
@@ -63,7 +59,9 @@ public class GetLeaderboardPlayers extends SparkRoute {
 
             JSONArray users = new JSONArray();
             if (transformer.isLevels()) {
-                for (DataRow row : loadTop100(guildId.toString())) {
+                Collection collection = LeaderboardCommand.loadTopPlayers(metrics.getAvaire(), guildId);
+
+                for (DataRow row : collection == null ? new Collection() : collection) {
                     JSONObject user = new JSONObject();
                     user.put("id", row.getString("user_id"));
                     user.put("username", row.getString("username"));
@@ -84,18 +82,4 @@ public class GetLeaderboardPlayers extends SparkRoute {
             return buildResponse(response, 404, "Invalid guild ID given, no guild found with the given id.");
         }
     }
-
-    private Collection loadTop100(String guildId) {
-        return (Collection) CacheUtil.getUncheckedUnwrapped(LeaderboardCommand.cache, guildId, () -> {
-            try {
-                return metrics.getAvaire().getDatabase().newQueryBuilder(Constants.PLAYER_EXPERIENCE_TABLE_NAME)
-                    .where("guild_id", guildId)
-                    .orderBy("experience", "desc")
-                    .take(100)
-                    .get();
-            } catch (SQLException e) {
-                return null;
-            }
-        });
-    }
 }
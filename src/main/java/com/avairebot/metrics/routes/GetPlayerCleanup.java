@@ -23,7 +23,6 @@ package com.avairebot.metrics.routes;
 
 import com.avairebot.Constants;
 import com.avairebot.contracts.metrics.SparkRoute;
-import com.avairebot.database.collection.DataRow;
 import com.avairebot.metrics.Metrics;
 import net.dv8tion.jda.core.entities.Guild;
 import org.json.JSONObject;
@@ -32,14 +31,30 @@ import org.slf4j.LoggerFactory;
 import spark.Request;
 import spark.Response;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Set;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 
 public class GetPlayerCleanup extends SparkRoute {
 
     private static final Logger log = LoggerFactory.getLogger(GetGuildCleanup.class);
 
+    /**
+     * The amount of player rows loaded from the database at a time, and
+     * the default amount of rows checked for paginated requests.
+     */
+    private static final int PAGE_SIZE = 1000;
+
+    /**
+     * The maximum amount of player rows that can be checked in a single paginated request.
+     */
+    private static final int MAX_PAGE_SIZE = 10000;
+
     public GetPlayerCleanup(Metrics metrics) {
         super(metrics);
     }
@@ -51,47 +66,102 @@ public class GetPlayerCleanup extends SparkRoute {
             return buildResponse(response, 401, "Unauthorized request, missing or invalid \"Authorization\" header give.");
         }
 
-        Guild guild = null;
-        HashMap<String, Set<String>> missingPlayers = new HashMap<>();
-        for (DataRow dataRow : metrics.getAvaire().getDatabase().newQueryBuilder(Constants.PLAYER_EXPERIENCE_TABLE_NAME)
-            .select("user_id", "guild_id").orderBy("guild_id").get()) {
-
-            if (!missingPlayers.containsKey(dataRow.getString("guild_id"))) {
-                missingPlayers.put(dataRow.getString("guild_id"), new HashSet<>());
+        // If a cursor is given, even an empty one, only a single page of players will be
+        // checked, and the guild and user ID of the last player that was checked is
+        // returned as the cursor for the next page, or null once every player
+        // was checked, a guild may show up in more than one page.
+        String cursor = request.queryParams("cursor");
+        boolean paginated = cursor != null;
+        int pageSize = paginated ? getPageSize(request) : PAGE_SIZE;
+
+        String lastGuildId = "";
+        String lastUserId = "";
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = cursor.split(":", 2);
+            if (parts.length != 2) {
+                return buildResponse(response, 400, "Invalid cursor given, the cursor must be in the format \"guild:user\".");
             }
+            lastGuildId = parts[0];
+            lastUserId = parts[1];
+        }
 
-            if (guild == null || !guild.getId().equalsIgnoreCase(dataRow.getString("guild_id"))) {
-                try {
-                    guild = metrics.getAvaire().getShardManager().getGuildById(dataRow.getString("guild_id"));
-                } catch (Exception ignored) {
-                    addRowToMissingPlayers(missingPlayers, dataRow);
-                }
-            }
+        String query = String.format(
+            "SELECT `guild_id`, `user_id` FROM `%s` WHERE `guild_id` IS NOT NULL AND `user_id` IS NOT NULL "
+                + "AND (`guild_id` > ? OR (`guild_id` = ? AND `user_id` > ?)) ORDER BY `guild_id`, `user_id` LIMIT ?",
+            Constants.PLAYER_EXPERIENCE_TABLE_NAME
+        );
 
-            if (guild == null) {
-                addRowToMissingPlayers(missingPlayers, dataRow);
-                continue;
-            }
+        MissingPlayerWriter writer = new MissingPlayerWriter(new BufferedWriter(new OutputStreamWriter(
+            response.raw().getOutputStream(), StandardCharsets.UTF_8
+        )));
 
-            try {
-                if (guild.getMemberById(dataRow.getString("user_id")) == null) {
-                    addRowToMissingPlayers(missingPlayers, dataRow);
+        Guild guild = null;
+        String loadedGuildId = null;
+        int rows;
+
+        do {
+            rows = 0;
+            try (Connection connection = metrics.getAvaire().getDatabase().getConnection().getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setString(1, lastGuildId);
+                statement.setString(2, lastGuildId);
+                statement.setString(3, lastUserId);
+                statement.setInt(4, pageSize);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows++;
+
+                        String guildId = resultSet.getString("guild_id");
+                        String userId = resultSet.getString("user_id");
+
+                        if (!guildId.equals(loadedGuildId)) {
+                            guild = getGuildById(guildId);
+                            loadedGuildId = guildId;
+                        }
+
+                        lastGuildId = guildId;
+                        lastUserId = userId;
+
+                        if (isPlayerMissing(guild, userId)) {
+                            writer.write(guildId, userId);
+                        }
+                    }
                 }
-            } catch (Exception ignored) {
-                addRowToMissingPlayers(missingPlayers, dataRow);
             }
-        }
+        } while (!paginated && rows == pageSize);
+
+        writer.close(paginated, rows < pageSize ? null : lastGuildId + ":" + lastUserId);
+
+        return "";
+    }
 
-        missingPlayers.entrySet().removeIf(next -> next.getValue().isEmpty());
+    private Guild getGuildById(String guildId) {
+        try {
+            return metrics.getAvaire().getShardManager().getGuildById(guildId);
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
 
-        JSONObject root = new JSONObject();
-        root.put("ids", missingPlayers);
+    private boolean isPlayerMissing(Guild guild, String userId) {
+        if (guild == null) {
+            return true;
+        }
 
-        return root;
+        try {
+            return guild.getMemberById(userId) == null;
+        } catch (Exception ignored) {
+            return true;
+        }
     }
 
-    private void addRowToMissingPlayers(HashMap<String, Set<String>> missingPlayers, DataRow dataRow) {
-        missingPlayers.get(dataRow.getString("guild_id")).add(dataRow.getString("user_id"));
+    private int getPageSize(Request request) {
+        try {
+            return Math.max(1, Math.min(MAX_PAGE_SIZE, Integer.parseInt(request.queryParams("limit"))));
+        } catch (NumberFormatException e) {
+            return PAGE_SIZE;
+        }
     }
 
     private boolean hasValidAuthorizationHeader(Request request) {
@@ -103,4 +173,54 @@ public class GetPlayerCleanup extends SparkRoute {
     private String getAuthorizationToken() {
         return metrics.getAvaire().getConfig().getString("metrics.authToken", "avaire-auth-token");
     }
+
+    /**
+     * Writes the missing players as a JSON object, where the keys are the guild
+     * IDs and the values are arrays of user IDs, since the players are read
+     * in order, each guild array can be closed once the next guild starts.
+     */
+    private static class MissingPlayerWriter {
+
+        private final Writer writer;
+        private String guildId = null;
+        private String userId = null;
+
+        MissingPlayerWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.writer.write("{\"ids\":{");
+        }
+
+        void write(String guildId, String userId) throws IOException {
+            if (!guildId.equals(this.guildId)) {
+                if (this.guildId != null) {
+                    writer.write("],");
+                }
+                writer.write(JSONObject.quote(guildId));
+                writer.write(":[");
+            } else if (userId.equals(this.userId)) {
+                return;
+            } else {
+                writer.write(",");
+            }
+
+            writer.write(JSONObject.quote(userId));
+
+            this.guildId = guildId;
+            this.userId = userId;
+        }
+
+        void close(boolean paginated, String cursor) throws IOException {
+            if (guildId != null) {
+                writer.write("]");
+            }
+            writer.write("}");
+
+            if (paginated) {
+                writer.write(",\"cursor\":");
+                writer.write(cursor == null ? "null" : JSONObject.quote(cursor));
+            }
+            writer.write("}");
+            writer.flush();
+        }
+    }
 }
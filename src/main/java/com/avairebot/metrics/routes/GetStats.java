@@ -23,6 +23,7 @@ package com.avairebot.metrics.routes;
 
 import com.avairebot.contracts.metrics.SparkRoute;
 import com.avairebot.metrics.Metrics;
+import com.avairebot.shard.ShardEntityCounter;
 import net.dv8tion.jda.core.JDA;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -66,13 +67,14 @@ public class GetStats extends SparkRoute {
     private JSONArray buildShards() {
         JSONArray shards = new JSONArray();
 
+        ShardEntityCounter counter = metrics.getAvaire().getShardEntityCounter();
         for (JDA shard : metrics.getAvaire().getShardManager().getShards()) {
             JSONObject stats = new JSONObject();
             stats.put("id", shard.getShardInfo().getShardId())
-                .put("guilds", shard.getGuilds().size())
-                .put("users", shard.getUsers().size())
+                .put("guilds", counter.getGuilds(shard))
+                .put("users", counter.getUsers(shard))
                 .put("status", shard.getStatus())
-                .put("channels", (shard.getTextChannels().size() + shard.getVoiceChannels().size()))
+                .put("channels", counter.getChannels(shard))
                 .put("latency", shard.getPing());
 
             shards.put(stats);
@@ -24,22 +24,30 @@ package com.avairebot.metrics.routes;
 import com.avairebot.Constants;
 import com.avairebot.contracts.metrics.SparkRoute;
 import com.avairebot.metrics.Metrics;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import net.dv8tion.jda.core.entities.Guild;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import spark.Request;
 import spark.Response;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.util.HashSet;
-import java.util.Set;
+import java.sql.SQLException;
 
 public class PostGuildCleanup extends SparkRoute {
 
     private static final Logger log = LoggerFactory.getLogger(PostGuildCleanup.class);
 
+    /**
+     * The maximum amount of guilds deleted in a single batch.
+     */
+    private static final int BATCH_SIZE = 500;
+
     public PostGuildCleanup(Metrics metrics) {
         super(metrics);
     }
@@ -51,51 +59,91 @@ public class PostGuildCleanup extends SparkRoute {
             return buildResponse(response, 401, "Unauthorized request, missing or invalid \"Authorization\" header give.");
         }
 
-        Set<Long> idsToDelete = new HashSet<>();
-        JSONObject obj = new JSONObject(request.body());
+        String query = String.format("DELETE FROM `%s` WHERE `id` = ?",
+            Constants.GUILD_TABLE_NAME
+        );
 
-        for (Object id : obj.getJSONArray("ids").toList()) {
-            try {
-                long idLong = Long.parseLong(id.toString());
+        log.debug("Starting \"Guild Cleanup\" route task with query: " + query);
 
-                Guild guild = metrics.getAvaire().getShardManager().getGuildById(idLong);
-                if (guild != null) {
-                    continue;
+        int deleted = 0;
+        try (Connection connection = metrics.getAvaire().getDatabase().getConnection().getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query);
+                 JsonReader reader = new JsonReader(new InputStreamReader(
+                     request.raw().getInputStream(), StandardCharsets.UTF_8
+                 ))) {
+                connection.setAutoCommit(false);
+
+                // The IDs are read from the request body one at a time, and deleted in
+                // batches, so the entire list of IDs never has to be held in memory.
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (!reader.nextName().equals("ids")) {
+                        reader.skipValue();
+                        continue;
+                    }
+
+                    int batchSize = 0;
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        long id = readMissingGuildId(reader);
+                        if (id < 0) {
+                            continue;
+                        }
+
+                        preparedStatement.setLong(1, id);
+                        preparedStatement.addBatch();
+                        if (++batchSize >= BATCH_SIZE) {
+                            deleted += executeBatch(connection, preparedStatement, batchSize);
+                            batchSize = 0;
+                        }
+                    }
+                    reader.endArray();
+
+                    deleted += executeBatch(connection, preparedStatement, batchSize);
+                }
+                reader.endObject();
+            } finally {
+                if (connection.getAutoCommit() != autoCommit) {
+                    connection.setAutoCommit(autoCommit);
                 }
-
-                idsToDelete.add(idLong);
-            } catch (NumberFormatException ignored) {
-
             }
         }
 
-        Connection connection = metrics.getAvaire().getDatabase().getConnection().getConnection();
-        String query = String.format("DELETE FROM `%s` WHERE `id` = ?",
-            Constants.GUILD_TABLE_NAME
-        );
+        log.debug("Finished \"Guild Cleanup\" route task, deleted {} records in the process", deleted);
 
-        log.debug("Starting \"Guild Cleanup\" route task with query: " + query);
+        return buildResponse(response, 200, String.format("Done, successfully deleted %s records", deleted));
+    }
+
+    private long readMissingGuildId(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.STRING && reader.peek() != JsonToken.NUMBER) {
+            reader.skipValue();
+            return -1;
+        }
 
-        boolean autoCommit = connection.getAutoCommit();
-        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            connection.setAutoCommit(false);
+        try {
+            long idLong = Long.parseLong(reader.nextString());
 
-            for (Long id : idsToDelete) {
-                preparedStatement.setLong(1, id);
-                preparedStatement.addBatch();
+            Guild guild = metrics.getAvaire().getShardManager().getGuildById(idLong);
+            if (guild != null) {
+                return -1;
             }
 
-            preparedStatement.executeBatch();
-            connection.commit();
+            return idLong;
+        } catch (NumberFormatException ignored) {
+            return -1;
         }
+    }
 
-        if (connection.getAutoCommit() != autoCommit) {
-            connection.setAutoCommit(autoCommit);
+    private int executeBatch(Connection connection, PreparedStatement preparedStatement, int batchSize) throws SQLException {
+        if (batchSize == 0) {
+            return 0;
         }
 
-        log.debug("Finished \"Guild Cleanup\" route task, deleted {} records in the process", idsToDelete.size());
+        preparedStatement.executeBatch();
+        connection.commit();
 
-        return buildResponse(response, 200, String.format("Done, successfully deleted %s records", idsToDelete.size()));
+        return batchSize;
     }
 
     private boolean hasValidAuthorizationHeader(Request request) {
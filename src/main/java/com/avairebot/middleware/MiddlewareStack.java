@@ -27,6 +27,7 @@ import com.avairebot.contracts.commands.Command;
 import com.avairebot.contracts.middleware.Middleware;
 import com.avairebot.handlers.DatabaseEventHolder;
 import com.avairebot.metrics.Metrics;
+import com.avairebot.metrics.StageTimer;
 import com.avairebot.middleware.global.IncrementMetricsForCommand;
 import com.avairebot.middleware.global.IsCategoryEnabled;
 import com.avairebot.middleware.global.ProcessCommand;
@@ -47,14 +48,23 @@ public class MiddlewareStack {
     private final List<MiddlewareContainer> middlewares = new ArrayList<>();
     private final DatabaseEventHolder databaseEventHolder;
     private final boolean mentionableCommand;
+    private final StageTimer timer;
 
     private int index = -1;
 
-    public MiddlewareStack(Message message, CommandContainer command, DatabaseEventHolder databaseEventHolder, boolean mentionableCommand) {
+    /**
+     * The time in nanoseconds spent in the last middleware that returned, used
+     * to exclude the time spent in the middlewares further down the stack
+     * from the execution time of the middleware that called them.
+     */
+    private long nestedNanos = 0;
+
+    public MiddlewareStack(Message message, CommandContainer command, DatabaseEventHolder databaseEventHolder, boolean mentionableCommand, StageTimer timer) {
         this.message = message;
         this.command = command;
         this.mentionableCommand = mentionableCommand;
         this.databaseEventHolder = databaseEventHolder;
+        this.timer = timer;
 
         middlewares.add(new MiddlewareContainer(processCommand));
 
@@ -66,6 +76,10 @@ public class MiddlewareStack {
         Metrics.commandAttempts.labels(command.getClass().getSimpleName()).inc();
     }
 
+    public MiddlewareStack(Message message, CommandContainer command, DatabaseEventHolder databaseEventHolder, boolean mentionableCommand) {
+        this(message, command, databaseEventHolder, mentionableCommand, StageTimer.sample());
+    }
+
     public MiddlewareStack(Message message, CommandContainer command, DatabaseEventHolder databaseEventHolder) {
         this(message, command, databaseEventHolder, false);
     }
@@ -121,10 +135,28 @@ public class MiddlewareStack {
         }
 
         MiddlewareContainer middlewareContainer = middlewares.get(--index);
+        Middleware middleware = middlewareContainer.getMiddleware();
 
-        return middlewareContainer
-            .getMiddleware()
-            .handle(message, this, middlewareContainer.getArguments());
+        if (!timer.isSampled()) {
+            return middleware.handle(message, this, middlewareContainer.getArguments());
+        }
+
+        long start = System.nanoTime();
+        nestedNanos = 0;
+
+        try {
+            return middleware.handle(message, this, middlewareContainer.getArguments());
+        } finally {
+            long elapsed = System.nanoTime() - start;
+
+            if (middleware == processCommand) {
+                timer.record(StageTimer.Stage.COMMAND, start);
+            } else {
+                timer.record(middleware, elapsed - nestedNanos);
+            }
+
+            nestedNanos = elapsed;
+        }
     }
 
     /**
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.requests;
+
+import com.avairebot.metrics.Metrics;
+import okhttp3.Interceptor;
+
+import java.io.IOException;
+
+/**
+ * Records if the responses for requests made through the shared HTTP client
+ * were served from the response cache, validated against the server using
+ * a conditional request, or had to be fetched from the network.
+ */
+public class CacheMetricsInterceptor implements Interceptor {
+
+    @Override
+    public okhttp3.Response intercept(Chain chain) throws IOException {
+        okhttp3.Response response = chain.proceed(chain.request());
+
+        String result = "miss";
+        if (response.cacheResponse() != null) {
+            result = response.networkResponse() == null ? "hit" : "conditional";
+        }
+
+        Metrics.httpCacheRequests.labels(chain.request().url().host(), result).inc();
+
+        return response;
+    }
+}
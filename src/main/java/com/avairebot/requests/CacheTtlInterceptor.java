@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.requests;
+
+import okhttp3.Interceptor;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Overrides the cache headers for successful responses from hosts that have a cache TTL
+ * set, this allows the response cache to store responses from services that either
+ * doesn't send any cache headers, or sends headers that prevents caching entirely.
+ */
+public class CacheTtlInterceptor implements Interceptor {
+
+    private final Map<String, Integer> cacheTtl;
+
+    /**
+     * Creates the cache TTL interceptor for the given hosts.
+     *
+     * @param cacheTtl The amount of seconds responses should be cached for, keyed by the lowercase host name.
+     */
+    public CacheTtlInterceptor(Map<String, Integer> cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+
+    @Override
+    public okhttp3.Response intercept(Chain chain) throws IOException {
+        okhttp3.Response response = chain.proceed(chain.request());
+
+        Integer seconds = cacheTtl.get(chain.request().url().host().toLowerCase());
+        if (seconds == null || !response.isSuccessful() || !"GET".equals(chain.request().method())) {
+            return response;
+        }
+
+        return response.newBuilder()
+            .header("Cache-Control", "public, max-age=" + seconds)
+            .removeHeader("Pragma")
+            .removeHeader("Expires")
+            .build();
+    }
+}
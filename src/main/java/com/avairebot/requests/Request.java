@@ -22,8 +22,12 @@
 package com.avairebot.requests;
 
 import com.avairebot.contracts.async.Future;
+import com.avairebot.factories.RequestFactory;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -49,10 +53,14 @@ public class Request extends Future {
     }
 
     public Request(String url, RequestType type) {
+        this(RequestFactory.getClient(), url, type);
+    }
+
+    public Request(OkHttpClient client, String url, RequestType type) {
         this.url = url;
         this.type = type;
 
-        client = new OkHttpClient();
+        this.client = client;
         builder = new okhttp3.Request.Builder();
         headers.put("User-Agent", "Mozilla/5.0");
     }
@@ -67,6 +75,19 @@ public class Request extends Future {
         return this;
     }
 
+    /**
+     * Enqueues the request on the shared HTTP client, the success and failure consumers
+     * are invoked on the HTTP dispatcher threads, not on the future thread that the
+     * request was sent from, so consumers that block will hold on to a dispatcher
+     * thread until they return.
+     * <p>
+     * The response body is closed once the success consumer returns, so the connection is
+     * always handed back to the shared connection pool, the body must therefore be read
+     * before the consumer returns, it can't be handed off to another thread.
+     *
+     * @param success Never-null success consumer.
+     * @param failure Never-null failure consumer.
+     */
     protected void handle(Consumer success, Consumer<Throwable> failure) {
         try {
             builder.url(buildUrl());
@@ -81,7 +102,23 @@ public class Request extends Future {
                     break;
             }
 
-            success.accept(new Response(client.newCall(builder.build()).execute()));
+            client.newCall(builder.build()).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    failure.accept(e);
+                }
+
+                @Override
+                public void onResponse(Call call, okhttp3.Response response) {
+                    try {
+                        success.accept(new Response(response));
+                    } catch (Exception ex) {
+                        failure.accept(ex);
+                    } finally {
+                        response.close();
+                    }
+                }
+            });
         } catch (Exception ex) {
             failure.accept(ex);
         }
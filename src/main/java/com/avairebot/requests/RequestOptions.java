@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.requests;
+
+import com.avairebot.Constants;
+import com.avairebot.config.Configuration;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class RequestOptions {
+
+    /**
+     * The maximum amount of idle connections the shared
+     * HTTP client should keep open in its connection pool.
+     */
+    private int maxIdleConnections = 10;
+
+    /**
+     * The amount of time in milliseconds an idle connection
+     * is kept alive before it is evicted from the pool.
+     */
+    private long keepAlive = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * The maximum amount of requests that can be executed concurrently,
+     * requests above the limit will be queued until a request finishes.
+     */
+    private int maxRequests = 64;
+
+    /**
+     * The maximum amount of requests that can be executed concurrently for each host.
+     */
+    private int maxRequestsPerHost = 5;
+
+    /**
+     * The amount of time in milliseconds before connecting to a host times out.
+     */
+    private long connectTimeout = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * The amount of time in milliseconds before reading a response times out.
+     */
+    private long readTimeout = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * The directory the HTTP response cache is stored in.
+     */
+    private File cacheDirectory = new File(Constants.STORAGE_PATH, "http-cache");
+
+    /**
+     * The maximum size in bytes of the HTTP response cache,
+     * setting the size to zero will disable the cache.
+     */
+    private long cacheSize = 50 * 1024 * 1024;
+
+    /**
+     * The amount of seconds responses from the given hosts should be cached for,
+     * overriding the cache headers the host responded with, this allows caching
+     * responses from services that doesn't send any cache headers at all.
+     */
+    private Map<String, Integer> cacheTtl = new HashMap<>();
+
+    /**
+     * Creates the request options from the <code>http</code> section
+     * of the given configuration, any missing values will
+     * fallback to their default values.
+     *
+     * @param config The configuration to load the request options from.
+     * @return The request options loaded from the config.
+     */
+    public static RequestOptions fromConfig(Configuration config) {
+        RequestOptions defaults = new RequestOptions();
+
+        RequestOptions options = new RequestOptions()
+            .setMaxIdleConnections(config.getInt("http.max-idle-connections", defaults.getMaxIdleConnections()))
+            .setKeepAlive(config.getLong("http.keep-alive", defaults.getKeepAlive()))
+            .setMaxRequests(config.getInt("http.max-requests", defaults.getMaxRequests()))
+            .setMaxRequestsPerHost(config.getInt("http.max-requests-per-host", defaults.getMaxRequestsPerHost()))
+            .setConnectTimeout(config.getLong("http.connect-timeout", defaults.getConnectTimeout()))
+            .setReadTimeout(config.getLong("http.read-timeout", defaults.getReadTimeout()))
+            .setCacheSize(config.getLong("http.cache-size", defaults.getCacheSize()));
+
+        for (Map<?, ?> item : config.getMapList("http.cache-ttl")) {
+            Object host = item.get("host");
+            Object seconds = item.get("seconds");
+
+            if (host != null && seconds instanceof Number) {
+                options.setCacheTtl(host.toString(), ((Number) seconds).intValue());
+            }
+        }
+
+        return options;
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public RequestOptions setMaxIdleConnections(int maxIdleConnections) {
+        this.maxIdleConnections = Math.max(0, maxIdleConnections);
+        return this;
+    }
+
+    public long getKeepAlive() {
+        return keepAlive;
+    }
+
+    public RequestOptions setKeepAlive(long keepAlive) {
+        this.keepAlive = Math.max(1, keepAlive);
+        return this;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public RequestOptions setMaxRequests(int maxRequests) {
+        this.maxRequests = Math.max(1, maxRequests);
+        return this;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    public RequestOptions setMaxRequestsPerHost(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = Math.max(1, maxRequestsPerHost);
+        return this;
+    }
+
+    public long getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public RequestOptions setConnectTimeout(long connectTimeout) {
+        this.connectTimeout = Math.max(0, connectTimeout);
+        return this;
+    }
+
+    public long getReadTimeout() {
+        return readTimeout;
+    }
+
+    public RequestOptions setReadTimeout(long readTimeout) {
+        this.readTimeout = Math.max(0, readTimeout);
+        return this;
+    }
+
+    public File getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    public RequestOptions setCacheDirectory(File cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+        return this;
+    }
+
+    public long getCacheSize() {
+        return cacheSize;
+    }
+
+    public RequestOptions setCacheSize(long cacheSize) {
+        this.cacheSize = Math.max(0, cacheSize);
+        return this;
+    }
+
+    public Map<String, Integer> getCacheTtl() {
+        return Collections.unmodifiableMap(cacheTtl);
+    }
+
+    public RequestOptions setCacheTtl(String host, int seconds) {
+        cacheTtl.put(host.toLowerCase(), seconds);
+        return this;
+    }
+}
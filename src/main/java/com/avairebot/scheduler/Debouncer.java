@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.scheduler;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces bursts of tasks submitted for the same key into a single task run, the
+ * task for a key is run once no new task has been submitted for the key within
+ * the quiet period, or once the max delay has passed since the first task
+ * in the burst was submitted, whichever happens first.
+ * <p>
+ * Only the last task submitted for a key within a burst will be run, every
+ * debouncer has its own thread that runs its tasks, so the tasks doesn't
+ * compete with the jobs on the shared scheduler, or with each other.
+ *
+ * @param <K> The type of the keys the tasks are grouped by.
+ */
+public class Debouncer<K> {
+
+    private static final Logger log = LoggerFactory.getLogger(Debouncer.class);
+
+    private static final Set<Debouncer<?>> debouncers = new CopyOnWriteArraySet<>();
+
+    private final String name;
+    private final ScheduledThreadPoolExecutor executor;
+    private final long quietPeriod;
+    private final long maxDelay;
+    private final Map<K, Pending> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new debouncer with the given quiet period and max delay.
+     *
+     * @param name        The name of the debouncer, used for logging.
+     * @param quietPeriod The time in milliseconds that must pass without any new tasks
+     *                    for a key before the last task for the key is run.
+     * @param maxDelay    The maximum time in milliseconds a task can be delayed for since
+     *                    the first task in the burst was submitted.
+     */
+    public Debouncer(@Nonnull String name, long quietPeriod, long maxDelay) {
+        this.name = name;
+        this.quietPeriod = Math.max(0, quietPeriod);
+        this.maxDelay = Math.max(this.quietPeriod, maxDelay);
+
+        this.executor = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+            .setNameFormat("avaire-debouncer-" + name + "-%d")
+            .setDaemon(true)
+            .build()
+        );
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+        debouncers.add(this);
+    }
+
+    /**
+     * Shuts down every debouncer, running all of their pending tasks right away on the
+     * calling thread, this should be called before the application shuts down to
+     * make sure the pending tasks aren't lost.
+     */
+    public static void shutdownAll() {
+        for (Debouncer<?> debouncer : debouncers) {
+            debouncer.shutdown();
+        }
+    }
+
+    /**
+     * Submits the given task for the given key, replacing any task that is
+     * already waiting to be run for the key within the current burst.
+     *
+     * @param key  The key the task should be grouped by.
+     * @param task The task that should be run once the key goes quiet.
+     */
+    public void submit(@Nonnull K key, @Nonnull Runnable task) {
+        boolean[] rejected = new boolean[1];
+
+        pending.compute(key, (k, entry) -> {
+            long now = System.currentTimeMillis();
+            if (entry == null) {
+                try {
+                    executor.schedule(() -> fire(key), quietPeriod, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    rejected[0] = true;
+                    return null;
+                }
+                entry = new Pending(now);
+            }
+
+            entry.lastSubmitted = now;
+            entry.task = task;
+
+            return entry;
+        });
+
+        // The debouncer has been shut down, so there is nothing left
+        // to run the task later, we'll just run it right away instead.
+        if (rejected[0]) {
+            run(key, task);
+        }
+    }
+
+    /**
+     * Runs all the pending tasks for the debouncer right away on the calling thread.
+     */
+    public void flush() {
+        for (K key : pending.keySet()) {
+            Pending entry = pending.remove(key);
+            if (entry != null) {
+                run(key, entry.task);
+            }
+        }
+    }
+
+    /**
+     * Shuts down the debouncer, the task that is currently being run, if any, is allowed
+     * to finish, and all the pending tasks are then run right away on the calling
+     * thread, tasks submitted after the debouncer is shut down are run right away.
+     */
+    public void shutdown() {
+        executor.shutdown();
+
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("The {} debouncer took too long to finish its running task, flushing the pending tasks anyway", name);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        flush();
+    }
+
+    /**
+     * Gets the amount of keys that currently has a task waiting to be run.
+     *
+     * @return The amount of keys with a pending task.
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    private void fire(K key) {
+        Pending[] ready = new Pending[1];
+
+        pending.computeIfPresent(key, (k, entry) -> {
+            long delay = entry.getDeadline(quietPeriod, maxDelay) - System.currentTimeMillis();
+            if (delay > 0) {
+                try {
+                    executor.schedule(() -> fire(key), delay, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException ignored) {
+                    // The debouncer is being shut down, the entry is left
+                    // pending so it will be run by the shutdown flush.
+                }
+                return entry;
+            }
+
+            ready[0] = entry;
+            return null;
+        });
+
+        if (ready[0] != null) {
+            run(key, ready[0].task);
+        }
+    }
+
+    private void run(K key, Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("The {} debouncer failed to run the task for {}: {}", name, key, e.getMessage(), e);
+        }
+    }
+
+    private static class Pending {
+
+        private final long firstSubmitted;
+        private volatile long lastSubmitted;
+        private volatile Runnable task;
+
+        Pending(long firstSubmitted) {
+            this.firstSubmitted = firstSubmitted;
+            this.lastSubmitted = firstSubmitted;
+        }
+
+        long getDeadline(long quietPeriod, long maxDelay) {
+            return Math.min(lastSubmitted + quietPeriod, firstSubmitted + maxDelay);
+        }
+    }
+}
@@ -84,9 +84,9 @@ public class SyncStatsWithBeaconJob extends Job {
 
             shardObj.put("id", shard.getShardInfo().getShardId());
             shardObj.put("latency", shard.getPing());
-            shardObj.put("users", shard.getUsers().size());
-            shardObj.put("channels", getTotalChannels(shard));
-            shardObj.put("guilds", shard.getGuilds().size());
+            shardObj.put("users", avaire.getShardEntityCounter().getUsers(shard));
+            shardObj.put("channels", avaire.getShardEntityCounter().getChannels(shard));
+            shardObj.put("guilds", avaire.getShardEntityCounter().getGuilds(shard));
 
             shards.put(shardObj);
         }
@@ -94,9 +94,4 @@ public class SyncStatsWithBeaconJob extends Job {
 
         return main.toString();
     }
-
-    private int getTotalChannels(JDA jda) {
-        return jda.getTextChannels().size()
-            + jda.getVoiceChannels().size();
-    }
 }
@@ -32,6 +32,7 @@ public class RunEveryMinuteJob extends Job {
     private final ChangeGameTask changeGameTask = new ChangeGameTask();
     private final GarbageCollectorTask garbageCollectorTask = new GarbageCollectorTask();
     private final SyncBlacklistMetricsTask syncBlacklistMetricsTask = new SyncBlacklistMetricsTask();
+    private final SyncShardEntityCounterTask syncShardEntityCounterTask = new SyncShardEntityCounterTask();
     private final ResetRespectStatisticsTask resetRespectStatisticsTask = new ResetRespectStatisticsTask();
     private final DeleteExpiredBlacklistEntitiesTask deleteExpiredBlacklistEntitiesTask = new DeleteExpiredBlacklistEntitiesTask();
     private final UpdateWebsocketHeartbeatMetricsTask updateWebsocketHeartbeatMetricsTask = new UpdateWebsocketHeartbeatMetricsTask();
@@ -49,6 +50,7 @@ public class RunEveryMinuteJob extends Job {
             changeGameTask,
             garbageCollectorTask,
             syncBlacklistMetricsTask,
+            syncShardEntityCounterTask,
             resetRespectStatisticsTask,
             deleteExpiredBlacklistEntitiesTask,
             updateWebsocketHeartbeatMetricsTask,
@@ -25,13 +25,13 @@ import com.avairebot.AvaIre;
 import com.avairebot.Constants;
 import com.avairebot.contracts.scheduler.Task;
 import com.avairebot.level.ExperienceEntity;
+import com.avairebot.level.LevelManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
 
 public class SyncPlayerExperienceWithDatabaseTask implements Task {
@@ -40,29 +40,56 @@ public class SyncPlayerExperienceWithDatabaseTask implements Task {
 
     @Override
     public void handle(AvaIre avaire) {
+        if (avaire.getLevelManager().getGlobalLeaderboard().shouldRebuild()) {
+            avaire.getLevelManager().getGlobalLeaderboard().rebuildAsync(avaire);
+        }
+
         if (avaire.getLevelManager().getExperienceQueue().isEmpty()) {
             return;
         }
 
-        List<ExperienceEntity> experienceQueue;
-        synchronized (avaire.getLevelManager().getExperienceQueue()) {
-            experienceQueue = new ArrayList<>(avaire.getLevelManager().getExperienceQueue());
-            avaire.getLevelManager().getExperienceQueue().clear();
+        List<ExperienceEntity> experienceQueue = avaire.getLevelManager().drainExperienceQueue();
+        if (experienceQueue.isEmpty()) {
+            return;
         }
 
-        Connection connection = null;
+        Connection connection;
         try {
             connection = avaire.getDatabase().getConnection().getConnection();
+        } catch (SQLException e) {
+            logSQLException(e);
+
+            avaire.getLevelManager().requeueExperience(experienceQueue);
+            return;
+        }
+
+        sync(avaire.getLevelManager(), connection, experienceQueue);
+    }
+
+    /**
+     * Writes the given experience entities to the database in a single transaction using
+     * the given connection, if the transaction fails before it is committed it will be
+     * rolled back, and the experience added back onto the experience queue.
+     *
+     * @param levelManager    The level manager the experience queue belongs to.
+     * @param connection      The connection the experience should be written on, the
+     *                        connection is closed once the experience have been written.
+     * @param experienceQueue The experience entities that should be written.
+     */
+    void sync(LevelManager levelManager, Connection connection, List<ExperienceEntity> experienceQueue) {
+        Boolean autoCommit = null;
+        boolean committed = false;
+        try {
             String query = String.format("UPDATE `%s` SET `experience` = ? + `experience` WHERE `user_id` = ? AND `guild_id` = ?",
                 Constants.PLAYER_EXPERIENCE_TABLE_NAME
             );
 
             log.debug("Starting \"Player Experience\" update task with query: " + query);
 
-            boolean autoCommit = connection.getAutoCommit();
-            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-                connection.setAutoCommit(false);
+            autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
 
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
                 for (ExperienceEntity entity : experienceQueue) {
                     preparedStatement.setInt(1, entity.getExperience());
                     preparedStatement.setString(2, "" + entity.getUserId());
@@ -71,22 +98,43 @@ public class SyncPlayerExperienceWithDatabaseTask implements Task {
                 }
 
                 preparedStatement.executeBatch();
-                connection.commit();
-            }
-
-            if (connection.getAutoCommit() != autoCommit) {
-                connection.setAutoCommit(autoCommit);
+                levelManager.getGlobalLeaderboard().commit(connection, experienceQueue);
+                committed = true;
             }
 
             log.debug("Finished \"Player Experience\" task, updated {} records in the process", experienceQueue.size());
         } catch (SQLException e) {
             logSQLException(e);
-            if (connection != null) {
+
+            // Once the batch have been committed the experience is stored in the
+            // database, so anything failing after that point must not cause
+            // the experience to be rolled back, or added twice.
+            if (!committed) {
                 try {
                     connection.rollback();
                 } catch (SQLException e1) {
                     logSQLException(e1);
                 }
+
+                // The batch is rolled back, so the experience is added back onto
+                // the queue to be synced the next time the task runs instead.
+                levelManager.requeueExperience(experienceQueue);
+            }
+        } finally {
+            // The auto commit mode is restored after the rollback, since changing
+            // it in the middle of a transaction would commit the transaction.
+            if (autoCommit != null) {
+                try {
+                    connection.setAutoCommit(autoCommit);
+                } catch (SQLException e) {
+                    logSQLException(e);
+                }
+            }
+
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logSQLException(e);
             }
         }
     }
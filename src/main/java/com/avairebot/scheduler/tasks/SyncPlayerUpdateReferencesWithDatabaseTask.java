@@ -89,6 +89,14 @@ public class SyncPlayerUpdateReferencesWithDatabaseTask implements Task {
                     logSQLException(e1);
                 }
             }
+        } finally {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    logSQLException(e);
+                }
+            }
         }
     }
 
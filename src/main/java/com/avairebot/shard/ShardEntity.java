@@ -21,36 +21,94 @@
 
 package com.avairebot.shard;
 
-import com.avairebot.AvaIre;
 import com.avairebot.contracts.shard.EntityGenerator;
 import net.dv8tion.jda.core.JDA;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 public class ShardEntity {
 
     private final EntityGenerator generator;
 
-    private long value = 0;
-    private long lastUpdate = -1;
+    /**
+     * The last known entity value for each shard, mapped by the shard ID.
+     */
+    private final Map<Integer, Long> shards = new ConcurrentHashMap<>();
+
+    /**
+     * The sum of the entity values for all the shards, every time the value
+     * for a shard changes, the difference between the old and the new value
+     * is added to the total, so reading the total never has to go
+     * through the shards.
+     */
+    private final AtomicLong value = new AtomicLong(0);
 
     ShardEntity(EntityGenerator generator) {
         this.generator = generator;
     }
 
-    public long getValue(AvaIre avaire) {
-        if (isOutdated()) {
-            long count = 0;
-            for (JDA shard : avaire.getShardManager().getShards()) {
-                count += generator.generateEntity(shard);
-            }
-            value = count;
+    /**
+     * Gets the total entity value across all the shards.
+     *
+     * @return The total entity value.
+     */
+    public long getValue() {
+        return value.get();
+    }
 
-            lastUpdate = System.currentTimeMillis() + 15000;
+    /**
+     * Gets the last known entity value for the given shard.
+     *
+     * @param shard The shard that the entity value should be returned for.
+     * @return The entity value for the given shard.
+     */
+    public long getValue(JDA shard) {
+        Long count = shards.get(getShardId(shard));
+        if (count == null) {
+            return update(shard);
         }
+        return count;
+    }
+
+    /**
+     * Regenerates the entity value for the given shard, and
+     * updates the total value to match the new value.
+     *
+     * @param shard The shard that should be updated.
+     * @return The new entity value for the given shard.
+     */
+    long update(JDA shard) {
+        long count = generator.generateEntity(shard);
+        Long previous = shards.put(getShardId(shard), count);
+
+        value.addAndGet(count - (previous == null ? 0 : previous));
 
-        return value;
+        return count;
+    }
+
+    /**
+     * Removes every shard that isn't in the given set of shard IDs from
+     * the entity, and subtracts their entity values from the total.
+     *
+     * @param shardIds The IDs of the shards that should be kept.
+     */
+    void retain(Set<Integer> shardIds) {
+        for (Integer shardId : shards.keySet()) {
+            if (shardIds.contains(shardId)) {
+                continue;
+            }
+
+            Long previous = shards.remove(shardId);
+            if (previous != null) {
+                value.addAndGet(-previous);
+            }
+        }
     }
 
-    private boolean isOutdated() {
-        return lastUpdate < System.currentTimeMillis();
+    private int getShardId(JDA shard) {
+        return shard.getShardInfo() == null ? 0 : shard.getShardInfo().getShardId();
     }
 }
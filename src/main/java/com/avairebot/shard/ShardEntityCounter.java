@@ -22,27 +22,125 @@
 package com.avairebot.shard;
 
 import com.avairebot.AvaIre;
+import net.dv8tion.jda.core.JDA;
 
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keeps track of the amount of guilds, channels, and users across all the shards, the
+ * counters are kept up to date by the JDA events that can change them, only the
+ * shard the event came from is updated, using the sizes of its entity caches.
+ * <p>
+ * The counters are reconciled with every shard once in a while, to catch
+ * any changes that happened without an event, like a shard reconnecting.
+ */
 public class ShardEntityCounter {
 
     private final AvaIre avaire;
 
-    private final ShardEntity guilds = new ShardEntity(shard -> shard.getGuilds().size());
-    private final ShardEntity textChannels = new ShardEntity(shard -> shard.getTextChannels().size());
-    private final ShardEntity voiceChannels = new ShardEntity(shard -> shard.getVoiceChannels().size());
-    private final ShardEntity users = new ShardEntity(shard -> shard.getUsers().size());
+    private final ShardEntity guilds = new ShardEntity(shard -> shard.getGuildCache().size());
+    private final ShardEntity textChannels = new ShardEntity(shard -> shard.getTextChannelCache().size());
+    private final ShardEntity voiceChannels = new ShardEntity(shard -> shard.getVoiceChannelCache().size());
+    private final ShardEntity users = new ShardEntity(shard -> shard.getUserCache().size());
+
+    private volatile boolean reconciled = false;
 
     public ShardEntityCounter(AvaIre avaire) {
         this.avaire = avaire;
     }
 
+    /**
+     * Updates every counter for the given shard, this should be called
+     * when a shard is ready, or has resumed or reconnected to Discord.
+     *
+     * @param shard The shard that should be updated.
+     */
+    public void onShardConnect(JDA shard) {
+        guilds.update(shard);
+        textChannels.update(shard);
+        voiceChannels.update(shard);
+        users.update(shard);
+    }
+
+    /**
+     * Updates every counter for the given shard, this should be called
+     * when the shard joins or leaves a guild, since the guild channels
+     * and members are added or removed together with the guild.
+     *
+     * @param shard The shard that joined or left a guild.
+     */
+    public void onGuildChange(JDA shard) {
+        onShardConnect(shard);
+    }
+
+    /**
+     * Updates the text channels counter for the given shard.
+     *
+     * @param shard The shard that a text channel was created or deleted in.
+     */
+    public void onTextChannelChange(JDA shard) {
+        textChannels.update(shard);
+    }
+
+    /**
+     * Updates the voice channels counter for the given shard.
+     *
+     * @param shard The shard that a voice channel was created or deleted in.
+     */
+    public void onVoiceChannelChange(JDA shard) {
+        voiceChannels.update(shard);
+    }
+
+    /**
+     * Updates the users counter for the given shard.
+     *
+     * @param shard The shard that a member joined or left a guild in.
+     */
+    public void onMemberChange(JDA shard) {
+        users.update(shard);
+    }
+
+    /**
+     * Updates every counter for every shard, and removes
+     * shards that no longer exists from the counters.
+     */
+    public void reconcile() {
+        if (avaire.getShardManager() == null) {
+            return;
+        }
+
+        Set<Integer> shardIds = new HashSet<>();
+        for (JDA shard : avaire.getShardManager().getShards()) {
+            shardIds.add(shard.getShardInfo() == null ? 0 : shard.getShardInfo().getShardId());
+            onShardConnect(shard);
+        }
+
+        guilds.retain(shardIds);
+        textChannels.retain(shardIds);
+        voiceChannels.retain(shardIds);
+        users.retain(shardIds);
+
+        reconciled = true;
+    }
+
     /**
      * Gets the total amount of guilds shared between all the shards of the bot.
      *
      * @return The total amount of guilds for the bot.
      */
     public long getGuilds() {
-        return guilds.getValue(avaire);
+        return getValue(guilds);
+    }
+
+    /**
+     * Gets the amount of guilds for the given shard.
+     *
+     * @param shard The shard that the guilds should be counted for.
+     * @return The amount of guilds for the given shard.
+     */
+    public long getGuilds(JDA shard) {
+        return guilds.getValue(shard);
     }
 
     /**
@@ -51,7 +149,7 @@ public class ShardEntityCounter {
      * @return The total amount of text channels for the bot.
      */
     public long getTextChannels() {
-        return textChannels.getValue(avaire);
+        return getValue(textChannels);
     }
 
     /**
@@ -60,7 +158,7 @@ public class ShardEntityCounter {
      * @return The total amount of voice channels for the bot.
      */
     public long getVoiceChannels() {
-        return voiceChannels.getValue(avaire);
+        return getValue(voiceChannels);
     }
 
     /**
@@ -72,12 +170,39 @@ public class ShardEntityCounter {
         return getTextChannels() + getVoiceChannels();
     }
 
+    /**
+     * Gets the amount of text and voice channels for the given shard.
+     *
+     * @param shard The shard that the channels should be counted for.
+     * @return The amount of text and voice channels for the given shard.
+     */
+    public long getChannels(JDA shard) {
+        return textChannels.getValue(shard) + voiceChannels.getValue(shard);
+    }
+
     /**
      * Gets the total amount of users shared between all shards of the bot.
      *
      * @return The total amount of users for the bot.
      */
     public long getUsers() {
-        return users.getValue(avaire);
+        return getValue(users);
+    }
+
+    /**
+     * Gets the amount of users for the given shard.
+     *
+     * @param shard The shard that the users should be counted for.
+     * @return The amount of users for the given shard.
+     */
+    public long getUsers(JDA shard) {
+        return users.getValue(shard);
+    }
+
+    private long getValue(ShardEntity entity) {
+        if (!reconciled) {
+            reconcile();
+        }
+        return entity.getValue();
     }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.utilities;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public class ClassIndexUtil {
+
+    /**
+     * The resource path for the index of every {@link com.avairebot.contracts.reflection.Reflectional}
+     * class, the index is generated at compile time by the class index annotation processor.
+     */
+    public static final String REFLECTIONAL_INDEX = "META-INF/avaire/reflectional.index";
+
+    /**
+     * The resource path for the index of every JDA event, the index is
+     * generated at compile time by the class index annotation processor.
+     */
+    public static final String JDA_EVENTS_INDEX = "META-INF/avaire/jda-events.index";
+
+    private static final Logger log = LoggerFactory.getLogger(ClassIndexUtil.class);
+
+    /**
+     * Loads all the classes from the given index that are a sub type of the given type, and
+     * are within the given package, every index resource with the given name on the
+     * classpath will be loaded, so plugins can ship their own class indexes.
+     *
+     * @param index       The resource path for the class index that should be loaded.
+     * @param packagePath The package the classes must be within, the sub packages are included.
+     * @param type        The type the classes must be a sub type of.
+     * @param <T>         The type the classes must be a sub type of.
+     * @return A set of the indexed classes, or <code>NULL</code> if no index exists on the classpath.
+     */
+    @Nullable
+    public static <T> Set<Class<? extends T>> getSubTypesOf(@Nonnull String index, @Nonnull String packagePath, @Nonnull Class<T> type) {
+        Set<String> classNames = read(index);
+        if (classNames == null) {
+            return null;
+        }
+
+        ClassLoader classLoader = ClassIndexUtil.class.getClassLoader();
+        Set<Class<? extends T>> types = new LinkedHashSet<>();
+
+        for (String className : classNames) {
+            if (!className.startsWith(packagePath + ".")) {
+                continue;
+            }
+
+            try {
+                Class<?> indexedClass = Class.forName(className, false, classLoader);
+                if (type.isAssignableFrom(indexedClass)) {
+                    types.add(indexedClass.asSubclass(type));
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                log.warn("Failed to load the indexed class {} from the {} index: {}", className, index, e.getMessage());
+            }
+        }
+
+        return types;
+    }
+
+    /**
+     * Reads every class name from all the index resources with the given name on the classpath.
+     *
+     * @param index The resource path for the class index that should be read.
+     * @return A set of the indexed class names, or <code>NULL</code> if no index exists on the classpath.
+     */
+    @Nullable
+    public static Set<String> read(@Nonnull String index) {
+        try {
+            Enumeration<URL> resources = ClassIndexUtil.class.getClassLoader().getResources(index);
+            if (!resources.hasMoreElements()) {
+                return null;
+            }
+
+            Set<String> classNames = new LinkedHashSet<>();
+            while (resources.hasMoreElements()) {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    resources.nextElement().openStream(), StandardCharsets.UTF_8
+                ))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        if (!line.isEmpty()) {
+                            classNames.add(line);
+                        }
+                    }
+                }
+            }
+
+            return classNames;
+        } catch (IOException e) {
+            log.warn("Failed to read the {} class index: {}", index, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -25,12 +25,17 @@ import net.dv8tion.jda.core.entities.*;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @SuppressWarnings("WeakerAccess")
 public class StringReplacementUtil {
 
+    private static final String[] guildKeys = new String[]{"%server%", "%servername%", "%serverid%"};
+    private static final String[] channelKeys = new String[]{"%channel%", "%channelname%", "%channelid%"};
+    private static final String[] userKeys = new String[]{"%user%", "%userid%", "%username%", "%userdisc%"};
+
     /**
      * Replaces all occurrences of the given key with the given value in the given string.
      *
@@ -44,10 +49,7 @@ public class StringReplacementUtil {
             return string;
         }
 
-        return string.replaceAll(
-            Pattern.quote(key),
-            Matcher.quoteReplacement(value)
-        );
+        return StringTemplate.replace(string, key, value);
     }
 
     /**
@@ -62,11 +64,14 @@ public class StringReplacementUtil {
      * @return The parsed string after all the placeholders was replaced with the actual values.
      */
     public static String parse(@Nonnull Guild guild, @Nonnull TextChannel channel, @Nonnull User user, @Nonnull String message) {
-        return StringReplacementUtil.parseChannel(channel,
-            StringReplacementUtil.parseUser(user,
-                StringReplacementUtil.parseGuild(guild, message)
-            )
-        ).replaceAll("%br%", "\n");
+        List<String> keys = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+
+        collect(keys, values, guildKeys, guildValues(guild));
+        collect(keys, values, userKeys, userValues(user));
+        collect(keys, values, channelKeys, channelValues(channel));
+
+        return replaceWithLineBreaks(message, keys, values);
     }
 
     /**
@@ -81,27 +86,30 @@ public class StringReplacementUtil {
      * @return The parsed string after the placeholders was replaced with the actual values.
      */
     public static String parse(@Nonnull Message message, @Nonnull String string, @Nonnull ReplacementType... types) {
+        List<String> keys = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+
         for (ReplacementType type : types) {
-            string = type.function.parse(message, string);
+            type.function.collect(message, keys, values);
         }
-        return string.replaceAll("%br%", "\n");
+
+        return replaceWithLineBreaks(string, keys, values);
     }
 
     /**
-     * Converts the message object to a guild object and parses the guild
-     * and string to the {@link #parseGuild(Guild, String)} method.
+     * Collects the guild placeholders for the given message, if the
+     * message wasn't sent in a guild nothing will be collected.
      *
      * @param message The message that the guild should be retrieved from.
-     * @param string  The original string that should be parsed.
-     * @return The parsed string if the given message contains a valid guild instance,
-     * otherwise it will just return the original unchanged string.
+     * @param keys    The list of placeholder keys the guild keys should be added to.
+     * @param values  The list of placeholder values the guild values should be added to.
      */
-    private static String toGuild(Message message, String string) {
+    private static void toGuild(Message message, List<String> keys, List<String> values) {
         if (!message.getChannelType().isGuild()) {
-            return string;
+            return;
         }
 
-        return parseGuild(message.getGuild(), string);
+        collect(keys, values, guildKeys, guildValues(message.getGuild()));
     }
 
     /**
@@ -113,24 +121,18 @@ public class StringReplacementUtil {
      * @return The parsed string after all the guild placeholders was parsed.
      */
     public static String parseGuild(@Nonnull Guild guild, @Nonnull String string) {
-        string = string.replaceAll("%server%", Matcher.quoteReplacement(guild.getName()));
-        string = string.replaceAll("%servername%", Matcher.quoteReplacement(guild.getName()));
-        string = string.replaceAll("%serverid%", guild.getId());
-
-        return string;
+        return StringTemplate.replace(string, guildKeys, guildValues(guild));
     }
 
     /**
-     * Converts the message object to a channel object and parses the channel
-     * and string to the {@link #parseChannel(Channel, String)} method.
+     * Collects the channel placeholders for the text channel the given message was sent in.
      *
      * @param message The message that the channel should be retrieved from.
-     * @param string  The original string that should be parsed.
-     * @return The parsed string if the given message contains a valid channel instance,
-     * otherwise it will just return the original unchanged string.
+     * @param keys    The list of placeholder keys the channel keys should be added to.
+     * @param values  The list of placeholder values the channel values should be added to.
      */
-    private static String toChannel(@Nonnull Message message, @Nonnull String string) {
-        return parseChannel(message.getTextChannel(), string);
+    private static void toChannel(@Nonnull Message message, List<String> keys, List<String> values) {
+        collect(keys, values, channelKeys, channelValues(message.getTextChannel()));
     }
 
     /**
@@ -142,23 +144,18 @@ public class StringReplacementUtil {
      * @return The parsed string after all the channel placeholders was parsed.
      */
     public static String parseChannel(@Nonnull Channel channel, @Nonnull String string) {
-        string = string.replaceAll("%channel%", "<#" + channel.getId() + ">");
-        string = string.replaceAll("%channelname%", Matcher.quoteReplacement(channel.getName()));
-        string = string.replaceAll("%channelid%", channel.getId());
-
-        return string;
+        return StringTemplate.replace(string, channelKeys, channelValues(channel));
     }
 
     /**
-     * Converts the message object to a user object and parses the user
-     * and string to the {@link #parseUser(User, String)} method.
+     * Collects the user placeholders for the author of the given message.
      *
      * @param message The message that the user should be retrieved from.
-     * @param string  The original string that should be parsed.
-     * @return The parsed string using the given message author instance.
+     * @param keys    The list of placeholder keys the user keys should be added to.
+     * @param values  The list of placeholder values the user values should be added to.
      */
-    private static String toUser(@Nonnull Message message, @Nonnull String string) {
-        return parseUser(message.getAuthor(), string);
+    private static void toUser(@Nonnull Message message, List<String> keys, List<String> values) {
+        collect(keys, values, userKeys, userValues(message.getAuthor()));
     }
 
     /**
@@ -170,12 +167,34 @@ public class StringReplacementUtil {
      * @return The parsed string after all the user placeholders was parsed.
      */
     public static String parseUser(@Nonnull User user, @Nonnull String string) {
-        string = string.replaceAll("%user%", "<@" + user.getId() + ">");
-        string = string.replaceAll("%userid%", user.getId());
-        string = string.replaceAll("%username%", Matcher.quoteReplacement(user.getName()));
-        string = string.replaceAll("%userdisc%", user.getDiscriminator());
+        return StringTemplate.replace(string, userKeys, userValues(user));
+    }
+
+    private static String[] guildValues(Guild guild) {
+        return new String[]{guild.getName(), guild.getName(), guild.getId()};
+    }
 
-        return string;
+    private static String[] channelValues(Channel channel) {
+        return new String[]{"<#" + channel.getId() + ">", channel.getName(), channel.getId()};
+    }
+
+    private static String[] userValues(User user) {
+        return new String[]{"<@" + user.getId() + ">", user.getId(), user.getName(), user.getDiscriminator()};
+    }
+
+    private static void collect(List<String> keys, List<String> values, String[] typeKeys, String[] typeValues) {
+        keys.addAll(Arrays.asList(typeKeys));
+        values.addAll(Arrays.asList(typeValues));
+    }
+
+    private static String replaceWithLineBreaks(String string, List<String> keys, List<String> values) {
+        keys.add("%br%");
+        values.add("\n");
+
+        return StringTemplate.replace(string,
+            keys.toArray(new String[0]),
+            values.toArray(new String[0])
+        );
     }
 
     /**
@@ -211,14 +230,14 @@ public class StringReplacementUtil {
     private interface ReplacementFunction {
 
         /**
-         * Converts the message object to the required replacement
-         * type object and parses the string.
+         * Converts the message object to the required replacement type object and collects
+         * its placeholder keys and values, if the message doesn't contain the required
+         * replacement type object nothing will be collected.
          *
          * @param message The message that the replacement type object should be retrieved from.
-         * @param string  The original string that should be parsed.
-         * @return The parsed string if the given message object contained the required replacement
-         * type object, otherwise it will just return the original unchanged string.
+         * @param keys    The list of placeholder keys that should be added to.
+         * @param values  The list of placeholder values that should be added to.
          */
-        String parse(Message message, String string);
+        void collect(Message message, List<String> keys, List<String> values);
     }
 }
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.utilities;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A compiled placeholder template, the template string is split into literal text and
+ * placeholder slots once, so rendering the template with a set of values is just a
+ * single pass that appends the literals and values to a {@link StringBuilder}.
+ * <p>
+ * Templates produce the exact same output as replacing each of the placeholder keys
+ * one after another, in the order they're given, using {@link String#replace}. The
+ * template is compiled by applying the same replacements to the literal text, and
+ * if a value could be matched by one of the later keys, the template will fall
+ * back to replacing the keys one after another to preserve the output.
+ */
+public class StringTemplate {
+
+    /**
+     * The compiled templates, keyed by the template string and the placeholder keys.
+     */
+    public static final Cache<String, StringTemplate> cache = CacheBuilder.newBuilder()
+        .recordStats()
+        .maximumSize(5000)
+        .expireAfterAccess(30, TimeUnit.MINUTES)
+        .build();
+
+    private final String[] literals;
+    private final int[] slots;
+    private final char trigger;
+    private final boolean sequential;
+    private final int length;
+
+    private StringTemplate(String[] literals, int[] slots, char trigger, boolean sequential) {
+        this.literals = literals;
+        this.slots = slots;
+        this.trigger = trigger;
+        this.sequential = sequential;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.length = length;
+    }
+
+    /**
+     * Replaces every occurrence of the given key with the given value in the given string.
+     *
+     * @param string The string that the key should be replaced in.
+     * @param key    The key that should be replaced.
+     * @param value  The value that the key should be replaced with.
+     * @return The string with the key replaced with the given value.
+     */
+    public static String replace(@Nonnull String string, @Nonnull String key, @Nonnull String value) {
+        return replace(string, new String[]{key}, new String[]{value});
+    }
+
+    /**
+     * Replaces every occurrence of the given keys with their values in the given string, the
+     * keys are replaced in the order they're given, just like calling {@link String#replace}
+     * for each key one after another, keys with a <code>NULL</code> value are skipped.
+     *
+     * @param string The string that the keys should be replaced in.
+     * @param keys   The keys that should be replaced.
+     * @param values The values the keys should be replaced with, in the same order as the keys.
+     * @return The string with the keys replaced with their values.
+     */
+    public static String replace(@Nullable String string, @Nonnull String[] keys, @Nonnull String[] values) {
+        if (string == null) {
+            return null;
+        }
+
+        int size = 0;
+        for (String value : values) {
+            if (value != null) {
+                size++;
+            }
+        }
+
+        if (size == 0) {
+            return string;
+        }
+
+        if (size != keys.length) {
+            String[] filteredKeys = new String[size];
+            String[] filteredValues = new String[size];
+
+            for (int i = 0, index = 0; i < keys.length; i++) {
+                if (values[i] != null) {
+                    filteredKeys[index] = keys[i];
+                    filteredValues[index++] = values[i];
+                }
+            }
+
+            keys = filteredKeys;
+            values = filteredValues;
+        }
+
+        StringTemplate template = compile(string, keys);
+        if (template.slots.length == 0 && !template.sequential) {
+            return string;
+        }
+
+        String rendered = template.render(values);
+        if (rendered != null) {
+            return rendered;
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+            string = string.replace(keys[i], values[i]);
+        }
+        return string;
+    }
+
+    /**
+     * Compiles the given template string using the given placeholder keys, templates that
+     * contains at least one placeholder are cached, so compiling the same template
+     * with the same keys again will just return the cached template.
+     *
+     * @param template The template string that should be compiled.
+     * @param keys     The placeholder keys, in the order they should be replaced.
+     * @return The compiled template.
+     */
+    public static StringTemplate compile(@Nonnull String template, @Nonnull String... keys) {
+        StringBuilder cacheKey = new StringBuilder(template.length() + keys.length * 12).append(template);
+        for (String key : keys) {
+            cacheKey.append('\u0000').append(key);
+        }
+
+        String token = cacheKey.toString();
+
+        StringTemplate compiled = cache.getIfPresent(token);
+        if (compiled == null) {
+            compiled = parse(template, keys);
+
+            // Templates without any placeholders are usually already rendered
+            // messages, so they're not cached to prevent them from pushing
+            // the actual templates out of the cache.
+            if (compiled.slots.length > 0 || compiled.sequential) {
+                cache.put(token, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Renders the template using the given values.
+     *
+     * @param values The values for the placeholders, in the same order as the keys the template was compiled with.
+     * @return Possibly-null, the rendered string, or null if the template can't be rendered in a single
+     * pass with the given values, because one of the values could be matched by one of the keys.
+     */
+    @Nullable
+    public String render(@Nonnull String[] values) {
+        if (sequential) {
+            return null;
+        }
+
+        int size = length;
+        for (int slot : slots) {
+            // If a value contains the character every key starts with, the value could
+            // contain one of the keys that are replaced after the value was inserted,
+            // and would've had that key replaced when replacing keys one at a time.
+            if (values[slot].indexOf(trigger) >= 0) {
+                return null;
+            }
+            size += values[slot].length();
+        }
+
+        StringBuilder builder = new StringBuilder(size);
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(literals[i]).append(values[slots[i]]);
+        }
+        return builder.append(literals[slots.length]).toString();
+    }
+
+    private static StringTemplate parse(String template, String[] keys) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        literals.add(template);
+
+        char trigger = keys.length == 0 || keys[0].isEmpty() ? 0 : keys[0].charAt(0);
+        boolean sequential = false;
+
+        for (int keyIndex = 0; keyIndex < keys.length; keyIndex++) {
+            String key = keys[keyIndex];
+            if (key.isEmpty() || key.charAt(0) != trigger) {
+                sequential = true;
+            }
+
+            List<String> newLiterals = new ArrayList<>();
+            List<Integer> newSlots = new ArrayList<>();
+
+            for (int i = 0; i < literals.size(); i++) {
+                String literal = literals.get(i);
+
+                // If the end of the literal is the start of the key, and the literal is followed
+                // by a value, the key could be matched across the literal and the value, so
+                // the template has to be rendered by replacing the keys one at a time.
+                if (i < slots.size() && endsWithStartOf(literal, key)) {
+                    sequential = true;
+                }
+
+                int from = 0;
+                int index;
+                while (!key.isEmpty() && (index = literal.indexOf(key, from)) >= 0) {
+                    newLiterals.add(literal.substring(from, index));
+                    newSlots.add(keyIndex);
+                    from = index + key.length();
+                }
+                newLiterals.add(from == 0 ? literal : literal.substring(from));
+
+                if (i < slots.size()) {
+                    newSlots.add(slots.get(i));
+                }
+            }
+
+            literals = newLiterals;
+            slots = newSlots;
+        }
+
+        int[] slotArray = new int[slots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+        }
+
+        return new StringTemplate(literals.toArray(new String[0]), slotArray, trigger, sequential);
+    }
+
+    private static boolean endsWithStartOf(String literal, String key) {
+        for (int length = Math.min(literal.length(), key.length() - 1); length > 0; length--) {
+            if (literal.regionMatches(literal.length() - length, key, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.ai;
+
+import ai.api.model.AIResponse;
+import ai.api.model.Result;
+import ai.api.model.Status;
+import com.avairebot.BaseTest;
+import com.avairebot.commands.CommandMessage;
+import com.avairebot.contracts.ai.Intent;
+import com.avairebot.contracts.ai.IntelligenceService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntelligenceManagerTests extends BaseTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger requests = new AtomicInteger();
+    private IntelligenceManager manager;
+
+    @Before
+    public void setUp() {
+        IntelligenceManager.cache.invalidateAll();
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        if (manager != null) {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    public void testQueriesAreNormalized() {
+        assertEquals("hi", IntelligenceManager.normalize("Hi"));
+        assertEquals("hi", IntelligenceManager.normalize("  hi!! "));
+        assertEquals("how are you", IntelligenceManager.normalize("How   are\tyou?"));
+        assertEquals("", IntelligenceManager.normalize("?!"));
+    }
+
+    @Test
+    public void testIdenticalQueriesAreOnlySentOnce() throws Exception {
+        manager = new IntelligenceManager(localService(), 2, 2, 10, 5000);
+
+        AIResponse first = manager.query("Hi!").get(1, TimeUnit.SECONDS);
+        AIResponse second = manager.query("hi").get(1, TimeUnit.SECONDS);
+
+        assertEquals(1, requests.get());
+        assertSame(first, second);
+        assertEquals("smalltalk.greetings.hi", second.getResult().getAction());
+    }
+
+    @Test
+    public void testConcurrentQueriesShareTheSameRequest() throws Exception {
+        manager = new IntelligenceManager(query -> {
+            requests.incrementAndGet();
+            release.await();
+            return createResponse(query);
+        }, 2, 2, 10, 5000);
+
+        CompletableFuture<AIResponse> first = manager.query("how are you");
+        CompletableFuture<AIResponse> second = manager.query("How are you?");
+
+        assertSame(first, second);
+
+        release.countDown();
+        first.get(1, TimeUnit.SECONDS);
+
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testUnansweredQueriesTimeOut() throws Exception {
+        manager = new IntelligenceManager(query -> {
+            release.await();
+            return createResponse(query);
+        }, 1, 1, 10, 50);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () ->
+            manager.query("hello").get(1, TimeUnit.SECONDS)
+        );
+
+        assertTrue(exception.getCause() instanceof TimeoutException);
+
+        assertNull(IntelligenceManager.cache.getIfPresent("hello"));
+    }
+
+    @Test
+    public void testTimedOutQueriesAreInterrupted() throws Exception {
+        manager = new IntelligenceManager(query -> {
+            if (query.equals("hello")) {
+                release.await();
+            }
+            return createResponse(query);
+        }, 1, 1, 10, 100);
+
+        assertThrows(ExecutionException.class, () -> manager.query("hello").get(1, TimeUnit.SECONDS));
+
+        // The only intelligence thread is freed up once the hanging request
+        // is interrupted, so the next query can still be answered.
+        assertEquals("smalltalk.greetings.hi", manager.query("hi").get(1, TimeUnit.SECONDS).getResult().getAction());
+    }
+
+    @Test
+    public void testTimedOutQueriesThatIgnoreInterruptsDoNotHoldTheThreads() throws Exception {
+        manager = new IntelligenceManager(query -> {
+            // Acts like a socket read, which doesn't stop when it's interrupted.
+            while (query.equals("hello") && release.getCount() > 0) {
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                    //
+                }
+            }
+            return createResponse(query);
+        }, 1, 1, 10, 100);
+
+        assertThrows(ExecutionException.class, () -> manager.query("hello").get(1, TimeUnit.SECONDS));
+
+        assertEquals("smalltalk.greetings.hi", manager.query("hi").get(1, TimeUnit.SECONDS).getResult().getAction());
+    }
+
+    @Test
+    public void testIntentsAreFoundByTheirAction() {
+        manager = new IntelligenceManager(localService(), 1, 1, 10, 5000);
+
+        Intent smallTalk = new LocalIntent("smalltalk.*");
+        Intent greetings = new LocalIntent("smalltalk.greetings.*");
+        Intent hello = new LocalIntent("smalltalk.greetings.hello");
+
+        assertTrue(manager.registerIntent(smallTalk));
+        assertTrue(manager.registerIntent(greetings));
+        assertTrue(manager.registerIntent(hello));
+
+        assertSame(hello, manager.findIntent("smalltalk.greetings.hello"));
+        assertSame(greetings, manager.findIntent("smalltalk.greetings.bye"));
+        assertSame(smallTalk, manager.findIntent("smalltalk.agent.age"));
+        assertNull(manager.findIntent("smalltalk"));
+        assertNull(manager.findIntent("request.cat"));
+        assertNull(manager.findIntent(null));
+    }
+
+    @Test
+    public void testDisabledManagerDoesNotRegisterIntents() {
+        manager = new IntelligenceManager(null, 1, 1, 10, 5000);
+
+        assertFalse(manager.isEnabled());
+        assertFalse(manager.registerIntent(new LocalIntent("smalltalk.*")));
+    }
+
+    private IntelligenceService localService() {
+        return query -> {
+            requests.incrementAndGet();
+            return createResponse(query);
+        };
+    }
+
+    private AIResponse createResponse(String query) {
+        Status status = new Status();
+        status.setCode(200);
+
+        Result result = new Result();
+        result.setAction("smalltalk.greetings." + IntelligenceManager.normalize(query).replace(" ", "_"));
+
+        AIResponse response = new AIResponse();
+        response.setStatus(status);
+        response.setResult(result);
+
+        return response;
+    }
+
+    private static class LocalIntent extends Intent {
+
+        private final String action;
+
+        LocalIntent(String action) {
+            super(null);
+            this.action = action;
+        }
+
+        @Override
+        public String getAction() {
+            return action;
+        }
+
+        @Override
+        public void onIntent(CommandMessage message, AIResponse response) {
+            //
+        }
+    }
+}
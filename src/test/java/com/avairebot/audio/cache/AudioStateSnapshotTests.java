@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.audio.cache;
+
+import com.avairebot.BaseTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AudioStateSnapshotTests extends BaseTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("avaire-audio-state", ".bin");
+    }
+
+    @After
+    public void tearDown() {
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    @Test
+    public void testAudioStatesCanBeWrittenAndReadBack() throws IOException {
+        AudioCache playing = new AudioCache("https://example.com/playing.mp3", 10L, 42000L, new byte[]{1, 2, 3});
+        AudioCache queued = new AudioCache("https://example.com/queued.mp3", 11L, 0L, null);
+
+        try (AudioStateSnapshot.Writer writer = AudioStateSnapshot.createWriter(file)) {
+            writer.write(new AudioState(1L, 2L, 3L, 75, playing, Collections.singletonList(queued)));
+            writer.write(new AudioState(4L, 5L, 6L, 100, null, Collections.emptyList()));
+        }
+
+        Map<Long, AudioState> states = AudioStateSnapshot.read(file);
+        assertEquals(2, states.size());
+
+        AudioState state = states.get(1L);
+        assertEquals(2L, state.getVoiceChannelId());
+        assertEquals(3L, state.getMessageChannelId());
+        assertEquals(75, state.getVolume());
+
+        assertEquals("https://example.com/playing.mp3", state.getPlayingTrack().getTrackUrl());
+        assertEquals(10L, state.getPlayingTrack().getRequestedBy());
+        assertEquals(42000L, state.getPlayingTrack().getPosition());
+        assertTrue(Arrays.equals(new byte[]{1, 2, 3}, state.getPlayingTrack().getTrack()));
+
+        assertEquals(1, state.getQueue().size());
+        assertEquals("https://example.com/queued.mp3", state.getQueue().get(0).getTrackUrl());
+        assertNull(state.getQueue().get(0).getTrack());
+
+        assertNull(states.get(4L).getPlayingTrack());
+        assertTrue(states.get(4L).getQueue().isEmpty());
+    }
+
+    @Test
+    public void testMissingSnapshotReturnsNoAudioStates() throws IOException {
+        assertTrue(file.delete());
+        assertTrue(AudioStateSnapshot.read(file).isEmpty());
+    }
+
+    @Test
+    public void testTruncatedSnapshotReturnsTheCompleteAudioStates() throws IOException {
+        try (AudioStateSnapshot.Writer writer = AudioStateSnapshot.createWriter(file)) {
+            for (long i = 0; i < 50; i++) {
+                writer.write(new AudioState(i, 0L, 0L, 100, new AudioCache("track-" + i, i, 0L, new byte[512]), Collections.emptyList()));
+            }
+        }
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(randomAccessFile.length() - 32);
+        }
+
+        Map<Long, AudioState> states;
+        try {
+            states = AudioStateSnapshot.read(file);
+        } catch (IOException e) {
+            // The compressed stream may also fail before the last audio state
+            // is reached, which is handled by the caller like any read error.
+            return;
+        }
+
+        assertTrue(states.size() < 50);
+        for (AudioState state : states.values()) {
+            assertEquals("track-" + state.getGuildId(), state.getPlayingTrack().getTrackUrl());
+        }
+    }
+}
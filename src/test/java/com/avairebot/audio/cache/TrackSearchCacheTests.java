@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.audio.cache;
+
+import com.avairebot.BaseTest;
+import com.avairebot.audio.source.TrackSearchCacheSourceManager;
+import com.sedmelluq.discord.lavaplayer.player.AudioLoadResultHandler;
+import com.sedmelluq.discord.lavaplayer.player.DefaultAudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.source.local.LocalAudioSourceManager;
+import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrackSearchCacheTests extends BaseTest {
+
+    private final AtomicInteger localLookups = new AtomicInteger();
+
+    private DefaultAudioPlayerManager playerManager;
+    private TrackSearchCache trackSearchCache;
+    private File audioFile;
+
+    @Before
+    public void setUp() throws IOException {
+        TrackSearchCache.cache.invalidateAll();
+
+        playerManager = new DefaultAudioPlayerManager();
+        trackSearchCache = new TrackSearchCache(playerManager, null);
+
+        playerManager.registerSourceManager(new TrackSearchCacheSourceManager(trackSearchCache));
+        playerManager.registerSourceManager(new LocalAudioSourceManager() {
+            @Override
+            public AudioItem loadItem(DefaultAudioPlayerManager manager, AudioReference reference) {
+                localLookups.incrementAndGet();
+                return super.loadItem(manager, reference);
+            }
+        });
+
+        audioFile = createSilentWaveFile();
+    }
+
+    @After
+    public void tearDown() {
+        playerManager.shutdown();
+        TrackSearchCache.cache.invalidateAll();
+
+        if (audioFile != null) {
+            //noinspection ResultOfMethodCallIgnored
+            audioFile.delete();
+        }
+    }
+
+    @Test
+    public void testSearchQueriesAreNormalized() {
+        assertEquals("ytsearch:never gonna give you up", TrackSearchCache.normalize(" ytsearch:  Never  Gonna Give\tYou Up "));
+        assertEquals("scsearch:some song", TrackSearchCache.normalize("scsearch:Some Song"));
+    }
+
+    @Test
+    public void testUrlsOnlyHaveTheirWhitespaceTrimmed() {
+        assertEquals("https://www.youtube.com/watch?v=dQw4w9WgXcQ", TrackSearchCache.normalize(" https://www.youtube.com/watch?v=dQw4w9WgXcQ "));
+    }
+
+    @Test
+    public void testResolvedTracksAreServedFromTheCache() throws Exception {
+        AudioTrack first = load(audioFile.getAbsolutePath());
+        AudioTrack second = load(audioFile.getAbsolutePath());
+
+        assertEquals(1, localLookups.get());
+        assertEquals(1, TrackSearchCache.cache.size());
+
+        assertNotSame(first, second);
+        assertEquals(first.getIdentifier(), second.getIdentifier());
+        assertEquals(first.getDuration(), second.getDuration());
+        assertEquals(first.getSourceManager().getSourceName(), second.getSourceManager().getSourceName());
+    }
+
+    @Test
+    public void testForgottenTracksAreResolvedAgain() throws Exception {
+        load(audioFile.getAbsolutePath());
+        trackSearchCache.forget(audioFile.getAbsolutePath());
+        load(audioFile.getAbsolutePath());
+
+        assertEquals(2, localLookups.get());
+    }
+
+    @Test
+    public void testFailedLookupsAreNotCached() throws Exception {
+        String identifier = new File(audioFile.getParentFile(), "missing-" + audioFile.getName()).getAbsolutePath();
+
+        assertNull(load(identifier));
+        assertNull(load(identifier));
+
+        assertEquals(2, localLookups.get());
+        assertEquals(0, TrackSearchCache.cache.size());
+    }
+
+    private AudioTrack load(String identifier) throws Exception {
+        CompletableFuture<AudioTrack> future = new CompletableFuture<>();
+
+        trackSearchCache.loadItemOrdered(this, identifier, new AudioLoadResultHandler() {
+            @Override
+            public void trackLoaded(AudioTrack track) {
+                future.complete(track);
+            }
+
+            @Override
+            public void playlistLoaded(AudioPlaylist playlist) {
+                future.complete(playlist.getTracks().get(0));
+            }
+
+            @Override
+            public void noMatches() {
+                future.complete(null);
+            }
+
+            @Override
+            public void loadFailed(FriendlyException exception) {
+                future.complete(null);
+            }
+        });
+
+        return future.get(10, TimeUnit.SECONDS);
+    }
+
+    private File createSilentWaveFile() throws IOException {
+        int sampleRate = 48000;
+        int channels = 2;
+        int dataSize = sampleRate * channels * 2;
+
+        ByteBuffer buffer = ByteBuffer.allocate(44 + dataSize).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put("RIFF".getBytes()).putInt(36 + dataSize).put("WAVE".getBytes());
+        buffer.put("fmt ".getBytes()).putInt(16)
+            .putShort((short) 1)
+            .putShort((short) channels)
+            .putInt(sampleRate)
+            .putInt(sampleRate * channels * 2)
+            .putShort((short) (channels * 2))
+            .putShort((short) 16);
+        buffer.put("data".getBytes()).putInt(dataSize);
+
+        File file = File.createTempFile("avaire-track-search", ".wav");
+        Files.write(file.toPath(), buffer.array());
+
+        return file;
+    }
+}
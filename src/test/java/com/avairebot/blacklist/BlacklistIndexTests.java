@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package com.avairebot.blacklist;
+
+import com.avairebot.BaseTest;
+import com.avairebot.time.Carbon;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlacklistIndexTests extends BaseTest {
+
+    @Test
+    public void testUsersAndGuildsAreLookedUpByTheirScope() {
+        BlacklistIndex index = BlacklistIndex.of(Arrays.asList(
+            new BlacklistEntity(Scope.USER, 1, "spam"),
+            new BlacklistEntity(Scope.GUILD, 2, "raids")
+        ));
+
+        assertEquals("spam", index.get(1, Scope.USER).getReason());
+        assertEquals("raids", index.get(2, Scope.GUILD).getReason());
+
+        assertNull(index.get(1, Scope.GUILD));
+        assertNull(index.get(2, Scope.USER));
+        assertNull(index.get(3, null));
+
+        assertTrue(index.contains(1));
+        assertTrue(index.contains(2));
+        assertFalse(index.contains(3));
+    }
+
+    @Test
+    public void testUsersAreCheckedBeforeGuildsWithoutAScope() {
+        BlacklistIndex index = BlacklistIndex.of(Arrays.asList(
+            new BlacklistEntity(Scope.GUILD, 1, "guild"),
+            new BlacklistEntity(Scope.USER, 1, "user"),
+            new BlacklistEntity(Scope.GUILD, 2, "guild")
+        ));
+
+        assertEquals("user", index.get(1, null).getReason());
+        assertEquals("guild", index.get(1, Scope.GUILD).getReason());
+        assertEquals("guild", index.get(2, null).getReason());
+    }
+
+    @Test
+    public void testExpiredEntitiesAreRemoved() {
+        BlacklistIndex index = BlacklistIndex.of(Arrays.asList(
+            new BlacklistEntity(Scope.USER, 1, null, Carbon.now().subSeconds(10)),
+            new BlacklistEntity(Scope.GUILD, 2, null, Carbon.now().subSeconds(10)),
+            new BlacklistEntity(Scope.USER, 3, null, Carbon.now().addMinutes(10)),
+            new BlacklistEntity(Scope.GUILD, 4, null)
+        ));
+
+        assertFalse(index.get(1, Scope.USER).isBlacklisted());
+        assertTrue(index.get(3, Scope.USER).isBlacklisted());
+
+        BlacklistIndex active = index.withoutExpired();
+        assertFalse(active.contains(1));
+        assertFalse(active.contains(2));
+        assertTrue(active.contains(3));
+        assertTrue(active.contains(4));
+        assertEquals(2, active.entities().size());
+
+        // The index the expired entities were removed from is left as it was.
+        assertEquals(4, index.entities().size());
+    }
+
+    @Test
+    public void testChangesCreateANewIndex() {
+        BlacklistIndex index = BlacklistIndex.EMPTY.with(new BlacklistEntity(Scope.USER, 1, "first"));
+        BlacklistIndex replaced = index.with(new BlacklistEntity(Scope.USER, 1, "second"));
+        BlacklistIndex removed = replaced.without(1);
+
+        assertEquals("first", index.get(1, Scope.USER).getReason());
+        assertEquals("second", replaced.get(1, Scope.USER).getReason());
+        assertEquals(1, replaced.entities().size());
+        assertFalse(removed.contains(1));
+        assertTrue(BlacklistIndex.EMPTY.entities().isEmpty());
+    }
+
+    @Test
+    public void testRemovingAnIdRemovesItFromEveryScope() {
+        BlacklistIndex index = BlacklistIndex.of(Arrays.asList(
+            new BlacklistEntity(Scope.USER, 1, null),
+            new BlacklistEntity(Scope.GUILD, 1, null),
+            new BlacklistEntity(Scope.GUILD, 2, null)
+        )).without(1);
+
+        assertFalse(index.contains(1));
+        assertEquals(1, index.entities().size());
+        assertEquals(2, index.entities().get(0).getId());
+    }
+
+    @Test
+    public void testEntitiesMatchTheIndexAfterRandomChanges() {
+        Random random = new Random(1337);
+        BlacklistIndex index = BlacklistIndex.EMPTY;
+        Set<String> expected = new HashSet<>();
+
+        for (int i = 0; i < 2000; i++) {
+            long id = random.nextInt(100);
+
+            if (random.nextBoolean()) {
+                Scope scope = random.nextBoolean() ? Scope.USER : Scope.GUILD;
+                index = index.with(new BlacklistEntity(scope, id, null));
+                expected.add(scope.getPrefix() + ":" + id);
+            } else {
+                index = index.without(id);
+                expected.remove(Scope.USER.getPrefix() + ":" + id);
+                expected.remove(Scope.GUILD.getPrefix() + ":" + id);
+            }
+        }
+
+        List<BlacklistEntity> entities = index.entities();
+        Set<String> actual = new HashSet<>();
+        for (BlacklistEntity entity : entities) {
+            actual.add(entity.getScope().getPrefix() + ":" + entity.getId());
+            assertSame(entity, index.get(entity.getId(), entity.getScope()));
+        }
+
+        assertEquals(expected.size(), entities.size());
+        assertEquals(expected, actual);
+
+        for (long id = 0; id < 100; id++) {
+            boolean listed = expected.contains(Scope.USER.getPrefix() + ":" + id)
+                || expected.contains(Scope.GUILD.getPrefix() + ":" + id);
+
+            assertEquals(listed, index.contains(id));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package com.avairebot.cache;
+
+import com.avairebot.BaseTest;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InteractionImageCacheTests extends BaseTest {
+
+    private final List<String> downloads = new ArrayList<>();
+    private final List<String> failing = new ArrayList<>();
+
+    private File storage;
+
+    @Before
+    public void setUp() throws IOException {
+        storage = Files.createTempDirectory("avaire-interactions").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(storage.toPath())) {
+            //noinspection ResultOfMethodCallIgnored
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testImagesAreOnlyDownloadedOnce() throws IOException {
+        InteractionImageCache cache = createCache();
+
+        assertArrayEquals(image("hug"), cache.get("hug"));
+        assertArrayEquals(image("hug"), cache.get("hug"));
+        assertArrayEquals(image("pat"), cache.get("pat"));
+
+        assertEquals(2, downloads.size());
+    }
+
+    @Test
+    public void testImagesEvictedFromMemoryAreReadFromTheDisk() throws IOException {
+        // Each image is 12 bytes, so only one of them fits in memory.
+        Cache<String, byte[]> memory = memory(16);
+        InteractionImageCache cache = new InteractionImageCache(memory, storage, 1024, this::download);
+
+        cache.get("hug");
+        cache.get("pat");
+        assertNull(memory.getIfPresent("hug"));
+
+        assertArrayEquals(image("hug"), cache.get("hug"));
+        assertEquals(2, downloads.size());
+
+        // A new cache instance using the same storage reads the images from the disk.
+        assertArrayEquals(image("pat"), createCache().get("pat"));
+        assertEquals(2, downloads.size());
+    }
+
+    @Test
+    public void testTheLeastRecentlyUsedImagesAreEvictedFromTheDisk() throws IOException {
+        // Each image is 12 bytes, so only two of them fits on the disk.
+        Cache<String, byte[]> memory = memory(1024);
+        InteractionImageCache cache = new InteractionImageCache(memory, storage, 24, this::download);
+
+        cache.get("image-1");
+        cache.get("image-2");
+        assertTrue(cache.generateCacheFile("image-1").setLastModified(1000));
+        assertTrue(cache.generateCacheFile("image-2").setLastModified(2000));
+
+        cache.get("image-3");
+        assertEquals(2, storage.listFiles().length);
+
+        memory.invalidateAll();
+        downloads.clear();
+
+        cache.get("image-2");
+        cache.get("image-3");
+        assertTrue(downloads.isEmpty());
+
+        cache.get("image-1");
+        assertEquals(1, downloads.size());
+    }
+
+    @Test
+    public void testFailedDownloadsAreNotCached() throws IOException {
+        InteractionImageCache cache = createCache();
+        failing.add("hug");
+
+        assertThrows(IOException.class, () -> cache.get("hug"));
+        assertThrows(IOException.class, () -> cache.get("hug"));
+        assertEquals(2, downloads.size());
+        assertEquals(0, storage.listFiles().length);
+
+        failing.clear();
+
+        assertArrayEquals(image("hug"), cache.get("hug"));
+        assertEquals(3, downloads.size());
+    }
+
+    private InteractionImageCache createCache() {
+        return new InteractionImageCache(memory(1024), storage, 1024, this::download);
+    }
+
+    private Cache<String, byte[]> memory(long maxMemorySize) {
+        return CacheBuilder.newBuilder()
+            .concurrencyLevel(1)
+            .maximumWeight(maxMemorySize)
+            .weigher((String url, byte[] bytes) -> bytes.length)
+            .build();
+    }
+
+    private byte[] download(String url) throws IOException {
+        downloads.add(url);
+        if (failing.contains(url)) {
+            throw new IOException("Failed to download " + url);
+        }
+        return image(url);
+    }
+
+    private byte[] image(String url) {
+        return String.format("%-12s", url).getBytes(StandardCharsets.UTF_8);
+    }
+}
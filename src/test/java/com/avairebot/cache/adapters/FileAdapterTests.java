@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package com.avairebot.cache.adapters;
+
+import com.avairebot.BaseTest;
+import com.avairebot.cache.CacheItem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileAdapterTests extends BaseTest {
+
+    private File storage;
+    private FileAdapter adapter;
+
+    @Before
+    public void setUp() throws IOException {
+        storage = Files.createTempDirectory("avaire-file-cache").toFile();
+        adapter = new FileAdapter(storage);
+        FileAdapter.cache.invalidateAll();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileAdapter.cache.invalidateAll();
+
+        try (Stream<Path> paths = Files.walk(storage.toPath())) {
+            //noinspection ResultOfMethodCallIgnored
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testItemsCanBeWrittenAndReadBack() {
+        assertTrue(adapter.put("test.key", "Hello, World", 60));
+
+        assertTrue(adapter.has("test.key"));
+        assertEquals("Hello, World", adapter.get("test.key"));
+        assertNull(adapter.get("test.missing"));
+        assertFalse(adapter.has("test.missing"));
+    }
+
+    @Test
+    public void testItemsCanBeReadBackFromTheDisk() {
+        assertTrue(adapter.put("test.key", "Hello, World", 60));
+
+        FileAdapter.cache.invalidateAll();
+        FileAdapter adapter = new FileAdapter(storage);
+
+        assertTrue(adapter.has("test.key"));
+        assertEquals("Hello, World", adapter.get("test.key"));
+    }
+
+    @Test
+    public void testMemoryHitsReuseTheParsedItem() {
+        assertTrue(adapter.put("test.key", "Hello, World", 60));
+
+        CacheItem item = adapter.getRaw("test.key");
+        assertNotNull(item);
+        assertSame(item, adapter.getRaw("test.key"));
+    }
+
+    @Test
+    public void testExpiredItemsAreNotReturned() {
+        assertTrue(adapter.put("test.key", "Hello, World", 0));
+
+        assertFalse(adapter.has("test.key"));
+        assertNull(adapter.get("test.key"));
+    }
+
+    @Test
+    public void testRememberOnlyCallsTheClosureOnce() {
+        AtomicInteger calls = new AtomicInteger();
+
+        Supplier<Object> closure = () -> {
+            calls.incrementAndGet();
+            return "value";
+        };
+
+        assertEquals("value", adapter.remember("test.key", 60, closure));
+        assertEquals("value", adapter.remember("test.key", 60, closure));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testForgetRemovesTheItem() {
+        assertTrue(adapter.put("test.key", "Hello, World", 60));
+
+        CacheItem item = adapter.forget("test.key");
+        assertNotNull(item);
+        assertEquals("Hello, World", item.getValue());
+
+        assertFalse(adapter.has("test.key"));
+        assertNull(adapter.get("test.key"));
+        assertNull(new FileAdapter(storage).get("test.key"));
+    }
+
+    @Test
+    public void testLeftOverTemporaryFilesAreDeletedOnStartup() throws IOException {
+        File folder = new File(storage, "ab" + File.separator + "cd");
+        assertTrue(folder.mkdirs());
+
+        File temporaryFile = new File(folder, "0123456789abcdef0123456789ab.tmp");
+        Files.write(temporaryFile.toPath(), "{\"time\":".getBytes());
+
+        new FileAdapter(storage);
+
+        assertFalse(temporaryFile.exists());
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.commands;
+
+import com.avairebot.AvaIre;
+import com.avairebot.BaseTest;
+import com.avairebot.contracts.commands.Command;
+import com.avairebot.database.collection.DataRow;
+import com.avairebot.database.transformers.GuildTransformer;
+import net.dv8tion.jda.core.Region;
+import net.dv8tion.jda.core.entities.Guild;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandDispatchTableTests extends BaseTest {
+
+    private Category utility;
+    private Category system;
+
+    private CommandContainer ping;
+    private CommandContainer pingOverride;
+    private CommandContainer status;
+    private CommandHandler.CommandIndex index;
+
+    @Before
+    public void setUp() {
+        utility = new Category(null, "Utility", "!");
+        system = new Category(null, "System", ";").setGlobal(true);
+
+        ping = container(new TestCommand("ping", utility, CommandPriority.NORMAL, "ping", "pong"));
+        pingOverride = container(new TestCommand("ping-override", utility, CommandPriority.HIGH, "ping"));
+        status = container(new TestCommand("status", system, CommandPriority.NORMAL, "status"));
+
+        index = new CommandHandler.CommandIndex(new HashSet<>(Arrays.asList(ping, pingOverride, status)));
+    }
+
+    @Test
+    public void testCommandsAreResolvedUsingTheDefaultPrefixes() {
+        assertSame(ping, index.defaults.resolve(index, "!pong"));
+        assertSame(status, index.defaults.resolve(index, ";status"));
+
+        assertNull(index.defaults.resolve(index, "?pong"));
+        assertNull(index.defaults.resolve(index, ";pong"));
+        assertNull(index.defaults.resolve(index, "!unknown"));
+    }
+
+    @Test
+    public void testCommandsAreResolvedUsingTheGuildPrefixes() {
+        CommandDispatchTable table = CommandDispatchTable.ofGuild(index, guild(
+            "{\"utility\": \"?\", \"system\": \"?\"}", null
+        ));
+
+        assertSame(ping, table.resolve(index, "?pong"));
+        assertNull(table.resolve(index, "!pong"));
+
+        // Global categories always use their own prefix.
+        assertSame(status, table.resolve(index, ";status"));
+        assertNull(table.resolve(index, "?status"));
+    }
+
+    @Test
+    public void testCommandWithTheHighestPriorityIsResolved() {
+        assertSame(pingOverride, index.defaults.resolve(index, "!ping"));
+        assertSame(pingOverride, index.lazyTriggers.get("ping"));
+    }
+
+    @Test
+    public void testAliasesAreResolvedToTheirCommands() {
+        CommandDispatchTable table = CommandDispatchTable.ofGuild(index, guild(
+            null, "{\"p\": \"!pong\", \"pa\": \"!pong some arguments\", \"broken\": \"!unknown\"}"
+        ));
+
+        assertSame(ping, table.resolveAlias("p"));
+
+        CommandContainer withArguments = table.resolveAlias("pa");
+        assertTrue(withArguments instanceof AliasCommandContainer);
+        assertSame(ping.getCommand(), withArguments.getCommand());
+        assertArrayEquals(new String[]{"some", "arguments"}, ((AliasCommandContainer) withArguments).getAliasArguments());
+
+        assertNull(table.resolveAlias("broken"));
+    }
+
+    @Test
+    public void testAliasesMustMatchExactly() {
+        CommandDispatchTable table = CommandDispatchTable.ofGuild(index, guild(
+            null, "{\"p\": \"!pong\"}"
+        ));
+
+        assertNull(table.resolveAlias("pizza"));
+        assertNull(table.resolveAlias(""));
+    }
+
+    private CommandContainer container(TestCommand command) {
+        return new CommandContainer(command, command.getCategory(), null);
+    }
+
+    private GuildTransformer guild(String prefixes, String aliases) {
+        Guild guild = (Guild) Proxy.newProxyInstance(Guild.class.getClassLoader(), new Class[]{Guild.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getRegion":
+                    return Region.US_EAST;
+
+                case "getId":
+                    return "284083636368834561";
+
+                case "getIdLong":
+                    return 284083636368834561L;
+
+                case "getName":
+                    return "Test Guild";
+
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+
+                case "equals":
+                    return proxy == args[0];
+            }
+            return null;
+        });
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("id", guild.getId());
+        data.put("name", guild.getName());
+        data.put("prefixes", prefixes);
+        data.put("aliases", aliases);
+
+        return new GuildTransformer(guild, new DataRow(data));
+    }
+
+    private static class TestCommand extends Command {
+
+        private final String name;
+        private final Category category;
+        private final CommandPriority priority;
+        private final List<String> triggers;
+
+        TestCommand(String name, Category category, CommandPriority priority, String... triggers) {
+            super((AvaIre) null);
+
+            this.name = name;
+            this.category = category;
+            this.priority = priority;
+            this.triggers = Arrays.asList(triggers);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public List<String> getTriggers() {
+            return triggers;
+        }
+
+        @Override
+        public CommandPriority getCommandPriority() {
+            return priority;
+        }
+
+        @Override
+        public Category getCategory() {
+            return category;
+        }
+
+        @Override
+        public boolean onCommand(CommandMessage context, String[] args) {
+            return true;
+        }
+    }
+}
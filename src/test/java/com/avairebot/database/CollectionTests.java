@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.database;
+
+import com.avairebot.BaseTest;
+import com.avairebot.database.collection.Collection;
+import com.avairebot.database.collection.DataRow;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CollectionTests extends BaseTest {
+
+    @Test
+    public void testResultSetRowsAreDecodedUsingTheColumnType() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE `players` (`id` INTEGER, `username` VARCHAR(32), `experience` BIGINT)");
+                statement.execute("INSERT INTO `players` VALUES (1, 'Senither', 9), (2, 'Ava', 10), (3, 'base64:QWxleGlz', 2)");
+            }
+
+            Collection collection;
+            try (Statement statement = connection.createStatement()) {
+                collection = new Collection(statement.executeQuery("SELECT * FROM `players`"));
+            }
+
+            assertEquals(3, collection.size());
+
+            DataRow row = collection.first();
+            assertEquals(1, row.getInt("id"));
+            assertEquals(9L, row.getLong("EXPERIENCE"));
+            assertEquals("9", row.getString("experience"));
+            assertEquals("Senither", row.getString("username"));
+            assertEquals("Alexis", collection.last().getString("username"));
+
+            assertEquals(1, collection.where("id", 2).size());
+            assertTrue(collection.contains("Ava"));
+        }
+    }
+
+    @Test
+    public void testRawResultSetRowsAreStrings() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE `players` (`id` BIGINT, `username` VARCHAR(32))");
+                statement.execute("INSERT INTO `players` VALUES (88739639380172800, 'Senither')");
+            }
+
+            Collection collection;
+            try (Statement statement = connection.createStatement()) {
+                collection = new Collection(statement.executeQuery("SELECT * FROM `players`"));
+            }
+
+            assertEquals("88739639380172800", collection.first().getRaw().get("id"));
+            assertEquals("[{\"id\":\"88739639380172800\",\"username\":\"Senither\"}]", collection.toJson());
+        }
+    }
+
+    @Test
+    public void testSortByComparesTheActualValues() {
+        Collection collection = new Collection(makeRows(9, 10, 2, 100));
+
+        collection.sortBy("experience");
+        assertEquals(2, collection.get(0).getInt("experience"));
+        assertEquals(9, collection.get(1).getInt("experience"));
+        assertEquals(10, collection.get(2).getInt("experience"));
+        assertEquals(100, collection.get(3).getInt("experience"));
+
+        collection.sortByDesc("experience");
+        assertEquals(100, collection.first().getInt("experience"));
+        assertEquals(2, collection.last().getInt("experience"));
+    }
+
+    @Test
+    public void testCopiedRowsKeepTheirValues() {
+        Collection collection = new Collection(makeRows(5));
+        Collection copy = collection.copy();
+
+        assertEquals(collection.first().getRaw(), copy.first().getRaw());
+        assertNotSame(collection.first(), copy.first());
+    }
+
+    private List<Map<String, Object>> makeRows(int... experience) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+
+        for (int value : experience) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("experience", value);
+            rows.add(row);
+        }
+
+        return rows;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.database;
+
+import com.avairebot.BaseTest;
+import com.avairebot.database.pool.ConnectionPool;
+import com.avairebot.database.pool.PoolOptions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTests extends BaseTest {
+
+    private final List<Connection> opened = Collections.synchronizedList(new ArrayList<>());
+
+    private File file;
+    private ConnectionPool pool;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("avaire-pool", ".sqlite");
+        file.deleteOnExit();
+    }
+
+    @After
+    public void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+        file.delete();
+    }
+
+    @Test
+    public void testConnectionsAreReturnedToThePoolWhenClosed() throws Exception {
+        pool = makePool(new PoolOptions().setMinimumIdle(0).setMaximumPoolSize(2));
+
+        try (Connection connection = pool.borrow()) {
+            assertEquals(1, pool.getActiveConnections());
+            assertEquals(0, pool.getIdleConnections());
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE `test` (`id` INTEGER)");
+            }
+        }
+
+        assertEquals(0, pool.getActiveConnections());
+        assertEquals(1, pool.getIdleConnections());
+
+        try (Connection connection = pool.borrow();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM `test`")) {
+            assertTrue(result.next());
+        }
+
+        assertEquals(1, opened.size());
+    }
+
+    @Test
+    public void testReturnedConnectionsCanNotBeUsed() throws Exception {
+        pool = makePool(new PoolOptions().setMinimumIdle(0).setMaximumPoolSize(1));
+
+        Connection connection = pool.borrow();
+        connection.close();
+
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, connection::createStatement);
+    }
+
+    @Test
+    public void testPoolNeverExceedsTheMaximumSize() throws Exception {
+        pool = makePool(new PoolOptions().setMinimumIdle(0).setMaximumPoolSize(2).setConnectionTimeout(250));
+
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+
+        assertThrows(SQLTimeoutException.class, pool::borrow);
+        assertEquals(2, pool.getTotalConnections());
+
+        first.close();
+
+        try (Connection third = pool.borrow()) {
+            assertFalse(third.isClosed());
+        }
+
+        second.close();
+        assertEquals(2, opened.size());
+    }
+
+    @Test
+    public void testBrokenConnectionsAreReplacedOnBorrow() throws Exception {
+        pool = makePool(new PoolOptions().setMinimumIdle(0).setMaximumPoolSize(1).setValidationBypass(0));
+
+        pool.borrow().close();
+        opened.get(0).close();
+
+        try (Connection connection = pool.borrow()) {
+            assertTrue(connection.isValid(1));
+        }
+
+        assertEquals(2, opened.size());
+        assertEquals(1, pool.getTotalConnections());
+    }
+
+    @Test
+    public void testIdleConnectionsAreEvicted() throws Exception {
+        pool = makePool(new PoolOptions()
+            .setMinimumIdle(1)
+            .setMaximumPoolSize(3)
+            .setIdleTimeout(100)
+            .setEvictionInterval(100)
+        );
+
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+        Connection third = pool.borrow();
+
+        first.close();
+        second.close();
+        third.close();
+
+        assertEquals(3, pool.getTotalConnections());
+
+        Thread.sleep(500);
+
+        assertEquals(1, pool.getTotalConnections());
+        assertEquals(1, pool.getIdleConnections());
+    }
+
+    private ConnectionPool makePool(PoolOptions options) {
+        return new ConnectionPool("test", () -> {
+            Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+            opened.add(connection);
+
+            return connection;
+        }, options);
+    }
+}
@@ -23,10 +23,13 @@ package com.avairebot.database;
 
 import com.avairebot.BaseTest;
 import com.avairebot.database.fakes.FakeDatabaseManager;
+import com.avairebot.database.query.CompiledQuery;
 import com.avairebot.database.query.QueryBuilder;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class QueryBuilderTests extends BaseTest {
@@ -96,6 +99,36 @@ public class QueryBuilderTests extends BaseTest {
         );
     }
 
+    @Test
+    public void testCompiledWhereClausesUsePlaceholders() throws Exception {
+        CompiledQuery query = makeQuery().where("something", "something else")
+            .andWhere("permission_level", ">", 9001)
+            .compile();
+
+        assertEquals("SELECT * FROM `test` WHERE `something` = ? AND `permission_level` > ?;", query.getQuery());
+        assertEquals(Arrays.asList("something else", 9001), query.getBindings());
+    }
+
+    @Test
+    public void testCompiledNestedWhereClausesKeepTheirBindingOrder() throws Exception {
+        CompiledQuery query = makeQuery().where("test", "thing")
+            .where(builder -> {
+                builder.where("role", "admin")
+                    .orWhere("permission_level", ">", 9001);
+            }).compile();
+
+        assertEquals("SELECT * FROM `test` WHERE `test` = ? AND (`role` = ? OR `permission_level` > ?);", query.getQuery());
+        assertEquals(Arrays.asList("thing", "admin", 9001), query.getBindings());
+    }
+
+    @Test
+    public void testQueriesWithTheSameShapeCompileToTheSameQuery() throws Exception {
+        assertEquals(
+            makeQuery().where("id", "123").compile().getQuery(),
+            makeQuery().where("id", "it's something else").compile().getQuery()
+        );
+    }
+
     private QueryBuilder makeQuery() {
         return dbm.newQueryBuilder("test");
     }
@@ -23,6 +23,7 @@ package com.avairebot.database.fakes;
 
 import com.avairebot.contracts.database.StatementInterface;
 import com.avairebot.contracts.database.connections.FilenameDatabase;
+import com.avairebot.contracts.database.grammar.TableGrammar;
 import com.avairebot.database.DatabaseManager;
 import com.avairebot.database.grammar.mysql.Create;
 import com.avairebot.database.grammar.mysql.Delete;
@@ -34,6 +35,7 @@ import com.avairebot.database.schema.Blueprint;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Map;
 
@@ -48,6 +50,28 @@ public class FakeMySQLConnection extends FilenameDatabase {
         return false;
     }
 
+    @Override
+    protected Connection createConnection() throws SQLException {
+        return null;
+    }
+
+    @Override
+    protected TableGrammar createGrammar(QueryType type) {
+        switch (type) {
+            case INSERT:
+                return new Insert();
+
+            case UPDATE:
+                return new Update();
+
+            case DELETE:
+                return new Delete();
+
+            default:
+                return new Select();
+        }
+    }
+
     @Override
     protected void queryValidation(StatementInterface paramStatement) throws SQLException {
 
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.database.writer;
+
+import com.avairebot.BaseTest;
+import com.avairebot.contracts.database.Database.QueryType;
+import com.avairebot.database.fakes.FakeDatabaseManager;
+import com.avairebot.database.query.QueryBuilder;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteBehindQueueTests extends BaseTest {
+
+    @Test
+    public void testWritesWithTheSameShapeAreBatchedTogether() {
+        List<List<WriteBehindQueue.Batch>> rounds = WriteBehindQueue.plan(Arrays.asList(
+            update("guilds", key("id", "1"), "UPDATE guilds SET name = ?"),
+            update("guilds", key("id", "2"), "UPDATE guilds SET name = ?"),
+            update("users", key("id", "1"), "UPDATE users SET name = ?"),
+            update("guilds", key("id", "3"), "UPDATE guilds SET name = ?")
+        ));
+
+        assertEquals(1, rounds.size());
+        assertEquals(2, rounds.get(0).size());
+        assertEquals(3, rounds.get(0).get(0).writes.size());
+        assertEquals(1, rounds.get(0).get(1).writes.size());
+    }
+
+    @Test
+    public void testWritesToTheSameRowAreKeptInOrder() {
+        PendingWrite first = update("guilds", key("id", "1"), "UPDATE guilds SET name = ?");
+        PendingWrite second = update("guilds", key("id", "1"), "UPDATE guilds SET roles_data = ?");
+        PendingWrite third = update("guilds", key("id", "1"), "UPDATE guilds SET name = ?");
+
+        List<List<WriteBehindQueue.Batch>> rounds = WriteBehindQueue.plan(Arrays.asList(first, second, third));
+
+        assertEquals(2, rounds.size());
+        assertSame(first, rounds.get(0).get(0).writes.get(0));
+        assertSame(second, rounds.get(0).get(1).writes.get(0));
+        assertSame(third, rounds.get(1).get(0).writes.get(0));
+    }
+
+    @Test
+    public void testWritesWithoutRowKeyAreKeptInOrderWithTheirTable() {
+        PendingWrite insert = write(QueryType.INSERT, "guilds", null, "INSERT INTO guilds (id) VALUES (?)");
+        PendingWrite update = update("guilds", key("id", "1"), "UPDATE guilds SET name = ?");
+        PendingWrite otherTable = update("users", key("id", "1"), "UPDATE users SET name = ?");
+        PendingWrite secondInsert = write(QueryType.INSERT, "guilds", null, "INSERT INTO guilds (id) VALUES (?)");
+
+        List<List<WriteBehindQueue.Batch>> rounds = WriteBehindQueue.plan(Arrays.asList(insert, update, otherTable, secondInsert));
+
+        assertEquals(2, rounds.size());
+        assertEquals(3, rounds.get(0).size());
+        assertSame(secondInsert, rounds.get(1).get(0).writes.get(0));
+    }
+
+    @Test
+    public void testUpdatesCanJoinEarlierBatchesWhenTheirRowsAreUntouched() {
+        PendingWrite first = update("guilds", key("id", "1"), "UPDATE guilds SET name = ?");
+        PendingWrite second = update("guilds", key("id", "2"), "UPDATE guilds SET roles_data = ?");
+        PendingWrite third = update("guilds", key("id", "3"), "UPDATE guilds SET name = ?");
+
+        List<List<WriteBehindQueue.Batch>> rounds = WriteBehindQueue.plan(Arrays.asList(first, second, third));
+
+        assertEquals(1, rounds.size());
+        assertEquals(Arrays.asList(first, third), rounds.get(0).get(0).writes);
+    }
+
+    @Test
+    public void testRowKeyIsOnlyCreatedForSimpleWhereClauses() {
+        FakeDatabaseManager dbm = new FakeDatabaseManager();
+
+        assertEquals(key("id", "1", "type", "2"), PendingWrite.createRowKey(
+            dbm.newQueryBuilder("guilds").where("type", 2).andWhere("id", 1)
+        ));
+
+        assertNull(PendingWrite.createRowKey(dbm.newQueryBuilder("guilds").where("id", 1).orWhere("id", 2)));
+        assertNull(PendingWrite.createRowKey(dbm.newQueryBuilder("guilds").where("level", ">", 5)));
+        assertNull(PendingWrite.createRowKey(dbm.newQueryBuilder("guilds")));
+        assertNull(PendingWrite.createRowKey(dbm.newQueryBuilder("guilds").where("id", 1).andWhere("id", 2)));
+    }
+
+    @Test
+    public void testWritesToOverlappingRowsAreKeptInOrder() {
+        PendingWrite first = update("experiences", key("user_id", "1"), "UPDATE experiences SET username = ?");
+        PendingWrite second = update("experiences", key("guild_id", "2", "user_id", "1"), "UPDATE experiences SET experience = ?");
+        PendingWrite third = update("experiences", key("user_id", "1"), "UPDATE experiences SET username = ?");
+
+        List<List<WriteBehindQueue.Batch>> rounds = WriteBehindQueue.plan(Arrays.asList(first, second, third));
+
+        assertEquals(2, rounds.size());
+        assertSame(third, rounds.get(1).get(0).writes.get(0));
+    }
+
+    @Test
+    public void testWritesToDisjointRowsCanJoinEarlierBatches() {
+        PendingWrite first = update("experiences", key("user_id", "1"), "UPDATE experiences SET username = ?");
+        PendingWrite second = update("experiences", key("guild_id", "2", "user_id", "2"), "UPDATE experiences SET experience = ?");
+        PendingWrite third = update("experiences", key("user_id", "3"), "UPDATE experiences SET username = ?");
+
+        List<List<WriteBehindQueue.Batch>> rounds = WriteBehindQueue.plan(Arrays.asList(first, second, third));
+
+        assertEquals(1, rounds.size());
+        assertEquals(Arrays.asList(first, third), rounds.get(0).get(0).writes);
+    }
+
+    @Test
+    public void testWritesAreRetriedOneByOneWhenEveryBatchCountFailed() {
+        List<String> executed = new ArrayList<>();
+        Connection connection = connection(executed, new int[]{
+            Statement.EXECUTE_FAILED, Statement.EXECUTE_FAILED, Statement.EXECUTE_FAILED
+        });
+
+        WriteBehindQueue.Batch batch = new WriteBehindQueue.Batch("UPDATE guilds SET name = ?");
+        batch.writes.add(update("guilds", key("id", "1"), "UPDATE guilds SET name = 'first' WHERE id = 1"));
+        batch.writes.add(update("guilds", key("id", "2"), "UPDATE guilds SET name = 'bad' WHERE id = 2"));
+        batch.writes.add(update("guilds", key("id", "3"), "UPDATE guilds SET name = 'third' WHERE id = 3"));
+
+        WriteBehindQueue queue = new WriteBehindQueue(new FakeDatabaseManager(), new WriteBehindOptions());
+
+        assertEquals(2, queue.executeBatch(connection, batch));
+        assertEquals(Arrays.asList(
+            "UPDATE guilds SET name = 'first' WHERE id = 1",
+            "UPDATE guilds SET name = 'third' WHERE id = 3"
+        ), executed);
+    }
+
+    @Test
+    public void testOnlyWritesAfterTheFailedWriteAreRetriedWhenTheBatchStopped() {
+        List<String> executed = new ArrayList<>();
+        Connection connection = connection(executed, new int[]{1});
+
+        WriteBehindQueue.Batch batch = new WriteBehindQueue.Batch("UPDATE guilds SET name = ?");
+        batch.writes.add(update("guilds", key("id", "1"), "UPDATE guilds SET name = 'first' WHERE id = 1"));
+        batch.writes.add(update("guilds", key("id", "2"), "UPDATE guilds SET name = 'bad' WHERE id = 2"));
+        batch.writes.add(update("guilds", key("id", "3"), "UPDATE guilds SET name = 'third' WHERE id = 3"));
+
+        WriteBehindQueue queue = new WriteBehindQueue(new FakeDatabaseManager(), new WriteBehindOptions());
+
+        assertEquals(2, queue.executeBatch(connection, batch));
+        assertEquals(Collections.singletonList("UPDATE guilds SET name = 'third' WHERE id = 3"), executed);
+    }
+
+    private PendingWrite update(String table, Map<String, String> rowKey, String query) {
+        return write(QueryType.UPDATE, table, rowKey, query);
+    }
+
+    private PendingWrite write(QueryType type, String table, Map<String, String> rowKey, String query) {
+        return new PendingWrite(type, table, rowKey, query, null);
+    }
+
+    private Map<String, String> key(String... columns) {
+        Map<String, String> key = new TreeMap<>();
+        for (int i = 0; i < columns.length; i += 2) {
+            key.put(columns[i], columns[i + 1]);
+        }
+        return key;
+    }
+
+    /**
+     * Creates a connection where executing a batch fails with the given update
+     * counts, while single writes succeeds, unless the query contains "bad",
+     * the queries executed one by one are added to the given list.
+     */
+    private Connection connection(List<String> executed, int[] batchCounts) {
+        Statement statement = (Statement) Proxy.newProxyInstance(
+            Statement.class.getClassLoader(), new Class[]{Statement.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "executeBatch":
+                        throw new BatchUpdateException("Batch failed", batchCounts);
+
+                    case "executeUpdate":
+                        if (((String) args[0]).contains("bad")) {
+                            throw new SQLException("Bad write");
+                        }
+                        executed.add((String) args[0]);
+                        return 1;
+                }
+                return null;
+            });
+
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class[]{Connection.class}, (proxy, method, args) -> {
+                if (method.getName().equals("createStatement")) {
+                    return statement;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.handlers;
+
+import com.avairebot.BaseTest;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandExecutorTests extends BaseTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private CommandExecutor executor;
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testGuildCannotOccupyMoreThanItsShareOfWorkers() throws InterruptedException {
+        executor = new CommandExecutor(4, 2, 100, 100);
+        AtomicInteger started = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            assertNull(executor.submit(1L, blockingTask(started)));
+        }
+
+        waitFor(() -> started.get() == 2);
+        assertEquals(2, executor.getRunning());
+        assertEquals(3, executor.getQueued());
+
+        // Another guild can still use the remaining workers.
+        assertNull(executor.submit(2L, blockingTask(started)));
+        waitFor(() -> started.get() == 3);
+        assertEquals(3, executor.getRunning());
+    }
+
+    @Test
+    public void testCommandsAreRejectedOnceTheQueuesAreFull() throws InterruptedException {
+        executor = new CommandExecutor(1, 1, 2, 1);
+        AtomicInteger started = new AtomicInteger();
+
+        assertNull(executor.submit(1L, blockingTask(started)));
+        waitFor(() -> started.get() == 1);
+
+        assertNull(executor.submit(1L, blockingTask(started)));
+        assertEquals(CommandExecutor.RejectReason.GUILD_QUEUE_FULL, executor.submit(1L, blockingTask(started)));
+
+        assertNull(executor.submit(2L, blockingTask(started)));
+        assertEquals(CommandExecutor.RejectReason.QUEUE_FULL, executor.submit(3L, blockingTask(started)));
+    }
+
+    @Test
+    public void testGuildsTakeTurnsRunningTheirCommands() throws InterruptedException {
+        executor = new CommandExecutor(1, 1, 100, 100);
+        List<Long> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch finished = new CountDownLatch(7);
+
+        AtomicInteger started = new AtomicInteger();
+        assertNull(executor.submit(0L, blockingTask(started)));
+        waitFor(() -> started.get() == 1);
+
+        for (int i = 0; i < 3; i++) {
+            executor.submit(1L, () -> {
+                order.add(1L);
+                finished.countDown();
+            });
+        }
+        for (int i = 0; i < 3; i++) {
+            executor.submit(2L, () -> {
+                order.add(2L);
+                finished.countDown();
+            });
+        }
+        executor.submit(3L, () -> {
+            order.add(3L);
+            finished.countDown();
+        });
+
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+
+        assertEquals(Arrays.asList(1L, 2L, 3L, 1L, 2L, 1L, 2L), order);
+    }
+
+    @Test
+    public void testShutdownWaitsForTheRunningCommandsToFinish() throws InterruptedException {
+        executor = new CommandExecutor(1, 1, 100, 100);
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger finished = new AtomicInteger();
+
+        assertNull(executor.submit(1L, () -> {
+            started.incrementAndGet();
+            try {
+                Thread.sleep(250);
+            } catch (InterruptedException e) {
+                return;
+            }
+            finished.incrementAndGet();
+        }));
+        waitFor(() -> started.get() == 1);
+
+        executor.shutdown(5000);
+        assertEquals(1, finished.get());
+    }
+
+    private Runnable blockingTask(AtomicInteger started) {
+        return () -> {
+            started.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private void waitFor(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.test()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for the condition to be met");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private interface Condition {
+        boolean test();
+    }
+}
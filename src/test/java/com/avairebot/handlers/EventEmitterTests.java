@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.handlers;
+
+import com.avairebot.BaseTest;
+import com.avairebot.contracts.handlers.EventListener;
+import com.avairebot.handlers.events.ApplicationShutdownEvent;
+import com.avairebot.handlers.events.NowPlayingEvent;
+import net.dv8tion.jda.core.events.Event;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventEmitterTests extends BaseTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private EventEmitter emitter;
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        if (emitter != null) {
+            emitter.shutdown(1000);
+        }
+    }
+
+    @Test
+    public void testListenersAreOnlyIndexedForEventsTheyHandle() {
+        emitter = new EventEmitter(false, 1, 10);
+        emitter.register(new ShutdownListener(new CopyOnWriteArrayList<>()));
+        emitter.register(new EventListener() {
+            // Doesn't handle any events
+        });
+
+        assertEquals(1, emitter.getListenerCount(ApplicationShutdownEvent.class));
+        assertEquals(0, emitter.getListenerCount(NowPlayingEvent.class));
+    }
+
+    @Test
+    public void testRegisteringTheSameListenerTwiceIsIgnored() {
+        emitter = new EventEmitter(false, 1, 10);
+
+        ShutdownListener listener = new ShutdownListener(new CopyOnWriteArrayList<>());
+        emitter.register(listener);
+        emitter.register(listener);
+
+        assertEquals(1, emitter.getListenerCount(ApplicationShutdownEvent.class));
+    }
+
+    @Test
+    public void testEventsAreDeliveredInOrderPerListener() {
+        emitter = new EventEmitter(true, 4, 100);
+
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        emitter.register(new EventListener() {
+            @Override
+            public void onGenericEvent(Event event) {
+                received.add(((SequenceEvent) event).sequence);
+            }
+        });
+
+        for (int i = 0; i < 50; i++) {
+            emitter.push(new SequenceEvent(i));
+        }
+        emitter.shutdown(1000);
+
+        assertEquals(50, received.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, (int) received.get(i));
+        }
+    }
+
+    @Test
+    public void testSlowListenerDoesNotBlockThePushOrOtherListeners() throws InterruptedException {
+        emitter = new EventEmitter(true, 2, 100);
+
+        CountDownLatch delivered = new CountDownLatch(1);
+        emitter.register(new EventListener() {
+            @Override
+            public void onApplicationShutdown(ApplicationShutdownEvent event) {
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                    //
+                }
+            }
+        });
+        emitter.register(new EventListener() {
+            @Override
+            public void onApplicationShutdown(ApplicationShutdownEvent event) {
+                delivered.countDown();
+            }
+        });
+
+        long start = System.currentTimeMillis();
+        emitter.push(new ApplicationShutdownEvent(null, 0));
+
+        assertTrue(System.currentTimeMillis() - start < 500);
+        assertTrue(delivered.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailingListenerDoesNotAffectOtherListeners() {
+        emitter = new EventEmitter(false, 1, 10);
+
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        emitter.register(new EventListener() {
+            @Override
+            public void onApplicationShutdown(ApplicationShutdownEvent event) {
+                throw new RuntimeException("Failing listener");
+            }
+        });
+        emitter.register(new ShutdownListener(received));
+
+        emitter.push(new ApplicationShutdownEvent(null, 0));
+
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    public void testEventsPastTheQueueLimitAreDropped() {
+        emitter = new EventEmitter(true, 1, 2);
+
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        emitter.register(new EventListener() {
+            @Override
+            public void onApplicationShutdown(ApplicationShutdownEvent event) {
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                    //
+                }
+                received.add(event.getExitCode());
+            }
+        });
+
+        for (int i = 0; i < 10; i++) {
+            emitter.push(new ApplicationShutdownEvent(null, 0));
+        }
+        release.countDown();
+        emitter.shutdown(1000);
+
+        // One event is being delivered while two are waiting in the queue.
+        assertTrue(received.size() <= 3);
+        assertTrue(received.size() >= 2);
+    }
+
+    private static class SequenceEvent extends Event {
+
+        private final int sequence;
+
+        SequenceEvent(int sequence) {
+            super(null);
+
+            this.sequence = sequence;
+        }
+    }
+
+    private static class ShutdownListener extends EventListener {
+
+        private final List<Integer> received;
+
+        ShutdownListener(List<Integer> received) {
+            this.received = received;
+        }
+
+        @Override
+        public void onApplicationShutdown(ApplicationShutdownEvent event) {
+            received.add(event.getExitCode());
+        }
+    }
+}
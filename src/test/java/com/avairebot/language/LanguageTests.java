@@ -27,6 +27,10 @@ import org.junit.jupiter.api.Test;
 import org.opentest4j.AssertionFailedError;
 
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -94,6 +98,42 @@ public class LanguageTests extends BaseTest {
         assertEquals(I18n.format("$"), "$");
     }
 
+    @Test
+    public void testLanguageFormattingReusesCompiledFormats() {
+        I18n.formats.invalidateAll();
+
+        assertEquals(I18n.format("Hello, {0}'s {1}", "Ava", "world"), "Hello, Ava's world");
+        assertEquals(I18n.format("Hello, {0}'s {1}", "Alexis", "bot"), "Hello, Alexis's bot");
+        assertEquals(I18n.format("Hello, {0}'s {1}", "Ava"), "Hello, Ava's {1}");
+        assertEquals(1, I18n.formats.size());
+    }
+
+    @Test
+    public void testLanguageFormattingCanBeUsedConcurrently() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger failures = new AtomicInteger();
+
+        for (int i = 0; i < 2000; i++) {
+            String name = "user-" + i;
+            executor.execute(() -> {
+                if (!I18n.format("Hello, {0}'s {1}", name, "world").equals("Hello, " + name + "'s world")) {
+                    failures.incrementAndGet();
+                }
+            });
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(0, failures.get());
+    }
+
+    @Test
+    public void testLocalesAreResolvedByLanguage() {
+        for (Language language : Language.values()) {
+            assertEquals(language, I18n.getLocale(language).getLanguage());
+        }
+    }
+
     private Set<String> getKeys(LanguageHolder locale) {
         return locale.getConfig().getKeys(true);
     }
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package com.avairebot.level;
+
+import com.avairebot.BaseTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GlobalLeaderboardTests extends BaseTest {
+
+    private File database;
+
+    @Before
+    public void setUp() throws Exception {
+        database = File.createTempFile("avaire-leaderboard", ".db");
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            // WAL lets a connection keep reading from its snapshot
+            // while another connection commits new experience.
+            statement.execute("PRAGMA journal_mode=WAL;");
+            statement.execute("CREATE TABLE `experiences` (`user_id` VARCHAR(32), `guild_id` VARCHAR(32), `experience` INTEGER)");
+            statement.execute("INSERT INTO `experiences` VALUES ('1', '10', 600), ('1', '20', 200), ('2', '10', 500), ('not-a-user', '10', 9000)");
+        }
+    }
+
+    @After
+    public void tearDown() {
+        for (String suffix : new String[]{"", "-wal", "-shm"}) {
+            new File(database.getPath() + suffix).delete();
+        }
+    }
+
+    @Test
+    public void testRebuildLoadsTheTotalExperienceAndSkipsInvalidUserIds() throws Exception {
+        GlobalLeaderboard leaderboard = new GlobalLeaderboard();
+
+        try (Connection connection = connect()) {
+            leaderboard.rebuild(connection, null);
+        }
+
+        RankIndex index = leaderboard.getIndex();
+        assertNotNull(index);
+        assertEquals(2, index.size());
+        assertEquals(700L, index.get(1).getExperience());
+        assertEquals(500L, index.get(2).getExperience());
+        assertFalse(leaderboard.shouldRebuild());
+    }
+
+    @Test
+    public void testDeltasCommittedAfterTheSnapshotAreMergedIntoTheRebuiltIndex() throws Exception {
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        GlobalLeaderboard leaderboard = new GlobalLeaderboard() {
+            @Override
+            void load(Connection connection, RankIndex index, int fetchSize) throws SQLException {
+                // Flushes experience from another thread after the snapshot was
+                // taken, but before any of the rows have been loaded from it.
+                Thread flush = new Thread(() -> {
+                    try (Connection writer = connect()) {
+                        writer.setAutoCommit(false);
+                        try (Statement statement = writer.createStatement()) {
+                            statement.execute("UPDATE `experiences` SET `experience` = `experience` + 250 WHERE `user_id` = '2' AND `guild_id` = '10'");
+                        }
+                        commit(writer, Collections.singletonList(new ExperienceEntity(2, 10, 250)));
+                    } catch (Exception e) {
+                        failure.set(e);
+                    }
+                });
+
+                flush.start();
+                try {
+                    flush.join();
+                } catch (InterruptedException e) {
+                    throw new SQLException(e);
+                }
+
+                super.load(connection, index, fetchSize);
+            }
+        };
+
+        try (Connection connection = connect()) {
+            leaderboard.rebuild(connection, "SELECT COUNT(*) FROM `experiences`;");
+        }
+
+        assertNull(failure.get());
+
+        RankIndex index = leaderboard.getIndex();
+        assertNotNull(index);
+        assertEquals(750L, index.get(2).getExperience());
+        assertEquals(1, index.getRank(2));
+        assertEquals(2, index.getRank(1));
+    }
+
+    @Test
+    public void testFailingToApplyCommittedDeltasMarksTheLeaderboardAsStale() throws Exception {
+        GlobalLeaderboard leaderboard = new GlobalLeaderboard();
+
+        try (Connection connection = connect()) {
+            leaderboard.rebuild(connection, null);
+            assertFalse(leaderboard.shouldRebuild());
+
+            connection.setAutoCommit(false);
+
+            // The null entity makes applying the deltas fail after they've been committed.
+            leaderboard.commit(connection, Arrays.asList(new ExperienceEntity(1, 10, 50), null));
+        }
+
+        assertTrue(leaderboard.shouldRebuild());
+        assertNotNull(leaderboard.getIndex());
+    }
+
+    @Test
+    public void testDeltasAreNotAppliedIfTheCommitFails() throws Exception {
+        GlobalLeaderboard leaderboard = new GlobalLeaderboard();
+
+        Connection connection = connect();
+        leaderboard.rebuild(connection, null);
+        connection.close();
+
+        assertThrows(SQLException.class, () -> leaderboard.commit(
+            connection, Collections.singletonList(new ExperienceEntity(1, 10, 50))
+        ));
+
+        assertEquals(700L, leaderboard.getIndex().get(1).getExperience());
+        assertFalse(leaderboard.shouldRebuild());
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection("jdbc:sqlite:" + database.getPath());
+    }
+}
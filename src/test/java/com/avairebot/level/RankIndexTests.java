@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package com.avairebot.level;
+
+import com.avairebot.BaseTest;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RankIndexTests extends BaseTest {
+
+    @Test
+    public void testPlayersWithTiedExperienceAreRankedByTheirUserId() {
+        RankIndex index = new RankIndex();
+        index.set(30, 500);
+        index.set(10, 500);
+        index.set(20, 900);
+        index.set(40, 100);
+
+        assertEquals(1, index.getRank(20));
+        assertEquals(2, index.getRank(10));
+        assertEquals(3, index.getRank(30));
+        assertEquals(4, index.getRank(40));
+        assertEquals(-1, index.getRank(50));
+    }
+
+    @Test
+    public void testCountAboveOnlyCountsPlayersWithMoreExperience() {
+        RankIndex index = new RankIndex();
+        index.set(1, 900);
+        index.set(2, 500);
+        index.set(3, 500);
+        index.set(4, 100);
+
+        assertEquals(0, index.countAbove(1000));
+        assertEquals(0, index.countAbove(900));
+        assertEquals(1, index.countAbove(500));
+        assertEquals(3, index.countAbove(499));
+        assertEquals(4, index.countAbove(0));
+    }
+
+    @Test
+    public void testGetTopIsOrderedAndLimited() {
+        RankIndex index = new RankIndex();
+        index.set(1, 100);
+        index.set(2, 300);
+        index.set(3, 200);
+        index.set(4, 300);
+
+        List<RankIndex.Entry> top = index.getTop(3);
+        assertEquals(3, top.size());
+        assertEquals(2, top.get(0).getUserId());
+        assertEquals(4, top.get(1).getUserId());
+        assertEquals(3, top.get(2).getUserId());
+        assertEquals(200, top.get(2).getExperience());
+
+        assertEquals(4, index.getTop(10).size());
+        assertTrue(index.getTop(0).isEmpty());
+        assertTrue(new RankIndex().getTop(10).isEmpty());
+    }
+
+    @Test
+    public void testSettingTheExperienceMovesThePlayer() {
+        RankIndex index = new RankIndex();
+        index.set(1, 100);
+        index.set(2, 200);
+
+        index.set(1, 300);
+
+        assertEquals(2, index.size());
+        assertEquals(1, index.getRank(1));
+        assertEquals(300, index.get(1).getExperience());
+    }
+
+    @Test
+    public void testIncrementAddsMissingPlayersWithTheInitialExperience() {
+        RankIndex index = new RankIndex();
+        index.increment(1, 50, 100);
+
+        assertEquals(150, index.get(1).getExperience());
+
+        index.increment(1, 50, 100);
+        assertEquals(200, index.get(1).getExperience());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testRemovingMissingPlayersDoesNothing() {
+        RankIndex index = new RankIndex();
+        index.set(1, 100);
+
+        index.remove(2);
+        assertEquals(1, index.size());
+
+        index.remove(1);
+        index.remove(1);
+        assertEquals(0, index.size());
+        assertNull(index.get(1));
+        assertEquals(-1, index.getRank(1));
+    }
+
+    @Test
+    public void testGuildRankIndexKeepsItsGuildId() {
+        GuildRankIndex index = new GuildRankIndex(284101835685150720L);
+        index.set(1, 100);
+
+        assertEquals(284101835685150720L, index.getGuildId());
+        assertEquals(1, index.getRank(1));
+    }
+
+    @Test
+    public void testIndexMatchesASortedListAfterRandomChanges() {
+        Random random = new Random(1337);
+        RankIndex index = new GuildRankIndex(1);
+        Map<Long, Long> players = new HashMap<>();
+
+        for (int i = 0; i < 5000; i++) {
+            long userId = random.nextInt(500);
+
+            switch (random.nextInt(3)) {
+                case 0:
+                    long experience = random.nextInt(1000);
+                    index.set(userId, experience);
+                    players.put(userId, experience);
+                    break;
+
+                case 1:
+                    index.increment(userId, 25, 100);
+                    players.put(userId, players.getOrDefault(userId, 100L) + 25);
+                    break;
+
+                default:
+                    index.remove(userId);
+                    players.remove(userId);
+            }
+        }
+
+        List<Map.Entry<Long, Long>> sorted = new ArrayList<>(players.entrySet());
+        sorted.sort((a, b) -> a.getValue().equals(b.getValue())
+            ? Long.compare(a.getKey(), b.getKey())
+            : Long.compare(b.getValue(), a.getValue())
+        );
+
+        assertEquals(players.size(), index.size());
+
+        List<RankIndex.Entry> top = index.getTop(players.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            long userId = sorted.get(i).getKey();
+
+            assertEquals(userId, top.get(i).getUserId());
+            assertEquals(i + 1, index.getRank(userId));
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.requests;
+
+import com.avairebot.BaseTest;
+import com.avairebot.contracts.async.Future;
+import com.avairebot.factories.RequestFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestCacheTests extends BaseTest {
+
+    private final AtomicInteger cachedHits = new AtomicInteger(0);
+    private final AtomicInteger uncachedHits = new AtomicInteger(0);
+
+    private HttpServer server;
+    private File cacheDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheDirectory = Files.createTempDirectory("avaire-http-cache").toFile();
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/cached", exchange -> {
+            cachedHits.incrementAndGet();
+            exchange.getResponseHeaders().add("Cache-Control", "public, max-age=60");
+            respond(exchange, "cached");
+        });
+        server.createContext("/uncached", exchange -> {
+            uncachedHits.incrementAndGet();
+            exchange.getResponseHeaders().add("Cache-Control", "no-cache, no-store");
+            respond(exchange, "uncached");
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        deleteRecursively(cacheDirectory);
+    }
+
+    @Test
+    public void testResponsesAreCachedWhenTheServerAllowsIt() throws Exception {
+        OkHttpClient client = makeClient(new RequestOptions());
+
+        assertEquals("cached", get(client, "/cached"));
+        assertEquals("cached", get(client, "/cached"));
+
+        assertEquals(1, cachedHits.get());
+    }
+
+    @Test
+    public void testResponsesAreNotCachedWhenTheServerDisallowsIt() throws Exception {
+        OkHttpClient client = makeClient(new RequestOptions());
+
+        assertEquals("uncached", get(client, "/uncached"));
+        assertEquals("uncached", get(client, "/uncached"));
+
+        assertEquals(2, uncachedHits.get());
+    }
+
+    @Test
+    public void testCacheTtlOverridesTheServerCacheHeaders() throws Exception {
+        OkHttpClient client = makeClient(new RequestOptions().setCacheTtl("127.0.0.1", 60));
+
+        assertEquals("uncached", get(client, "/uncached"));
+        assertEquals("uncached", get(client, "/uncached"));
+
+        assertEquals(1, uncachedHits.get());
+    }
+
+    @Test
+    public void testResponsesAreNotCachedWhenTheCacheIsDisabled() throws Exception {
+        OkHttpClient client = makeClient(new RequestOptions().setCacheSize(0));
+
+        assertEquals("cached", get(client, "/cached"));
+        assertEquals("cached", get(client, "/cached"));
+
+        assertEquals(2, cachedHits.get());
+    }
+
+    @Test
+    public void testRequestsAreSentThroughTheGivenClient() throws Exception {
+        OkHttpClient client = makeClient(new RequestOptions());
+
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<String> body = new AtomicReference<>();
+
+        Future request = new Request(client, url("/cached"), RequestType.GET)
+            .addParameter("term", "hello world");
+
+        request.send((Consumer<Response>) response -> {
+            body.set(response.toString());
+            latch.countDown();
+        }, throwable -> latch.countDown());
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals("cached", body.get());
+        assertEquals(1, cachedHits.get());
+    }
+
+    @Test
+    public void testUnreadResponsesAreReturnedToTheConnectionPool() throws Exception {
+        OkHttpClient client = makeClient(new RequestOptions().setCacheSize(0));
+
+        CountDownLatch latch = new CountDownLatch(1);
+        new Request(client, url("/uncached"), RequestType.GET)
+            .send((Consumer<Response>) response -> latch.countDown(), throwable -> latch.countDown());
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        // The response is closed right after the consumer returns, so we give
+        // the dispatcher thread a moment to hand the connection back.
+        long deadline = System.currentTimeMillis() + 1000;
+        while (client.connectionPool().idleConnectionCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, client.connectionPool().idleConnectionCount());
+    }
+
+    @Test
+    public void testUncachedClientSkipsTheResponseCache() throws Exception {
+        RequestFactory.setup(new RequestOptions().setCacheDirectory(cacheDirectory));
+
+        assertEquals("cached", get(RequestFactory.getUncachedClient(), "/cached"));
+        assertEquals("cached", get(RequestFactory.getUncachedClient(), "/cached"));
+        assertEquals(2, cachedHits.get());
+
+        assertEquals("cached", get(RequestFactory.getClient(), "/cached"));
+        assertEquals("cached", get(RequestFactory.getClient(), "/cached"));
+        assertEquals(3, cachedHits.get());
+    }
+
+    private OkHttpClient makeClient(RequestOptions options) {
+        return RequestFactory.createClient(options.setCacheDirectory(cacheDirectory));
+    }
+
+    private String get(OkHttpClient client, String path) throws IOException {
+        try (okhttp3.Response response = client.newCall(new okhttp3.Request.Builder().url(url(path)).build()).execute()) {
+            return response.body().string();
+        }
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private void deleteRecursively(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.scheduler;
+
+import com.avairebot.BaseTest;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DebouncerTests extends BaseTest {
+
+    @Test
+    public void testBurstIsCoalescedIntoSingleRun() throws InterruptedException {
+        Debouncer<Long> debouncer = new Debouncer<>("test-burst", 100, 5000);
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger lastValue = new AtomicInteger();
+
+        for (int i = 1; i <= 50; i++) {
+            int value = i;
+            debouncer.submit(1L, () -> {
+                runs.incrementAndGet();
+                lastValue.set(value);
+            });
+        }
+
+        Thread.sleep(400);
+
+        assertEquals(1, runs.get());
+        assertEquals(50, lastValue.get());
+        assertEquals(0, debouncer.size());
+    }
+
+    @Test
+    public void testKeysAreDebouncedSeparately() throws InterruptedException {
+        Debouncer<Long> debouncer = new Debouncer<>("test-keys", 100, 5000);
+        AtomicInteger runs = new AtomicInteger();
+
+        for (long key = 0; key < 3; key++) {
+            debouncer.submit(key, runs::incrementAndGet);
+            debouncer.submit(key, runs::incrementAndGet);
+        }
+
+        Thread.sleep(400);
+
+        assertEquals(3, runs.get());
+    }
+
+    @Test
+    public void testMaxDelayIsRespectedWhileSubmitting() throws InterruptedException {
+        Debouncer<Long> debouncer = new Debouncer<>("test-max-delay", 100, 200);
+        AtomicInteger runs = new AtomicInteger();
+
+        long end = System.currentTimeMillis() + 700;
+        while (System.currentTimeMillis() < end) {
+            debouncer.submit(1L, runs::incrementAndGet);
+            Thread.sleep(20);
+        }
+
+        // Without the max delay the key would never go quiet while we're
+        // submitting, so nothing would have been run at this point.
+        assertTrue(runs.get() >= 2);
+    }
+
+    @Test
+    public void testFlushRunsPendingTasks() {
+        Debouncer<Long> debouncer = new Debouncer<>("test-flush", 10000, 10000);
+        AtomicInteger runs = new AtomicInteger();
+
+        debouncer.submit(1L, runs::incrementAndGet);
+        debouncer.submit(2L, runs::incrementAndGet);
+        debouncer.flush();
+
+        assertEquals(2, runs.get());
+        assertEquals(0, debouncer.size());
+    }
+
+    @Test
+    public void testShutdownRunsPendingAndLateTasks() {
+        Debouncer<Long> debouncer = new Debouncer<>("test-shutdown", 10000, 10000);
+        AtomicInteger runs = new AtomicInteger();
+
+        debouncer.submit(1L, runs::incrementAndGet);
+        debouncer.shutdown();
+
+        assertEquals(1, runs.get());
+
+        debouncer.submit(2L, runs::incrementAndGet);
+
+        assertEquals(2, runs.get());
+        assertEquals(0, debouncer.size());
+    }
+}
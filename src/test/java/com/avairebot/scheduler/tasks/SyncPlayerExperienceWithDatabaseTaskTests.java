@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package com.avairebot.scheduler.tasks;
+
+import com.avairebot.BaseTest;
+import com.avairebot.level.ExperienceEntity;
+import com.avairebot.level.LevelManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SyncPlayerExperienceWithDatabaseTaskTests extends BaseTest {
+
+    private final SyncPlayerExperienceWithDatabaseTask task = new SyncPlayerExperienceWithDatabaseTask();
+    private final List<ExperienceEntity> experience = Arrays.asList(
+        new ExperienceEntity(1, 10, 25), new ExperienceEntity(2, 10, 50)
+    );
+
+    private LevelManager levelManager;
+
+    @Before
+    public void setUp() {
+        levelManager = new LevelManager();
+        levelManager.drainExperienceQueue();
+    }
+
+    @After
+    public void tearDown() {
+        levelManager.drainExperienceQueue();
+    }
+
+    @Test
+    public void testNothingIsRequeuedOnceTheBatchIsCommitted() {
+        List<String> calls = new ArrayList<>();
+
+        task.sync(levelManager, connection(calls, Collections.emptyList()), experience);
+
+        assertEquals(Arrays.asList("setAutoCommit(false)", "executeBatch", "commit", "setAutoCommit(true)", "close"), calls);
+        assertTrue(levelManager.getExperienceQueue().isEmpty());
+    }
+
+    @Test
+    public void testNothingIsRequeuedIfCleaningUpFailsAfterTheCommit() {
+        List<String> calls = new ArrayList<>();
+
+        task.sync(levelManager, connection(calls, Arrays.asList("setAutoCommit(true)", "close")), experience);
+
+        assertFalse(calls.contains("rollback"));
+        assertTrue(calls.contains("close"));
+        assertTrue(levelManager.getExperienceQueue().isEmpty());
+    }
+
+    @Test
+    public void testTheBatchIsRolledBackAndRequeuedIfTheCommitFails() {
+        List<String> calls = new ArrayList<>();
+
+        task.sync(levelManager, connection(calls, Collections.singletonList("commit")), experience);
+
+        assertEquals(Arrays.asList("setAutoCommit(false)", "executeBatch", "commit", "rollback", "setAutoCommit(true)", "close"), calls);
+        assertRequeued();
+    }
+
+    @Test
+    public void testTheBatchIsRolledBackAndRequeuedIfTheBatchFails() {
+        List<String> calls = new ArrayList<>();
+
+        task.sync(levelManager, connection(calls, Collections.singletonList("executeBatch")), experience);
+
+        assertEquals(Arrays.asList("setAutoCommit(false)", "executeBatch", "rollback", "setAutoCommit(true)", "close"), calls);
+        assertRequeued();
+    }
+
+    private void assertRequeued() {
+        List<ExperienceEntity> requeued = levelManager.drainExperienceQueue();
+        requeued.sort((a, b) -> Long.compare(a.getUserId(), b.getUserId()));
+
+        assertEquals(2, requeued.size());
+        assertEquals(25, requeued.get(0).getExperience());
+        assertEquals(50, requeued.get(1).getExperience());
+    }
+
+    /**
+     * Creates a connection that starts out in auto commit mode, and records the calls
+     * made to it, and to the statements it prepares, in the given list, the calls
+     * in the failing list throws an exception after they have been recorded.
+     */
+    private Connection connection(List<String> calls, List<String> failing) {
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(
+            PreparedStatement.class.getClassLoader(), new Class[]{PreparedStatement.class}, (proxy, method, args) -> {
+                if (method.getName().equals("executeBatch")) {
+                    record(calls, failing, "executeBatch");
+                    return new int[]{1, 1};
+                }
+                return null;
+            });
+
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class[]{Connection.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getAutoCommit":
+                        return true;
+
+                    case "prepareStatement":
+                        return statement;
+
+                    case "setAutoCommit":
+                        record(calls, failing, "setAutoCommit(" + args[0] + ")");
+                        return null;
+
+                    case "commit":
+                    case "rollback":
+                    case "close":
+                        record(calls, failing, method.getName());
+                        return null;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    private void record(List<String> calls, List<String> failing, String call) throws SQLException {
+        calls.add(call);
+        if (failing.contains(call)) {
+            throw new SQLException(call + " failed");
+        }
+    }
+}
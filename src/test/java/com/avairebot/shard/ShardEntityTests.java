@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.shard;
+
+import com.avairebot.BaseTest;
+import net.dv8tion.jda.core.JDA;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ShardEntityTests extends BaseTest {
+
+    private final Map<Integer, Long> counts = new HashMap<>();
+    private final ShardEntity entity = new ShardEntity(shard -> counts.get(shard.getShardInfo().getShardId()));
+
+    @Test
+    public void testTotalIsTheSumOfEveryShard() {
+        counts.put(0, 10L);
+        counts.put(1, 25L);
+
+        entity.update(createShard(0));
+        entity.update(createShard(1));
+
+        assertEquals(35, entity.getValue());
+        assertEquals(10, entity.getValue(createShard(0)));
+        assertEquals(25, entity.getValue(createShard(1)));
+    }
+
+    @Test
+    public void testUpdatingShardOnlyAppliesTheDifference() {
+        counts.put(0, 10L);
+        counts.put(1, 25L);
+
+        entity.update(createShard(0));
+        entity.update(createShard(1));
+
+        counts.put(0, 12L);
+        entity.update(createShard(0));
+        entity.update(createShard(0));
+
+        counts.put(1, 20L);
+        entity.update(createShard(1));
+
+        assertEquals(32, entity.getValue());
+    }
+
+    @Test
+    public void testRetainRemovesShardsThatNoLongerExists() {
+        counts.put(0, 10L);
+        counts.put(1, 25L);
+        counts.put(2, 5L);
+
+        entity.update(createShard(0));
+        entity.update(createShard(1));
+        entity.update(createShard(2));
+
+        entity.retain(new HashSet<>(Arrays.asList(0, 2)));
+
+        assertEquals(15, entity.getValue());
+    }
+
+    @Test
+    public void testUnknownShardsAreCountedWhenRequested() {
+        counts.put(3, 7L);
+
+        assertEquals(7, entity.getValue(createShard(3)));
+        assertEquals(7, entity.getValue());
+    }
+
+    private JDA createShard(int shardId) {
+        JDA.ShardInfo shardInfo = new JDA.ShardInfo(shardId, 4);
+
+        return (JDA) Proxy.newProxyInstance(JDA.class.getClassLoader(), new Class[]{JDA.class}, (proxy, method, args) -> {
+            if (method.getName().equals("getShardInfo")) {
+                return shardInfo;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+}
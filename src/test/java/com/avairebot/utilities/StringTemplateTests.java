@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2018.
+ *
+ * This file is part of AvaIre.
+ *
+ * AvaIre is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * AvaIre is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with AvaIre.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.avairebot.utilities;
+
+import com.avairebot.BaseTest;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StringTemplateTests extends BaseTest {
+
+    @Test
+    public void testPlaceholdersAreReplacedWithValues() {
+        assertEquals("Hello <@123>, welcome to AvaIre!", StringTemplate.replace(
+            "Hello %user%, welcome to %server%!",
+            new String[]{"%server%", "%user%"},
+            new String[]{"AvaIre", "<@123>"}
+        ));
+    }
+
+    @Test
+    public void testValuesAreInsertedLiterally() {
+        assertEquals("costs $1 \\ day", StringTemplate.replace("costs :price day", ":price", "$1 \\"));
+    }
+
+    @Test
+    public void testOutputMatchesSequentialReplacement() {
+        assertSequential("%user%server%", new String[]{"%user%", "%server%"}, new String[]{"a", "b"});
+        assertSequential("%user%server%", new String[]{"%server%", "%user%"}, new String[]{"%", "b"});
+        assertSequential(":user :username", new String[]{":user", ":username"}, new String[]{"x", "y"});
+        assertSequential(":username :user", new String[]{":username", ":user"}, new String[]{":user", "y"});
+        assertSequential("%ser%server%ver%", new String[]{"%server%", "%ser%"}, new String[]{"%ser", "ver"});
+        assertSequential("a%%b", new String[]{"%", "%%"}, new String[]{"%%", "c"});
+        assertSequential("abc", new String[]{"", "b"}, new String[]{"x", "y"});
+    }
+
+    @Test
+    public void testRandomTemplatesMatchSequentialReplacement() {
+        Random random = new Random(42);
+        String alphabet = "%:ab";
+
+        for (int i = 0; i < 20000; i++) {
+            String[] keys = new String[1 + random.nextInt(3)];
+            String[] values = new String[keys.length];
+            for (int j = 0; j < keys.length; j++) {
+                keys[j] = randomString(random, alphabet, 1 + random.nextInt(4));
+                values[j] = randomString(random, alphabet, random.nextInt(4));
+            }
+
+            assertSequential(randomString(random, alphabet, random.nextInt(16)), keys, values);
+        }
+    }
+
+    private void assertSequential(String template, String[] keys, String[] values) {
+        String expected = template;
+        for (int i = 0; i < keys.length; i++) {
+            expected = expected.replace(keys[i], values[i]);
+        }
+
+        assertEquals(expected, StringTemplate.replace(template, keys, values));
+        assertEquals(expected, StringTemplate.replace(template, keys, values));
+    }
+
+    private String randomString(Random random, String alphabet, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+}